@@ -46,6 +46,7 @@ public class CSVDataSetProviderCDI extends CSVDataSetProvider {
         DataSetDef def = event.getDataSetDef();
         if (DataSetProviderType.CSV.equals(def.getProvider())) {
             staticDataSetProvider.removeDataSet(def.getUUID());
+            staticDataSetProvider.deleteSnapshot(def.getUUID());
         }
     }
 
@@ -53,6 +54,7 @@ public class CSVDataSetProviderCDI extends CSVDataSetProvider {
         DataSetDef def = event.getDataSetDef();
         if (DataSetProviderType.CSV.equals(def.getProvider())) {
             staticDataSetProvider.removeDataSet(def.getUUID());
+            staticDataSetProvider.deleteSnapshot(def.getUUID());
             csvStorage.deleteCSVFile((CSVDataSetDef) def);
         }
     }
@@ -61,6 +63,7 @@ public class CSVDataSetProviderCDI extends CSVDataSetProvider {
         DataSetDef def = event.getOldDataSetDef();
         if (DataSetProviderType.CSV.equals(def.getProvider())) {
             staticDataSetProvider.removeDataSet(def.getUUID());
+            staticDataSetProvider.deleteSnapshot(def.getUUID());
         }
     }
 }
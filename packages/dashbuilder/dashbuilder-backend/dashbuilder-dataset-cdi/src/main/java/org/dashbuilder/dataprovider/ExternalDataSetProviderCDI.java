@@ -26,27 +26,15 @@ public class ExternalDataSetProviderCDI extends ExternalDataSetProvider {
     
 
     protected void onDataSetStaleEvent(@Observes DataSetStaleEvent event) {
-        var def = event.getDataSetDef();
-        if (DataSetProviderType.EXTERNAL.equals(def.getProvider())) {
-            var uuid = def.getUUID();
-            staticDataSetProvider.removeDataSet(uuid);
-        }
+        onDataSetDefStale(event.getDataSetDef());
     }
 
     protected void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent event) {
-        var def = event.getDataSetDef();
-        if (DataSetProviderType.EXTERNAL.equals(def.getProvider())) {
-            var uuid = def.getUUID();
-            staticDataSetProvider.removeDataSet(uuid);
-        }
+        onDataSetDefRemoved(event.getDataSetDef());
     }
 
     protected void onDataSetDefModifiedEvent(@Observes DataSetDefModifiedEvent event) {
-        var def = event.getOldDataSetDef();
-        if (DataSetProviderType.EXTERNAL.equals(def.getProvider())) {
-            var uuid = def.getUUID();
-            staticDataSetProvider.removeDataSet(uuid);
-        }
+        onDataSetDefModified(event.getOldDataSetDef(), event.getNewDataSetDef());
     }
 
 }
\ No newline at end of file
@@ -51,6 +51,7 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
             String uuid = def.getUUID();
             staticDataSetProvider.removeDataSet(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
         }
     }
 
@@ -60,6 +61,7 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
             String uuid = def.getUUID();
             _metadataMap.remove(uuid);
             staticDataSetProvider.removeDataSet(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
         }
     }
 
@@ -69,6 +71,7 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
             String uuid = def.getUUID();
             _metadataMap.remove(uuid);
             staticDataSetProvider.removeDataSet(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
         }
     }
 }
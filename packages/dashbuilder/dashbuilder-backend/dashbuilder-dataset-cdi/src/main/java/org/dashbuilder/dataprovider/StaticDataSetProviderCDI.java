@@ -15,6 +15,7 @@
  */
 package org.dashbuilder.dataprovider;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
 import org.dashbuilder.DataSetCore;
@@ -25,4 +26,9 @@ public class StaticDataSetProviderCDI extends StaticDataSetProvider {
     public StaticDataSetProviderCDI() {
         super(DataSetCore.get().getSharedDataSetOpEngine());
     }
+
+    @PreDestroy
+    public void shutdown() {
+        super.shutdown();
+    }
 }
@@ -102,6 +102,11 @@ public class RuntimeOptions {
      */
     private static final String ALLOW_UPLOAD_PROP = "dashbuilder.runtime.allowUpload";
 
+    /**
+     * Boolean property when true will gzip the data sets sent to clients accepting it.
+     */
+    private static final String DATASET_GZIP_PROP = "dashbuilder.dataset.gzip";
+
     private boolean multipleImport;
     private boolean datasetPartition;
     private boolean componentPartition;
@@ -110,6 +115,7 @@ public class RuntimeOptions {
     private boolean removeModelFile;
     private boolean devMode;
     private boolean allowUpload;
+    private boolean dataSetGzip;
     boolean watchModels;
     private String importFileLocation;
     private String importsBaseDir;
@@ -130,6 +136,7 @@ public class RuntimeOptions {
         devMode = booleanProp(DEV_MODE_PROP, Boolean.FALSE);
         watchModels = booleanProp(WATCH_MODELS_PROP, Boolean.FALSE);
         allowUpload = booleanProp(ALLOW_UPLOAD_PROP, Boolean.FALSE);
+        dataSetGzip = booleanProp(DATASET_GZIP_PROP, Boolean.FALSE);
         uploadSize = DEFAULT_UPLOAD_SIZE_KB;
 
         var uploadSizeStr = System.getProperty(UPLOAD_SIZE_PROP);
@@ -225,6 +232,10 @@ public class RuntimeOptions {
     public boolean isAllowUpload() {
         return allowUpload;
     }
+
+    public boolean isDataSetGzip() {
+        return dataSetGzip;
+    }
     
     public String buildFilePath(String fileId) {
         Path modelFile = Paths.get(fileId + DASHBOARD_EXTENSION);
@@ -30,6 +30,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.dashbuilder.backend.resources.marshalling.DataSetBinaryMarshaller;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetManager;
 import org.dashbuilder.dataset.def.DataSetDef;
@@ -51,8 +52,13 @@ public class DataSetResource {
     @Inject
     DataSetDefRegistry dataSetDefRegistry;
 
+    /**
+     * Look up a data set. Clients accepting {@link DataSetBinaryMarshaller#MEDIA_TYPE} get the data set in the
+     * binary columnar encoding rather than in JSON.
+     */
     @POST
     @Path("lookup")
+    @Produces({MediaType.APPLICATION_JSON, DataSetBinaryMarshaller.MEDIA_TYPE})
     public Response lookupDataSet(DataSetLookup lookup) {
         return checkError(() -> getDataSetDef(lookup).map(def -> Response.ok(manager.lookupDataSet(lookup)))
                                                      .orElse(Response.status(Status.NOT_FOUND))
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.dashbuilder.dataprovider.DataSetSnapshotFormat;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+
+/**
+ * Compact binary encoding of the data sets sent to clients requesting the {@link #MEDIA_TYPE} media type.
+ * <p>The content is made of a magic number and a version followed by the columns, laid out as in the data set
+ * snapshots (see {@link DataSetSnapshotFormat}): NUMBER and DATE columns as <tt>double</tt> and <tt>long</tt>
+ * blocks, LABEL columns as a dictionary plus <tt>int</tt> codes, TEXT columns as strings and a null bitmap per
+ * column. All the values are big-endian.</p>
+ */
+public class DataSetBinaryMarshaller {
+
+    public static final String MEDIA_TYPE = "application/vnd.dashbuilder.dataset+binary";
+
+    public static final int MAGIC = 0x44534257;
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DataSetBinaryMarshaller INSTANCE = new DataSetBinaryMarshaller();
+
+    private final DataSetSnapshotFormat format = new DataSetSnapshotFormat();
+
+    public static DataSetBinaryMarshaller get() {
+        return INSTANCE;
+    }
+
+    public void write(DataSet dataSet, OutputStream out) throws IOException {
+        var dataOut = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(VERSION);
+        format.writeColumns(dataSet != null ? dataSet : DataSetFactory.newEmptyDataSet(), dataOut);
+        dataOut.flush();
+    }
+
+    public DataSet read(InputStream in) throws IOException {
+        var buffer = ByteBuffer.wrap(in.readAllBytes());
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary data set");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary data set version: " + version);
+        }
+        return format.readColumns(buffer);
+    }
+}
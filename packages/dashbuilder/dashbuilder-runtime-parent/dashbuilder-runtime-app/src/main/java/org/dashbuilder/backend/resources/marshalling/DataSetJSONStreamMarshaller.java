@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.dashbuilder.json.Json;
+import org.dashbuilder.json.JsonArray;
+import org.dashbuilder.json.JsonException;
+import org.dashbuilder.json.JsonObject;
+import org.dashbuilder.json.JsonValue;
+
+/**
+ * Streaming counterpart of {@link org.dashbuilder.dataset.json.DataSetJSONMarshaller}.
+ * <p>The data set is written column by column straight to the output stream, in the same format produced by
+ * <code>DataSetJSONMarshaller</code>, so no JSON tree nor intermediate string holding the whole payload is
+ * created. Likewise, JSON content is read from the input stream as it arrives.</p>
+ * <p>Both the generators and the parsers are created by a shared {@link JsonFactory} that recycles their
+ * UTF-8 encoding buffers between calls.</p>
+ */
+public class DataSetJSONStreamMarshaller {
+
+    private static final String DATASET_COLUMN = "column";
+    private static final String DATASET_COLUMN_ID = "id";
+    private static final String DATASET_COLUMN_TYPE = "type";
+    private static final String DATASET_COLUMN_VALUES = "values";
+
+    private static final DataSetJSONStreamMarshaller INSTANCE = new DataSetJSONStreamMarshaller();
+
+    private final JsonFactory factory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    public static DataSetJSONStreamMarshaller get() {
+        return INSTANCE;
+    }
+
+    public void write(DataSet dataSet, OutputStream out) throws IOException {
+        try (var generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            if (dataSet != null) {
+                int i = 0;
+                for (var column : dataSet.getColumns()) {
+                    generator.writeFieldName(DATASET_COLUMN + "." + i++);
+                    writeColumn(generator, column);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeColumn(JsonGenerator generator, DataColumn column) throws IOException {
+        generator.writeStartObject();
+        if (column != null) {
+            generator.writeStringField(DATASET_COLUMN_ID, column.getId());
+            generator.writeStringField(DATASET_COLUMN_TYPE, column.getColumnType().toString());
+            generator.writeFieldName(DATASET_COLUMN_VALUES);
+            generator.writeStartArray();
+            var values = column.getValues();
+            if (values instanceof NumberColumnValues) {
+                var numbers = (NumberColumnValues) values;
+                for (int i = 0; i < numbers.size(); i++) {
+                    if (numbers.isNull(i)) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeString(Double.toString(numbers.getDouble(i)));
+                    }
+                }
+            } else if (values instanceof DateColumnValues) {
+                var dates = (DateColumnValues) values;
+                for (int i = 0; i < dates.size(); i++) {
+                    if (dates.isNull(i)) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeString(Long.toString(dates.getTime(i)));
+                    }
+                }
+            } else if (values != null) {
+                boolean date = ColumnType.DATE.equals(column.getColumnType());
+                for (Object value : values) {
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (date) {
+                        generator.writeString(Long.toString(((Date) value).getTime()));
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Read a JSON object into the tree model expected by the dashbuilder JSON marshallers.
+     *
+     * @return The object read or null if the content is empty.
+     */
+    public JsonObject readObject(InputStream in) throws IOException {
+        try (var parser = factory.createParser(in)) {
+            var token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonException("A JSON object was expected: " + token);
+            }
+            return (JsonObject) readValue(parser);
+        }
+    }
+
+    private JsonValue readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                var object = Json.createObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var key = parser.getCurrentName();
+                    parser.nextToken();
+                    object.put(key, readValue(parser));
+                }
+                return object;
+            case START_ARRAY:
+                JsonArray array = Json.createArray();
+                int i = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.set(i++, readValue(parser));
+                }
+                return array;
+            case VALUE_STRING:
+                return Json.create(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return Json.create(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return Json.create(true);
+            case VALUE_FALSE:
+                return Json.create(false);
+            case VALUE_NULL:
+                return Json.createNull();
+            default:
+                throw new JsonException("Unexpected JSON token: " + parser.currentToken());
+        }
+    }
+}
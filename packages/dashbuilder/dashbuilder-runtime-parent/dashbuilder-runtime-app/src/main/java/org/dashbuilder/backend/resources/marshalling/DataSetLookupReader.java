@@ -19,7 +19,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.Consumes;
@@ -29,7 +28,6 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.Provider;
 
-import org.apache.commons.io.IOUtils;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
 
@@ -50,8 +48,8 @@ public class DataSetLookupReader implements MessageBodyReader<DataSetLookup> {
                                   MediaType mediaType,
                                   MultivaluedMap<String, String> httpHeaders,
                                   InputStream entityStream) throws IOException, WebApplicationException {
-        var content = IOUtils.toString(entityStream, StandardCharsets.UTF_8);
-        return DataSetLookupJSONMarshaller.get().fromJson(content);
+        var json = DataSetJSONStreamMarshaller.get().readObject(entityStream);
+        return json != null ? DataSetLookupJSONMarshaller.get().fromJson(json) : null;
     }
 
 }
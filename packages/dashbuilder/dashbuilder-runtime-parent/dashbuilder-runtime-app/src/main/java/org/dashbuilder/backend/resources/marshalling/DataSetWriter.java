@@ -19,28 +19,39 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.zip.GZIPOutputStream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
+import org.dashbuilder.backend.RuntimeOptions;
 import org.dashbuilder.backend.services.dataset.provider.RuntimeDataSetProviderRegistry;
 import org.dashbuilder.dataset.DataSet;
-import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
 
 @Provider
 @ApplicationScoped
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, DataSetBinaryMarshaller.MEDIA_TYPE})
 public class DataSetWriter implements MessageBodyWriter<DataSet> {
 
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
     @Inject
     RuntimeDataSetProviderRegistry runtimeDataSetProviderRegistry;
 
+    @Inject
+    RuntimeOptions runtimeOptions;
+
+    @Context
+    HttpHeaders requestHeaders;
+
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return DataSet.class.isAssignableFrom(type);
@@ -54,9 +65,77 @@ public class DataSetWriter implements MessageBodyWriter<DataSet> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException, WebApplicationException {
-        var dataSetJSONMarshaller = DataSetJSONMarshaller.get();
-        var json = dataSetJSONMarshaller.toJson(t).toString();
-        entityStream.write(json.getBytes());
+        // The content depends on the media types and encodings accepted, so caches must not serve it to other clients
+        httpHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (isGzipEnabled()) {
+            httpHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (!acceptsGzip()) {
+            write(t, mediaType, entityStream);
+            return;
+        }
+        httpHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+        var gzipStream = new GZIPOutputStream(entityStream, GZIP_BUFFER_SIZE);
+        write(t, mediaType, gzipStream);
+        gzipStream.finish();
+    }
+
+    private void write(DataSet dataSet, MediaType mediaType, OutputStream out) throws IOException {
+        if (isBinary(mediaType)) {
+            DataSetBinaryMarshaller.get().write(dataSet, out);
+        } else {
+            DataSetJSONStreamMarshaller.get().write(dataSet, out);
+        }
+    }
+
+    static boolean isBinary(MediaType mediaType) {
+        return mediaType != null &&
+               DataSetBinaryMarshaller.MEDIA_TYPE.equalsIgnoreCase(mediaType.getType() + "/" + mediaType.getSubtype());
+    }
+
+    boolean isGzipEnabled() {
+        return runtimeOptions != null && runtimeOptions.isDataSetGzip();
+    }
+
+    boolean acceptsGzip() {
+        if (!isGzipEnabled() || requestHeaders == null) {
+            return false;
+        }
+        var acceptEncoding = requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptsEncoding(acceptEncoding, "gzip");
+    }
+
+    /**
+     * Check if an <code>Accept-Encoding</code> header accepts the given content coding. A coding with a quality
+     * value of 0 is not acceptable, and <code>*</code> stands for any coding not listed in the header.
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        Double codingQuality = null;
+        Double anyQuality = null;
+        for (var element : acceptEncoding.split(",")) {
+            var params = element.split(";");
+            var name = params[0].trim().toLowerCase();
+            var quality = 1d;
+            for (int i = 1; i < params.length; i++) {
+                var param = params[i].split("=", 2);
+                if (param.length == 2 && "q".equalsIgnoreCase(param[0].trim())) {
+                    try {
+                        quality = Double.parseDouble(param[1].trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0d;
+                    }
+                }
+            }
+            if (name.equals(coding) || name.equals("x-" + coding)) {
+                codingQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        if (codingQuality != null) {
+            return codingQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
     }
 
 }
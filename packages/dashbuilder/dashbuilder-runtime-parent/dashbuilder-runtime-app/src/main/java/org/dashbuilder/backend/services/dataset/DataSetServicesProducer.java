@@ -17,6 +17,7 @@
 package org.dashbuilder.backend.services.dataset;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
 
 import org.dashbuilder.DataSetCore;
@@ -36,6 +37,7 @@ import org.dashbuilder.dataset.DataSetManagerImpl;
 import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.json.DataSetMetadataJSONMarshaller;
 import org.dashbuilder.scheduler.Scheduler;
+import org.dashbuilder.scheduler.TimerWheelScheduler;
 
 /**
  * Produces types related to DataSet
@@ -56,6 +58,10 @@ public class DataSetServicesProducer {
         return new StaticDataSetProvider(DataSetCore.get().getSharedDataSetOpEngine());
     }
 
+    public void disposeStaticDataSetProvider(@Disposes StaticDataSetProvider staticDataSetProvider) {
+        staticDataSetProvider.shutdown();
+    }
+
     @Produces
     @ApplicationScoped
     public SQLDataSetProvider produceSQLDataSetProvider(StaticDataSetProvider staticDataSetProvider,
@@ -92,7 +98,7 @@ public class DataSetServicesProducer {
     @Produces
     @ApplicationScoped
     public Scheduler produceScheduler() {
-        var scheduler = new Scheduler();
+        var scheduler = TimerWheelScheduler.isEnabled() ? new TimerWheelScheduler() : new Scheduler();
         scheduler.init(10);
         return scheduler;
     }
@@ -16,22 +16,31 @@
 
 package org.dashbuilder.backend.services.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.dashbuilder.backend.RuntimeOptions;
@@ -40,10 +49,12 @@ import org.dashbuilder.backend.navigation.RuntimeNavigationBuilder;
 import org.dashbuilder.backend.services.dataset.provider.RuntimeDataSetProviderRegistry;
 import org.dashbuilder.dataprovider.external.ExternalDataSetHelper;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
+import org.dashbuilder.displayer.DisplayerSettings;
 import org.dashbuilder.displayer.DisplayerType;
 import org.dashbuilder.displayer.json.DisplayerSettingsJSONMarshaller;
 import org.dashbuilder.external.service.ComponentLoader;
 import org.dashbuilder.shared.event.NewDataSetContentEvent;
+import org.dashbuilder.shared.event.RemovedRuntimeModelEvent;
 import org.dashbuilder.shared.marshalling.LayoutTemplateJSONMarshaller;
 import org.dashbuilder.shared.model.DataSetContent;
 import org.dashbuilder.shared.model.DataSetContentType;
@@ -51,6 +62,7 @@ import org.dashbuilder.shared.model.GlobalSettings;
 import org.dashbuilder.shared.model.RuntimeModel;
 import org.dashbuilder.shared.service.RuntimeModelParser;
 import org.dashbuilder.shared.service.RuntimeModelRegistry;
+import org.uberfire.ext.layout.editor.api.editor.LayoutColumn;
 import org.uberfire.ext.layout.editor.api.editor.LayoutComponent;
 import org.uberfire.ext.layout.editor.api.editor.LayoutRow;
 import org.uberfire.ext.layout.editor.api.editor.LayoutTemplate;
@@ -63,6 +75,9 @@ import static org.dashbuilder.transfer.DataTransferServices.COMPONENTS_EXPORT_PA
 
 /**
  * Parses an exported zip file from Transfer Services into RuntimeModel.
+ * <p>The entries are parsed in parallel. Model files are read through random access, so only the entries whose CRC
+ * has changed since the last import of the model are parsed again. Every import gets its own copy of the layout
+ * templates not parsed again.</p>
  *
  */
 @ApplicationScoped
@@ -90,6 +105,11 @@ public class RuntimeModelParserImpl implements RuntimeModelParser {
 
     private LayoutTemplateJSONMarshaller marshaller;
 
+    /**
+     * The layout templates of every model, by entry name, so the ones not changed are not parsed again.
+     */
+    final Map<String, Map<String, CachedLayoutTemplate>> layoutTemplateCache = new ConcurrentHashMap<>();
+
     @PostConstruct
     void init() {
         marshaller = LayoutTemplateJSONMarshaller.get();
@@ -105,10 +125,28 @@ public class RuntimeModelParserImpl implements RuntimeModelParser {
         }
     }
 
+    /**
+     * Parse the given model file into a RuntimeModel. Unlike streams, the entries of a file are accessed directly.
+     */
+    public RuntimeModel parseFile(String modelId, Path modelFile) {
+        try (var zipFile = new ZipFile(modelFile.toFile())) {
+            var entries = zipFile.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(entry -> new ModelEntry(entry, () -> zipFile.getInputStream(entry)))
+                    .collect(Collectors.toList());
+            // Component files are extracted straight from the file, in parallel with the rest of entries
+            return buildRuntimeModel(modelId, entries, true);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    void onRuntimeModelRemoved(@Observes RemovedRuntimeModelEvent event) {
+        layoutTemplateCache.remove(event.getRuntimeModelId());
+    }
+
     RuntimeModel retrieveRuntimeModel(String modelId, InputStream is) throws IOException {
-        var datasetContents = new ArrayList<DataSetContent>();
-        var layoutTemplates = new ArrayList<LayoutTemplate>();
-        Optional<String> navTreeOp = Optional.empty();
+        var entries = new ArrayList<ModelEntry>();
         try (var zis = new ZipInputStream(is)) {
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
@@ -116,30 +154,44 @@ public class RuntimeModelParserImpl implements RuntimeModelParser {
                     continue;
                 }
                 String entryName = entry.getName();
-
-                if (entryName.startsWith(DATASET_DEF_PREFIX)) {
-                    datasetContents.add(retrieveDataSetContent(entry, zis));
-                }
-
-                if (entryName.endsWith(PERSPECTIVE_SUFFIX)) {
-                    layoutTemplates.add(retrieveLayoutTemplate(zis));
-                }
-
-                if (entryName.equalsIgnoreCase(NAVIGATION_FILE)) {
-                    navTreeOp = Optional.of(nextEntryContentAsString(zis));
-                }
-
+                // A stream can only be read sequentially: component files are extracted as they come and the rest
+                // of entries are kept for being parsed in parallel
                 if (entryName.startsWith(COMPONENTS_EXPORT_PATH)) {
-                    extractComponentFile(modelId, zis, entry.getName());
+                    extractComponentFile(modelId, zis, entryName);
+                } else if (isModelEntry(entryName)) {
+                    var content = zis.readAllBytes();
+                    entries.add(new ModelEntry(entry, () -> new ByteArrayInputStream(content)));
                 }
             }
         }
+        return buildRuntimeModel(modelId, entries, false);
+    }
 
-        if (options.isMultipleImport()) {
-            if (options.isDatasetPartition()) {
-                datasetContents.forEach(ds -> ds.setId(PartitionHelper.partition(modelId, ds.getId())));
-            }
-            layoutTemplates.forEach(lt -> partitionLayoutTemplate(modelId, lt));
+    private RuntimeModel buildRuntimeModel(String modelId, List<ModelEntry> entries, boolean extractComponents) {
+        var previousTemplates = layoutTemplateCache.getOrDefault(modelId, Collections.emptyMap());
+        var cachedTemplates = new ConcurrentHashMap<String, CachedLayoutTemplate>();
+
+        if (extractComponents) {
+            entries.parallelStream()
+                    .filter(entry -> entry.name.startsWith(COMPONENTS_EXPORT_PATH))
+                    .forEach(entry -> entry.consume(is -> extractComponentFile(modelId, is, entry.name)));
+        }
+        var datasetContents = entries.parallelStream()
+                .filter(entry -> entry.name.startsWith(DATASET_DEF_PREFIX))
+                .map(this::retrieveDataSetContent)
+                .collect(Collectors.toCollection(ArrayList::new));
+        var layoutTemplates = entries.parallelStream()
+                .filter(entry -> entry.name.endsWith(PERSPECTIVE_SUFFIX))
+                .map(entry -> retrieveLayoutTemplate(modelId, entry, previousTemplates, cachedTemplates))
+                .collect(Collectors.toList());
+        var navTreeOp = entries.stream()
+                .filter(entry -> entry.name.equalsIgnoreCase(NAVIGATION_FILE))
+                .reduce((first, second) -> second)
+                .map(ModelEntry::contentAsString);
+        layoutTemplateCache.put(modelId, cachedTemplates);
+
+        if (options.isMultipleImport() && options.isDatasetPartition()) {
+            datasetContents.forEach(ds -> ds.setId(PartitionHelper.partition(modelId, ds.getId())));
         }
 
         if (!datasetContents.isEmpty()) {
@@ -166,46 +218,78 @@ public class RuntimeModelParserImpl implements RuntimeModelParser {
             }
             var target = new File(newFileName);
             target.getParentFile().mkdirs();
+            Files.copy(zis, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
 
-            final int BUFFER_SIZE = 1024;
-            var buffer = new byte[BUFFER_SIZE];
-            int read = 0;
-            try (FileOutputStream fos = new FileOutputStream(target)) {
-                while ((read = zis.read(buffer, 0, BUFFER_SIZE)) >= 0) {
-                    fos.write(buffer, 0, read);
-                }
+    }
+
+    /**
+     * Parses a layout template unless the same entry (same name and CRC) was already parsed on the previous import
+     * of the model.
+     */
+    private LayoutTemplate retrieveLayoutTemplate(String modelId,
+                                                  ModelEntry entry,
+                                                  Map<String, CachedLayoutTemplate> previousTemplates,
+                                                  Map<String, CachedLayoutTemplate> cachedTemplates) {
+        var cached = previousTemplates.get(entry.name);
+        if (cached == null || !cached.matches(entry)) {
+            var layoutTemplate = marshaller.fromJson(entry.contentAsString());
+            if (options.isMultipleImport()) {
+                partitionLayoutTemplate(modelId, layoutTemplate);
             }
+            cached = new CachedLayoutTemplate(entry, layoutTemplate);
         }
+        cachedTemplates.put(entry.name, cached);
+        // The cached template is kept as parsed, every import gets its own copy
+        return copyLayoutTemplate(cached.layoutTemplate);
+    }
 
+    static LayoutTemplate copyLayoutTemplate(LayoutTemplate template) {
+        var copy = new LayoutTemplate(template.getName(), new HashMap<>(template.getLayoutProperties()), template
+                .getStyle());
+        template.getRows().forEach(row -> copy.addRow(copyLayoutRow(row)));
+        return copy;
     }
 
-    private LayoutTemplate retrieveLayoutTemplate(final ZipInputStream zis) {
-        var content = nextEntryContentAsString(zis);
-        return marshaller.fromJson(content);
+    private static LayoutRow copyLayoutRow(LayoutRow row) {
+        var copy = new LayoutRow(row.getHeight(), new HashMap<>(row.getProperties()));
+        row.getLayoutColumns().forEach(column -> copy.add(copyLayoutColumn(column)));
+        return copy;
     }
 
-    private DataSetContent retrieveDataSetContent(final ZipEntry entry, final ZipInputStream zis) {
-        var fileName = entry.getName().split("/")[3];
+    private static LayoutColumn copyLayoutColumn(LayoutColumn column) {
+        var copy = new LayoutColumn(column.getSpan(), column.getHeight(), new HashMap<>(column.getProperties()));
+        column.getRows().forEach(row -> copy.addRow(copyLayoutRow(row)));
+        column.getLayoutComponents().forEach(component -> copy.add(copyLayoutComponent(component)));
+        return copy;
+    }
+
+    private static LayoutComponent copyLayoutComponent(LayoutComponent component) {
+        var copy = new LayoutComponent(component.getDragTypeName());
+        copy.addProperties(component.getProperties());
+        component.getParts().forEach(part -> {
+            copy.addPartIfAbsent(part.getPartId());
+            copy.addPartProperties(part.getPartId(), part.getCssProperties());
+        });
+        var settings = component.getSettings();
+        copy.setSettings(settings instanceof DisplayerSettings ? ((DisplayerSettings) settings).cloneInstance()
+                : settings);
+        return copy;
+    }
+
+    private DataSetContent retrieveDataSetContent(final ModelEntry entry) {
+        var fileName = entry.name.split("/")[3];
         var nameParts = fileName.split("\\.");
         var id = nameParts[0];
         var ext = nameParts[1];
-        var content = nextEntryContentAsString(zis);
+        var content = entry.contentAsString();
         return new DataSetContent(id, content, DataSetContentType.fromFileExtension(ext));
     }
 
-    private String nextEntryContentAsString(final ZipInputStream zis) {
-        try {
-            final int BUFFER_SIZE = 8192;
-            var buffer = new byte[BUFFER_SIZE];
-            int read = 0;
-            String output = "";
-            while ((read = zis.read(buffer, 0, BUFFER_SIZE)) != -1) {
-                output = output.concat(new String(buffer, 0, read));
-            }
-            return output.trim();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    private static boolean isModelEntry(String entryName) {
+        return entryName.startsWith(DATASET_DEF_PREFIX) ||
+               entryName.endsWith(PERSPECTIVE_SUFFIX) ||
+               entryName.equalsIgnoreCase(NAVIGATION_FILE);
     }
 
     private void partitionLayoutTemplate(String modelId, LayoutTemplate lt) {
@@ -267,4 +351,62 @@ public class RuntimeModelParserImpl implements RuntimeModelParser {
                 .collect(Collectors.toList());
     }
 
+    @FunctionalInterface
+    interface EntryContent {
+
+        InputStream open() throws IOException;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+
+        void accept(InputStream is) throws IOException;
+    }
+
+    static class ModelEntry {
+
+        final String name;
+        final long crc;
+        final long size;
+        final EntryContent content;
+
+        ModelEntry(ZipEntry entry, EntryContent content) {
+            this.name = entry.getName();
+            this.crc = entry.getCrc();
+            this.size = entry.getSize();
+            this.content = content;
+        }
+
+        void consume(EntryConsumer consumer) {
+            try (var is = content.open()) {
+                consumer.accept(is);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading model entry " + name, e);
+            }
+        }
+
+        String contentAsString() {
+            var output = new String[1];
+            consume(is -> output[0] = new String(is.readAllBytes(), StandardCharsets.UTF_8).trim());
+            return output[0];
+        }
+    }
+
+    static class CachedLayoutTemplate {
+
+        final long crc;
+        final long size;
+        final LayoutTemplate layoutTemplate;
+
+        CachedLayoutTemplate(ModelEntry entry, LayoutTemplate layoutTemplate) {
+            this.crc = entry.crc;
+            this.size = entry.size;
+            this.layoutTemplate = layoutTemplate;
+        }
+
+        boolean matches(ModelEntry entry) {
+            return entry.crc != -1 && entry.crc == crc && entry.size == size;
+        }
+    }
+
 }
@@ -17,8 +17,6 @@
 package org.dashbuilder.backend.services.impl;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
@@ -26,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -41,7 +40,6 @@ import org.dashbuilder.shared.event.UpdatedRuntimeModelEvent;
 import org.dashbuilder.shared.model.DashbuilderRuntimeMode;
 import org.dashbuilder.shared.model.RuntimeModel;
 import org.dashbuilder.shared.service.ImportValidationService;
-import org.dashbuilder.shared.service.RuntimeModelParser;
 import org.dashbuilder.shared.service.RuntimeModelRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,7 +54,7 @@ public class RuntimeModelRegistryImpl implements RuntimeModelRegistry {
     DashbuilderRuntimeMode mode = DashbuilderRuntimeMode.SINGLE_IMPORT;
 
     @Inject
-    RuntimeModelParser parser;
+    RuntimeModelParserImpl parser;
 
     @Inject
     Event<NewDataSetContentEvent> newDataSetContentEvent;
@@ -110,13 +108,8 @@ public class RuntimeModelRegistryImpl implements RuntimeModelRegistry {
             throw new IllegalArgumentException("Not a valid file structure.");
         }
 
-        try (var fis = new FileInputStream(fileName)) {
-            var importId = FilenameUtils.getBaseName(file.getPath());
-            return register(importId, fis);
-        } catch (IOException e) {
-            logger.error("Not able to load file {}", fileName, e);
-            throw new IllegalArgumentException("Error loading import file: " + fileName, e);
-        }
+        var importId = FilenameUtils.getBaseName(file.getPath());
+        return register(importId, id -> parser.parseFile(id, file.toPath()));
     }
 
     @Override
@@ -140,6 +133,10 @@ public class RuntimeModelRegistryImpl implements RuntimeModelRegistry {
     }
 
     public Optional<RuntimeModel> register(String id, InputStream fileStream) {
+        return register(id, modelId -> parser.parse(modelId, fileStream));
+    }
+
+    private Optional<RuntimeModel> register(String id, Function<String, RuntimeModel> parse) {
         if (!acceptingNewImports()) {
             throw new IllegalArgumentException("New imports are not allowed in mode " + mode);
         }
@@ -147,7 +144,7 @@ public class RuntimeModelRegistryImpl implements RuntimeModelRegistry {
             if (id == null) {
                 id = UUID.randomUUID().toString();
             }
-            var runtimeModel = parser.parse(id, fileStream);
+            var runtimeModel = parse.apply(id);
             runtimeModels.put(id, runtimeModel);
 
             if (options.isDevMode()) {
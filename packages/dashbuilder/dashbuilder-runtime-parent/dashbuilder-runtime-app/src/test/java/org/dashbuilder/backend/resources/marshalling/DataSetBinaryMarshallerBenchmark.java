@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Random;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
+
+/**
+ * Compares the encode and decode times and the size of a data set in JSON, as written by
+ * {@link DataSetJSONStreamMarshaller} and read by {@link DataSetJSONMarshaller}, and in the binary encoding of
+ * {@link DataSetBinaryMarshaller}. Not a test, run it as:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dashbuilder.backend.resources.marshalling.DataSetBinaryMarshallerBenchmark
+ * </pre>
+ */
+public class DataSetBinaryMarshallerBenchmark {
+
+    static final int ROWS = 200000;
+    static final int RUNS = 10;
+
+    public static void main(String[] args) throws Exception {
+        DataSet dataSet = buildDataSet();
+
+        // Warm-up
+        for (int i = 0; i < RUNS; i++) {
+            DataSetJSONMarshaller.get().fromJson(encodeJson(dataSet));
+            decodeBinary(encodeBinary(dataSet));
+        }
+
+        long begin = System.nanoTime();
+        String json = null;
+        for (int i = 0; i < RUNS; i++) {
+            json = encodeJson(dataSet);
+        }
+        long jsonEncodeTime = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            DataSetJSONMarshaller.get().fromJson(json);
+        }
+        long jsonDecodeTime = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        byte[] binary = null;
+        for (int i = 0; i < RUNS; i++) {
+            binary = encodeBinary(dataSet);
+        }
+        long binaryEncodeTime = System.nanoTime() - begin;
+        begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            decodeBinary(binary);
+        }
+        long binaryDecodeTime = System.nanoTime() - begin;
+
+        // Binary values are read into the columnar storage
+        if (!((DataSetImpl) dataSet).toColumnar().getColumns().equals(decodeBinary(binary).getColumns())
+                || !dataSet.getColumns().equals(DataSetJSONMarshaller.get().fromJson(json).getColumns())) {
+            throw new IllegalStateException("The decoded data sets differ from the original one");
+        }
+        System.out.println(String.format("%,d rows, %d columns", ROWS, dataSet.getColumns().size()));
+        System.out.println(String.format("JSON:   %,dms to encode, %,dms to decode, %,d bytes",
+                                         jsonEncodeTime / RUNS / 1000000,
+                                         jsonDecodeTime / RUNS / 1000000,
+                                         json.getBytes(StandardCharsets.UTF_8).length));
+        System.out.println(String.format("Binary: %,dms to encode, %,dms to decode, %,d bytes",
+                                         binaryEncodeTime / RUNS / 1000000,
+                                         binaryDecodeTime / RUNS / 1000000,
+                                         binary.length));
+    }
+
+    static DataSet buildDataSet() {
+        var random = new Random(13);
+        var builder = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .text("notes");
+        for (int i = 0; i < ROWS; i++) {
+            builder.row("city " + random.nextInt(100),
+                        i % 50 == 0 ? null : random.nextDouble() * 1000000,
+                        new Date(1600000000000L + random.nextInt() * 1000L),
+                        "note " + i);
+        }
+        return builder.buildDataSet();
+    }
+
+    static String encodeJson(DataSet dataSet) throws Exception {
+        var out = new ByteArrayOutputStream();
+        DataSetJSONStreamMarshaller.get().write(dataSet, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static byte[] encodeBinary(DataSet dataSet) throws Exception {
+        var out = new ByteArrayOutputStream();
+        DataSetBinaryMarshaller.get().write(dataSet, out);
+        return out.toByteArray();
+    }
+
+    static DataSet decodeBinary(byte[] content) throws Exception {
+        return DataSetBinaryMarshaller.get().read(new ByteArrayInputStream(content));
+    }
+}
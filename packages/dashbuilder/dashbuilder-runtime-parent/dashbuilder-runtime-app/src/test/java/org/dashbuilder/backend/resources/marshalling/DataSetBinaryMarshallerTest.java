@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+
+import javax.ws.rs.core.MediaType;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DataSetBinaryMarshallerTest {
+
+    DataSetBinaryMarshaller marshaller = DataSetBinaryMarshaller.get();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        var dataSet = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .text("notes")
+                .row("Barcelona", 1000.5d, new Date(1000000), "first")
+                .row("Madrid", null, null, null)
+                .row(null, 1e10d, new Date(2000000), "third")
+                .row("Barcelona", -1d, new Date(3000000), "fourth")
+                .buildDataSet();
+
+        var result = read(write(dataSet));
+        // Values are read into the columnar storage
+        assertEquals(((DataSetImpl) dataSet).toColumnar(), result);
+        assertEquals(4, result.getRowCount());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(0, read(write(null)).getColumns().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidContent() throws Exception {
+        read(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    }
+
+    @Test
+    public void testMediaTypeSelection() {
+        assertTrue(DataSetWriter.isBinary(new MediaType("application", "vnd.dashbuilder.dataset+binary")));
+        assertFalse(DataSetWriter.isBinary(MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(DataSetWriter.isBinary(null));
+    }
+
+    private byte[] write(DataSet dataSet) throws Exception {
+        var out = new ByteArrayOutputStream();
+        marshaller.write(dataSet, out);
+        return out.toByteArray();
+    }
+
+    private DataSet read(byte[] content) throws Exception {
+        return marshaller.read(new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
+import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DataSetJSONStreamMarshallerTest {
+
+    DataSetJSONStreamMarshaller marshaller = DataSetJSONStreamMarshaller.get();
+
+    @Test
+    public void testWriteDataSet() throws Exception {
+        var dataSet = buildDataSet();
+        var json = write(dataSet);
+
+        assertEquals(dataSet, DataSetJSONMarshaller.get().fromJson(json));
+    }
+
+    @Test
+    public void testWriteColumnar() throws Exception {
+        var dataSet = buildDataSet();
+        var columnar = dataSet.cloneInstance();
+        columnar.getColumnByIndex(1).setValues(ColumnValues.of(ColumnType.NUMBER, dataSet.getColumnByIndex(1).getValues()));
+        columnar.getColumnByIndex(2).setValues(ColumnValues.of(ColumnType.DATE, dataSet.getColumnByIndex(2).getValues()));
+
+        assertEquals(write(dataSet), write(columnar));
+    }
+
+    @Test
+    public void testEscaping() throws Exception {
+        var dataSet = DataSetFactory.newDataSetBuilder()
+                .label("name")
+                .row("\"quoted\"\n\\ \u00e9\u4e2d\u0001")
+                .buildDataSet();
+
+        assertEquals(dataSet, DataSetJSONMarshaller.get().fromJson(write(dataSet)));
+    }
+
+    @Test
+    public void testReadLookup() throws Exception {
+        var lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset("expenses")
+                .filter("city", equalsTo("Barcelona"))
+                .group("department")
+                .column("department")
+                .column("amount", SUM)
+                .rowOffset(10)
+                .rowNumber(20)
+                .buildLookup();
+        var json = DataSetLookupJSONMarshaller.get().toJson(lookup).toJson();
+
+        DataSetLookup result = DataSetLookupJSONMarshaller.get().fromJson(marshaller.readObject(toStream(json)));
+        assertEquals(lookup, result);
+        assertNull(marshaller.readObject(toStream("")));
+    }
+
+    private DataSet buildDataSet() {
+        return DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .row("Barcelona", 1000.5d, new Date(1000000))
+                .row("Madrid", null, null)
+                .row(null, 1e10d, new Date(2000000))
+                .buildDataSet();
+    }
+
+    private String write(DataSet dataSet) throws Exception {
+        var out = new ByteArrayOutputStream();
+        marshaller.write(dataSet, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private ByteArrayInputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
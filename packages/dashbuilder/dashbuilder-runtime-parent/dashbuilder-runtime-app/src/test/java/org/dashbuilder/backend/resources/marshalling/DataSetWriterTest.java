@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.backend.resources.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.dashbuilder.backend.RuntimeOptions;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.backend.resources.marshalling.DataSetWriter.acceptsEncoding;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DataSetWriterTest {
+
+    DataSetWriter writer;
+    DataSet dataSet = DataSetFactory.newDataSetBuilder()
+            .label("city")
+            .number("amount")
+            .row("Barcelona", 1000.5d)
+            .buildDataSet();
+
+    @Before
+    public void setup() {
+        writer = new DataSetWriter();
+        writer.runtimeOptions = mock(RuntimeOptions.class);
+        writer.requestHeaders = mock(HttpHeaders.class);
+        when(writer.runtimeOptions.isDataSetGzip()).thenReturn(true);
+    }
+
+    @Test
+    public void testAcceptsEncoding() {
+        assertTrue(acceptsEncoding("gzip", "gzip"));
+        assertTrue(acceptsEncoding("deflate, GZIP;q=0.5", "gzip"));
+        assertTrue(acceptsEncoding("x-gzip", "gzip"));
+        assertTrue(acceptsEncoding("br;q=1.0, *;q=0.1", "gzip"));
+        assertTrue(acceptsEncoding("gzip ; q = 0.001", "gzip"));
+        assertFalse(acceptsEncoding("gzip;q=0", "gzip"));
+        assertFalse(acceptsEncoding("gzip;q=0.0, *", "gzip"));
+        assertFalse(acceptsEncoding("*;q=1, gzip;q=0", "gzip"));
+        assertFalse(acceptsEncoding("*;q=0", "gzip"));
+        assertFalse(acceptsEncoding("gzip;q=none", "gzip"));
+        assertFalse(acceptsEncoding("identity", "gzip"));
+        assertFalse(acceptsEncoding("gzipped, deflate", "gzip"));
+        assertFalse(acceptsEncoding("", "gzip"));
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        when(writer.requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("deflate, gzip");
+        var headers = new MultivaluedHashMap<String, Object>();
+        var out = new ByteArrayOutputStream();
+        write(headers, out);
+
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), headers.get(HttpHeaders.VARY));
+        var json = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                              StandardCharsets.UTF_8);
+        assertEquals(dataSet, DataSetJSONMarshaller.get().fromJson(json));
+    }
+
+    @Test
+    public void testGzipRefused() throws Exception {
+        when(writer.requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip;q=0, deflate");
+        var headers = new MultivaluedHashMap<String, Object>();
+        var out = new ByteArrayOutputStream();
+        write(headers, out);
+
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), headers.get(HttpHeaders.VARY));
+        assertEquals(dataSet, DataSetJSONMarshaller.get().fromJson(new String(out.toByteArray(), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testGzipDisabled() throws Exception {
+        when(writer.runtimeOptions.isDataSetGzip()).thenReturn(false);
+        when(writer.requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        var headers = new MultivaluedHashMap<String, Object>();
+        write(headers, new ByteArrayOutputStream());
+
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT), headers.get(HttpHeaders.VARY));
+    }
+
+    private void write(MultivaluedMap<String, Object> headers, ByteArrayOutputStream out) throws Exception {
+        writer.writeTo(dataSet, DataSet.class, DataSet.class, null, MediaType.APPLICATION_JSON_TYPE, headers, out);
+    }
+}
@@ -37,6 +37,7 @@ import org.dashbuilder.displayer.json.DisplayerSettingsJSONMarshaller;
 import org.dashbuilder.external.service.ComponentLoader;
 import org.dashbuilder.navigation.impl.NavTreeBuilder;
 import org.dashbuilder.shared.event.NewDataSetContentEvent;
+import org.dashbuilder.shared.event.RemovedRuntimeModelEvent;
 import org.dashbuilder.shared.model.DataSetContent;
 import org.dashbuilder.shared.service.RuntimeModelRegistry;
 import org.junit.Before;
@@ -46,10 +47,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.ext.layout.editor.api.editor.LayoutTemplate;
 
 import static org.dashbuilder.shared.model.DataSetContentType.CSV;
 import static org.dashbuilder.shared.model.DataSetContentType.DEFINITION;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
@@ -139,6 +143,51 @@ public class RuntimeModelParserImplTest {
         assertEquals(getFileContent("/ds.csv"), csvContent);
     }
 
+    @Test
+    public void testParseFile() throws Exception {
+        parser.init();
+        var modelFile = Paths.get(this.getClass().getResource("/valid_import.zip").toURI());
+        var runtimeModel = parser.parseFile("", modelFile);
+
+        var layoutTemplates = runtimeModel.getLayoutTemplates();
+        assertEquals(1, layoutTemplates.size());
+        assertEquals("life_expectancy", layoutTemplates.get(0).getName());
+
+        var datasetContents = ArgumentCaptor.forClass(NewDataSetContentEvent.class);
+        verify(newDataSetContentEventSource).fire(datasetContents.capture());
+        var datasets = datasetContents.getValue().getContent();
+        assertEquals(2, datasets.size());
+        assertEquals(getFileContent("/ds.dset"), datasets.stream().filter(ds -> ds.getContentType() == DEFINITION)
+                .findAny().get().getContent());
+    }
+
+    @Test
+    public void testUnchangedLayoutTemplatesNotParsedAgain() throws Exception {
+        parser.init();
+        var modelFile = Paths.get(this.getClass().getResource("/valid_import.zip").toURI());
+        parser.parseFile("model", modelFile);
+        var cached = parser.layoutTemplateCache.get("model").values().iterator().next().layoutTemplate;
+
+        var layoutTemplate = parser.parseFile("model", modelFile).getLayoutTemplates().get(0);
+        assertSame(cached, parser.layoutTemplateCache.get("model").values().iterator().next().layoutTemplate);
+        assertSame(cached, cachedLayoutTemplate("model", modelFile));
+        assertNotSame(cached, cachedLayoutTemplate("other", modelFile));
+
+        // Every import gets its own copy
+        assertNotSame(cached, layoutTemplate);
+        assertEquals(cached, layoutTemplate);
+        layoutTemplate.getRows().clear();
+        assertEquals(cached, parser.parse("model", Files.newInputStream(modelFile)).getLayoutTemplates().get(0));
+
+        parser.onRuntimeModelRemoved(new RemovedRuntimeModelEvent("model"));
+        assertNotSame(cached, cachedLayoutTemplate("model", modelFile));
+    }
+
+    private LayoutTemplate cachedLayoutTemplate(String modelId, Path modelFile) {
+        parser.parseFile(modelId, modelFile);
+        return parser.layoutTemplateCache.get(modelId).values().iterator().next().layoutTemplate;
+    }
+
     @Test
     public void testTransformedUuid() {
         when(runtimeOptions.isMultipleImport()).thenReturn(true);
@@ -33,7 +33,6 @@ import org.dashbuilder.shared.event.RemovedRuntimeModelEvent;
 import org.dashbuilder.shared.model.DashbuilderRuntimeMode;
 import org.dashbuilder.shared.model.RuntimeModel;
 import org.dashbuilder.shared.service.ImportValidationService;
-import org.dashbuilder.shared.service.RuntimeModelParser;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -63,7 +62,7 @@ public class RuntimeModelRegistryImplTest {
     Map<String, RuntimeModel> runtimeModels;
 
     @Mock
-    RuntimeModelParser parser;
+    RuntimeModelParserImpl parser;
 
     @Mock
     RuntimeOptions options;
@@ -132,7 +131,7 @@ public class RuntimeModelRegistryImplTest {
 
         when(runtimeModels.isEmpty()).thenReturn(true);
         when(importValidationService.validate(file)).thenReturn(true);
-        when(parser.parse(eq(importId), any())).thenThrow(new RuntimeException());
+        when(parser.parseFile(eq(importId), any())).thenThrow(new RuntimeException());
 
         registry.registerFile(file);
     }
@@ -145,7 +144,7 @@ public class RuntimeModelRegistryImplTest {
 
         when(runtimeModels.isEmpty()).thenReturn(true);
         when(importValidationService.validate(file)).thenReturn(true);
-        when(parser.parse(eq(importId), any())).thenReturn(runtimeModel);
+        when(parser.parseFile(eq(importId), any())).thenReturn(runtimeModel);
 
         registry.registerFile(file);
 
@@ -164,8 +163,8 @@ public class RuntimeModelRegistryImplTest {
         var runtimeModel2 = mock(RuntimeModel.class);
         
         when(importValidationService.validate(or(eq(file1), eq(file2)))).thenReturn(true);
-        when(parser.parse(eq(importId1), any())).thenReturn(runtimeModel1);
-        when(parser.parse(eq(importId2), any())).thenReturn(runtimeModel2);
+        when(parser.parseFile(eq(importId1), any())).thenReturn(runtimeModel1);
+        when(parser.parseFile(eq(importId2), any())).thenReturn(runtimeModel2);
 
         registry.setMode(DashbuilderRuntimeMode.MULTIPLE_IMPORT);
 
@@ -18,6 +18,7 @@ package org.dashbuilder.client.services;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -37,6 +38,7 @@ import org.dashbuilder.client.error.DefaultRuntimeErrorCallback;
 import org.dashbuilder.client.error.DefaultRuntimeErrorCallback.DefaultErrorType;
 import org.dashbuilder.client.error.ErrorResponseVerifier;
 import org.dashbuilder.client.external.ExternalDataSetClientProvider;
+import org.dashbuilder.client.marshalling.ClientDataSetBinaryMarshaller;
 import org.dashbuilder.client.marshalling.ClientDataSetMetadataJSONMarshaller;
 import org.dashbuilder.common.client.error.ClientRuntimeError;
 import org.dashbuilder.dataprovider.DataSetProviderType;
@@ -64,9 +66,16 @@ public class RuntimeDataSetClientServices implements DataSetClientServices {
 
     private static final String LOOKUP_ENDPOINT = "/rest/dataset/lookup";
 
+    // The binary encoding is preferred, JSON is kept for runtimes not supporting it
+    private static final String LOOKUP_ACCEPT = ClientDataSetBinaryMarshaller.MEDIA_TYPE + ", " +
+                                                MediaType.APPLICATION_JSON + ";q=0.9";
+
     @Inject
     ClientDataSetMetadataJSONMarshaller dataSetMetadataJsonMarshaller;
 
+    @Inject
+    ClientDataSetBinaryMarshaller dataSetBinaryMarshaller;
+
     @Inject
     ErrorResponseVerifier verifier;
 
@@ -213,9 +222,19 @@ public class RuntimeDataSetClientServices implements DataSetClientServices {
         request.setMethod("POST");
         request.setBody(toJson(lookup));
         headers.append(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        headers.append(HttpHeaders.ACCEPT, LOOKUP_ACCEPT);
         request.setHeaders(headers);
         fetch(LOOKUP_ENDPOINT, request).then((Response response) -> {
             verifier.verify(response);
+            if (response.status == HttpResponseCodes.SC_OK && isBinary(response)) {
+                response.arrayBuffer().then(buffer -> handleDataSet(listener,
+                                                                    () -> dataSetBinaryMarshaller.fromBinary(buffer)),
+                        error -> {
+                            listener.onError(new ClientRuntimeError("Error reading data set content: " + error));
+                            return null;
+                        });
+                return null;
+            }
             response.text().then(responseText -> handleResponseText(def, lookup, listener, response, responseText),
                     error -> {
                         listener.onError(new ClientRuntimeError("Error reading data set content: " + error));
@@ -225,6 +244,11 @@ public class RuntimeDataSetClientServices implements DataSetClientServices {
         }).catch_(this::handleError);
     }
 
+    private static boolean isBinary(Response response) {
+        var contentType = response.headers.get(HttpHeaders.CONTENT_TYPE);
+        return contentType != null && contentType.startsWith(ClientDataSetBinaryMarshaller.MEDIA_TYPE);
+    }
+
     void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent evt) {
         if (evt.getDataSetDef() != null) {
             var uuid = evt.getDataSetDef().getUUID();
@@ -250,18 +274,24 @@ public class RuntimeDataSetClientServices implements DataSetClientServices {
                 listener.onError(buildError("Data Set not found: " + getName(lookup, def), responseText));
                 break;
             default:
-                DataSet dataSet = null;
-                try {
-                    dataSet = parseDataSet(responseText);
-                } catch (Exception e) {
-                    listener.onError(new ClientRuntimeError("Error reading data set content", e));
-                }
+                return handleDataSet(listener, () -> parseDataSet(responseText));
+        }
+        return null;
+    }
 
-                if (dataSet != null) {
-                    listener.callback(dataSet);
-                } else {
-                    listener.onError(new ClientRuntimeError("Not able to retrieve the dataset. Content is not valid."));
-                }
+    private IThenable<Object> handleDataSet(DataSetReadyCallback listener, Supplier<DataSet> parser) {
+        DataSet dataSet = null;
+        try {
+            dataSet = parser.get();
+        } catch (Exception e) {
+            listener.onError(new ClientRuntimeError("Error reading data set content", e));
+            return null;
+        }
+
+        if (dataSet != null) {
+            listener.callback(dataSet);
+        } else {
+            listener.onError(new ClientRuntimeError("Not able to retrieve the dataset. Content is not valid."));
         }
         return null;
     }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.client.marshalling;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.dashbuilder.client.marshalling.ClientDataSetBinaryMarshaller.BinaryInput;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.junit.Test;
+
+import static org.dashbuilder.client.marshalling.ClientDataSetBinaryMarshaller.MAGIC;
+import static org.dashbuilder.client.marshalling.ClientDataSetBinaryMarshaller.VERSION;
+import static org.junit.Assert.assertEquals;
+
+public class ClientDataSetBinaryMarshallerTest {
+
+    ClientDataSetBinaryMarshaller marshaller = new ClientDataSetBinaryMarshaller();
+
+    @Test
+    public void testRead() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(3);
+        out.writeInt(4);
+
+        writeString("city", out);
+        writeString("LABEL", out);
+        // Third row is null
+        out.writeInt(1);
+        out.writeInt(0b100);
+        out.writeInt(2);
+        writeString("Barcelona", out);
+        writeString("Málaga", out);
+        out.writeInt(0);
+        out.writeInt(1);
+        out.writeInt(0);
+
+        writeString("amount", out);
+        writeString("NUMBER", out);
+        // Second row is null
+        out.writeInt(1);
+        out.writeInt(0b10);
+        out.writeDouble(1000.5d);
+        out.writeDouble(0);
+        out.writeDouble(-1e10d);
+
+        writeString("date", out);
+        writeString("DATE", out);
+        out.writeInt(0);
+        out.writeLong(1600000000123L);
+        out.writeLong(-86400000L);
+        out.writeLong(4102444800000L);
+
+        writeString("notes", out);
+        writeString("TEXT", out);
+        out.writeInt(1);
+        out.writeInt(0b1);
+        writeString(null, out);
+        writeString("", out);
+        writeString("third", out);
+
+        var expected = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .text("notes")
+                .row("Barcelona", 1000.5d, new Date(1600000000123L), null)
+                .row("Málaga", null, new Date(-86400000L), "")
+                .row(null, -1e10d, new Date(4102444800000L), "third")
+                .buildDataSet();
+        assertEquals(expected, read(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(0);
+        out.writeInt(0);
+
+        var dataSet = read(bytes.toByteArray());
+        assertEquals(0, dataSet.getColumns().size());
+        assertEquals(0, dataSet.getRowCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidContent() {
+        read(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedVersion() {
+        read(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION + 1).array());
+    }
+
+    private DataSet read(byte[] content) {
+        var buffer = ByteBuffer.wrap(content);
+        return marshaller.read(new BinaryInput() {
+
+            @Override
+            public int length() {
+                return content.length;
+            }
+
+            @Override
+            public int getInt(int offset) {
+                return buffer.getInt(offset);
+            }
+
+            @Override
+            public double getDouble(int offset) {
+                return buffer.getDouble(offset);
+            }
+
+            @Override
+            public byte getByte(int offset) {
+                return buffer.get(offset);
+            }
+        });
+    }
+
+    private static void writeString(String str, DataOutputStream out) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            var bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -21,10 +21,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.DataSetGroup;
 import org.dashbuilder.dataset.impl.AbstractDataSetOp;
+import org.dashbuilder.dataset.sort.ColumnSort;
 import org.dashbuilder.dataset.sort.DataSetSort;
 
 /**
@@ -311,4 +313,39 @@ public class DataSetLookup {
             return false;
         }
     }
+
+    /**
+     * The hash is taken over the same canonical form the JSON marshaller writes: the column filters and sorts of
+     * all the filter and sort operations are merged, and each operation type is hashed on its own. Hence, the hash
+     * of a lookup does not change after a JSON round trip.
+     */
+    @Override
+    public int hashCode() {
+        int filters = 1;
+        int groups = 1;
+        int sorts = 1;
+        int others = 1;
+        for (DataSetOp op : operationList) {
+            if (op instanceof DataSetFilter) {
+                for (ColumnFilter columnFilter : ((DataSetFilter) op).getColumnFilterList()) {
+                    filters = 31 * filters + columnFilter.hashCode();
+                }
+            } else if (op instanceof DataSetGroup) {
+                groups = 31 * groups + op.hashCode();
+            } else if (op instanceof DataSetSort) {
+                for (ColumnSort columnSort : ((DataSetSort) op).getColumnSortList()) {
+                    sorts = 31 * sorts + columnSort.hashCode();
+                }
+            } else {
+                others = 31 * others + op.hashCode();
+            }
+        }
+        int result = dataSetUUID != null ? dataSetUUID.hashCode() : 0;
+        result = 31 * result + rowOffset;
+        result = 31 * result + numberOfRows;
+        result = 31 * result + filters;
+        result = 31 * result + groups;
+        result = 31 * result + sorts;
+        return 31 * result + others;
+    }
 }
@@ -16,6 +16,7 @@
 package org.dashbuilder.dataset.filter;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -179,4 +180,30 @@ public class CoreFunctionFilter extends ColumnFilter {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (type != null ? type.name().hashCode() : 0);
+        for (Object param : parameters) {
+            result = 31 * result + hashParameter(param);
+        }
+        return result;
+    }
+
+    /**
+     * Hash a parameter the same way it is written by the JSON marshaller, so the hash of a filter does not change
+     * after a round trip: numbers as doubles and dates with a precision of seconds.
+     */
+    static int hashParameter(Object param) {
+        if (param == null) {
+            return 0;
+        }
+        if (param instanceof Number) {
+            return Double.valueOf(((Number) param).doubleValue()).hashCode();
+        }
+        if (param instanceof Date) {
+            return Long.valueOf(((Date) param).getTime() / 1000).hashCode();
+        }
+        return param.toString().hashCode();
+    }
 }
@@ -75,6 +75,10 @@ public class DataSetFilter extends AbstractDataSetOp {
         }
     }
 
+    public int hashCode() {
+        return columnFilterList.hashCode();
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         for (ColumnFilter columnFilter : columnFilterList) {
@@ -116,6 +116,17 @@ public class LogicalExprFilter extends ColumnFilter {
         }
     }
 
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (logicalOperator != null ? logicalOperator.name().hashCode() : 0);
+        // Terms are compared regardless of their order
+        int terms = 0;
+        for (ColumnFilter term : logicalTerms) {
+            terms += term.hashCode();
+        }
+        return 31 * result + terms;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         out.append("(");
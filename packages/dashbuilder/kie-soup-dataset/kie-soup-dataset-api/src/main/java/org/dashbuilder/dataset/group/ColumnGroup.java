@@ -157,6 +157,15 @@ public class ColumnGroup {
         }
     }
 
+    public int hashCode() {
+        int result = sourceId != null ? sourceId.hashCode() : 0;
+        result = 31 * result + (columnId != null ? columnId.hashCode() : 0);
+        result = 31 * result + (strategy != null ? strategy.name().hashCode() : 0);
+        result = 31 * result + (intervalSize != null ? intervalSize.hashCode() : 0);
+        result = 31 * result + (emptyIntervals ? 1 : 0);
+        return 31 * result + maxIntervals;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         out.append("column=").append(sourceId).append(" ");
@@ -175,6 +175,21 @@ public class DataSetGroup extends AbstractDataSetOp {
         }
     }
 
+    public int hashCode() {
+        int result = join ? 1 : 0;
+        result = 31 * result + (columnGroup != null ? columnGroup.hashCode() : 0);
+        // Functions and intervals are compared regardless of their order
+        int functions = 0;
+        for (GroupFunction groupFunction : groupFunctionList) {
+            functions += groupFunction.hashCode();
+        }
+        int intervals = 0;
+        for (Interval interval : selectedIntervalList) {
+            intervals += interval.hashCode();
+        }
+        return 31 * (31 * result + functions) + intervals;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         if (columnGroup != null) {
@@ -77,6 +77,12 @@ public class GroupFunction {
         }
     }
 
+    public int hashCode() {
+        int result = sourceId != null ? sourceId.hashCode() : 0;
+        result = 31 * result + (columnId != null ? columnId.hashCode() : 0);
+        return 31 * result + (function != null ? function.name().hashCode() : 0);
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         if (sourceId != null) out.append(" column=").append(sourceId);
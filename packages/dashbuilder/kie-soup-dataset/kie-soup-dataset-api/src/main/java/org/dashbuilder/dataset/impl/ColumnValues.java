@@ -0,0 +1,258 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * Base class for the column value lists used by the columnar storage mode of {@link DataSetImpl}.
+ * <p>Values are kept in primitive arrays plus a null bitmap and they are only boxed on every {@link #get(int)} call,
+ * so any code relying on the {@link org.dashbuilder.dataset.DataColumn#getValues()} list keeps working.</p>
+ */
+public abstract class ColumnValues extends AbstractList<Object> {
+
+    protected static final int DEFAULT_CAPACITY = 10;
+
+    protected int size = 0;
+
+    /**
+     * One bit per row set to 1 if the row value is null. It's only created once a null value is stored.
+     */
+    protected int[] nulls = null;
+
+    /**
+     * Check if the given column type is supported by the columnar storage mode.
+     */
+    public static boolean isColumnarType(ColumnType type) {
+        return ColumnType.NUMBER.equals(type) || ColumnType.DATE.equals(type) || ColumnType.LABEL.equals(type);
+    }
+
+    /**
+     * Create an empty column value list for the given column type.
+     * @return null if the column type is not supported.
+     */
+    public static ColumnValues create(ColumnType type, int capacity) {
+        if (ColumnType.NUMBER.equals(type)) {
+            return new NumberColumnValues(capacity);
+        }
+        if (ColumnType.DATE.equals(type)) {
+            return new DateColumnValues(capacity);
+        }
+        if (ColumnType.LABEL.equals(type)) {
+            return new LabelColumnValues(capacity);
+        }
+        return null;
+    }
+
+    /**
+     * Create a column value list for the given column type containing the same values as the specified list.
+     * @return null if the column type is not supported.
+     */
+    public static ColumnValues of(ColumnType type, List values) {
+        ColumnValues result = create(type, values.size());
+        if (result != null) {
+            for (Object value : values) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the value stored at the given row is null.
+     */
+    public boolean isNull(int row) {
+        checkIndex(row);
+        return nulls != null && (nulls[row >> 5] & (1 << (row & 31))) != 0;
+    }
+
+    /**
+     * Get a brand new (independent) copy of this list.
+     */
+    public abstract ColumnValues copy();
+
+    /**
+     * The estimated memory (in bytes) consumed by this list.
+     */
+    public long getEstimatedSize() {
+        return MemSizeEstimator.sizeOfIntArray(nulls) + MemSizeEstimator.sizeOfInteger;
+    }
+
+    /**
+     * Release any capacity not used by the current values.
+     */
+    public void trimToSize() {
+        if (capacity() > size) {
+            resize(size);
+        }
+        if (nulls != null && nulls.length > bitmapLength(size)) {
+            nulls = copyOf(nulls, bitmapLength(size));
+        }
+    }
+
+    // Hooks to be implemented by every primitive storage
+
+    protected abstract int capacity();
+
+    protected abstract void resize(int capacity);
+
+    protected abstract void move(int from, int to, int length);
+
+    protected abstract Object read(int row);
+
+    protected abstract void write(int row, Object value);
+
+    // List implementation
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int index) {
+        checkIndex(index);
+        if (isNull(index)) {
+            return null;
+        }
+        return read(index);
+    }
+
+    @Override
+    public Object set(int index, Object value) {
+        Object old = get(index);
+        store(index, value);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Object value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        if (index < size) {
+            move(index, index + 1, size - index);
+            shiftNulls(index, 1);
+        }
+        size++;
+        modCount++;
+        store(index, value);
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object old = get(index);
+        if (index < size - 1) {
+            move(index + 1, index, size - index - 1);
+        }
+        shiftNulls(index, -1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        nulls = null;
+        modCount++;
+    }
+
+    // Internals
+
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    protected void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+        if (minCapacity > capacity) {
+            resize(Math.max(minCapacity, capacity + (capacity >> 1) + 1));
+        }
+    }
+
+    protected void store(int row, Object value) {
+        if (value == null) {
+            setNull(row, true);
+        } else {
+            setNull(row, false);
+            write(row, value);
+        }
+    }
+
+    protected void setNull(int row, boolean isNull) {
+        if (nulls == null) {
+            if (!isNull) {
+                return;
+            }
+            nulls = new int[bitmapLength(capacity())];
+        }
+        int word = row >> 5;
+        if (word >= nulls.length) {
+            nulls = copyOf(nulls, bitmapLength(Math.max(row + 1, capacity())));
+        }
+        if (isNull) {
+            nulls[word] |= (1 << (row & 31));
+        } else {
+            nulls[word] &= ~(1 << (row & 31));
+        }
+    }
+
+    /**
+     * Shift the null bits placed after the given row, either one position forward (insert) or backwards (remove).
+     */
+    private void shiftNulls(int row, int delta) {
+        if (nulls == null) {
+            return;
+        }
+        if (delta > 0) {
+            for (int i = size - 1; i >= row; i--) {
+                setNull(i + 1, isNullBit(i));
+            }
+        } else {
+            for (int i = row; i < size - 1; i++) {
+                setNull(i, isNullBit(i + 1));
+            }
+            setNull(size - 1, false);
+        }
+    }
+
+    private boolean isNullBit(int row) {
+        int word = row >> 5;
+        return word < nulls.length && (nulls[word] & (1 << (row & 31))) != 0;
+    }
+
+    protected static int bitmapLength(int bits) {
+        return (bits + 31) >> 5;
+    }
+
+    protected static int[] copyOf(int[] array, int length) {
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        return result;
+    }
+
+    protected void copyTo(ColumnValues other) {
+        other.size = size;
+        other.nulls = nulls == null ? null : copyOf(nulls, nulls.length);
+    }
+}
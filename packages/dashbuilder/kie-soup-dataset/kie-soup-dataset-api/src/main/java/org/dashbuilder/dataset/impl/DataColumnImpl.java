@@ -129,7 +129,11 @@ public class DataColumnImpl implements DataColumn {
 
     public DataColumn cloneInstance() {
         DataColumnImpl otherCol = (DataColumnImpl) cloneEmpty();
-        otherCol.setValues(new ArrayList(values));
+        if (values instanceof ColumnValues) {
+            otherCol.setValues(((ColumnValues) values).copy());
+        } else {
+            otherCol.setValues(new ArrayList(values));
+        }
         return otherCol;
     }
 
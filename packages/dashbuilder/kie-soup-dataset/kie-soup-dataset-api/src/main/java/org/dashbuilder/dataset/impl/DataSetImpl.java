@@ -372,14 +372,46 @@ public class DataSetImpl implements DataSet {
         }
     }
 
+    /**
+     * Switch this data set to the columnar storage mode. The values of every NUMBER, DATE and LABEL column are
+     * moved into primitive backed lists (see {@link ColumnValues}) while TEXT columns are left untouched.
+     * @return This same data set instance.
+     */
+    public DataSetImpl toColumnar() {
+        for (DataColumnImpl column : columns) {
+            List values = column.getValues();
+            if (!(values instanceof ColumnValues) && ColumnValues.isColumnarType(column.getColumnType())) {
+                column.setValues(ColumnValues.of(column.getColumnType(), values));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return true if any of the data set columns is using the columnar storage mode.
+     */
+    public boolean isColumnar() {
+        for (DataColumnImpl column : columns) {
+            if (column.getValues() instanceof ColumnValues) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public long getEstimatedSize() {
         int nrows = getRowCount();
         if (nrows == 0) return 0;
 
         List<DataColumn> columns = getColumns();
-        int ncells = nrows * columns.size();
-        int result = ncells * 4;
+        long result = 0;
         for (int i = 0; i < columns.size(); i++) {
+            List values = columns.get(i).getValues();
+            if (values instanceof ColumnValues) {
+                result += ((ColumnValues) values).getEstimatedSize();
+                continue;
+            }
+            result += nrows * 4;
             Object firstRowValue = getValueAt(0, i);
             if (firstRowValue instanceof String) {
                 for (int j = 0; j < nrows; j++) {
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.Date;
+
+/**
+ * Values of a DATE column backed by a <tt>long[]</tt> of epoch milliseconds.
+ * <p>A brand new {@link Date} instance is returned on every read.</p>
+ */
+public class DateColumnValues extends ColumnValues {
+
+    protected long[] values;
+
+    public DateColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DateColumnValues(int capacity) {
+        values = new long[capacity];
+    }
+
+    /**
+     * Create a list backed by the given arrays (no copy is made).
+     *
+     * @param nulls The null bitmap (one bit per row), or null if there are no null values.
+     */
+    public DateColumnValues(long[] values, int size, int[] nulls) {
+        this.values = values;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Get the epoch milliseconds stored at the given row. Null values are returned as <tt>0</tt>,
+     * so {@link #isNull(int)} must be checked first.
+     */
+    public long getTime(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    /**
+     * Append a (not null) value given in epoch milliseconds.
+     */
+    public void addTime(long time) {
+        ensureCapacity(size + 1);
+        values[size] = time;
+        setNull(size, false);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ColumnValues copy() {
+        DateColumnValues other = new DateColumnValues(size);
+        System.arraycopy(values, 0, other.values, 0, size);
+        copyTo(other);
+        return other;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return super.getEstimatedSize() + MemSizeEstimator.sizeOfLongArray(values);
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        long[] result = new long[capacity];
+        System.arraycopy(values, 0, result, 0, Math.min(size, capacity));
+        values = result;
+    }
+
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    protected Object read(int row) {
+        return new Date(values[row]);
+    }
+
+    @Override
+    protected void write(int row, Object value) {
+        if (value instanceof Date) {
+            values[row] = ((Date) value).getTime();
+        } else if (value instanceof Number) {
+            values[row] = ((Number) value).longValue();
+        } else {
+            throw new IllegalArgumentException("Not a java.util.Date: " + value + " (" + value.getClass().getName() + ")");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values of a LABEL column encoded as an <tt>int[]</tt> of codes pointing to a dictionary of distinct labels.
+ */
+public class LabelColumnValues extends ColumnValues {
+
+    protected int[] codes;
+    protected List<String> dictionary = new ArrayList<String>();
+
+    /**
+     * Reverse dictionary lookup. Not marshalled, it gets rebuilt on demand. Only published once complete, as the
+     * values of a shared (cached) data set are read concurrently.
+     */
+    protected transient volatile Map<String, Integer> codeMap = null;
+
+    public LabelColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LabelColumnValues(int capacity) {
+        codes = new int[capacity];
+    }
+
+    /**
+     * Create a list backed by the given codes and dictionary (no copy is made).
+     *
+     * @param nulls The null bitmap (one bit per row), or null if there are no null values.
+     */
+    public LabelColumnValues(int[] codes, List<String> dictionary, int size, int[] nulls) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Get the dictionary code of the label stored at the given row. Null values are returned as <tt>-1</tt>.
+     */
+    public int getCode(int row) {
+        return isNull(row) ? -1 : codes[row];
+    }
+
+    /**
+     * Get the dictionary code for the given label.
+     * @return -1 if the label is not in the dictionary.
+     */
+    public int codeOf(String label) {
+        Integer code = getCodeMap().get(label);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * The list of distinct labels. The position of every label in this list is its code.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    @Override
+    public ColumnValues copy() {
+        LabelColumnValues other = new LabelColumnValues(size);
+        System.arraycopy(codes, 0, other.codes, 0, size);
+        other.dictionary = new ArrayList<String>(dictionary);
+        copyTo(other);
+        return other;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        long result = super.getEstimatedSize() + MemSizeEstimator.sizeOfIntArray(codes);
+        for (String label : dictionary) {
+            // The label itself plus the dictionary entries referencing it
+            result += MemSizeEstimator.sizeOfString(label) + MemSizeEstimator.sizeOfMapEntry;
+        }
+        return result;
+    }
+
+    @Override
+    protected int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        int[] result = new int[capacity];
+        System.arraycopy(codes, 0, result, 0, Math.min(size, capacity));
+        codes = result;
+    }
+
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(codes, from, codes, to, length);
+    }
+
+    @Override
+    protected Object read(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    @Override
+    protected void write(int row, Object value) {
+        String label = value instanceof String ? (String) value : value.toString();
+        Map<String, Integer> map = getCodeMap();
+        Integer code = map.get(label);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(label);
+            map.put(label, code);
+        }
+        codes[row] = code;
+    }
+
+    protected Map<String, Integer> getCodeMap() {
+        Map<String, Integer> map = codeMap;
+        if (map == null) {
+            map = new HashMap<String, Integer>();
+            for (int i = 0; i < dictionary.size(); i++) {
+                map.put(dictionary.get(i), i);
+            }
+            codeMap = map;
+        }
+        return map;
+    }
+}
@@ -33,6 +33,8 @@ public class MemSizeEstimator {
     public static int sizeOfFloat = 12;
     public static int sizeOfDouble = 16;
     public static int sizeOfBigDecimal = 32;
+    public static int sizeOfArrayHeader = 16;
+    public static int sizeOfMapEntry = 32;
 
     static Map<Class,Integer> sizeOfMap = new HashMap<Class, Integer>();
 
@@ -65,4 +67,22 @@ public class MemSizeEstimator {
 
         return 40 + s.length()*2;
     }
+
+    public static long sizeOfIntArray(int[] array) {
+        if (array == null) return 0;
+
+        return sizeOfArrayHeader + array.length * 4L;
+    }
+
+    public static long sizeOfLongArray(long[] array) {
+        if (array == null) return 0;
+
+        return sizeOfArrayHeader + array.length * 8L;
+    }
+
+    public static long sizeOfDoubleArray(double[] array) {
+        if (array == null) return 0;
+
+        return sizeOfArrayHeader + array.length * 8L;
+    }
 }
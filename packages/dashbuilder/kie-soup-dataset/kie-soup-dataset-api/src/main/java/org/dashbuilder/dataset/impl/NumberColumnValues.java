@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+/**
+ * Values of a NUMBER column backed by a <tt>double[]</tt>.
+ */
+public class NumberColumnValues extends ColumnValues {
+
+    protected double[] values;
+
+    public NumberColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public NumberColumnValues(int capacity) {
+        values = new double[capacity];
+    }
+
+    /**
+     * Create a list backed by the given arrays (no copy is made).
+     *
+     * @param nulls The null bitmap (one bit per row), or null if there are no null values.
+     */
+    public NumberColumnValues(double[] values, int size, int[] nulls) {
+        this.values = values;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Get the primitive value stored at the given row. Null values are returned as <tt>0</tt>,
+     * so {@link #isNull(int)} must be checked first.
+     */
+    public double getDouble(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    /**
+     * Append a (not null) value with no boxing involved.
+     */
+    public void addDouble(double value) {
+        ensureCapacity(size + 1);
+        values[size] = value;
+        setNull(size, false);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ColumnValues copy() {
+        NumberColumnValues other = new NumberColumnValues(size);
+        System.arraycopy(values, 0, other.values, 0, size);
+        copyTo(other);
+        return other;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return super.getEstimatedSize() + MemSizeEstimator.sizeOfDoubleArray(values);
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        double[] result = new double[capacity];
+        System.arraycopy(values, 0, result, 0, Math.min(size, capacity));
+        values = result;
+    }
+
+    @Override
+    protected void move(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    protected Object read(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void write(int row, Object value) {
+        try {
+            values[row] = ((Number) value).doubleValue();
+        } catch (ClassCastException e) {
+            values[row] = Double.parseDouble(value.toString());
+        }
+    }
+}
@@ -79,4 +79,8 @@ public class DataSetSort extends AbstractDataSetOp {
             return false;
         }
     }
+
+    public int hashCode() {
+        return columnSortList.hashCode();
+    }
 }
@@ -48,6 +48,7 @@ import static org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller.FUNCTION;
 import static org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller.FUNCTION_ARGS;
 import static org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller.FUNCTION_LABEL_VALUE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -78,6 +79,33 @@ public class DataSetLookupJsonTest {
         assertEquals(unmarshalled, original);
     }
 
+    @Test
+    public void testDataSetLookupHashCode() {
+        DataSetLookup original = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset("mydataset")
+                .filter(OR(notEqualsTo("department", "IT"), greaterOrEqualsTo("amount", 100)))
+                .filter("date", greaterThan(jsonMarshaller.parseDate("2018-01-01 00:00:00")))
+                .group("department").select("Services")
+                .group("date", "year").dynamic(DateIntervalType.YEAR, true)
+                .column("date")
+                .column("amount", AggregateFunctionType.SUM, "total")
+                .sort("date", SortOrder.ASCENDING)
+                .sort("amount", SortOrder.DESCENDING)
+                .rowNumber(10)
+                .buildLookup();
+
+        assertEquals(original.hashCode(), original.cloneInstance().hashCode());
+
+        // Numbers are turned into doubles
+        DataSetLookup unmarshalled = jsonMarshaller.fromJson(jsonMarshaller.toJson(original));
+        assertEquals(original.hashCode(), unmarshalled.hashCode());
+        assertEquals(unmarshalled.hashCode(), jsonMarshaller.fromJson(jsonMarshaller.toJson(unmarshalled)).hashCode());
+
+        DataSetLookup other = original.cloneInstance();
+        other.getFirstSortOp().invertOrder();
+        assertNotEquals(original.hashCode(), other.hashCode());
+    }
+
     @Test
     public void testDateFormat() {
         String d1 = "2020-11-10 23:59:59";
@@ -20,19 +20,29 @@ import org.dashbuilder.dataprovider.DataSetProviderRegistry;
 import org.dashbuilder.dataprovider.DataSetProviderRegistryImpl;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.ChronometerImpl;
+import org.dashbuilder.dataset.ConcurrentDataSetIndexRegistry;
 import org.dashbuilder.dataset.DataSetDefDeployer;
 import org.dashbuilder.dataset.DataSetDefRegistryImpl;
 import org.dashbuilder.dataset.DataSetManager;
 import org.dashbuilder.dataset.DataSetManagerImpl;
 import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
 import org.dashbuilder.dataset.IntervalBuilderLocatorImpl;
+import org.dashbuilder.dataset.ParallelAggregateFunctionManager;
+import org.dashbuilder.dataset.ParallelExecution;
+import org.dashbuilder.dataset.ParallelFilterAlgorithm;
+import org.dashbuilder.dataset.PatternLikeToMatcherFactory;
 import org.dashbuilder.dataset.UUIDGeneratorImpl;
 import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.engine.Chronometer;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterAlgorithm;
+import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
+import org.dashbuilder.dataset.group.AggregateFunctionManager;
 import org.dashbuilder.dataset.json.DataSetDefJSONMarshaller;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 import org.dashbuilder.scheduler.Scheduler;
+import org.dashbuilder.scheduler.TimerWheelScheduler;
 
 public class DataSetCoreImpl extends DataSetCore {
 
@@ -52,6 +62,7 @@ public class DataSetCoreImpl extends DataSetCore {
     private ChronometerImpl chronometerImpl;
     private UUIDGeneratorImpl uuidGeneratorImpl;
     private DataSetDefJSONMarshaller dataSetDefJSONMarshaller;
+    private ParallelExecution parallelExecution = ParallelExecution.isEnabled() ? ParallelExecution.fromSystemProperties() : null;
 
     // Factory methods
 
@@ -75,6 +86,27 @@ public class DataSetCoreImpl extends DataSetCore {
         return getUUIDGeneratorImpl();
     }
 
+    @Override
+    public DataSetIndexRegistry newIndexRegistry() {
+        return new ConcurrentDataSetIndexRegistry(checkNotNull(getUuidGenerator(), "UUIDGenerator"));
+    }
+
+    @Override
+    public DataSetFilterAlgorithm newFilterAlgorithm() {
+        if (getParallelExecution() != null) {
+            return new ParallelFilterAlgorithm(new PatternLikeToMatcherFactory(), getParallelExecution());
+        }
+        return new DefaultFilterAlgorithm(new PatternLikeToMatcherFactory());
+    }
+
+    @Override
+    public AggregateFunctionManager newAggregateFunctionManager() {
+        if (getParallelExecution() != null) {
+            return new ParallelAggregateFunctionManager(getParallelExecution());
+        }
+        return super.newAggregateFunctionManager();
+    }
+
     // Getters
 
     public boolean isDataSetPushEnabled() {
@@ -85,6 +117,13 @@ public class DataSetCoreImpl extends DataSetCore {
         return dataSetPushMaxSize;
     }
 
+    /**
+     * The settings for the parallel execution of the data set operations, or null if disabled.
+     */
+    public ParallelExecution getParallelExecution() {
+        return parallelExecution;
+    }
+
     public DataSetManagerImpl getDataSetManagerImpl() {
         if (dataSetManagerImpl == null) {
             dataSetManagerImpl = new DataSetManagerImpl(
@@ -126,7 +165,7 @@ public class DataSetCoreImpl extends DataSetCore {
 
     public Scheduler getScheduler() {
         if (scheduler == null) {
-            scheduler = new Scheduler();
+            scheduler = TimerWheelScheduler.isEnabled() ? new TimerWheelScheduler() : new Scheduler();
         }
         return scheduler;
     }
@@ -189,6 +228,10 @@ public class DataSetCoreImpl extends DataSetCore {
 
     // Setters
 
+    public void setParallelExecution(ParallelExecution parallelExecution) {
+        this.parallelExecution = parallelExecution;
+    }
+
     public void setDataSetPushEnabled(boolean dataSetPushEnabled) {
         this.dataSetPushEnabled = dataSetPushEnabled;
     }
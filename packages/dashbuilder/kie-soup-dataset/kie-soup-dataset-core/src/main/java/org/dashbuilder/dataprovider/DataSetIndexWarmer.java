@@ -0,0 +1,535 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataset.ConcurrentDataSetIndexRegistry;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
+import org.dashbuilder.json.Json;
+import org.dashbuilder.json.JsonArray;
+import org.dashbuilder.json.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-builds the indexes of the data sets kept by the {@link StaticDataSetProvider}, so the first users hitting a
+ * dashboard after a restart or a data set refresh do not have to pay for them.
+ * <p>The operations of every lookup served are recorded per data set, together with the number of times they have
+ * been requested, and periodically saved to disk. Every time a data set is registered (loaded for the first time,
+ * restored from its snapshot or refreshed) its most requested lookups are replayed in the background. A replay
+ * builds the very same filter, group and sort indexes the original lookup did.</p>
+ * <p>A single low priority thread replays the lookups, pausing after every one as long as it took, so at most half
+ * a core is ever used. Each warm-up also stops once it exceeds its CPU time or the memory its indexes consume goes
+ * beyond the configured budget.</p>
+ * <p>The warm-up is disabled by default. The following system properties can be used to configure it:</p>
+ * <ul>
+ *     <li><code>dashbuilder.dataset.warmup.dir</code>: the directory where to store the recorded lookups. Setting
+ *     it enables the warm-up.</li>
+ *     <li><code>dashbuilder.dataset.warmup.maxLookups</code>: the number of lookups replayed per data set (20 by
+ *     default).</li>
+ *     <li><code>dashbuilder.dataset.warmup.cpuBudget</code>: the CPU time, in milliseconds, a data set warm-up can
+ *     take (2000 by default).</li>
+ *     <li><code>dashbuilder.dataset.warmup.maxSize</code>: the memory, in bytes, the indexes built by a data set
+ *     warm-up can take. The <code>k</code>, <code>m</code> &amp; <code>g</code> suffixes are supported (64m by
+ *     default).</li>
+ * </ul>
+ */
+public class DataSetIndexWarmer {
+
+    public static final String DIR_PROP = "dashbuilder.dataset.warmup.dir";
+    public static final String MAX_LOOKUPS_PROP = "dashbuilder.dataset.warmup.maxLookups";
+    public static final String CPU_BUDGET_PROP = "dashbuilder.dataset.warmup.cpuBudget";
+    public static final String MAX_SIZE_PROP = "dashbuilder.dataset.warmup.maxSize";
+    public static final String FILE_EXT = ".lookups";
+
+    /**
+     * Min. time between two writes of the recorded lookups.
+     */
+    public static final long SAVE_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Number of distinct lookups recorded per data set, as a multiple of the lookups replayed. Once reached, the
+     * least requested lookup is forgotten in favour of the new one.
+     */
+    static final int RECORDED_FACTOR = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(DataSetIndexWarmer.class);
+
+    private StaticDataSetProvider staticDataSetProvider;
+    private File dir;
+    private int maxLookups;
+    private long cpuBudgetNanos;
+    private long maxSize;
+
+    private Map<String, Map<List<DataSetOp>, HotLookup>> recordedMap = new ConcurrentHashMap<>();
+    private Set<String> dirtySet = ConcurrentHashMap.newKeySet();
+    private Set<String> restoringSet = ConcurrentHashMap.newKeySet();
+    private Map<String, Future<Integer>> pendingMap = new ConcurrentHashMap<>();
+    private AtomicLong lastSave = new AtomicLong(System.currentTimeMillis());
+    private volatile Thread warmUpThread;
+    private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dataset-warmup");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        warmUpThread = t;
+        return t;
+    });
+
+    /**
+     * @param cpuBudgetMillis The CPU time a data set warm-up can take.
+     * @param maxSize The memory (in bytes) the indexes built by a data set warm-up can take.
+     */
+    public DataSetIndexWarmer(StaticDataSetProvider staticDataSetProvider, File dir, int maxLookups, long cpuBudgetMillis, long maxSize) {
+        this.staticDataSetProvider = staticDataSetProvider;
+        this.dir = dir;
+        this.maxLookups = maxLookups;
+        this.cpuBudgetNanos = cpuBudgetMillis * 1000000;
+        this.maxSize = maxSize;
+    }
+
+    public static boolean isEnabled() {
+        return !StringUtils.isBlank(System.getProperty(DIR_PROP));
+    }
+
+    public static DataSetIndexWarmer fromSystemProperties(StaticDataSetProvider staticDataSetProvider) {
+        return new DataSetIndexWarmer(staticDataSetProvider,
+                                      new File(System.getProperty(DIR_PROP)),
+                                      Integer.parseInt(System.getProperty(MAX_LOOKUPS_PROP, "20")),
+                                      Long.parseLong(System.getProperty(CPU_BUDGET_PROP, "2000")),
+                                      ConcurrentDataSetIndexRegistry.parseSize(System.getProperty(MAX_SIZE_PROP, "64m")));
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    public int getMaxLookups() {
+        return maxLookups;
+    }
+
+    /**
+     * Record a lookup served. Nothing is recorded for the lookups replayed by the warm-up itself. The lookups saved
+     * by a former execution are read in the background the first time a data set is recorded, so no disk access is
+     * ever done on the calling thread.
+     *
+     * @param ops The operations of the lookup. They are copied, so the lookup can be modified afterwards.
+     */
+    public void record(String uuid, List<DataSetOp> ops) {
+        if (ops.isEmpty() || Thread.currentThread() == warmUpThread) {
+            return;
+        }
+        try {
+            boolean[] created = {false};
+            Map<List<DataSetOp>, HotLookup> lookups = recordedMap.computeIfAbsent(uuid, k -> {
+                restoringSet.add(k);
+                created[0] = true;
+                return new ConcurrentHashMap<>();
+            });
+            if (created[0]) {
+                executor.execute(() -> restore(uuid));
+            }
+            // The operations are compared as they are, they are only written as JSON once saved
+            HotLookup lookup = lookups.get(ops);
+            if (lookup == null) {
+                if (lookups.size() >= maxLookups * RECORDED_FACTOR) {
+                    forgetColdest(lookups);
+                }
+                lookup = lookups.computeIfAbsent(copy(ops), k -> new HotLookup(k, 0));
+            }
+            lookup.hits.incrementAndGet();
+            dirtySet.add(uuid);
+        } catch (Exception e) {
+            log.debug("Unable to record a lookup on data set " + uuid, e);
+            return;
+        }
+        long last = lastSave.get();
+        long now = System.currentTimeMillis();
+        if (now - last >= SAVE_INTERVAL_MILLIS && lastSave.compareAndSet(last, now)) {
+            executor.execute(this::saveAll);
+        }
+    }
+
+    /**
+     * Replay in the background the most requested lookups of a data set. Nothing is done if a warm-up of the same
+     * data set is already waiting to be executed.
+     *
+     * @return The number of lookups replayed.
+     */
+    public Future<Integer> warmUp(String uuid) {
+        FutureTask<Integer>[] created = new FutureTask[1];
+        Future<Integer> future = pendingMap.computeIfAbsent(uuid, k -> created[0] = new FutureTask<>(() -> doWarmUp(k)));
+        if (created[0] != null) {
+            FutureTask<Integer> task = created[0];
+            executor.execute(() -> {
+                // A data set registered from now on requires a new warm-up
+                pendingMap.remove(uuid, task);
+                task.run();
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Get the lookups to replay on a data set, the most requested first.
+     */
+    public List<DataSetLookup> getHotLookups(String uuid) {
+        List<DataSetLookup> result = new ArrayList<>();
+        for (HotLookup lookup : getHottest(uuid)) {
+            result.add(lookup.toLookup(uuid));
+        }
+        return result;
+    }
+
+    /**
+     * Release the lookups recorded on a data set no longer in memory. The ones not saved yet are written to disk in
+     * the background, and any warm-up waiting to be executed is cancelled.
+     */
+    public void forget(String uuid) {
+        Future<Integer> pending = pendingMap.remove(uuid);
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        Map<List<DataSetOp>, HotLookup> lookups = recordedMap.remove(uuid);
+        boolean restoring = restoringSet.remove(uuid);
+        if (lookups != null && dirtySet.remove(uuid)) {
+            Runnable saveTask = () -> {
+                synchronized (lookups) {
+                    if (restoring) {
+                        merge(uuid, lookups);
+                    }
+                    save(uuid, lookups);
+                }
+            };
+            if (executor.isShutdown()) {
+                saveTask.run();
+            } else {
+                executor.execute(saveTask);
+            }
+        }
+    }
+
+    /**
+     * Write to disk the lookups recorded since the last save.
+     */
+    public void saveAll() {
+        lastSave.set(System.currentTimeMillis());
+        for (Iterator<String> it = dirtySet.iterator(); it.hasNext(); ) {
+            String uuid = it.next();
+            it.remove();
+            Map<List<DataSetOp>, HotLookup> lookups = restore(uuid);
+            if (lookups != null) {
+                synchronized (lookups) {
+                    save(uuid, lookups);
+                }
+            }
+        }
+    }
+
+    /**
+     * Save the recorded lookups and stop the warm-up thread.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        saveAll();
+    }
+
+    protected int doWarmUp(String uuid) {
+        long initialSize = getIndexSize(uuid);
+        if (initialSize < 0) {
+            return 0;
+        }
+        List<HotLookup> lookups = getHottest(uuid);
+        if (lookups.isEmpty()) {
+            return 0;
+        }
+        long cpuStart = getCpuTime();
+        int replayed = 0;
+        for (HotLookup lookup : lookups) {
+            if (getCpuTime() - cpuStart >= cpuBudgetNanos) {
+                log.debug("Data set " + uuid + " warm-up stopped: CPU budget exhausted");
+                break;
+            }
+            long size = getIndexSize(uuid);
+            if (size < 0 || size - initialSize >= maxSize) {
+                log.debug("Data set " + uuid + " warm-up stopped: " + (size < 0 ? "data set removed" : "memory budget exhausted"));
+                break;
+            }
+            long start = System.nanoTime();
+            try {
+                staticDataSetProvider.lookupDataSet(uuid, lookup.toLookup(uuid));
+                replayed++;
+            } catch (Exception e) {
+                // The data set structure may have changed since the lookup was recorded
+                log.debug("Discarding lookup on data set " + uuid + ": " + e.getMessage());
+                getLookups(uuid).remove(lookup.ops, lookup);
+                dirtySet.add(uuid);
+            }
+            if (!pause(System.nanoTime() - start)) {
+                break;
+            }
+        }
+        log.debug("Data set " + uuid + " warm-up: " + replayed + " lookups replayed in " +
+                          (getCpuTime() - cpuStart) / 1000000 + " ms of CPU");
+        return replayed;
+    }
+
+    protected List<HotLookup> getHottest(String uuid) {
+        // Sort on a snapshot of the hits, since they keep changing while sorting
+        List<RankedLookup> ranked = new ArrayList<>();
+        for (HotLookup lookup : getLookups(uuid).values()) {
+            ranked.add(new RankedLookup(lookup, lookup.getHits()));
+        }
+        ranked.sort(Comparator.comparingLong((RankedLookup r) -> r.hits).reversed());
+        List<HotLookup> result = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && i < maxLookups; i++) {
+            result.add(ranked.get(i).lookup);
+        }
+        return result;
+    }
+
+    /**
+     * Get the lookups recorded on a data set, including the ones saved by a former execution. Not to be called on
+     * the threads serving lookups, since it may read from disk.
+     */
+    protected Map<List<DataSetOp>, HotLookup> getLookups(String uuid) {
+        Map<List<DataSetOp>, HotLookup> lookups = restore(uuid);
+        if (lookups == null) {
+            Map<List<DataSetOp>, HotLookup> loaded = load(uuid);
+            lookups = recordedMap.putIfAbsent(uuid, loaded);
+            return lookups == null ? loaded : getLookups(uuid);
+        }
+        return lookups;
+    }
+
+    /**
+     * Complete the recorded lookups of a data set with the ones saved by a former execution, if not done yet.
+     *
+     * @return The lookups recorded, or null if none.
+     */
+    protected Map<List<DataSetOp>, HotLookup> restore(String uuid) {
+        Map<List<DataSetOp>, HotLookup> lookups = recordedMap.get(uuid);
+        if (lookups == null || !restoringSet.contains(uuid)) {
+            return lookups;
+        }
+        synchronized (lookups) {
+            if (restoringSet.remove(uuid)) {
+                merge(uuid, lookups);
+            }
+        }
+        return lookups;
+    }
+
+    protected void merge(String uuid, Map<List<DataSetOp>, HotLookup> lookups) {
+        for (HotLookup saved : load(uuid).values()) {
+            HotLookup lookup = lookups.putIfAbsent(saved.ops, saved);
+            if (lookup != null) {
+                lookup.hits.addAndGet(saved.getHits());
+            }
+        }
+        while (lookups.size() > maxLookups * RECORDED_FACTOR) {
+            forgetColdest(lookups);
+        }
+    }
+
+    protected void forgetColdest(Map<List<DataSetOp>, HotLookup> lookups) {
+        HotLookup coldest = null;
+        for (HotLookup lookup : lookups.values()) {
+            if (coldest == null || lookup.getHits() < coldest.getHits()) {
+                coldest = lookup;
+            }
+        }
+        if (coldest != null) {
+            lookups.remove(coldest.ops, coldest);
+        }
+    }
+
+    /**
+     * The estimated memory (in bytes) consumed by a data set and its indexes, or -1 if it's not in memory.
+     */
+    protected long getIndexSize(String uuid) {
+        DataSetIndex index = staticDataSetProvider.getDataSetIndex(uuid);
+        if (index == null) {
+            return -1;
+        }
+        long[] size = {0};
+        index.acceptVisitor(element -> size[0] += element.getEstimatedSize());
+        return size[0];
+    }
+
+    protected long getCpuTime() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Give way to the live traffic.
+     *
+     * @return false if the warm-up has been interrupted.
+     */
+    protected boolean pause(long nanos) {
+        try {
+            Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    protected void save(String uuid, Map<List<DataSetOp>, HotLookup> lookups) {
+        Path target = getFile(uuid).toPath();
+        Path temp = null;
+        try {
+            JsonArray lookupsJson = Json.createArray();
+            for (HotLookup lookup : lookups.values()) {
+                JsonObject lookupJson = Json.createObject();
+                lookupJson.put("hits", lookup.getHits());
+                lookupJson.put("ops", toJson(lookup.ops));
+                lookupsJson.set(lookupsJson.length(), lookupJson);
+            }
+            JsonObject json = Json.createObject();
+            json.put("uuid", uuid);
+            json.put("lookups", lookupsJson);
+
+            Files.createDirectories(dir.toPath());
+            temp = Files.createTempFile(dir.toPath(), ".lookups", ".tmp");
+            Files.write(temp, json.toJson().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to save the lookups of data set " + uuid, e);
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    protected Map<List<DataSetOp>, HotLookup> load(String uuid) {
+        Map<List<DataSetOp>, HotLookup> result = new ConcurrentHashMap<>();
+        File file = getFile(uuid);
+        if (!file.exists()) {
+            return result;
+        }
+        try {
+            JsonObject json = Json.parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            JsonArray lookupsJson = json.getArray("lookups");
+            DataSetLookupJSONMarshaller marshaller = DataSetLookupJSONMarshaller.get();
+            for (int i = 0; lookupsJson != null && i < lookupsJson.length(); i++) {
+                JsonObject lookupJson = lookupsJson.getObject(i);
+                JsonArray opsJson = lookupJson.getArray("ops");
+                List<DataSetOp> ops = new ArrayList<>();
+                for (int j = 0; j < opsJson.length(); j++) {
+                    ops.addAll(marshaller.fromJson(opsJson.getObject(j)).getOperationList());
+                }
+                long hits = lookupJson.getNumber("hits", 0).longValue();
+                result.put(ops, new HotLookup(ops, hits));
+            }
+        } catch (Exception e) {
+            log.warn("Discarding invalid lookups file of data set " + uuid, e);
+            file.delete();
+        }
+        return result;
+    }
+
+    /**
+     * Every operation is written as a lookup on its own, since the lookup format does not keep the order of the
+     * operations.
+     */
+    protected JsonArray toJson(List<DataSetOp> ops) {
+        DataSetLookupJSONMarshaller marshaller = DataSetLookupJSONMarshaller.get();
+        JsonArray result = Json.createArray();
+        for (DataSetOp op : ops) {
+            JsonObject opJson = marshaller.toJson(new DataSetLookup(null, op));
+            opJson.remove("rowCount");
+            opJson.remove("rowOffset");
+            result.set(result.length(), opJson);
+        }
+        return result;
+    }
+
+    protected File getFile(String uuid) {
+        String name = uuid.replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(dir, name + "-" + Integer.toHexString(uuid.hashCode()) + FILE_EXT);
+    }
+
+    protected static List<DataSetOp> copy(List<DataSetOp> ops) {
+        List<DataSetOp> result = new ArrayList<>(ops.size());
+        for (DataSetOp op : ops) {
+            result.add(op.cloneInstance());
+        }
+        return result;
+    }
+
+    protected static class HotLookup {
+
+        List<DataSetOp> ops;
+        AtomicLong hits;
+
+        HotLookup(List<DataSetOp> ops, long hits) {
+            this.ops = ops;
+            this.hits = new AtomicLong(hits);
+        }
+
+        long getHits() {
+            return hits.get();
+        }
+
+        DataSetLookup toLookup(String uuid) {
+            DataSetLookup lookup = new DataSetLookup();
+            lookup.setDataSetUUID(uuid);
+            lookup.getOperationList().addAll(copy(ops));
+            return lookup;
+        }
+    }
+
+    private static class RankedLookup {
+
+        HotLookup lookup;
+        long hits;
+
+        RankedLookup(HotLookup lookup, long hits) {
+            this.lookup = lookup;
+            this.hits = hits;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.dashbuilder.dataset.DataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the data sets kept in the {@link StaticDataSetProvider} on behalf of the providers that cache them.
+ * <ul>
+ *     <li>Single-flight: concurrent loads of the same data set are served by a single call to its source.</li>
+ *     <li>Stale-while-revalidate: if enabled, the providers refresh a stale data set in the background instead of
+ *     removing it. The refreshes run on the refresher's own threads, so the caller does not wait for them. The
+ *     previous version is served until the new one is registered, which replaces it atomically. If the refresh
+ *     fails the previous version is kept. If the data set is invalidated while it's being refreshed, for instance
+ *     because its definition has been modified or removed, the data set read is discarded.</li>
+ * </ul>
+ * <p>Stale-while-revalidate is disabled by default. It can be enabled by setting the
+ * <code>dashbuilder.dataset.refresh.staleWhileRevalidate</code> system property to true.</p>
+ */
+public class DataSetRefresher {
+
+    public static final String STALE_WHILE_REVALIDATE_PROP = "dashbuilder.dataset.refresh.staleWhileRevalidate";
+
+    private static final Logger log = LoggerFactory.getLogger(DataSetRefresher.class);
+
+    /**
+     * Loads a data set from its source and registers it into the static provider.
+     */
+    public interface Loader {
+
+        /**
+         * @return The data set registered or null if it can no longer be kept in memory.
+         */
+        DataSet load() throws Exception;
+    }
+
+    /**
+     * Reads a data set from its source, without registering it.
+     */
+    public interface Fetcher {
+
+        /**
+         * @return The data set read or null if it can no longer be kept in memory.
+         */
+        DataSet fetch() throws Exception;
+    }
+
+    private StaticDataSetProvider staticDataSetProvider;
+    private boolean staleWhileRevalidate = Boolean.parseBoolean(System.getProperty(STALE_WHILE_REVALIDATE_PROP, "false"));
+    private Map<String, CompletableFuture<DataSet>> inFlight = new ConcurrentHashMap<>();
+    private Map<String, RefreshStats> statsMap = new ConcurrentHashMap<>();
+    private final Object publishLock = new Object();
+    private ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "dataset-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DataSetRefresher(StaticDataSetProvider staticDataSetProvider) {
+        this.staticDataSetProvider = staticDataSetProvider;
+    }
+
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    /**
+     * Load a data set. If the same data set is already being loaded then wait for it instead of calling the loader.
+     *
+     * @return The data set returned by the loader.
+     */
+    public DataSet load(String uuid, Loader loader) throws Exception {
+        CompletableFuture<DataSet> future = new CompletableFuture<>();
+        CompletableFuture<DataSet> current = inFlight.putIfAbsent(uuid, future);
+        if (current != null) {
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        RefreshStats stats = statsMap.computeIfAbsent(uuid, RefreshStats::new);
+        long start = System.currentTimeMillis();
+        try {
+            DataSet dataSet = loader.load();
+            stats.loaded(start, System.currentTimeMillis());
+            future.complete(dataSet);
+            return dataSet;
+        } catch (Exception | Error e) {
+            stats.failed(start, System.currentTimeMillis());
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(uuid, future);
+        }
+    }
+
+    /**
+     * Reload a data set which is currently in memory, in the background. Nothing is done if the data set is not in
+     * memory, as it will be loaded by the next lookup anyway. The data set read replaces the one in memory, unless
+     * the latter has been removed or replaced in the meantime. If the data set read is null, it no longer fits into
+     * memory and the one in memory is removed along with its snapshot.
+     *
+     * @return A future completed with true once the data set has been reloaded, or with false if it's not in memory,
+     * its reload failed, in which case the previous version (if any) is still served, or it has been invalidated.
+     */
+    public CompletableFuture<Boolean> refresh(String uuid, Fetcher fetcher) {
+        DataSet previous = staticDataSetProvider.lookupDataSet(uuid, null);
+        if (previous == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> doRefresh(uuid, previous, fetcher), executor);
+        } catch (RejectedExecutionException e) {
+            log.debug("Data set " + uuid + " not refreshed, the refresher has been shut down");
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    protected boolean doRefresh(String uuid, DataSet previous, Fetcher fetcher) {
+        if (staticDataSetProvider.lookupDataSet(uuid, null) != previous) {
+            log.debug("Data set " + uuid + " not refreshed, it has been invalidated");
+            return false;
+        }
+        try {
+            load(uuid, () -> publish(uuid, previous, fetcher.fetch()));
+            RefreshStats stats = statsMap.get(uuid);
+            log.debug("Data set " + uuid + " refreshed in " + stats.getLastDurationMillis() + " ms");
+            return true;
+        } catch (CancellationException e) {
+            log.debug("Data set " + uuid + " refresh discarded: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            log.warn("Data set " + uuid + " refresh failed. The previous version is kept: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replace the data set in memory with the one just read, provided the former is still the one refreshed.
+     */
+    protected DataSet publish(String uuid, DataSet previous, DataSet dataSet) {
+        synchronized (publishLock) {
+            if (staticDataSetProvider.lookupDataSet(uuid, null) != previous) {
+                throw new CancellationException("it has been invalidated while being read");
+            }
+            if (dataSet == null) {
+                staticDataSetProvider.removeDataSet(uuid);
+                staticDataSetProvider.deleteSnapshot(uuid);
+            } else if (dataSet != previous) {
+                staticDataSetProvider.registerDataSet(dataSet, DataSetSnapshotStore.NO_SOURCE_VERSION);
+            }
+            return dataSet;
+        }
+    }
+
+    /**
+     * Discard a data set whose definition is no longer valid: it's removed from memory along with its load metrics,
+     * the refreshes in progress are discarded and further loads do not wait for the ones in progress.
+     */
+    public void invalidate(String uuid) {
+        synchronized (publishLock) {
+            inFlight.remove(uuid);
+            staticDataSetProvider.removeDataSet(uuid);
+        }
+        removeStats(uuid);
+    }
+
+    /**
+     * Stop the refresh threads. The refreshes in progress are interrupted and further refreshes are ignored.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isLoading(String uuid) {
+        return inFlight.containsKey(uuid);
+    }
+
+    /**
+     * Get the time elapsed since the data set in memory was loaded, or -1 if it's not in memory.
+     */
+    public long getStalenessMillis(String uuid) {
+        DataSet dataSet = staticDataSetProvider.lookupDataSet(uuid, null);
+        if (dataSet == null) {
+            return -1;
+        }
+        RefreshStats stats = statsMap.get(uuid);
+        long loadTime = stats != null && stats.getLastLoadTime() > 0 ? stats.getLastLoadTime() :
+                dataSet.getCreationDate() != null ? dataSet.getCreationDate().getTime() : System.currentTimeMillis();
+        return Math.max(0, System.currentTimeMillis() - loadTime);
+    }
+
+    public RefreshStats getStats(String uuid) {
+        return statsMap.get(uuid);
+    }
+
+    public List<RefreshStats> getStats() {
+        return new ArrayList<>(statsMap.values());
+    }
+
+    public void removeStats(String uuid) {
+        statsMap.remove(uuid);
+    }
+
+    /**
+     * Load metrics of a single data set.
+     */
+    public static class RefreshStats {
+
+        private String uuid;
+        private long loads;
+        private long failures;
+        private long lastDurationMillis;
+        private long maxDurationMillis;
+        private long totalDurationMillis;
+        private long lastLoadTime;
+        private long lastFailureTime;
+
+        public RefreshStats(String uuid) {
+            this.uuid = uuid;
+        }
+
+        synchronized void loaded(long start, long end) {
+            loads++;
+            lastLoadTime = end;
+            duration(end - start);
+        }
+
+        synchronized void failed(long start, long end) {
+            failures++;
+            lastFailureTime = end;
+            duration(end - start);
+        }
+
+        private void duration(long millis) {
+            lastDurationMillis = millis;
+            maxDurationMillis = Math.max(maxDurationMillis, millis);
+            totalDurationMillis += millis;
+        }
+
+        public String getUUID() {
+            return uuid;
+        }
+
+        public synchronized long getLoads() {
+            return loads;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public synchronized long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+
+        public synchronized long getMaxDurationMillis() {
+            return maxDurationMillis;
+        }
+
+        public synchronized long getAverageDurationMillis() {
+            long calls = loads + failures;
+            return calls == 0 ? 0 : totalDurationMillis / calls;
+        }
+
+        public synchronized long getLastLoadTime() {
+            return lastLoadTime;
+        }
+
+        public synchronized long getLastFailureTime() {
+            return lastFailureTime;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return uuid + " [loads=" + loads + ", failures=" + failures + ", lastDuration=" + lastDurationMillis +
+                    "ms, maxDuration=" + maxDurationMillis + "ms]";
+        }
+    }
+}
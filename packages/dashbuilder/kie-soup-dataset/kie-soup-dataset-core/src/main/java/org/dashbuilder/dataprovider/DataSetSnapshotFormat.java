@@ -0,0 +1,257 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Binary layout of the data set snapshots. A snapshot is made of a header followed by the columns:
+ * <pre>
+ *   magic, version, definition, source version, creation date, rows, columns
+ *   for every column: id, type, null bitmap, values
+ * </pre>
+ * <p>NUMBER and DATE values are stored as plain <tt>double</tt> and <tt>long</tt> arrays, LABEL values as a
+ * dictionary plus an <tt>int</tt> array of codes and TEXT values as a list of strings. So every column, but TEXT ones,
+ * can be read back in bulk straight into the columnar storage.</p>
+ */
+public class DataSetSnapshotFormat {
+
+    public static final int MAGIC = 0x44534E50;
+    public static final int VERSION = 1;
+
+    /**
+     * The header of a snapshot.
+     */
+    public static class Header {
+
+        private String definition;
+        private long sourceVersion;
+        private Date creationDate;
+
+        public Header(String definition, long sourceVersion, Date creationDate) {
+            this.definition = definition;
+            this.sourceVersion = sourceVersion;
+            this.creationDate = creationDate;
+        }
+
+        public String getDefinition() {
+            return definition;
+        }
+
+        public long getSourceVersion() {
+            return sourceVersion;
+        }
+
+        public Date getCreationDate() {
+            return creationDate;
+        }
+    }
+
+    public void write(DataSet dataSet, Header header, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(header.getDefinition(), out);
+        out.writeLong(header.getSourceVersion());
+        out.writeLong(header.getCreationDate() != null ? header.getCreationDate().getTime() : -1);
+        writeColumns(dataSet, out);
+    }
+
+    /**
+     * Write the row count followed by the columns, with no header.
+     */
+    public void writeColumns(DataSet dataSet, DataOutputStream out) throws IOException {
+        int rows = dataSet.getRowCount();
+        List<DataColumn> columns = dataSet.getColumns();
+        out.writeInt(rows);
+        out.writeInt(columns.size());
+        for (DataColumn column : columns) {
+            ColumnType type = column.getColumnType();
+            writeString(column.getId(), out);
+            writeString(type.name(), out);
+
+            List values = column.getValues();
+            if (ColumnValues.isColumnarType(type) && !(values instanceof ColumnValues)) {
+                values = ColumnValues.of(type, values);
+            }
+            writeNulls(values, rows, out);
+            if (values instanceof NumberColumnValues) {
+                NumberColumnValues numbers = (NumberColumnValues) values;
+                for (int i = 0; i < rows; i++) {
+                    out.writeDouble(numbers.isNull(i) ? 0 : numbers.getDouble(i));
+                }
+            } else if (values instanceof DateColumnValues) {
+                DateColumnValues dates = (DateColumnValues) values;
+                for (int i = 0; i < rows; i++) {
+                    out.writeLong(dates.isNull(i) ? 0 : dates.getTime(i));
+                }
+            } else if (values instanceof LabelColumnValues) {
+                LabelColumnValues labels = (LabelColumnValues) values;
+                List<String> dictionary = labels.getDictionary();
+                out.writeInt(dictionary.size());
+                for (String label : dictionary) {
+                    writeString(label, out);
+                }
+                for (int i = 0; i < rows; i++) {
+                    out.writeInt(Math.max(0, labels.getCode(i)));
+                }
+            } else {
+                for (int i = 0; i < rows; i++) {
+                    Object value = values.get(i);
+                    writeString(value == null ? null : value.toString(), out);
+                }
+            }
+        }
+    }
+
+    public Header readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException("Not a data set snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported data set snapshot version: " + version);
+        }
+        String definition = readString(in);
+        long sourceVersion = in.getLong();
+        long creationDate = in.getLong();
+        return new Header(definition, sourceVersion, creationDate == -1 ? null : new Date(creationDate));
+    }
+
+    /**
+     * Read the data set stored after the header.
+     */
+    public DataSet readDataSet(Header header, ByteBuffer in) throws IOException {
+        DataSet dataSet = readColumns(in);
+        dataSet.setCreationDate(header.getCreationDate());
+        return dataSet;
+    }
+
+    /**
+     * Read the columns written by {@link #writeColumns(DataSet, DataOutputStream)}.
+     */
+    public DataSet readColumns(ByteBuffer in) throws IOException {
+        int rows = in.getInt();
+        int columns = in.getInt();
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        for (int c = 0; c < columns; c++) {
+            String id = readString(in);
+            ColumnType type = ColumnType.getByName(readString(in));
+            if (type == null) {
+                throw new IOException("Invalid column type: " + id);
+            }
+            int[] nulls = readNulls(in);
+            List values;
+            if (ColumnType.NUMBER.equals(type)) {
+                double[] numbers = new double[rows];
+                in.asDoubleBuffer().get(numbers);
+                in.position(in.position() + rows * 8);
+                values = new NumberColumnValues(numbers, rows, nulls);
+            } else if (ColumnType.DATE.equals(type)) {
+                long[] dates = new long[rows];
+                in.asLongBuffer().get(dates);
+                in.position(in.position() + rows * 8);
+                values = new DateColumnValues(dates, rows, nulls);
+            } else if (ColumnType.LABEL.equals(type)) {
+                int size = in.getInt();
+                List<String> dictionary = new ArrayList<String>(size);
+                for (int i = 0; i < size; i++) {
+                    dictionary.add(readString(in));
+                }
+                int[] codes = new int[rows];
+                in.asIntBuffer().get(codes);
+                in.position(in.position() + rows * 4);
+                values = new LabelColumnValues(codes, dictionary, rows, nulls);
+            } else {
+                values = new ArrayList(rows);
+                for (int i = 0; i < rows; i++) {
+                    values.add(readString(in));
+                }
+            }
+            dataSet.addColumn(id, type, values);
+        }
+        return dataSet;
+    }
+
+    protected void writeNulls(List values, int rows, DataOutputStream out) throws IOException {
+        int[] nulls = null;
+        for (int i = 0; i < rows; i++) {
+            boolean isNull = values instanceof ColumnValues ? ((ColumnValues) values).isNull(i) : values.get(i) == null;
+            if (isNull) {
+                if (nulls == null) {
+                    nulls = new int[(rows + 31) >> 5];
+                }
+                nulls[i >> 5] |= (1 << (i & 31));
+            }
+        }
+        out.writeInt(nulls == null ? 0 : nulls.length);
+        if (nulls != null) {
+            for (int word : nulls) {
+                out.writeInt(word);
+            }
+        }
+    }
+
+    protected int[] readNulls(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == 0) {
+            return null;
+        }
+        int[] nulls = new int[length];
+        in.asIntBuffer().get(nulls);
+        in.position(in.position() + length * 4);
+        return nulls;
+    }
+
+    protected void writeString(String str, DataOutputStream out) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    protected String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (in.hasArray()) {
+            String str = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return str;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.date.TimeAmount;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.json.DataSetDefJSONMarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a binary snapshot on disk of every data set loaded, so they can be restored on startup instead of being
+ * loaded again from their source.
+ * <p>A snapshot is only restored if:</p>
+ * <ul>
+ *     <li>The data set definition has not changed since the snapshot was taken.</li>
+ *     <li>The source version (the modification time or a checksum of the source content, as provided by the data
+ *     set provider) is the same.</li>
+ *     <li>The refresh time of the definition (if any) has not yet elapsed since the data set was loaded.</li>
+ * </ul>
+ * <p>Snapshots are disabled by default. They can be enabled by setting the
+ * <code>dashbuilder.dataset.snapshot.dir</code> system property to the directory where to store them.</p>
+ *
+ * @see DataSetSnapshotFormat
+ */
+public class DataSetSnapshotStore {
+
+    public static final String DIR_PROP = "dashbuilder.dataset.snapshot.dir";
+    public static final String FILE_EXT = ".dset";
+
+    /**
+     * Source version for the data sets whose source can not be checked for changes.
+     */
+    public static final long NO_SOURCE_VERSION = -1;
+
+    private static final Logger log = LoggerFactory.getLogger(DataSetSnapshotStore.class);
+
+    private File dir;
+    private Supplier<DataSetDefJSONMarshaller> defMarshaller;
+    private DataSetSnapshotFormat format = new DataSetSnapshotFormat();
+
+    public DataSetSnapshotStore(File dir, Supplier<DataSetDefJSONMarshaller> defMarshaller) {
+        this.dir = dir;
+        this.defMarshaller = defMarshaller;
+    }
+
+    public static boolean isEnabled() {
+        return !StringUtils.isBlank(System.getProperty(DIR_PROP));
+    }
+
+    public static DataSetSnapshotStore fromSystemProperties() {
+        return new DataSetSnapshotStore(new File(System.getProperty(DIR_PROP)),
+                                        () -> DataSetCore.get().getDataSetDefJSONMarshaller());
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Write the snapshot of a data set just loaded. Any error is logged and ignored since the snapshot is just
+     * a startup accelerator.
+     *
+     * @param dataSet The data set. Its definition must be set.
+     * @param sourceVersion The version of the source the data set has been loaded from.
+     */
+    public void save(DataSet dataSet, long sourceVersion) {
+        DataSetDef def = dataSet.getDefinition();
+        if (def == null || def.getUUID() == null) {
+            return;
+        }
+        Path target = getFile(def.getUUID()).toPath();
+        Path temp = null;
+        try {
+            Files.createDirectories(dir.toPath());
+            temp = Files.createTempFile(dir.toPath(), ".snapshot", ".tmp");
+            DataSetSnapshotFormat.Header header = new DataSetSnapshotFormat.Header(
+                    toJson(def), sourceVersion, dataSet.getCreationDate());
+            try (OutputStream os = Files.newOutputStream(temp)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 65536));
+                format.write(dataSet, header, out);
+                out.flush();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to write the snapshot of data set " + def.getUUID(), e);
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Read the snapshot of a data set.
+     *
+     * @param def The data set definition.
+     * @param sourceVersion The current version of the data set source.
+     * @return The data set, or null if there is no valid snapshot for the given definition and source version.
+     */
+    public DataSet load(DataSetDef def, long sourceVersion) {
+        if (def.getUUID() == null) {
+            return null;
+        }
+        File file = getFile(def.getUUID());
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataSetSnapshotFormat.Header header = format.readHeader(buffer);
+            if (!isValid(header, def, sourceVersion)) {
+                file.delete();
+                return null;
+            }
+            DataSet dataSet = format.readDataSet(header, buffer);
+            dataSet.setUUID(def.getUUID());
+            dataSet.setDefinition(def);
+            return dataSet;
+        } catch (Exception e) {
+            log.warn("Discarding invalid snapshot of data set " + def.getUUID(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    public void delete(String uuid) {
+        File file = getFile(uuid);
+        if (file.exists() && !file.delete()) {
+            log.warn("Unable to delete the snapshot of data set " + uuid);
+        }
+    }
+
+    protected boolean isValid(DataSetSnapshotFormat.Header header, DataSetDef def, long sourceVersion) throws Exception {
+        if (header.getSourceVersion() != sourceVersion || !toJson(def).equals(header.getDefinition())) {
+            return false;
+        }
+        String refreshTime = def.getRefreshTime();
+        if (!StringUtils.isBlank(refreshTime)) {
+            Date creationDate = header.getCreationDate();
+            long millis = TimeAmount.parse(refreshTime).toMillis();
+            return creationDate != null && creationDate.getTime() + millis > System.currentTimeMillis();
+        }
+        return true;
+    }
+
+    protected String toJson(DataSetDef def) throws Exception {
+        return defMarshaller.get().toJsonString(def);
+    }
+
+    /**
+     * Get the snapshot file of a data set. Characters not allowed in file names are replaced, so a hash of
+     * the UUID is appended in order to keep names unique.
+     */
+    protected File getFile(String uuid) {
+        String name = uuid.replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(dir, name + "-" + Integer.toHexString(uuid.hashCode()) + FILE_EXT);
+    }
+}
@@ -15,7 +15,10 @@
  */
 package org.dashbuilder.dataprovider;
 
+import java.util.ArrayList;
+
 import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
@@ -23,6 +26,8 @@ import org.dashbuilder.dataset.def.DataSetDef;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
 import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.DataSetImpl;
 
 /**
  * DataSetProvider implementation for static (in-memory) data sets.
@@ -36,7 +41,16 @@ import org.dashbuilder.dataset.filter.DataSetFilter;
  */
 public class StaticDataSetProvider implements DataSetProvider {
 
+    /**
+     * If true the registered data sets are kept in memory using the columnar (primitive backed) storage mode.
+     */
+    public static final String COLUMNAR_STORAGE_PROP = "dashbuilder.dataset.columnar";
+
     private SharedDataSetOpEngine dataSetOpEngine;
+    private boolean columnarStorageEnabled = Boolean.parseBoolean(System.getProperty(COLUMNAR_STORAGE_PROP, "false"));
+    private DataSetSnapshotStore snapshotStore = DataSetSnapshotStore.isEnabled() ? DataSetSnapshotStore.fromSystemProperties() : null;
+    private DataSetRefresher refresher = new DataSetRefresher(this);
+    private DataSetIndexWarmer indexWarmer = DataSetIndexWarmer.isEnabled() ? DataSetIndexWarmer.fromSystemProperties(this) : null;
 
     public StaticDataSetProvider() {
     }
@@ -55,15 +69,143 @@ public class StaticDataSetProvider implements DataSetProvider {
         return dataSet.getMetadata();
     }
 
+    public boolean isColumnarStorageEnabled() {
+        return columnarStorageEnabled;
+    }
+
+    public void setColumnarStorageEnabled(boolean columnarStorageEnabled) {
+        this.columnarStorageEnabled = columnarStorageEnabled;
+    }
+
+    /**
+     * The on-disk store of the loaded data sets, or null if disabled.
+     */
+    public DataSetSnapshotStore getSnapshotStore() {
+        return snapshotStore;
+    }
+
+    public void setSnapshotStore(DataSetSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * The component the providers caching their data sets here rely on to load and refresh them.
+     */
+    public DataSetRefresher getRefresher() {
+        return refresher;
+    }
+
+    public void setRefresher(DataSetRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    /**
+     * The component pre-building the indexes of the data sets registered, or null if disabled.
+     */
+    public DataSetIndexWarmer getIndexWarmer() {
+        return indexWarmer;
+    }
+
+    public void setIndexWarmer(DataSetIndexWarmer indexWarmer) {
+        this.indexWarmer = indexWarmer;
+    }
+
+    /**
+     * Release the resources held, such as the refresh and index warm-up threads. The lookups recorded are saved.
+     */
+    public void shutdown() {
+        refresher.shutdown();
+        if (indexWarmer != null) {
+            indexWarmer.shutdown();
+        }
+    }
+
+    /**
+     * Register a data set just loaded from its source and keep a snapshot of it (if snapshots are enabled).
+     *
+     * @param sourceVersion The version of the source the data set has been loaded from.
+     */
+    public void registerDataSet(DataSet dataSet, long sourceVersion) {
+        registerDataSet(dataSet);
+        if (snapshotStore != null) {
+            snapshotStore.save(dataSet, sourceVersion);
+        }
+    }
+
+    /**
+     * Restore and register a data set from its snapshot.
+     *
+     * @param sourceVersion The current version of the data set source.
+     * @return The data set restored, or null if snapshots are disabled or there is no valid snapshot available.
+     */
+    public DataSet restoreDataSet(DataSetDef def, long sourceVersion) {
+        if (snapshotStore == null) {
+            return null;
+        }
+        DataSet dataSet = snapshotStore.load(def, sourceVersion);
+        if (dataSet != null) {
+            if (!columnarStorageEnabled) {
+                for (DataColumn column : dataSet.getColumns()) {
+                    if (column.getValues() instanceof ColumnValues) {
+                        column.setValues(new ArrayList(column.getValues()));
+                    }
+                }
+            }
+            registerDataSet(dataSet);
+        }
+        return dataSet;
+    }
+
     public void registerDataSet(DataSet dataSet) {
+        if (columnarStorageEnabled && dataSet instanceof DataSetImpl) {
+            ((DataSetImpl) dataSet).toColumnar();
+        }
         dataSetOpEngine.getIndexRegistry().put(dataSet);
+        if (indexWarmer != null) {
+            indexWarmer.warmUp(dataSet.getUUID());
+        }
     }
 
+    /**
+     * Get the index of a data set, or null if the data set is not in memory.
+     */
+    public DataSetIndex getDataSetIndex(String uuid) {
+        return dataSetOpEngine.getIndexRegistry().get(uuid);
+    }
+
+    /**
+     * Keep the data set in memory even if the index registry runs short of memory. Intended for data sets
+     * that can not be loaded again from their definition.
+     */
+    public void pinDataSet(String uuid) {
+        dataSetOpEngine.getIndexRegistry().pin(uuid);
+    }
+
+    public void unpinDataSet(String uuid) {
+        dataSetOpEngine.getIndexRegistry().unpin(uuid);
+    }
+
+    /**
+     * Remove a data set from memory. Its snapshot (if any) is kept, see {@link #deleteSnapshot(String)}.
+     */
     public DataSet removeDataSet(String uuid) {
         DataSetIndex index = dataSetOpEngine.getIndexRegistry().remove(uuid);
+        if (indexWarmer != null) {
+            indexWarmer.forget(uuid);
+        }
         return (index == null ? null : index.getDataSet());
     }
 
+    /**
+     * Delete the snapshot of a data set, so it is not restored again. To be called once its definition is removed
+     * or changed, or its content is known to be stale.
+     */
+    public void deleteSnapshot(String uuid) {
+        if (snapshotStore != null && uuid != null) {
+            snapshotStore.delete(uuid);
+        }
+    }
+
     public DataSet lookupDataSet(DataSetDef def, DataSetLookup lookup) {
         String uuid = def.getUUID();
         if (StringUtils.isEmpty(uuid)) return null;
@@ -98,7 +240,11 @@ public class StaticDataSetProvider implements DataSetProvider {
 
         // Apply the list of operations specified (if any).
         if (!lookup.getOperationList().isEmpty()) {
-            dataSet = dataSetOpEngine.execute(uuid, lookup.getOperationList());
+            // Previews are not worth warming up
+            if (indexWarmer != null && !lookup.testMode()) {
+                indexWarmer.record(uuid, lookup.getOperationList());
+            }
+            dataSet = dataSetOpEngine.execute(dataSetIndex, lookup.getOperationList());
         }
 
         // Trim the data set as requested.
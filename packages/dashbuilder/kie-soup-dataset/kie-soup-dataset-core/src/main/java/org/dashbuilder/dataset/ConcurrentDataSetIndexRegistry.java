@@ -0,0 +1,379 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+import org.dashbuilder.dataset.engine.index.DataSetStaticIndex;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
+import org.dashbuilder.dataset.uuid.UUIDGenerator;
+
+/**
+ * Data set index registry safe for concurrent use which keeps the memory consumed by the registered data sets
+ * and their indexes (as estimated by {@link org.dashbuilder.dataset.impl.MemSizeEstimator}) within a budget.
+ * <p>Once the budget is exceeded, the indexes built by the data set operations (filter, group, sort &amp;
+ * aggregate functions) are released first, since they are cheaper to build again. If that is not enough then
+ * whole data sets are evicted, except the pinned ones. Data set providers load again any evicted data set on
+ * the next lookup. The order of eviction is given by the {@link EvictionPolicy}.</p>
+ * <p>The following system properties can be used to configure the registry:</p>
+ * <ul>
+ *     <li><code>dashbuilder.dataset.index.maxSize</code>: the memory budget, in bytes. The <code>k</code>,
+ *     <code>m</code> &amp; <code>g</code> suffixes are supported (e.g. <code>512m</code>). Unbounded by default.</li>
+ *     <li><code>dashbuilder.dataset.index.eviction</code>: <code>LRU</code> (default) or <code>LFU</code>.</li>
+ * </ul>
+ */
+public class ConcurrentDataSetIndexRegistry implements DataSetIndexRegistry {
+
+    public static final String MAX_SIZE_PROP = "dashbuilder.dataset.index.maxSize";
+    public static final String EVICTION_POLICY_PROP = "dashbuilder.dataset.index.eviction";
+
+    /**
+     * Min. time between two checks of the memory consumed triggered by data set lookups.
+     */
+    public static final long CHECK_INTERVAL_MILLIS = 1000;
+
+    public enum EvictionPolicy {
+
+        /**
+         * Least recently used first.
+         */
+        LRU(Comparator.comparingLong(Usage::getLastAccessTime)),
+
+        /**
+         * Least frequently used first. Ties are resolved by recency.
+         */
+        LFU(Comparator.comparingInt(Usage::getReuseHits)
+                    .thenComparingLong(Usage::getLastAccessTime));
+
+        private Comparator<Usage> comparator;
+
+        EvictionPolicy(Comparator<Usage> comparator) {
+            this.comparator = comparator;
+        }
+
+        public Comparator<Usage> getComparator() {
+            return comparator;
+        }
+    }
+
+    protected UUIDGenerator uuidGenerator;
+    protected Map<String, Entry> indexMap = new ConcurrentHashMap<>();
+    protected Set<String> pinnedSet = ConcurrentHashMap.newKeySet();
+    protected long maxSize;
+    protected EvictionPolicy evictionPolicy;
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+    private AtomicLong indexEvictions = new AtomicLong();
+    private AtomicLong lastCheck = new AtomicLong();
+
+    public ConcurrentDataSetIndexRegistry(UUIDGenerator uuidGenerator) {
+        this(uuidGenerator,
+             parseSize(System.getProperty(MAX_SIZE_PROP)),
+             EvictionPolicy.valueOf(System.getProperty(EVICTION_POLICY_PROP, EvictionPolicy.LRU.name()).toUpperCase()));
+    }
+
+    /**
+     * @param maxSize The memory budget in bytes. Long.MAX_VALUE for no bound at all.
+     */
+    public ConcurrentDataSetIndexRegistry(UUIDGenerator uuidGenerator, long maxSize, EvictionPolicy evictionPolicy) {
+        this.uuidGenerator = uuidGenerator;
+        this.maxSize = maxSize;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public boolean isBounded() {
+        return maxSize != Long.MAX_VALUE;
+    }
+
+    public DataSetIndex put(DataSet dataSet) {
+        if (dataSet == null) {
+            return null;
+        }
+        String uuid = dataSet.getUUID();
+        if (uuid == null || uuid.length() == 0) {
+            uuid = uuidGenerator.newUuidBase64();
+            dataSet.setUUID(uuid);
+        }
+
+        DataSetIndex dsIndex = new DataSetStaticIndex(dataSet);
+        indexMap.put(uuid, new Entry(uuid, dsIndex, isBounded() ? dataSet.getEstimatedSize() : 0));
+        if (isBounded()) {
+            lastCheck.set(System.currentTimeMillis());
+            evict(uuid);
+        }
+        return dsIndex;
+    }
+
+    public DataSetIndex get(String uuid) {
+        Entry entry = indexMap.get(uuid);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        entry.index.reuseHit();
+
+        // Indexes grow as operations are executed, so check the budget from time to time
+        long last = lastCheck.get();
+        long now = System.currentTimeMillis();
+        if (isBounded() && now - last >= CHECK_INTERVAL_MILLIS && lastCheck.compareAndSet(last, now)) {
+            evict(uuid);
+        }
+        return entry.index;
+    }
+
+    public DataSetIndex remove(String uuid) {
+        pinnedSet.remove(uuid);
+        Entry entry = indexMap.remove(uuid);
+        return entry == null ? null : entry.index;
+    }
+
+    public void pin(String uuid) {
+        pinnedSet.add(uuid);
+    }
+
+    public void unpin(String uuid) {
+        pinnedSet.remove(uuid);
+    }
+
+    public boolean isPinned(String uuid) {
+        return pinnedSet.contains(uuid);
+    }
+
+    /**
+     * Release indexes and data sets until the memory consumed is within the budget.
+     *
+     * @param protectedUuid A data set that must not be evicted (the one being accessed), or null.
+     * @return The estimated number of bytes released.
+     */
+    public synchronized long evict(String protectedUuid) {
+        if (!isBounded()) {
+            return 0;
+        }
+        List<Entry> entries = new ArrayList<>(indexMap.values());
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.dataSetSize + getEstimatedSize(entry.index);
+        }
+        long initialTotal = total;
+
+        // First, release the operation indexes
+        if (total > maxSize) {
+            List<IndexRef> indexRefs = new ArrayList<>();
+            for (Entry entry : entries) {
+                collectIndexes(entry.index, indexRefs);
+            }
+            Comparator<Usage> comparator = evictionPolicy.getComparator();
+            indexRefs.sort((r1, r2) -> comparator.compare(r1.usage, r2.usage));
+
+            Set<DataSetIndexElement> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < indexRefs.size() && total > maxSize; i++) {
+                IndexRef ref = indexRefs.get(i);
+                if (!isAnyEvicted(ref.parent, evicted) && ref.parent.evictIndex(ref.index)) {
+                    evicted.add(ref.index);
+                    indexEvictions.incrementAndGet();
+                    total -= ref.size;
+                }
+            }
+        }
+
+        // Then, the data sets that can be loaded again
+        if (total > maxSize) {
+            List<EntryRef> entryRefs = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                entryRefs.add(new EntryRef(entry));
+            }
+            Comparator<Usage> comparator = evictionPolicy.getComparator();
+            entryRefs.sort((r1, r2) -> comparator.compare(r1.usage, r2.usage));
+            for (int i = 0; i < entryRefs.size() && total > maxSize; i++) {
+                Entry entry = entryRefs.get(i).entry;
+                if (entry.uuid.equals(protectedUuid) || isPinned(entry.uuid)) {
+                    continue;
+                }
+                if (indexMap.remove(entry.uuid, entry)) {
+                    evictions.incrementAndGet();
+                    total -= entry.dataSetSize + getEstimatedSize(entry.index);
+                }
+            }
+        }
+        return initialTotal - total;
+    }
+
+    /**
+     * The estimated memory (in bytes) consumed by the registered data sets and their indexes.
+     */
+    public long getEstimatedSize() {
+        long total = 0;
+        for (Entry entry : indexMap.values()) {
+            total += (isBounded() ? entry.dataSetSize : entry.index.getDataSet().getEstimatedSize()) + getEstimatedSize(entry.index);
+        }
+        return total;
+    }
+
+    /**
+     * Number of data set lookups which found the data set registered.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of data set lookups which did not find the data set (never registered or evicted).
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of data sets evicted.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Number of operation indexes evicted.
+     */
+    public long getIndexEvictions() {
+        return indexEvictions.get();
+    }
+
+    protected long getEstimatedSize(DataSetIndexElement index) {
+        long[] size = {0};
+        index.acceptVisitor(element -> size[0] += element.getEstimatedSize());
+        return size[0];
+    }
+
+    protected void collectIndexes(DataSetIndexNode node, List<IndexRef> result) {
+        for (DataSetIndexElement index : node.getChildIndexes()) {
+            result.add(new IndexRef(node, index, getEstimatedSize(index)));
+            if (index instanceof DataSetIndexNode) {
+                collectIndexes((DataSetIndexNode) index, result);
+            }
+        }
+    }
+
+    protected boolean isAnyEvicted(DataSetIndexNode node, Set<DataSetIndexElement> evicted) {
+        for (DataSetIndexNode n = node; n != null; n = n.getParent()) {
+            if (evicted.contains(n)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static long parseSize(String size) {
+        if (size == null || size.trim().isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        String s = size.trim().toLowerCase();
+        long unit = 1;
+        switch (s.charAt(s.length() - 1)) {
+            case 'k': unit = 1024L; break;
+            case 'm': unit = 1024L * 1024; break;
+            case 'g': unit = 1024L * 1024 * 1024; break;
+            default: break;
+        }
+        if (unit > 1) {
+            s = s.substring(0, s.length() - 1).trim();
+        }
+        return Long.parseLong(s) * unit;
+    }
+
+    protected static class Entry {
+
+        String uuid;
+        DataSetIndex index;
+        long dataSetSize;
+
+        Entry(String uuid, DataSetIndex index, long dataSetSize) {
+            this.uuid = uuid;
+            this.index = index;
+            this.dataSetSize = dataSetSize;
+        }
+    }
+
+    protected static class IndexRef {
+
+        DataSetIndexNode parent;
+        DataSetIndexElement index;
+        long size;
+        Usage usage;
+
+        IndexRef(DataSetIndexNode parent, DataSetIndexElement index, long size) {
+            this.parent = parent;
+            this.index = index;
+            this.size = size;
+            this.usage = new Usage(index);
+        }
+    }
+
+    protected static class EntryRef {
+
+        Entry entry;
+        Usage usage;
+
+        EntryRef(Entry entry) {
+            this.entry = entry;
+            this.usage = new Usage(entry.index);
+        }
+    }
+
+    /**
+     * The usage of an index at the time the eviction starts. The eviction policies sort these copies, since the
+     * usage of the indexes keeps changing while the lookups go on, and sorting on changing values breaks the
+     * contract of the sort.
+     */
+    public static class Usage {
+
+        private final long lastAccessTime;
+        private final int reuseHits;
+
+        public Usage(DataSetIndexElement index) {
+            this.lastAccessTime = index.getLastAccessTime();
+            this.reuseHits = index.getReuseHits();
+        }
+
+        public long getLastAccessTime() {
+            return lastAccessTime;
+        }
+
+        public int getReuseHits() {
+            return reuseHits;
+        }
+    }
+}
@@ -114,6 +114,8 @@ public class DataSetManagerImpl implements DataSetManager {
 
             // Register the data set after the definition. It's mandatory to do this right after since
             // the registerDataSetDef will delete any old existing data set matching the given UUID.
+            // There is no way to load it again, so it must never be evicted.
+            staticDataSetProvider.pinDataSet(dataSet.getUUID());
             staticDataSetProvider.registerDataSet(dataSet);
         }
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.dashbuilder.dataset.engine.function.AggregateFunctionManagerImpl;
+import org.dashbuilder.dataset.engine.function.MergeableFunction;
+import org.dashbuilder.dataset.engine.index.RowBitmap;
+import org.dashbuilder.dataset.group.AggregateFunction;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+
+/**
+ * Aggregate function manager whose {@link MergeableFunction} instances calculate the aggregations over large
+ * sets of rows in parallel: every partition of rows gets its own partial state, all of them merged at the end.
+ * Non mergeable functions (like the median) are always calculated by the calling thread.
+ */
+public class ParallelAggregateFunctionManager extends AggregateFunctionManagerImpl {
+
+    private ParallelExecution parallelExecution;
+
+    public ParallelAggregateFunctionManager(ParallelExecution parallelExecution) {
+        super();
+        this.parallelExecution = parallelExecution;
+    }
+
+    public ParallelExecution getParallelExecution() {
+        return parallelExecution;
+    }
+
+    @Override
+    public AggregateFunction getFunctionByType(AggregateFunctionType type) {
+        AggregateFunction function = super.getFunctionByType(type);
+        if (function instanceof MergeableFunction) {
+            return new ParallelFunction((MergeableFunction) function);
+        }
+        return function;
+    }
+
+    protected class ParallelFunction implements AggregateFunction {
+
+        private MergeableFunction function;
+
+        public ParallelFunction(MergeableFunction function) {
+            this.function = function;
+        }
+
+        public AggregateFunctionType getType() {
+            return function.getType();
+        }
+
+        public Object aggregate(List values) {
+            return aggregate(values, null);
+        }
+
+        public Object aggregate(List values, List<Integer> rows) {
+            int size = values == null ? 0 : rows == null ? values.size() : rows.size();
+            if (!parallelExecution.isParallel(size)) {
+                return function.aggregate(values, rows);
+            }
+            int partitionSize = parallelExecution.getPartitionSize(size);
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            if (rows == null) {
+                for (int from = 0; from < size; from += partitionSize) {
+                    List subList = values.subList(from, Math.min(size, from + partitionSize));
+                    tasks.add(() -> function.partial(subList, null));
+                }
+            } else {
+                // Row views over a bitmap are not thread-safe, every partition gets its own view
+                RowBitmap bitmap = RowBitmap.of(rows);
+                if (bitmap != null) {
+                    for (RowBitmap partition : bitmap.split(partitionSize)) {
+                        tasks.add(() -> function.partial(values, partition.asList()));
+                    }
+                } else {
+                    for (int from = 0; from < size; from += partitionSize) {
+                        List<Integer> subList = rows.subList(from, Math.min(size, from + partitionSize));
+                        tasks.add(() -> function.partial(values, subList));
+                    }
+                }
+            }
+            if (tasks.size() < 2) {
+                return function.aggregate(values, rows);
+            }
+            List<Object> partials = parallelExecution.invokeAll(tasks);
+            Object result = partials.get(0);
+            for (int i = 1; i < partials.size(); i++) {
+                result = function.merge(result, partials.get(i));
+            }
+            return function.result(result);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Settings and thread pool shared by the data set operations able to split their work into partitions of rows
+ * processed in parallel.
+ * <p>Parallel execution is disabled by default. It can be enabled through the following system properties:</p>
+ * <ul>
+ *     <li><code>dashbuilder.dataset.parallel</code>: true to enable it.</li>
+ *     <li><code>dashbuilder.dataset.parallel.threshold</code>: the min. number of rows an operation must process
+ *     in order to get split (default 100000).</li>
+ *     <li><code>dashbuilder.dataset.parallel.threads</code>: the number of threads of a dedicated pool. If not set
+ *     then the common fork/join pool is used.</li>
+ * </ul>
+ *
+ * @see ParallelFilterAlgorithm
+ * @see ParallelAggregateFunctionManager
+ */
+public class ParallelExecution {
+
+    public static final String ENABLED_PROP = "dashbuilder.dataset.parallel";
+    public static final String THRESHOLD_PROP = "dashbuilder.dataset.parallel.threshold";
+    public static final String THREADS_PROP = "dashbuilder.dataset.parallel.threads";
+    public static final int DEFAULT_THRESHOLD = 100000;
+
+    private ForkJoinPool pool;
+    private int threshold;
+
+    public ParallelExecution(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROP, "false"));
+    }
+
+    public static ParallelExecution fromSystemProperties() {
+        int threads = Integer.getInteger(THREADS_PROP, 0);
+        int threshold = Integer.getInteger(THRESHOLD_PROP, DEFAULT_THRESHOLD);
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        return new ParallelExecution(pool, threshold);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Check if an operation over the given number of rows is worth splitting.
+     */
+    public boolean isParallel(int rows) {
+        return rows >= threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * The number of rows of every partition so that all the threads of the pool get a partition.
+     */
+    public int getPartitionSize(int rows) {
+        int parallelism = pool.getParallelism();
+        return Math.max(1, (rows + parallelism - 1) / parallelism);
+    }
+
+    /**
+     * Run the given tasks in the pool and wait for all of them to complete.
+     *
+     * @return The task results, in the same order as the tasks.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> result = new ArrayList<T>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
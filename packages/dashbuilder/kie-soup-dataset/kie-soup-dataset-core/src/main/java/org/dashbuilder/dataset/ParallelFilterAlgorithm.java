@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
+import org.dashbuilder.dataset.engine.filter.LikeToMatcherFactory;
+import org.dashbuilder.dataset.engine.index.RowBitmap;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * Filter algorithm that splits large sets of candidate rows into partitions evaluated in parallel.
+ * <p>Every partition compiles its own filter, so the row functions (which keep per evaluation state) are never
+ * shared between threads. The partitions are disjoint ranges of rows, so the partial results are simply
+ * merged into the final bitmap.</p>
+ */
+public class ParallelFilterAlgorithm extends DefaultFilterAlgorithm {
+
+    private ParallelExecution parallelExecution;
+
+    public ParallelFilterAlgorithm(LikeToMatcherFactory likeToMatcherFactory, ParallelExecution parallelExecution) {
+        super(likeToMatcherFactory);
+        this.parallelExecution = parallelExecution;
+    }
+
+    public ParallelExecution getParallelExecution() {
+        return parallelExecution;
+    }
+
+    @Override
+    public RowBitmap filter(DataSet dataSet, ColumnFilter columnFilter, RowBitmap candidates) {
+        int rows = candidates.cardinality();
+        if (!parallelExecution.isParallel(rows)) {
+            return super.filter(dataSet, columnFilter, candidates);
+        }
+        List<RowBitmap> partitions = candidates.split(parallelExecution.getPartitionSize(rows));
+        if (partitions.size() < 2) {
+            return super.filter(dataSet, columnFilter, candidates);
+        }
+        List<Callable<RowBitmap>> tasks = new ArrayList<Callable<RowBitmap>>(partitions.size());
+        for (RowBitmap partition : partitions) {
+            tasks.add(() -> super.filter(dataSet, columnFilter, partition));
+        }
+        RowBitmap result = RowBitmap.EMPTY;
+        for (RowBitmap passed : parallelExecution.invokeAll(tasks)) {
+            result = result.or(passed);
+        }
+        return result;
+    }
+}
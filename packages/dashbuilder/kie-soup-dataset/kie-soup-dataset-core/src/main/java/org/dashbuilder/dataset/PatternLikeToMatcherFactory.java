@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.regex.Pattern;
+
+import org.dashbuilder.dataset.engine.filter.LikeToMatcher;
+import org.dashbuilder.dataset.engine.filter.LikeToMatcherFactory;
+
+/**
+ * Server side matcher factory. Regular expressions are compiled only once into a {@link Pattern}.
+ */
+public class PatternLikeToMatcherFactory extends LikeToMatcherFactory {
+
+    public PatternLikeToMatcherFactory() {
+        super();
+    }
+
+    public PatternLikeToMatcherFactory(int cacheSize) {
+        super(cacheSize);
+    }
+
+    @Override
+    protected LikeToMatcher newRegExpMatcher(String pattern, boolean caseSensitive) {
+        return new PatternMatcher(pattern, caseSensitive);
+    }
+
+    public static class PatternMatcher extends LikeToMatcher.RegExpMatcher {
+
+        private Pattern compiledPattern;
+
+        public PatternMatcher(String pattern, boolean caseSensitive) {
+            super(pattern, caseSensitive);
+            this.compiledPattern = Pattern.compile(regexp);
+        }
+
+        @Override
+        protected boolean doMatch(String value) {
+            return compiledPattern.matcher(value).matches();
+        }
+    }
+}
@@ -60,6 +60,10 @@ public class DateUtils {
                 c.set(Calendar.DAY_OF_MONTH, ((Number) date).intValue());
                 return c.getTime();
             }
+            if (DateIntervalType.DAY_OF_WEEK.equals(type)) {
+                c.set(Calendar.DAY_OF_WEEK, ((Number) date).intValue());
+                return c.getTime();
+            }
             if (DateIntervalType.MONTH.equals(type)) {
                 c.set(Calendar.MONTH, ((Number) date).intValue()-1);
                 c.set(Calendar.DAY_OF_MONTH, 1);
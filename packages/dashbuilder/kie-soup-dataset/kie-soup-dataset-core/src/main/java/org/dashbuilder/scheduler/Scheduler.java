@@ -215,6 +215,7 @@ public class Scheduler {
         _unschedule(task.getKey());
 
         // Register the new task.
+        task.scheduledTime = System.currentTimeMillis() + delay;
         task.future = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
         scheduledTasks.put(task.getKey(), task);
         if (date == null) log.debug(TASK + task + " execution requested.");
@@ -228,6 +229,7 @@ public class Scheduler {
         // Register the new task.
         task.fixedDelay = true;
         task.fixedDelaySeconds = seconds;
+        task.scheduledTime = System.currentTimeMillis() + seconds * 1000;
         task.future = executor.scheduleWithFixedDelay(task, seconds, seconds, TimeUnit.SECONDS);
         scheduledTasks.put(task.getKey(), task);
         log.debug(TASK + task + " scheduled every " + seconds + " seconds.");
@@ -278,7 +280,7 @@ public class Scheduler {
             else if (task.isCancelled()) buf.append("CANCELL - ");
             else if (task.isDone()) buf.append("COMPLTD - ");
             else buf.append("WAITING - [Firing in ").append(task.printTimeToFire()).append("] - ");
-            buf.append("[").append(task).append("]");
+            buf.append("[").append(task).append("] - [").append(task.printMetrics()).append("]");
         }
         return buf.toString();
     }
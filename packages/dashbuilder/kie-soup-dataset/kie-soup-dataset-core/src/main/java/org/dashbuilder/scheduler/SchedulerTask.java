@@ -25,10 +25,25 @@ import java.util.concurrent.TimeUnit;
  */
 public abstract class SchedulerTask implements Runnable {
 
-    protected ScheduledFuture future = null;
-    protected boolean running = false;
+    /**
+     * Executions starting later than this after the time they were due are counted as misfires.
+     */
+    public static final long MISFIRE_THRESHOLD_MILLIS = 1000;
+
+    protected volatile ScheduledFuture future = null;
+    protected volatile boolean running = false;
     protected boolean fixedDelay = false;
     protected long fixedDelaySeconds = -1;
+    protected volatile long scheduledTime = -1;
+
+    // Execution metrics
+    private long runs;
+    private long misfires;
+    private long lastRunMillis;
+    private long maxRunMillis;
+    private long totalRunMillis;
+    private long lastLagMillis;
+    private long maxLagMillis;
 
     public abstract String getKey();
     public abstract String getDescription();
@@ -62,15 +77,77 @@ public abstract class SchedulerTask implements Runnable {
         return !running && future != null && future.getDelay(TimeUnit.MILLISECONDS) < 0;
     }
 
+    /**
+     * The time (in milliseconds) the next execution is due, or -1 if not known.
+     */
+    public long getScheduledTime() {
+        return scheduledTime;
+    }
+
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    public synchronized long getMisfires() {
+        return misfires;
+    }
+
+    public synchronized long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public synchronized long getMaxRunMillis() {
+        return maxRunMillis;
+    }
+
+    public synchronized long getAverageRunMillis() {
+        return runs == 0 ? 0 : totalRunMillis / runs;
+    }
+
+    /**
+     * The time elapsed between the last execution was due and the time it actually started.
+     */
+    public synchronized long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public synchronized long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
     public void run() {
+        long start = System.currentTimeMillis();
+        long due = scheduledTime;
         try {
             running = true;
             execute();
         } finally {
             running = false;
+            long end = System.currentTimeMillis();
+            if (fixedDelay) {
+                scheduledTime = end + fixedDelaySeconds * 1000;
+            }
+            executed(due < 0 ? 0 : Math.max(0, start - due), end - start);
         }
     }
 
+    private synchronized void executed(long lag, long duration) {
+        runs++;
+        lastRunMillis = duration;
+        maxRunMillis = Math.max(maxRunMillis, duration);
+        totalRunMillis += duration;
+        lastLagMillis = lag;
+        maxLagMillis = Math.max(maxLagMillis, lag);
+        if (lag > MISFIRE_THRESHOLD_MILLIS) {
+            misfires++;
+        }
+    }
+
+    public synchronized String printMetrics() {
+        return "runs=" + runs + ", misfires=" + misfires + ", lastRun=" + lastRunMillis + "ms, maxRun=" + maxRunMillis +
+                "ms, lastLag=" + lastLagMillis + "ms, maxLag=" + maxLagMillis + "ms";
+    }
+
     public void cancel() {
         if (future != null) {
             future.cancel(false);
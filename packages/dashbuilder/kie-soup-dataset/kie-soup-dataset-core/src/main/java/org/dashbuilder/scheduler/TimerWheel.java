@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel. The time is measured in ticks and every level of the wheel has 64 slots, each one
+ * spanning 64 times the slots of the level below. An entry is kept in the lowest level able to hold its deadline
+ * and it's moved down (cascaded) as the time goes by, so adding an entry and advancing a tick take constant time
+ * regardless of the number of entries.
+ * <p>This class is not thread safe. It's meant to be accessed by a single thread.</p>
+ */
+class TimerWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int MASK = SLOTS - 1;
+    static final int LEVELS = 6;
+
+    private static class Entry<T> {
+
+        long deadline;
+        T value;
+
+        Entry(long deadline, T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+    }
+
+    private final List<Entry<T>>[][] slots;
+    private final List<Entry<T>> due = new ArrayList<>();
+    private final int[] levelSizes = new int[LEVELS];
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        this.slots = new List[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new ArrayList<>(0);
+            }
+        }
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add an entry to expire at the given tick. Entries already due expire on the next {@link #advance} call.
+     */
+    void add(long deadline, T value) {
+        place(new Entry<>(deadline, value));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward up to the given tick (inclusive).
+     *
+     * @param expired Receives the entries whose deadline has been reached.
+     */
+    void advance(long tick, Consumer<T> expired) {
+        expire(due, expired);
+        if (size == 0) {
+            // Slots are relative to the current tick, so an empty wheel can jump straight to the target
+            currentTick = Math.max(currentTick, tick);
+            return;
+        }
+        while (currentTick < tick) {
+            // Skip the ticks until the next cascade of the lowest level holding any entry
+            int lowest = lowestLevel();
+            if (lowest > 0) {
+                currentTick = Math.min(tick - 1, currentTick | ((1L << (lowest * SLOT_BITS)) - 1));
+            }
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                int shift = level * SLOT_BITS;
+                if ((currentTick & ((1L << shift) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, slots[level][(int) ((currentTick >>> shift) & MASK)]);
+            }
+            List<Entry<T>> bucket = slots[0][(int) (currentTick & MASK)];
+            levelSizes[0] -= bucket.size();
+            expire(bucket, expired);
+            expire(due, expired);
+            if (size == 0) {
+                currentTick = tick;
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadline <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((entry.deadline >>> shift) - (currentTick >>> shift) < SLOTS) {
+                slots[level][(int) ((entry.deadline >>> shift) & MASK)].add(entry);
+                levelSizes[level]++;
+                return;
+            }
+        }
+        // Beyond the wheel span: park it in the farthest slot, it will be placed again once cascaded
+        int shift = (LEVELS - 1) * SLOT_BITS;
+        slots[LEVELS - 1][(int) (((currentTick >>> shift) + MASK) & MASK)].add(entry);
+        levelSizes[LEVELS - 1]++;
+    }
+
+    private int lowestLevel() {
+        if (!due.isEmpty()) {
+            return 0;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelSizes[level] > 0) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    private void cascade(int level, List<Entry<T>> bucket) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        levelSizes[level] -= bucket.size();
+        List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void expire(List<Entry<T>> bucket, Consumer<T> expired) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<T> entry : entries) {
+            size--;
+            expired.accept(entry.value);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.scheduler;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler implementation intended for a large number of tasks.
+ * <ul>
+ *     <li>No locks: tasks are kept in a concurrent map and the schedule calls just queue the task for the timer
+ *     thread.</li>
+ *     <li>A single timer thread keeps the pending executions in a {@link TimerWheel} and hands the tasks due to the
+ *     worker pool.</li>
+ *     <li>The delay of the fixed delay (repetitive) tasks is randomly spread (jitter), so tasks scheduled at once
+ *     (i.e: the refresh of the data sets registered on startup) do not keep firing at the same time.</li>
+ * </ul>
+ * <p>It's disabled by default. It can be enabled by setting the <code>dashbuilder.scheduler.timerWheel</code>
+ * system property to true. The tick duration (<code>dashbuilder.scheduler.tick</code>, 100 ms by default) is the
+ * precision of the executions, and the jitter (<code>dashbuilder.scheduler.jitter</code>, 0.1 by default) is the
+ * maximum fraction of the delay added or subtracted to every fixed delay execution.</p>
+ */
+public class TimerWheelScheduler extends Scheduler {
+
+    public static final String ENABLED_PROP = "dashbuilder.scheduler.timerWheel";
+    public static final String TICK_PROP = "dashbuilder.scheduler.tick";
+    public static final String JITTER_PROP = "dashbuilder.scheduler.jitter";
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheelScheduler.class);
+
+    private static final int WAITING = 0;
+    private static final int FIRED = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+
+    private final long tickNanos;
+    private final double jitter;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Timeout> submissions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile boolean active;
+    private Thread timerThread;
+
+    public TimerWheelScheduler() {
+        this(Long.parseLong(System.getProperty(TICK_PROP, "100")),
+             Double.parseDouble(System.getProperty(JITTER_PROP, "0.1")));
+    }
+
+    /**
+     * @param tickMillis The precision of the executions.
+     * @param jitter The maximum fraction of the delay randomly added or subtracted to fixed delay executions.
+     */
+    public TimerWheelScheduler(long tickMillis, double jitter) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        this.jitter = Math.max(0, Math.min(jitter, 1));
+        this.scheduledTasks = new ConcurrentHashMap<>();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROP, "false"));
+    }
+
+    public long getTickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public void init(int maxThreadPoolSize) {
+        // The executor is just the worker pool, the scheduling is done by the timer thread
+        super.init(maxThreadPoolSize);
+        active = true;
+        timerThread = new Thread(this::runTimer, "scheduler-Timer");
+        timerThread.setDaemon(true);
+        timerThread.start();
+    }
+
+    @Override
+    public void shutdown() {
+        active = false;
+        if (timerThread != null) {
+            LockSupport.unpark(timerThread);
+        }
+        super.shutdown();
+    }
+
+    @Override
+    public int getNumberOfScheduledTasksInQueue() {
+        return waiting.get() + executor.getQueue().size();
+    }
+
+    @Override
+    public SchedulerTask getTaskByKey(String key) {
+        return scheduledTasks.get(key);
+    }
+
+    @Override
+    public void execute(SchedulerTask task) {
+        _schedule(task, 10000, false);
+    }
+
+    @Override
+    public void schedule(SchedulerTask task, Date date) {
+        long delay = date.getTime() - System.currentTimeMillis();
+        if (delay <= 0) {
+            log.error("Schedule call failed for task: " + task.getKey(), new IllegalArgumentException(
+                    "Delay is negative. The task can not be scheduled [" + task + "] Date=" + date));
+            return;
+        }
+        _schedule(task, delay, false);
+    }
+
+    @Override
+    public void schedule(SchedulerTask task, long seconds) {
+        task.fixedDelaySeconds = seconds;
+        _schedule(task, jitter(seconds * 1000), true);
+    }
+
+    @Override
+    public void unschedule(String key) {
+        SchedulerTask task = scheduledTasks.remove(key);
+        if (task != null) {
+            task.cancel();
+            log.debug("Task " + task + " unscheduled.");
+        }
+    }
+
+    @Override
+    public void unscheduleAll() {
+        for (String key : new ArrayList<>(scheduledTasks.keySet())) {
+            unschedule(key);
+        }
+        log.debug("All tasks unscheduled.");
+    }
+
+    @Override
+    public void fireTask(String key) {
+        SchedulerTask task = scheduledTasks.get(key);
+        if (task == null || !(task.future instanceof Timeout)) {
+            return;
+        }
+        // Only fire if it's not being fired by the timer at the same time
+        Timeout timeout = (Timeout) task.future;
+        if (timeout.cancelWaiting()) {
+            try {
+                task.run();
+                log.debug("Task " + task + " executed.");
+            } finally {
+                rearm(task, timeout);
+            }
+        }
+    }
+
+    @Override
+    public String printScheduledTasksReport() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("\n\n------------------ SCHEDULED TASKS=").append(scheduledTasks.size())
+                .append(" (Queue size=").append(getNumberOfScheduledTasksInQueue()).append(") -----------------------------\n");
+        for (SchedulerTask task : scheduledTasks.values()) {
+            buf.append("\n");
+            if (task.isRunning()) buf.append("RUNNING - ");
+            else if (task.isCancelled()) buf.append("CANCELL - ");
+            else if (task.isDone()) buf.append("COMPLTD - ");
+            else buf.append("WAITING - [Firing in ").append(task.printTimeToFire()).append("] - ");
+            buf.append("[").append(task).append("] - [").append(task.printMetrics()).append("]");
+        }
+        return buf.toString();
+    }
+
+    protected void _schedule(SchedulerTask task, long delayMillis, boolean fixedDelay) {
+        // Atomic with the re-arm of the task after a run, see rearm
+        scheduledTasks.compute(task.getKey(), (key, previous) -> {
+            if (previous != null) {
+                previous.cancel();
+            }
+            task.fixedDelay = fixedDelay;
+            arm(task, delayMillis);
+            return task;
+        });
+        if (fixedDelay) log.debug("Task " + task + " scheduled every " + task.getFixedDelaySeconds() + " seconds.");
+        else log.debug("Task " + task + " scheduled to: " + new Date(task.getScheduledTime()));
+    }
+
+    /**
+     * Spread the given delay randomly within the jitter configured.
+     */
+    protected long jitter(long delayMillis) {
+        if (jitter == 0 || delayMillis <= 0) {
+            return delayMillis;
+        }
+        long spread = (long) (delayMillis * jitter);
+        return delayMillis + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    }
+
+    private void arm(SchedulerTask task, long delayMillis) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        task.scheduledTime = System.currentTimeMillis() + delayMillis;
+        task.future = timeout;
+        waiting.incrementAndGet();
+        submissions.add(timeout);
+    }
+
+    private void runTimer() {
+        TimerWheel<Timeout> wheel = new TimerWheel<>(0);
+        while (active) {
+            for (Timeout timeout = submissions.poll(); timeout != null; timeout = submissions.poll()) {
+                if (!timeout.isCancelled()) {
+                    wheel.add(timeout.deadlineTick(), timeout);
+                }
+            }
+            long now = System.nanoTime() - startNanos;
+            try {
+                wheel.advance(now / tickNanos, this::fire);
+            } catch (Exception e) {
+                log.error("Scheduler timer error.", e);
+            }
+            LockSupport.parkNanos(tickNanos - now % tickNanos);
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (timeout.state.compareAndSet(WAITING, FIRED)) {
+            waiting.decrementAndGet();
+            try {
+                executor.execute(() -> run(timeout));
+            } catch (Exception e) {
+                // Shutdown
+                timeout.done();
+            }
+        }
+    }
+
+    private void run(Timeout timeout) {
+        SchedulerTask task = timeout.task;
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Task " + task + " execution failed.", e);
+        } finally {
+            timeout.done();
+            rearm(task, timeout);
+        }
+    }
+
+    /**
+     * Arms the next execution of a fixed delay task, or forgets any other task, once the given execution is over.
+     * Nothing is done if the task has been unscheduled or rescheduled meanwhile. The check and the re-arm are done
+     * while holding the task's key in the map, so they can not interleave with a concurrent (re)schedule.
+     */
+    private void rearm(SchedulerTask task, Timeout timeout) {
+        scheduledTasks.computeIfPresent(task.getKey(), (key, current) -> {
+            if (current != task || task.future != timeout) {
+                return current;
+            }
+            if (task.isFixedDelay() && active) {
+                arm(task, jitter(task.getFixedDelaySeconds() * 1000));
+                return task;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * A pending execution of a task.
+     */
+    class Timeout implements ScheduledFuture<Object> {
+
+        private final SchedulerTask task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        Timeout(SchedulerTask task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        long deadlineTick() {
+            // Rounded up so it never fires before the deadline
+            return (deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+        }
+
+        boolean cancelWaiting() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                waiting.decrementAndGet();
+                completed.countDown();
+                return true;
+            }
+            return false;
+        }
+
+        void done() {
+            state.set(DONE);
+            completed.countDown();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return cancelWaiting();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() >= DONE;
+        }
+
+        @Override
+        public Object get() throws InterruptedException {
+            completed.await();
+            return null;
+        }
+
+        @Override
+        public Object get(long time, TimeUnit unit) throws InterruptedException, TimeoutException {
+            if (!completed.await(time, unit)) {
+                throw new TimeoutException();
+            }
+            return null;
+        }
+    }
+}
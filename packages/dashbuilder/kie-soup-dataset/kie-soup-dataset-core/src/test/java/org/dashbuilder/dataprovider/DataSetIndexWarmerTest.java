@@ -0,0 +1,263 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.json.JsonArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+
+public class DataSetIndexWarmerTest {
+
+    static final String UUID = "warmup";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    StaticDataSetProvider staticProvider;
+    File dir;
+
+    DataSetLookup byCity = DataSetLookupFactory.newDataSetLookupBuilder()
+            .dataset(UUID)
+            .filter(COLUMN_CITY, equalsTo("Barcelona"))
+            .group(COLUMN_DEPARTMENT)
+            .column(COLUMN_DEPARTMENT)
+            .column(COLUMN_AMOUNT, SUM)
+            .buildLookup();
+
+    DataSetLookup byDepartment = DataSetLookupFactory.newDataSetLookupBuilder()
+            .dataset(UUID)
+            .group(COLUMN_CITY)
+            .column(COLUMN_CITY)
+            .column(COLUMN_AMOUNT, SUM)
+            .sort(COLUMN_CITY, "desc")
+            .buildLookup();
+
+    @Before
+    public void setUp() throws Exception {
+        staticProvider = DataSetCore.get().getStaticDataSetProvider();
+        dir = folder.newFolder("lookups");
+    }
+
+    @After
+    public void tearDown() {
+        staticProvider.setIndexWarmer(null);
+        staticProvider.removeDataSet(UUID);
+    }
+
+    @Test
+    public void testRecordAndSave() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byDepartment);
+        lookup(byCity);
+        lookup(byCity);
+
+        List<DataSetLookup> hotLookups = warmer.getHotLookups(UUID);
+        assertThat(hotLookups).hasSize(2);
+        assertThat(hotLookups.get(0).getOperationList()).isEqualTo(byCity.getOperationList());
+        assertThat(hotLookups.get(1).getOperationList()).isEqualTo(byDepartment.getOperationList());
+
+        // The recorded lookups survive a restart
+        warmer.saveAll();
+        hotLookups = newWarmer(1, 2000, Long.MAX_VALUE).getHotLookups(UUID);
+        assertThat(hotLookups).hasSize(1);
+        assertThat(hotLookups.get(0).getDataSetUUID()).isEqualTo(UUID);
+        assertThat(hotLookups.get(0).getOperationList()).isEqualTo(byCity.getOperationList());
+    }
+
+    @Test
+    public void testSerializedOnSaveOnly() throws Exception {
+        AtomicInteger serialized = new AtomicInteger();
+        DataSetIndexWarmer warmer = new DataSetIndexWarmer(staticProvider, dir, 20, 2000, Long.MAX_VALUE) {
+            @Override
+            protected JsonArray toJson(List<DataSetOp> ops) {
+                serialized.incrementAndGet();
+                return super.toJson(ops);
+            }
+        };
+        staticProvider.setIndexWarmer(warmer);
+        register();
+        lookup(byCity);
+        lookup(byCity);
+        lookup(byDepartment);
+        assertThat(serialized.get()).isEqualTo(0);
+
+        warmer.saveAll();
+        assertThat(serialized.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testWarmUpOnRegistration() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byCity);
+        lookup(byDepartment);
+        warmer.saveAll();
+
+        // A new data set version, just loaded after a restart
+        staticProvider.removeDataSet(UUID);
+        warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        assertThat(warmer.warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(2);
+
+        // The indexes are already built
+        DataSetIndex index = staticProvider.getDataSetIndex(UUID);
+        int misses = index.getIndexMisses();
+        lookup(byCity);
+        lookup(byDepartment);
+        assertThat(index.getIndexMisses()).isEqualTo(misses);
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byCity);
+        lookup(byDepartment);
+
+        assertThat(newWarmer(1, 2000, Long.MAX_VALUE, warmer).warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(newWarmer(20, 0, Long.MAX_VALUE, warmer).warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(0);
+        assertThat(newWarmer(20, 2000, 0, warmer).warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(0);
+    }
+
+    @Test
+    public void testInvalidLookupDiscarded() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        DataSetLookup invalid = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(UUID)
+                .group("missing")
+                .column("missing")
+                .buildLookup();
+        try {
+            lookup(invalid);
+        } catch (Exception e) {
+            // Expected
+        }
+        assertThat(warmer.getHotLookups(UUID)).hasSize(1);
+        assertThat(warmer.warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(0);
+        assertThat(warmer.getHotLookups(UUID)).isEmpty();
+    }
+
+    @Test
+    public void testPreviewsNotRecorded() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        DataSetLookup preview = byCity.cloneInstance();
+        preview.setTestMode(true);
+        staticProvider.lookupDataSet(UUID, preview);
+
+        assertThat(warmer.getHotLookups(UUID)).isEmpty();
+    }
+
+    @Test
+    public void testRestoredInBackground() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byCity);
+        lookup(byCity);
+        lookup(byDepartment);
+        warmer.saveAll();
+
+        Set<String> loadThreads = ConcurrentHashMap.newKeySet();
+        warmer = new DataSetIndexWarmer(staticProvider, dir, 20, 2000, Long.MAX_VALUE) {
+            @Override
+            protected Map<List<DataSetOp>, HotLookup> load(String uuid) {
+                loadThreads.add(Thread.currentThread().getName());
+                return super.load(uuid);
+            }
+        };
+        staticProvider.setIndexWarmer(warmer);
+        lookup(byDepartment);
+        lookup(byDepartment);
+        // Wait for the lookups saved to be restored
+        warmer.warmUp(UUID).get(10, TimeUnit.SECONDS);
+
+        assertThat(loadThreads).containsExactly("dataset-warmup");
+        List<DataSetLookup> hotLookups = warmer.getHotLookups(UUID);
+        assertThat(hotLookups).hasSize(2);
+        assertThat(hotLookups.get(0).getOperationList()).isEqualTo(byDepartment.getOperationList());
+        assertThat(hotLookups.get(1).getOperationList()).isEqualTo(byCity.getOperationList());
+    }
+
+    @Test
+    public void testForgetOnRemoval() throws Exception {
+        DataSetIndexWarmer warmer = newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byCity);
+        staticProvider.removeDataSet(UUID);
+
+        // The lookups not saved yet are written before the warm-up, which does nothing as the data set is gone
+        assertThat(warmer.warmUp(UUID).get(10, TimeUnit.SECONDS)).isEqualTo(0);
+        assertThat(newWarmer(20, 2000, Long.MAX_VALUE).getHotLookups(UUID)).hasSize(1);
+    }
+
+    @Test
+    public void testSavedOnShutdown() throws Exception {
+        newWarmer(20, 2000, Long.MAX_VALUE);
+        register();
+        lookup(byCity);
+        staticProvider.shutdown();
+
+        assertThat(newWarmer(20, 2000, Long.MAX_VALUE).getHotLookups(UUID)).hasSize(1);
+    }
+
+    private DataSetIndexWarmer newWarmer(int maxLookups, long cpuBudgetMillis, long maxSize) {
+        DataSetIndexWarmer warmer = new DataSetIndexWarmer(staticProvider, dir, maxLookups, cpuBudgetMillis, maxSize);
+        staticProvider.setIndexWarmer(warmer);
+        return warmer;
+    }
+
+    private DataSetIndexWarmer newWarmer(int maxLookups, long cpuBudgetMillis, long maxSize, DataSetIndexWarmer recorded) {
+        recorded.saveAll();
+        return newWarmer(maxLookups, cpuBudgetMillis, maxSize);
+    }
+
+    private void register() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(UUID);
+        staticProvider.registerDataSet(dataSet);
+    }
+
+    private DataSet lookup(DataSetLookup lookup) {
+        return staticProvider.lookupDataSet(UUID, lookup.cloneInstance());
+    }
+}
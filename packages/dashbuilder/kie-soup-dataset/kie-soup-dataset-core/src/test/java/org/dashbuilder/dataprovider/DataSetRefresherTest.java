@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataSetRefresherTest {
+
+    static final String UUID = "refresher";
+
+    StaticDataSetProvider staticProvider;
+    DataSetRefresher refresher;
+
+    @Before
+    public void setUp() {
+        staticProvider = DataSetCore.get().getStaticDataSetProvider();
+        refresher = new DataSetRefresher(staticProvider);
+    }
+
+    @After
+    public void tearDown() {
+        refresher.shutdown();
+        staticProvider.removeDataSet(UUID);
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<DataSet> first = executor.submit(() -> refresher.load(UUID, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return register();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            assertThat(refresher.isLoading(UUID)).isTrue();
+            Future<DataSet> second = executor.submit(() -> refresher.load(UUID, () -> {
+                calls.incrementAndGet();
+                return register();
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(refresher.isLoading(UUID)).isFalse();
+            assertThat(refresher.getStats(UUID).getLoads()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRefreshKeepsPreviousOnFailure() throws Exception {
+        // Nothing to refresh
+        assertThat(refresher.refresh(UUID, this::newDataSet).get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNull();
+
+        DataSet previous = register();
+        assertThat(refresher.refresh(UUID, () -> {
+            throw new IllegalStateException("Source unavailable");
+        }).get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isSameAs(previous);
+        assertThat(refresher.getStats(UUID).getFailures()).isEqualTo(1);
+
+        assertThat(refresher.refresh(UUID, this::newDataSet).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNotSameAs(previous);
+        assertThat(refresher.getStats(UUID).getLoads()).isEqualTo(1);
+        assertThat(refresher.getStalenessMillis(UUID)).isBetween(0L, 1000L);
+        assertThat(refresher.getStalenessMillis("none")).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testRefreshInBackground() throws Exception {
+        DataSet previous = register();
+        CountDownLatch release = new CountDownLatch(1);
+        String[] loadThread = {null};
+        CompletableFuture<Boolean> refreshed = refresher.refresh(UUID, () -> {
+            loadThread[0] = Thread.currentThread().getName();
+            release.await(5, TimeUnit.SECONDS);
+            return newDataSet();
+        });
+        // The caller does not wait for the refresh and the previous version is served meanwhile
+        assertThat(refreshed.isDone()).isFalse();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isSameAs(previous);
+
+        release.countDown();
+        assertThat(refreshed.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(loadThread[0]).isEqualTo("dataset-refresh");
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNotSameAs(previous);
+
+        // Not refreshed once shut down
+        refresher.shutdown();
+        assertThat(refresher.refresh(UUID, this::newDataSet).get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    public void testRefreshDiscardedOnceInvalidated() throws Exception {
+        register();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> refreshed = refresher.refresh(UUID, () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return newDataSet();
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // The definition changes while the data set is being read
+        refresher.invalidate(UUID);
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNull();
+        assertThat(refresher.getStats(UUID)).isNull();
+        assertThat(refresher.isLoading(UUID)).isFalse();
+
+        // The data set read from the previous definition is not registered
+        release.countDown();
+        assertThat(refreshed.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNull();
+        assertThat(refresher.getStats(UUID)).isNull();
+
+        // Nor does it replace a data set loaded again meanwhile
+        register();
+        DataSet[] reloaded = {null};
+        CompletableFuture<Boolean> replaced = refresher.refresh(UUID, () -> {
+            reloaded[0] = register();
+            return newDataSet();
+        });
+        assertThat(replaced.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isSameAs(reloaded[0]);
+    }
+
+    @Test
+    public void testRefreshRemovesWhenNotFitting() throws Exception {
+        register();
+        assertThat(refresher.refresh(UUID, () -> null).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(staticProvider.lookupDataSet(UUID, null)).isNull();
+    }
+
+    private DataSet register() throws Exception {
+        DataSet dataSet = newDataSet();
+        staticProvider.registerDataSet(dataSet);
+        return dataSet;
+    }
+
+    private DataSet newDataSet() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(UUID);
+        return dataSet;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefFactory;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataSetSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    DataSetSnapshotStore store;
+    DataSetDef def;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new DataSetSnapshotStore(folder.newFolder("snapshots"), () -> DataSetCore.get().getDataSetDefJSONMarshaller());
+        def = DataSetDefFactory.newCSVDataSetDef()
+                .uuid("expenses/2023")
+                .filePath("expenses.csv")
+                .buildDef();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setValueAt(3, 0, null);
+        dataSet.setValueAt(4, 1, null);
+        dataSet.setValueAt(5, 5, null);
+        dataSet.setDefinition(def);
+        store.save(dataSet, 10);
+
+        DataSet restored = store.load(def, 10);
+        assertThat(restored).isNotNull();
+        assertThat(restored.getUUID()).isEqualTo("expenses/2023");
+        assertThat(restored.getCreationDate()).isEqualTo(dataSet.getCreationDate());
+        assertThat(restored.getRowCount()).isEqualTo(dataSet.getRowCount());
+        for (int i = 0; i < dataSet.getColumns().size(); i++) {
+            assertThat(restored.getColumnByIndex(i).getId()).isEqualTo(dataSet.getColumnByIndex(i).getId());
+            assertThat(restored.getColumnByIndex(i).getColumnType()).isEqualTo(dataSet.getColumnByIndex(i).getColumnType());
+            for (int row = 0; row < dataSet.getRowCount(); row++) {
+                Object expected = dataSet.getValueAt(row, i);
+                if (expected instanceof Number) {
+                    expected = ((Number) expected).doubleValue();
+                }
+                assertThat(restored.getValueAt(row, i)).isEqualTo(expected);
+            }
+        }
+        assertThat(restored.getColumnById(ExpenseReportsData.COLUMN_AMOUNT).getValues()).isInstanceOf(NumberColumnValues.class);
+        assertThat(restored.getColumnById(ExpenseReportsData.COLUMN_CITY).getValues()).isInstanceOf(LabelColumnValues.class);
+    }
+
+    @Test
+    public void testColumnarRoundTrip() throws Exception {
+        DataSetImpl dataSet = (DataSetImpl) ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.toColumnar();
+        dataSet.setDefinition(def);
+        store.save(dataSet, 10);
+
+        DataSet restored = store.load(def, 10);
+        assertThat(restored).isNotNull();
+        for (int i = 0; i < dataSet.getColumns().size(); i++) {
+            assertThat(restored.getColumnByIndex(i).getValues()).isEqualTo(dataSet.getColumnByIndex(i).getValues());
+        }
+    }
+
+    @Test
+    public void testTextAndEmptyColumns() throws Exception {
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("text", ColumnType.TEXT, Arrays.asList("añ", null, ""));
+        dataSet.addColumn("empty", ColumnType.LABEL, Arrays.asList(null, null, null));
+        dataSet.setDefinition(def);
+        store.save(dataSet, 10);
+
+        DataSet restored = store.load(def, 10);
+        assertThat(restored.getColumnById("text").getValues()).containsExactly("añ", null, "");
+        assertThat(restored.getColumnById("empty").getValues()).containsExactly(null, null, null);
+    }
+
+    @Test
+    public void testOutdatedSnapshots() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setDefinition(def);
+        store.save(dataSet, 10);
+        assertThat(store.load(def, 11)).isNull();
+        assertThat(store.getFile(def.getUUID())).doesNotExist();
+
+        store.save(dataSet, 10);
+        DataSetDef modified = def.clone();
+        modified.setCacheMaxRows(10);
+        assertThat(store.load(modified, 10)).isNull();
+
+        modified = def.clone();
+        modified.setRefreshTime("1minute");
+        dataSet.setDefinition(modified);
+        store.save(dataSet, 10);
+        assertThat(store.load(modified, 10)).isNotNull();
+        dataSet.setCreationDate(new Date(System.currentTimeMillis() - 120000));
+        store.save(dataSet, 10);
+        assertThat(store.load(modified, 10)).isNull();
+    }
+
+    @Test
+    public void testCorruptedSnapshot() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setDefinition(def);
+        store.save(dataSet, 10);
+        File file = store.getFile(def.getUUID());
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length / 2));
+
+        assertThat(store.load(def, 10)).isNull();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void testStaticProviderRestore() throws Exception {
+        StaticDataSetProvider provider = new StaticDataSetProvider(DataSetCore.get().getSharedDataSetOpEngine());
+        provider.setSnapshotStore(store);
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(def.getUUID());
+        dataSet.setDefinition(def);
+        provider.registerDataSet(dataSet, 10);
+        DataSetCore.get().getSharedDataSetOpEngine().getIndexRegistry().remove(def.getUUID());
+
+        assertThat(provider.lookupDataSet(def, null)).isNull();
+        DataSet restored = provider.restoreDataSet(def, 10);
+        assertThat(restored).isNotNull();
+        assertThat(restored.getColumnByIndex(0).getValues()).isNotInstanceOf(NumberColumnValues.class);
+        assertThat(provider.lookupDataSet(def, null)).isSameAs(restored);
+
+        // Removing the data set from memory keeps the snapshot
+        provider.removeDataSet(def.getUUID());
+        assertThat(store.getFile(def.getUUID())).exists();
+        assertThat(provider.restoreDataSet(def, 10)).isNotNull();
+
+        provider.deleteSnapshot(def.getUUID());
+        assertThat(store.getFile(def.getUUID())).doesNotExist();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dashbuilder.DataSetCoreImpl;
+import org.dashbuilder.dataset.ConcurrentDataSetIndexRegistry.EvictionPolicy;
+import org.dashbuilder.dataset.engine.index.DataSetFilterIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+
+public class ConcurrentDataSetIndexRegistryTest {
+
+    UUIDGeneratorImpl uuidGenerator = new UUIDGeneratorImpl();
+    long dataSetSize = newDataSet("size").getEstimatedSize();
+
+    @Test
+    public void testHitsAndMisses() {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, Long.MAX_VALUE, EvictionPolicy.LRU);
+        registry.put(newDataSet("a"));
+        assertThat(registry.get("a")).isNotNull();
+        assertThat(registry.get("a")).isNotNull();
+        assertThat(registry.get("b")).isNull();
+        assertThat(registry.getHits()).isEqualTo(2);
+        assertThat(registry.getMisses()).isEqualTo(1);
+
+        DataSetIndex index = registry.get("a");
+        assertThat(index.getFilterIndex(greaterThan(COLUMN_AMOUNT, 100))).isNull();
+        index.indexFilter(greaterThan(COLUMN_AMOUNT, 100), rows(10), 0);
+        assertThat(index.getFilterIndex(greaterThan(COLUMN_AMOUNT, 100))).isNotNull();
+        DataSetIndexStats stats = index.getStats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getEvictions()).isEqualTo(0);
+
+        assertThat(registry.remove("a")).isSameAs(index);
+        assertThat(registry.get("a")).isNull();
+    }
+
+    @Test
+    public void testEvictIndexesFirst() {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize + 5000, EvictionPolicy.LRU);
+        DataSetIndex index = registry.put(newDataSet("a"));
+        DataSetFilterIndex oldFilter = index.indexFilter(greaterThan(COLUMN_AMOUNT, 100), rows(20000), 0);
+        index.indexFilter(greaterThan(COLUMN_AMOUNT, 200), rows(1000), 0);
+        oldFilter.setLastAccessTime(0);
+        assertThat(registry.getEstimatedSize()).isGreaterThan(registry.getMaxSize());
+
+        assertThat(registry.evict(null)).isGreaterThan(0);
+        assertThat(registry.getEstimatedSize()).isLessThanOrEqualTo(registry.getMaxSize());
+        assertThat(index.getFilterIndex(greaterThan(COLUMN_AMOUNT, 100))).isNull();
+        assertThat(index.getFilterIndex(greaterThan(COLUMN_AMOUNT, 200))).isNotNull();
+        assertThat(index.getStats().getEvictions()).isEqualTo(1);
+        assertThat(registry.getIndexEvictions()).isEqualTo(1);
+        assertThat(registry.getEvictions()).isEqualTo(0);
+        assertThat(registry.get("a")).isSameAs(index);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize * 2 + 1000, EvictionPolicy.LRU);
+        registry.put(newDataSet("a")).setLastAccessTime(1);
+        registry.put(newDataSet("b")).setLastAccessTime(2);
+        registry.put(newDataSet("c"));
+
+        assertThat(registry.getEvictions()).isEqualTo(1);
+        assertThat(registry.get("a")).isNull();
+        assertThat(registry.get("b")).isNotNull();
+        assertThat(registry.get("c")).isNotNull();
+    }
+
+    @Test
+    public void testEvictLeastFrequentlyUsed() {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize * 2 + 1000, EvictionPolicy.LFU);
+        registry.put(newDataSet("a"));
+        registry.put(newDataSet("b"));
+        registry.get("a");
+        registry.get("a");
+        registry.get("b");
+        registry.put(newDataSet("c"));
+
+        assertThat(registry.getEvictions()).isEqualTo(1);
+        assertThat(registry.get("b")).isNull();
+        assertThat(registry.get("a")).isNotNull();
+    }
+
+    @Test
+    public void testPinnedNeverEvicted() {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize + 1000, EvictionPolicy.LRU);
+        registry.pin("a");
+        registry.put(newDataSet("a")).setLastAccessTime(0);
+        registry.put(newDataSet("b"));
+        registry.put(newDataSet("c"));
+
+        assertThat(registry.isPinned("a")).isTrue();
+        assertThat(registry.get("a")).isNotNull();
+        assertThat(registry.get("b")).isNull();
+        assertThat(registry.get("c")).isNotNull();
+
+        registry.remove("a");
+        assertThat(registry.isPinned("a")).isFalse();
+    }
+
+    @Test
+    public void testParseSize() {
+        assertThat(ConcurrentDataSetIndexRegistry.parseSize(null)).isEqualTo(Long.MAX_VALUE);
+        assertThat(ConcurrentDataSetIndexRegistry.parseSize("1000")).isEqualTo(1000);
+        assertThat(ConcurrentDataSetIndexRegistry.parseSize("2k")).isEqualTo(2048);
+        assertThat(ConcurrentDataSetIndexRegistry.parseSize("512M")).isEqualTo(512L * 1024 * 1024);
+        assertThat(ConcurrentDataSetIndexRegistry.parseSize("1g")).isEqualTo(1024L * 1024 * 1024);
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        DataSetCoreImpl dataSetCore = new DataSetCoreImpl();
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize + 5000, EvictionPolicy.LRU);
+        dataSetCore.setIndexRegistry(registry);
+        DataSetManager dataSetManager = dataSetCore.getDataSetManager();
+        dataSetManager.registerDataSet(newDataSet("expenses"));
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset("expenses")
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, SUM)
+                .buildLookup();
+        DataSet expected = dataSetManager.lookupDataSet(lookup);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<DataSet>> tasks = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                tasks.add(() -> {
+                    DataSet result = dataSetManager.lookupDataSet(lookup.cloneInstance());
+                    registry.evict(null);
+                    return result;
+                });
+            }
+            for (Future<DataSet> future : executor.invokeAll(tasks)) {
+                DataSet result = future.get();
+                assertThat(result.getRowCount()).isEqualTo(expected.getRowCount());
+                assertThat(result.getValueAt(0, 1)).isEqualTo(expected.getValueAt(0, 1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Pinned as registered by hand
+        assertThat(registry.isPinned("expenses")).isTrue();
+        assertThat(registry.getEvictions()).isEqualTo(0);
+    }
+
+    @Test
+    public void testEvictWhileAccessed() throws Exception {
+        ConcurrentDataSetIndexRegistry registry = new ConcurrentDataSetIndexRegistry(uuidGenerator, dataSetSize * 1000, EvictionPolicy.LFU);
+        List<DataSetIndex> indexes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            indexes.add(registry.put(newDataSet("ds" + i)));
+        }
+        registry.maxSize = dataSetSize * 10;
+
+        // Lookups keep changing the usage of the indexes while they are sorted
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> lookups = executor.submit(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                for (int i = 0; i < indexes.size(); i++) {
+                    indexes.get(i).setLastAccessTime(System.nanoTime() % 1000);
+                    indexes.get(i).reuseHit();
+                }
+            }
+        });
+        try {
+            assertThat(registry.evict(null)).isGreaterThan(0);
+            assertThat(registry.getEvictions()).isGreaterThanOrEqualTo(190);
+        } finally {
+            lookups.cancel(true);
+            executor.shutdown();
+        }
+    }
+
+    private DataSet newDataSet(String uuid) {
+        try {
+            DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+            dataSet.setUUID(uuid);
+            return dataSet;
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Integer> rows(int n) {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            rows.add(i);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.StaticDataSetProvider;
+import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DATE;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_EMPLOYEE;
+import static org.dashbuilder.dataset.filter.FilterFactory.AND;
+import static org.dashbuilder.dataset.filter.FilterFactory.NOT;
+import static org.dashbuilder.dataset.filter.FilterFactory.OR;
+import static org.dashbuilder.dataset.filter.FilterFactory.between;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterOrEqualsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.filter.FilterFactory.in;
+import static org.dashbuilder.dataset.filter.FilterFactory.isNull;
+import static org.dashbuilder.dataset.filter.FilterFactory.likeTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.lowerOrEqualsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.lowerThan;
+import static org.dashbuilder.dataset.filter.FilterFactory.notEqualsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.notIn;
+import static org.dashbuilder.dataset.filter.FilterFactory.notNull;
+import static org.dashbuilder.dataset.filter.FilterFactory.timeFrame;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.AVERAGE;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.dashbuilder.dataset.group.DateIntervalType.MONTH;
+
+public class DataSetColumnarTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+    public static final String EXPENSE_REPORTS_COLUMNAR = "expense_reports_columnar";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    StaticDataSetProvider staticDataSetProvider = DataSetCore.get().getStaticDataSetProvider();
+    DataSetFormatter dataSetFormatter = new DataSetFormatter();
+
+    @Before
+    public void setUp() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+
+        staticDataSetProvider.setColumnarStorageEnabled(true);
+        dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS_COLUMNAR);
+        dataSetManager.registerDataSet(dataSet);
+    }
+
+    @After
+    public void tearDown() {
+        staticDataSetProvider.setColumnarStorageEnabled(false);
+    }
+
+    @Test
+    public void testColumnStorage() throws Exception {
+        DataSet dataSet = dataSetManager.getDataSet(EXPENSE_REPORTS_COLUMNAR);
+        assertThat(((DataSetImpl) dataSet).isColumnar()).isTrue();
+        assertThat(dataSet.getColumnById(COLUMN_AMOUNT).getValues()).isInstanceOf(NumberColumnValues.class);
+        assertThat(dataSet.getColumnById(COLUMN_DATE).getValues()).isInstanceOf(DateColumnValues.class);
+        assertThat(dataSet.getColumnById(COLUMN_CITY).getValues()).isInstanceOf(LabelColumnValues.class);
+
+        LabelColumnValues cities = (LabelColumnValues) dataSet.getColumnById(COLUMN_CITY).getValues();
+        assertThat(cities.getDictionary()).containsExactly("Barcelona", "Madrid", "Brno", "Westford", "Raleigh", "London");
+        assertThat(cities.getCode(0)).isEqualTo(cities.codeOf("Barcelona"));
+
+        DataSet boxed = dataSetManager.getDataSet(EXPENSE_REPORTS);
+        assertThat(((DataSetImpl) boxed).isColumnar()).isFalse();
+        assertThat(dataSet.getEstimatedSize()).isLessThan(boxed.getEstimatedSize());
+    }
+
+    @Test
+    public void testSameLookupResults() throws Exception {
+        List<DataSetLookupBuilder<?>> lookups = Arrays.asList(
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .filter(COLUMN_AMOUNT, greaterThan(500))
+                        .sort(COLUMN_DATE, SortOrder.DESCENDING),
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                        .group(COLUMN_DEPARTMENT)
+                        .column(COLUMN_DEPARTMENT)
+                        .column(COUNT, "occurrences")
+                        .column(COLUMN_AMOUNT, SUM),
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .group(COLUMN_DATE).dynamic(MONTH, true)
+                        .column(COLUMN_DATE)
+                        .column(COLUMN_AMOUNT, AVERAGE),
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .column(COLUMN_EMPLOYEE)
+                        .column(COLUMN_CITY)
+                        .sort(COLUMN_EMPLOYEE, SortOrder.ASCENDING)
+                        .rowNumber(10));
+
+        for (DataSetLookupBuilder<?> lookup : lookups) {
+            DataSet expected = dataSetManager.lookupDataSet(((DataSetLookupBuilder<?>) lookup.dataset(EXPENSE_REPORTS)).buildLookup());
+            DataSet actual = dataSetManager.lookupDataSet(((DataSetLookupBuilder<?>) lookup.dataset(EXPENSE_REPORTS_COLUMNAR)).buildLookup());
+            assertThat(format(actual)).isEqualTo(format(expected));
+        }
+    }
+
+    @Test
+    public void testSameFilterResults() throws Exception {
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2015-01-01");
+        List<ColumnFilter> filters = Arrays.asList(
+                isNull(COLUMN_AMOUNT),
+                notNull(COLUMN_CITY),
+                equalsTo(COLUMN_AMOUNT, 120.35),
+                notEqualsTo(COLUMN_CITY, "Barcelona"),
+                in(COLUMN_CITY, Arrays.asList("Madrid", "Brno", "Unknown")),
+                notIn(COLUMN_DEPARTMENT, Arrays.asList("Sales", "Engineering")),
+                greaterThan(COLUMN_AMOUNT, 300),
+                greaterOrEqualsTo(COLUMN_DATE, date),
+                lowerThan(COLUMN_DATE, date),
+                lowerOrEqualsTo(COLUMN_AMOUNT, 120.35),
+                between(COLUMN_AMOUNT, 100, 200),
+                timeFrame(COLUMN_DATE, "-20year"),
+                likeTo(COLUMN_EMPLOYEE, "%an%"),
+                AND(COLUMN_AMOUNT, greaterThan(100), lowerThan(150)),
+                NOT(COLUMN_AMOUNT, greaterThan(100)),
+                OR(NOT(greaterThan(COLUMN_AMOUNT, 100)), greaterThan(COLUMN_AMOUNT, 1000), equalsTo(COLUMN_CITY, "Madrid")));
+
+        for (ColumnFilter filter : filters) {
+            DataSet expected = dataSetManager.lookupDataSet(DataSetLookupFactory.newDataSetLookupBuilder()
+                    .dataset(EXPENSE_REPORTS).filter(filter).buildLookup());
+            DataSet actual = dataSetManager.lookupDataSet(DataSetLookupFactory.newDataSetLookupBuilder()
+                    .dataset(EXPENSE_REPORTS_COLUMNAR).filter(filter).buildLookup());
+            assertThat(format(actual)).as(filter.toString()).isEqualTo(format(expected));
+        }
+    }
+
+    private String format(DataSet dataSet) {
+        return dataSetFormatter.formatDataSet(dataSet, "{", "}", ",\n", "\"", "\"", ", ");
+    }
+
+    @Test
+    public void testIndexStats() throws Exception {
+        DataSetIndexStats stats = DataSetCore.get().getSharedDataSetOpEngine()
+                .getIndexRegistry().get(EXPENSE_REPORTS_COLUMNAR).getStats();
+
+        DataSet dataSet = dataSetManager.getDataSet(EXPENSE_REPORTS_COLUMNAR);
+        assertThat(stats.getDataSetSize()).isEqualTo(dataSet.getEstimatedSize());
+        assertThat(stats.toString()).contains("Data set size=");
+    }
+
+    @Test
+    public void testColumnValuesUpdates() {
+        ColumnValues values = ColumnValues.create(ColumnType.NUMBER, 1);
+        values.add(1d);
+        values.add(null);
+        values.add(3);
+        values.add(0, "0");
+        assertThat(values).containsExactly(0d, 1d, null, 3d);
+
+        values.remove(1);
+        assertThat(values).containsExactly(0d, null, 3d);
+        assertThat(values.isNull(1)).isTrue();
+
+        values.set(1, 2d);
+        values.trimToSize();
+        assertThat(values).containsExactly(0d, 2d, 3d);
+        assertThat(values.isNull(1)).isFalse();
+
+        ColumnValues copy = values.copy();
+        copy.set(0, null);
+        assertThat(values.get(0)).isEqualTo(0d);
+        assertThat(copy.get(0)).isNull();
+    }
+
+    @Test
+    public void testColumnValuesConversion() {
+        Date date = new Date();
+        ColumnValues dates = ColumnValues.of(ColumnType.DATE, Arrays.asList(date, null));
+        assertThat(dates).containsExactly(date, null);
+        assertThat(((DateColumnValues) dates).getTime(0)).isEqualTo(date.getTime());
+
+        ColumnValues labels = ColumnValues.of(ColumnType.LABEL, Arrays.asList("A", null, "B", "A"));
+        assertThat(labels).containsExactly("A", null, "B", "A");
+        assertThat(((LabelColumnValues) labels).getDictionary()).containsExactly("A", "B");
+        assertThat(((LabelColumnValues) labels).getCode(1)).isEqualTo(-1);
+
+        assertThat(ColumnValues.of(ColumnType.TEXT, Arrays.asList("text"))).isNull();
+    }
+}
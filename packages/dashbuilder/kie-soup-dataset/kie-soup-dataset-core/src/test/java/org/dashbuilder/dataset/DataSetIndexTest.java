@@ -28,6 +28,7 @@ import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
 import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
 import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
 import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
 
 public class DataSetIndexTest {
 
@@ -178,4 +179,31 @@ public class DataSetIndexTest {
         // The index size must not be greater than the 20% of the dataset's size
         assertThat(stats.getIndexSize()).isLessThan(dataSet.getEstimatedSize() / 5);
     }
+
+    @Test
+    public void testManyFilterIndexes() throws Exception {
+        // Fill the index with many filters on the same column and look them up again
+        int filters = 300;
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < filters; i++) {
+                DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .filter(COLUMN_AMOUNT, greaterThan(i))
+                        .buildLookup();
+                dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+            }
+        }
+        DataSetIndex dataSetIndex = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+        DataSetIndexStats stats = dataSetIndex.getStats();
+        assertThat(stats.getNumberOfFilterOps()).isEqualTo(filters);
+        assertThat(stats.getReuseRate()).isGreaterThanOrEqualTo(1);
+
+        // Changing the lookup once executed does not break the index
+        DataSetLookup lookup = sortByAmountAsc.cloneInstance();
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+        lookup.getFirstSortOp().invertOrder();
+        dataSetOpEngine.execute(EXPENSE_REPORTS, sortByAmountAsc.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, sortByAmountDesc.getOperationList());
+        assertThat(dataSetIndex.getStats().getNumberOfSortOps()).isEqualTo(2);
+    }
 }
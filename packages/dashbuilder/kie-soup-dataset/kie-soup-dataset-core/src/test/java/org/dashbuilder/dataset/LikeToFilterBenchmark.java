@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.List;
+import java.util.Random;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.DataSetHandler;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterAlgorithm;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.sort.DataSetSort;
+
+import static org.dashbuilder.dataset.filter.FilterFactory.likeTo;
+
+/**
+ * Measures the rows per second the <code>LIKE_TO</code> filter is able to process. Not a test, run it as:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dashbuilder.dataset.LikeToFilterBenchmark
+ * </pre>
+ */
+public class LikeToFilterBenchmark {
+
+    static final int ROWS = 200000;
+    static final int ITERATIONS = 10;
+    static final String[] NAMES = {"Roxie Foraker", "Jamie Gilbeau", "Nita Marling", "Hannah B. Mackey",
+            "Patricia J. Behr", "Jerri Preble", "Julio Burdge", "Ruben Stevens", "Maria Gomez", "Sandra Shaw"};
+    static final String[] PATTERNS = {"%ar%", "Roxie%", "%a_l%", "[JR]%"};
+
+    public static void main(String[] args) {
+        DataSetFilterAlgorithm filterAlgorithm = DataSetCore.get().getFilterAlgorithm();
+        DataSet boxed = buildDataSet(ColumnType.TEXT);
+        DataSet label = ((DataSetImpl) buildDataSet(ColumnType.LABEL)).toColumnar();
+
+        for (String pattern : PATTERNS) {
+            List<Object> values = boxed.getColumnByIndex(0).getValues();
+            long legacy = measure(() -> {
+                int n = 0;
+                for (Object value : values) {
+                    if (LikeToMatcherTest.legacyMatch(pattern, value.toString(), false)) n++;
+                }
+                return n;
+            });
+            ColumnFilter filter = likeTo("name", pattern, false);
+            long compiled = measure(() -> filterAlgorithm.filter(handler(boxed), filter).size());
+            long dictionary = measure(() -> filterAlgorithm.filter(handler(label), filter).size());
+            System.out.println(String.format("%-8s legacy=%,12d rows/s  compiled=%,12d rows/s  label dictionary=%,12d rows/s",
+                    pattern, legacy, compiled, dictionary));
+        }
+    }
+
+    static DataSetHandler handler(DataSet dataSet) {
+        return new DataSetHandler() {
+            public DataSet getDataSet() {
+                return dataSet;
+            }
+            public List<Integer> getRows() {
+                return null;
+            }
+            public DataSetHandler group(DataSetGroup op) {
+                throw new UnsupportedOperationException();
+            }
+            public DataSetHandler filter(DataSetFilter op) {
+                throw new UnsupportedOperationException();
+            }
+            public DataSetHandler sort(DataSetSort op) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    static DataSet buildDataSet(ColumnType type) {
+        Random random = new Random(0);
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("name", type);
+        for (int i = 0; i < ROWS; i++) {
+            dataSet.setValueAt(i, 0, NAMES[random.nextInt(NAMES.length)]);
+        }
+        return dataSet;
+    }
+
+    interface Run {
+
+        int run();
+    }
+
+    /**
+     * @return The average rows per second after a warm-up run.
+     */
+    static long measure(Run run) {
+        run.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            run.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        return (long) (ROWS * (double) ITERATIONS / (elapsed / 1e9));
+    }
+}
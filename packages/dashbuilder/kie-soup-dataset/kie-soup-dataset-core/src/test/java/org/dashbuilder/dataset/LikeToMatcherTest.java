@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.dashbuilder.dataset.engine.filter.LikeToMatcher;
+import org.dashbuilder.dataset.engine.filter.LikeToMatcherFactory;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LikeToMatcherTest {
+
+    List<String> PATTERNS = Arrays.asList("Roxie Foraker", "roxie%", "%Foraker", "%ie fo%", "%", "%%", "",
+            "R_xie%", "[RJ]%", "%.%", "Ro%ker", "a+b", "%\nx%");
+
+    List<String> VALUES = Arrays.asList("Roxie Foraker", "ROXIE FORAKER", "Jamie Gilbeau", "", "a.b", "aab", "a+b",
+            "Roxie\nForaker", "\nx", "x\nx\n");
+
+    PatternLikeToMatcherFactory factory = new PatternLikeToMatcherFactory();
+
+    @Test
+    public void testSameResultsAsRegExp() {
+        for (String pattern : PATTERNS) {
+            for (boolean caseSensitive : new boolean[] {true, false}) {
+                LikeToMatcher matcher = factory.getMatcher(pattern, caseSensitive);
+                for (String value : VALUES) {
+                    assertThat(matcher.matches(value))
+                            .as("'" + pattern + "' like '" + value + "' (" + caseSensitive + ")")
+                            .isEqualTo(legacyMatch(pattern, value, caseSensitive));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLiteralPatterns() {
+        assertThat(factory.getMatcher("roxie%", true)).isInstanceOf(LikeToMatcher.LiteralMatcher.class);
+        assertThat(factory.getMatcher("%a.b%", false)).isInstanceOf(LikeToMatcher.LiteralMatcher.class);
+        assertThat(factory.getMatcher("R_xie%", true)).isInstanceOf(PatternLikeToMatcherFactory.PatternMatcher.class);
+        assertThat(factory.getMatcher("Ro%ker", true)).isInstanceOf(PatternLikeToMatcherFactory.PatternMatcher.class);
+    }
+
+    @Test
+    public void testCache() {
+        LikeToMatcherFactory cache = new LikeToMatcherFactory(2);
+        LikeToMatcher m1 = cache.getMatcher("a%", true);
+        assertThat(cache.getMatcher("a%", true)).isSameAs(m1);
+        assertThat(cache.getMatcher("a%", false)).isNotSameAs(m1);
+
+        cache.getMatcher("b%", true);
+        assertThat(cache.getCacheSize()).isEqualTo(2);
+        assertThat(cache.getMatcher("a%", true)).isNotSameAs(m1);
+
+        cache.clearCache();
+        assertThat(cache.getCacheSize()).isEqualTo(0);
+    }
+
+    /**
+     * The <code>LIKE_TO</code> implementation previous to the compiled matchers.
+     */
+    static boolean legacyMatch(String pattern, String value, boolean caseSensitive) {
+        String regexp = caseSensitive ? pattern : pattern.toLowerCase();
+        String strValue = caseSensitive ? value : value.toLowerCase();
+        regexp = regexp.replace(".", "\\.");
+        regexp = regexp.replace("%", ".*");
+        regexp = regexp.replace("_", ".");
+        return strValue.matches(regexp);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
+import org.dashbuilder.dataset.engine.function.AggregateFunctionManagerImpl;
+import org.dashbuilder.dataset.engine.index.RowBitmap;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.filter.FilterFactory.AND;
+import static org.dashbuilder.dataset.filter.FilterFactory.NOT;
+import static org.dashbuilder.dataset.filter.FilterFactory.OR;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.filter.FilterFactory.isNull;
+import static org.dashbuilder.dataset.filter.FilterFactory.likeTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.lowerThan;
+
+public class ParallelExecutionTest {
+
+    static final int ROWS = 300000;
+    static final String[] CITIES = {"Barcelona", "Madrid", "Brno", "Westford", "Raleigh", "London"};
+
+    static ForkJoinPool pool;
+    static DataSet dataSet;
+
+    ParallelExecution parallelExecution = new ParallelExecution(pool, 1000);
+    DefaultFilterAlgorithm serialFilter = new DefaultFilterAlgorithm(new PatternLikeToMatcherFactory());
+    ParallelFilterAlgorithm parallelFilter = new ParallelFilterAlgorithm(new PatternLikeToMatcherFactory(), parallelExecution);
+    AggregateFunctionManagerImpl serialFunctions = new AggregateFunctionManagerImpl();
+    ParallelAggregateFunctionManager parallelFunctions = new ParallelAggregateFunctionManager(parallelExecution);
+
+    @BeforeClass
+    public static void setUpClass() {
+        pool = new ForkJoinPool(4);
+        Random random = new Random(1);
+        DataSetBuilder builder = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount");
+        for (int i = 0; i < ROWS; i++) {
+            Double amount = i % 97 == 0 ? null : random.nextInt(100000) / 4d;
+            builder.row(CITIES[random.nextInt(CITIES.length)], amount);
+        }
+        dataSet = ((DataSetImpl) builder.buildDataSet()).toColumnar();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testFilter() {
+        List<ColumnFilter> filters = Arrays.asList(
+                greaterThan("amount", 5000),
+                isNull("amount"),
+                likeTo("city", "%o%"),
+                OR(equalsTo("city", "Brno"), lowerThan("amount", 100)),
+                AND(NOT(isNull("amount")), likeTo("city", "B_r%")));
+
+        RowBitmap all = RowBitmap.range(0, ROWS);
+        RowBitmap sparse = RowBitmap.of(sparseRows());
+        for (ColumnFilter filter : filters) {
+            RowBitmap expected = serialFilter.filter(dataSet, filter, all);
+            assertThat(expected.isEmpty()).isFalse();
+            assertThat(parallelFilter.filter(dataSet, filter, all)).isEqualTo(expected);
+            assertThat(parallelFilter.filter(dataSet, filter, sparse))
+                    .isEqualTo(serialFilter.filter(dataSet, filter, sparse));
+        }
+    }
+
+    @Test
+    public void testAggregate() {
+        List values = dataSet.getColumnById("amount").getValues();
+        List<Integer> sparseRows = sparseRows();
+        List<Integer> shuffledRows = new ArrayList<Integer>(sparseRows);
+        Collections.shuffle(shuffledRows, new Random(2));
+        List<List<Integer>> rowSets = Arrays.asList(
+                null,
+                sparseRows,
+                RowBitmap.of(sparseRows).asList(),
+                shuffledRows,
+                new ArrayList<Integer>());
+
+        for (AggregateFunctionType type : AggregateFunctionType.values()) {
+            if (type == AggregateFunctionType.MEDIAN) {
+                // Nulls are not supported
+                continue;
+            }
+            for (List<Integer> rows : rowSets) {
+                Object expected = serialFunctions.getFunctionByType(type).aggregate(values, rows);
+                Object actual = parallelFunctions.getFunctionByType(type).aggregate(values, rows);
+                assertThat(actual).as(type.name()).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        ParallelExecution disabled = new ParallelExecution(pool, ROWS + 1);
+        assertThat(disabled.isParallel(ROWS)).isFalse();
+        assertThat(parallelExecution.isParallel(ROWS)).isTrue();
+        assertThat(parallelExecution.getPartitionSize(ROWS)).isEqualTo(ROWS / 4);
+
+        ColumnFilter filter = greaterThan("amount", 5000);
+        RowBitmap all = RowBitmap.range(0, ROWS);
+        assertThat(new ParallelFilterAlgorithm(new PatternLikeToMatcherFactory(), disabled).filter(dataSet, filter, all))
+                .isEqualTo(serialFilter.filter(dataSet, filter, all));
+    }
+
+    private List<Integer> sparseRows() {
+        List<Integer> rows = new ArrayList<Integer>();
+        for (int i = 0; i < ROWS; i += 3) {
+            rows.add(i);
+        }
+        return rows;
+    }
+}
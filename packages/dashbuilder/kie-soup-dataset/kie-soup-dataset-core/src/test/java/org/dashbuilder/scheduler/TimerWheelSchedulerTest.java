@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.scheduler;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelSchedulerTest {
+
+    TimerWheelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new TimerWheelScheduler(10, 0.2);
+        scheduler.init(4);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testScheduleAtDate() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        TestTask task = new TestTask("date", latch::countDown);
+        scheduler.schedule(task, new Date(System.currentTimeMillis() + 1000));
+        assertThat(scheduler.getTaskByKey("date")).isSameAs(task);
+        assertThat(scheduler.getNumberOfScheduledTasksInQueue()).isEqualTo(1);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        waitUntilDone(task);
+        assertThat(task.isDone()).isTrue();
+        assertThat(task.getRuns()).isEqualTo(1);
+        assertThat(task.getLastLagMillis()).isLessThan(SchedulerTask.MISFIRE_THRESHOLD_MILLIS);
+        assertThat(task.getMisfires()).isZero();
+        assertThat(scheduler.getTaskByKey("date")).isNull();
+    }
+
+    @Test
+    public void testFixedDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        TestTask task = new TestTask("repeat", latch::countDown);
+        scheduler.schedule(task, 1);
+        assertThat(task.isFixedDelay()).isTrue();
+
+        // Delays spread by the jitter: 0.8 to 1.2 seconds
+        long fireIn = task.getMillisTimeToFire();
+        assertThat(fireIn).isBetween(700L, 1200L);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        // The run is accounted once the task returns
+        for (int i = 0; i < 100 && task.getRuns() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(task.getRuns()).isGreaterThanOrEqualTo(2);
+        assertThat(scheduler.getTaskByKey("repeat")).isSameAs(task);
+
+        scheduler.unschedule("repeat");
+        long runs = task.getRuns();
+        Thread.sleep(1500);
+        assertThat(task.getRuns()).isEqualTo(runs);
+        assertThat(scheduler.getNumberOfScheduledTasks()).isZero();
+    }
+
+    @Test
+    public void testReschedule() throws Exception {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        scheduler.schedule(new TestTask("task", first::incrementAndGet), new Date(System.currentTimeMillis() + 200));
+        CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new TestTask("task", () -> {
+            second.incrementAndGet();
+            latch.countDown();
+        }), new Date(System.currentTimeMillis() + 300));
+        assertThat(scheduler.getNumberOfScheduledTasks()).isEqualTo(1);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(first.get()).isZero();
+        assertThat(second.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRescheduleWhileRunning() throws Exception {
+        // Fires on every tick, so the re-arm after each run races with the reschedules below
+        TestTask task = new TestTask("race", () -> {
+        });
+        scheduler.schedule(task, 0);
+        for (int i = 0; i < 500; i++) {
+            scheduler.schedule(task, 0);
+            Thread.sleep(1);
+        }
+        assertThat(scheduler.getTaskByKey("race")).isSameAs(task);
+
+        scheduler.unschedule("race");
+        Thread.sleep(100);
+        long runs = task.getRuns();
+        Thread.sleep(100);
+        assertThat(task.getRuns()).isEqualTo(runs);
+        assertThat(scheduler.getNumberOfScheduledTasksInQueue()).isZero();
+    }
+
+    @Test
+    public void testFireTask() {
+        AtomicInteger runs = new AtomicInteger();
+        TestTask task = new TestTask("fire", runs::incrementAndGet);
+        scheduler.schedule(task, 60);
+        scheduler.fireTask("fire");
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(task.getRuns()).isEqualTo(1);
+
+        // Rescheduled
+        assertThat(scheduler.getTaskByKey("fire")).isSameAs(task);
+        assertThat(task.getMillisTimeToFire()).isGreaterThan(40000);
+        assertThat(scheduler.printScheduledTasksReport()).contains("WAITING", "key=fire", "runs=1");
+    }
+
+    @Test
+    public void testManyTasks() throws Exception {
+        int n = 2000;
+        CountDownLatch latch = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) {
+            scheduler.schedule(new TestTask("task" + i, latch::countDown),
+                               new Date(System.currentTimeMillis() + 50 + i % 500));
+        }
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    static class TestTask extends SchedulerTask {
+
+        String key;
+        Runnable action;
+
+        TestTask(String key, Runnable action) {
+            this.key = key;
+            this.action = action;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDescription() {
+            return "Test task " + key;
+        }
+
+        public void execute() {
+            action.run();
+        }
+    }
+
+    private void waitUntilDone(SchedulerTask task) throws Exception {
+        for (int i = 0; i < 100 && !task.isDone(); i++) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelTest {
+
+    @Test
+    public void testExpiration() {
+        TimerWheel<Long> wheel = new TimerWheel<>(0);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Spread over several levels
+            long deadline = 1 + (long) (Math.pow(random.nextDouble(), 4) * 20000000L);
+            deadlines.add(deadline);
+            wheel.add(deadline, deadline);
+        }
+        assertThat(wheel.size()).isEqualTo(5000);
+
+        List<Long> expired = new ArrayList<>();
+        long tick = 0;
+        while (wheel.size() > 0) {
+            tick += 1 + random.nextInt(500);
+            final long now = tick;
+            wheel.advance(now, deadline -> {
+                // Never before its deadline nor after the tick it was due
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                assertThat(deadline).isGreaterThan(now - 501);
+                expired.add(deadline);
+            });
+        }
+        deadlines.sort(Long::compare);
+        expired.sort(Long::compare);
+        assertThat(expired).isEqualTo(deadlines);
+    }
+
+    @Test
+    public void testAddWhileAdvancing() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000);
+        List<String> expired = new ArrayList<>();
+        wheel.add(900, "due");
+        wheel.add(1064, "level1");
+        wheel.add(1000 + (1L << 40), "beyond");
+        wheel.advance(1063, expired::add);
+        assertThat(expired).containsExactly("due");
+
+        wheel.add(1070, "later");
+        wheel.advance(1064, expired::add);
+        assertThat(expired).containsExactly("due", "level1");
+        wheel.advance(1070, expired::add);
+        assertThat(expired).containsExactly("due", "level1", "later");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(1000 + (1L << 40) - 1, expired::add);
+        assertThat(expired).hasSize(3);
+        wheel.advance(1000 + (1L << 40), expired::add);
+        assertThat(expired).endsWith("beyond");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testEmptyWheelJumps() {
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        wheel.advance(Long.MAX_VALUE / 2, s -> {});
+        assertThat(wheel.getCurrentTick()).isEqualTo(Long.MAX_VALUE / 2);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.impl.ColumnValues;
+
+/**
+ * The values parsed from a block of CSV lines, stored column by column in the same kind of lists the data set
+ * columns get.
+ */
+public class CSVChunk {
+
+    private List<List<Object>> values;
+    private int size = 0;
+    private boolean truncated = false;
+    private Exception error = null;
+
+    /**
+     * @param columnarStorage If true the values are stored in the columnar (primitive backed) storage.
+     */
+    public CSVChunk(List<DataColumn> columns, int capacity, boolean columnarStorage) {
+        values = new ArrayList<List<Object>>(columns.size());
+        for (DataColumn column : columns) {
+            values.add(newColumnValues(column, capacity, columnarStorage));
+        }
+    }
+
+    public static List<Object> newColumnValues(DataColumn column, int capacity, boolean columnarStorage) {
+        List<Object> result = columnarStorage ? ColumnValues.create(column.getColumnType(), capacity) : null;
+        return result != null ? result : new ArrayList<Object>(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a row. The given array is not kept so it can be reused.
+     */
+    public void add(Object[] row) {
+        for (int i = 0; i < values.size(); i++) {
+            values.get(i).add(row[i]);
+        }
+        size++;
+    }
+
+    /**
+     * Get the values of the given column.
+     */
+    public List<Object> getValues(int column) {
+        return values.get(column);
+    }
+
+    /**
+     * Release the values of the given column, once they are copied.
+     */
+    public void release(int column) {
+        values.set(column, null);
+    }
+
+    /**
+     * Check if the block contains a line not matching the header. No more lines must be loaded after it.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    /**
+     * The error found while parsing the block (if any). No more lines must be loaded after it.
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public void setError(Exception error) {
+        this.error = error;
+    }
+}
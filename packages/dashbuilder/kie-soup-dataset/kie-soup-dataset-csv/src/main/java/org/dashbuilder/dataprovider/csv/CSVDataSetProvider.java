@@ -21,6 +21,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.DataSetSnapshotStore;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
@@ -80,13 +81,25 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         var csvDef = (CSVDataSetDef) def;
         var isTest = lookup != null && lookup.testMode();
         if (isTest || dataSet == null || hasCSVFileChanged(dataSet, csvDef)) {
-            CSVParser csvParser = new CSVParser(csvDef, csvStorage);
-            dataSet = csvParser.load();
-            dataSet.setUUID(def.getUUID());
-            dataSet.setDefinition(def);
-
-            // Register the CSV data set available into the static provider
-            staticDataSetProvider.registerDataSet(dataSet);
+            var sourceVersion = isTest ? DataSetSnapshotStore.NO_SOURCE_VERSION : getSourceVersion(csvDef);
+            var snapshotEnabled = sourceVersion != DataSetSnapshotStore.NO_SOURCE_VERSION;
+
+            // Restore the data set loaded before the last restart, provided the CSV content has not changed
+            dataSet = dataSet == null && snapshotEnabled ? staticDataSetProvider.restoreDataSet(def, sourceVersion) : null;
+            if (dataSet == null) {
+                CSVParser csvParser = new CSVParser(csvDef, csvStorage);
+                csvParser.setColumnarStorage(staticDataSetProvider.isColumnarStorageEnabled());
+                dataSet = csvParser.load();
+                dataSet.setUUID(def.getUUID());
+                dataSet.setDefinition(def);
+
+                // Register the CSV data set available into the static provider
+                if (snapshotEnabled) {
+                    staticDataSetProvider.registerDataSet(dataSet, sourceVersion);
+                } else {
+                    staticDataSetProvider.registerDataSet(dataSet);
+                }
+            }
         }
         try {
             // Always do the lookup on the statically registered data set.
@@ -113,6 +126,31 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         return hasCSVFileChanged(dataSet, (CSVDataSetDef) def);
     }
 
+    /**
+     * Get the version of the CSV content: the file modification time or a checksum of the stored content.
+     * Remote files can not be checked for changes, so no version is available for them.
+     */
+    protected long getSourceVersion(CSVDataSetDef def) {
+        if (!StringUtils.isBlank(def.getFileURL())) {
+            return DataSetSnapshotStore.NO_SOURCE_VERSION;
+        }
+        if (!StringUtils.isBlank(def.getFilePath())) {
+            File f = new File(def.getFilePath());
+            if (f.exists()) {
+                return f.lastModified();
+            }
+        }
+        String csv = csvStorage != null ? csvStorage.getCSVString(def) : null;
+        if (csv == null) {
+            return DataSetSnapshotStore.NO_SOURCE_VERSION;
+        }
+        long checksum = 1125899906842597L;
+        for (int i = 0; i < csv.length(); i++) {
+            checksum = 31 * checksum + csv.charAt(i);
+        }
+        return (checksum ^ csv.length()) & Long.MAX_VALUE;
+    }
+
     protected boolean hasCSVFileChanged(DataSet dataSet, CSVDataSetDef def) {
         if (StringUtils.isBlank(def.getFilePath())) {
             return false;
@@ -127,16 +165,19 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     @Override
     public void onDataSetDefStale(DataSetDef def) {
         staticDataSetProvider.removeDataSet(def.getUUID());
+        staticDataSetProvider.deleteSnapshot(def.getUUID());
     }
 
     @Override
     public void onDataSetDefModified(DataSetDef olDef, DataSetDef newDef) {
         staticDataSetProvider.removeDataSet(olDef.getUUID());
+        staticDataSetProvider.deleteSnapshot(olDef.getUUID());
     }
 
     @Override
     public void onDataSetDefRemoved(DataSetDef oldDef) {
         staticDataSetProvider.removeDataSet(oldDef.getUUID());
+        staticDataSetProvider.deleteSnapshot(oldDef.getUUID());
     }
 
     @Override
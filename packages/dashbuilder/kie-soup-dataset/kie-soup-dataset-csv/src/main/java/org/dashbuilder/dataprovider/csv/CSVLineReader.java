@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the CSV content as blocks of lines which can be parsed independently, since a block never ends in
+ * the middle of a quoted value spanning several lines.
+ * <p>Lines are read exactly as the opencsv <code>CSVReader</code> does, and {@link #readNext(au.com.bytecode.opencsv.CSVParser, Iterator)}
+ * turns them into records the same way, so the results match the ones of the single threaded reader.</p>
+ * <p>The opencsv parser keeps whether it is within a field from one record to the next, and it changes how escape
+ * characters are handled. So the parser of every block must start in the state the reader is at the beginning of
+ * the block, see {@link #isInField()} and {@link #newRecordParser(boolean)}.</p>
+ */
+public class CSVLineReader implements Closeable {
+
+    private BufferedReader reader;
+    private char separator;
+    private char quote;
+    private char escape;
+
+    // Whether the last line read ends within a quoted value
+    private boolean inQuotes = false;
+
+    // Whether the last line read ends within a field, as the opencsv parser tracks it
+    private boolean inField = false;
+
+    public CSVLineReader(BufferedReader reader, char separator, char quote, char escape) {
+        this.reader = reader;
+        this.separator = separator;
+        this.quote = quote;
+        this.escape = escape;
+    }
+
+    public au.com.bytecode.opencsv.CSVParser newRecordParser() {
+        return new au.com.bytecode.opencsv.CSVParser(separator, quote, escape);
+    }
+
+    /**
+     * Get a record parser in the given state.
+     *
+     * @param inField Whether the parser starts within a field.
+     */
+    public au.com.bytecode.opencsv.CSVParser newRecordParser(boolean inField) throws IOException {
+        au.com.bytecode.opencsv.CSVParser parser = newRecordParser();
+        if (inField) {
+            // The state can only be set by parsing a plain value
+            char c = 'a';
+            while (c == separator || c == quote || c == escape) {
+                c++;
+            }
+            parser.parseLineMulti(String.valueOf(c));
+        }
+        return parser;
+    }
+
+    /**
+     * Whether the content read so far ends within a field. The parser of the next block must start in this state.
+     */
+    public boolean isInField() {
+        return inField;
+    }
+
+    /**
+     * Read a single record.
+     *
+     * @return The record values, or null at the end of the content.
+     */
+    public String[] readNext(au.com.bytecode.opencsv.CSVParser parser) throws IOException {
+        String[] result = null;
+        do {
+            String line = reader.readLine();
+            if (line == null) {
+                return result;
+            }
+            scan(line);
+            result = append(result, parser.parseLineMulti(line));
+        } while (parser.isPending());
+        return result;
+    }
+
+    /**
+     * Read the next block of lines.
+     *
+     * @param maxLines The number of lines to read. A few more are read if the last line ends within a quoted value.
+     * @return The lines read, or null at the end of the content.
+     */
+    public List<String> readLines(int maxLines) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        String line = null;
+        while (lines.size() < maxLines && (line = reader.readLine()) != null) {
+            lines.add(line);
+            scan(line);
+        }
+        while (inQuotes && line != null && (line = reader.readLine()) != null) {
+            lines.add(line);
+            scan(line);
+        }
+        return lines.isEmpty() ? null : lines;
+    }
+
+    /**
+     * Get the next record from the given lines, as the opencsv <code>CSVReader</code> does.
+     *
+     * @return The record values, or null if there are no more lines.
+     */
+    public static String[] readNext(au.com.bytecode.opencsv.CSVParser parser, Iterator<String> lines) throws IOException {
+        String[] result = null;
+        do {
+            if (!lines.hasNext()) {
+                return result;
+            }
+            result = append(result, parser.parseLineMulti(lines.next()));
+        } while (parser.isPending());
+        return result;
+    }
+
+    private static String[] append(String[] result, String[] r) {
+        if (r.length == 0) {
+            return result;
+        }
+        if (result == null) {
+            return r;
+        }
+        String[] t = new String[result.length + r.length];
+        System.arraycopy(result, 0, t, 0, result.length);
+        System.arraycopy(r, 0, t, result.length, r.length);
+        return t;
+    }
+
+    /**
+     * Track the quotes and fields found in the line, exactly as the opencsv parser (2.3) does. Escape characters and
+     * doubled quotes are honoured within quotes and also within unquoted fields. A quote, escaped or not, toggles
+     * whether the parser is within a field.
+     *
+     * @return true if the line ends within a quoted value.
+     */
+    protected boolean scan(String line) {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            boolean nextAvailable = (inQuotes || inField) && i + 1 < length;
+            if (c == escape) {
+                if (nextAvailable && (line.charAt(i + 1) == quote || line.charAt(i + 1) == escape)) {
+                    i++;
+                }
+            } else if (c == quote) {
+                if (nextAvailable && line.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (c == separator && !inQuotes) {
+                inField = false;
+            } else {
+                inField = true;
+            }
+        }
+        return inQuotes;
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+}
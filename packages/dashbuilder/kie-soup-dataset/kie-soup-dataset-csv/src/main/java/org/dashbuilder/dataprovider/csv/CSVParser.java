@@ -28,13 +28,21 @@ import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import au.com.bytecode.opencsv.CSVReader;
 import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataColumn;
@@ -47,34 +55,92 @@ public class CSVParser {
 
     // Custom pattern for Unix dates (epoch).
     public static final String DATE_FORMAT_EPOCH = "epoch";
+
+    /**
+     * Number of lines every block of CSV content parsed in parallel has.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
     
     protected transient Map<String,DateFormat> _dateFormatMap = new HashMap<String,DateFormat>();
     protected transient Map<String,DecimalFormat> _numberFormatMap = new HashMap<String,DecimalFormat>();
+    protected transient Map<String,PlainNumberFormat> _plainNumberFormatMap = new HashMap<String,PlainNumberFormat>();
     protected CSVDataSetDef dataSetDef;
     protected CSVFileStorage csvStorage;
+    protected ExecutorService executor = ChunkExecutor.INSTANCE;
+    protected int chunkSize = DEFAULT_CHUNK_SIZE;
+    protected boolean columnarStorage = false;
+
+    /**
+     * The pool parsing the blocks of lines by default. The thread loading the content waits for the blocks, so they
+     * are not parsed in a shared pool (e.g. the common pool) whose threads might be the ones waiting.
+     */
+    static class ChunkExecutor {
+
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "csv-parser-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
 
     public CSVParser(CSVDataSetDef def, CSVFileStorage csvFileStorage) {
         this.dataSetDef = def;
         this.csvStorage = csvFileStorage;
     }
 
+    public CSVParser(CSVDataSetDef def, CSVFileStorage csvFileStorage, ExecutorService executor) {
+        this(def, csvFileStorage);
+        this.executor = executor;
+    }
+
     protected boolean isColumnIncluded(String columnId) {
         if (dataSetDef.isAllColumnsEnabled()) return true;
         if (dataSetDef.getColumns() == null) return false;
         return dataSetDef.getColumnById(columnId) != null;
     }
 
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isColumnarStorage() {
+        return columnarStorage;
+    }
+
+    /**
+     * If true the values are loaded straight into the columnar (primitive backed) storage.
+     */
+    public void setColumnarStorage(boolean columnarStorage) {
+        this.columnarStorage = columnarStorage;
+    }
+
+    /**
+     * Load the CSV content. Once the header and the first row are read, the remaining lines are read in blocks,
+     * every block parsed in parallel into its own set of values. The values are finally copied into columns
+     * sized after the total number of rows.
+     */
     protected DataSet load() throws Exception {
         InputStream is = getCSVInputStream();
-        CSVReader csvReader = null; 
+        CSVLineReader lineReader = null;
         try {
             BufferedReader br = new BufferedReader(new InputStreamReader(is));
-            csvReader = new CSVReader(br, dataSetDef.getSeparatorChar(), dataSetDef.getQuoteChar(), dataSetDef.getEscapeChar());
+            lineReader = new CSVLineReader(br, dataSetDef.getSeparatorChar(), dataSetDef.getQuoteChar(), dataSetDef.getEscapeChar());
+            au.com.bytecode.opencsv.CSVParser recordParser = lineReader.newRecordParser();
 
-            String[] header = csvReader.readNext();
+            String[] header = lineReader.readNext(recordParser);
             if (header == null) throw new IOException("CSV has no header: " + dataSetDef);
 
-            String[] firstRow = csvReader.readNext();
+            String[] firstRow = lineReader.readNext(recordParser);
             if (firstRow != null && firstRow.length < header.length) {
                 String exceptionMessage = String.format("CSV parse error : The first row has fewer columns (%d) than the header (%d)"
                         , firstRow.length, header.length);
@@ -97,22 +163,129 @@ public class CSVParser {
 
             // Load & insert the CSV rows
             if (firstRow != null) {
+                CSVChunk firstChunk = new CSVChunk(dataSet.getColumns(), 1, columnarStorage);
                 Object[] _rowArray = new Object[dataSet.getColumns().size()];
                 _processLine(dataSet, _rowArray, firstRow, _columnIdxs);
-                dataSet.setValuesAt(dataSet.getRowCount(), _rowArray);
-                String[] _line = csvReader.readNext();
-                while (_line != null && _line.length == header.length) {
-                    _processLine(dataSet,_rowArray, _line, _columnIdxs);
-                    dataSet.setValuesAt(dataSet.getRowCount(), _rowArray);
-                    _line = csvReader.readNext();
-                }
+                firstChunk.add(_rowArray);
+
+                List<CSVChunk> chunks = new ArrayList<CSVChunk>();
+                chunks.add(firstChunk);
+                readChunks(lineReader, dataSet, _columnIdxs, header.length, chunks);
+                fillColumns(dataSet, chunks);
             }
             return dataSet;
         } finally {
             is.close();
-            if (csvReader != null) {
-                csvReader.close();
+            if (lineReader != null) {
+                lineReader.close();
+            }
+        }
+    }
+
+    /**
+     * Read the blocks of lines and parse them in parallel. The number of blocks read ahead is bounded so the
+     * raw content never piles up in memory. Reading stops at the first line not matching the header (like the
+     * single threaded reader does).
+     */
+    protected void readChunks(CSVLineReader lineReader, DataSet dataSet, List<Integer> columnIdxs, int headerLength,
+                              List<CSVChunk> result) throws Exception {
+
+        int maxPending = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        Deque<Future<CSVChunk>> pending = new ArrayDeque<Future<CSVChunk>>();
+        try {
+            boolean completed = false;
+            while (!completed) {
+                boolean inField = lineReader.isInField();
+                List<String> lines = lineReader.readLines(chunkSize);
+                if (lines != null) {
+                    pending.add(executor.submit(() -> newChunkParser().parseChunk(dataSet, lineReader.newRecordParser(inField),
+                                                                                  lines, columnIdxs, headerLength)));
+                }
+                while (!pending.isEmpty() && (lines == null || pending.size() >= maxPending || pending.peek().isDone())) {
+                    CSVChunk chunk = getChunk(pending.poll());
+                    result.add(chunk);
+                    if (chunk.isTruncated()) {
+                        completed = true;
+                        break;
+                    }
+                }
+                completed |= lines == null;
+            }
+        } finally {
+            for (Future<CSVChunk> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    protected CSVChunk getChunk(Future<CSVChunk> future) throws Exception {
+        try {
+            CSVChunk chunk = future.get();
+            if (chunk.getError() != null) {
+                throw chunk.getError();
+            }
+            return chunk;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        }
+    }
+
+    /**
+     * Get a parser for a block of lines. Number &amp; date formats are not thread safe, so every block gets
+     * its own.
+     */
+    protected CSVParser newChunkParser() {
+        CSVParser parser = new CSVParser(dataSetDef, csvStorage);
+        parser.setColumnarStorage(columnarStorage);
+        return parser;
+    }
+
+    /**
+     * Parse a block of lines. Parsing stops at the first line not matching the header or with an invalid value.
+     */
+    protected CSVChunk parseChunk(DataSet dataSet, au.com.bytecode.opencsv.CSVParser recordParser, List<String> lines,
+                                  List<Integer> columnIdxs, int headerLength) {
+        CSVChunk chunk = new CSVChunk(dataSet.getColumns(), lines.size(), columnarStorage);
+        Object[] _rowArray = new Object[dataSet.getColumns().size()];
+        try {
+            Iterator<String> it = lines.iterator();
+            String[] _line = CSVLineReader.readNext(recordParser, it);
+            while (_line != null && _line.length == headerLength) {
+                _processLine(dataSet, _rowArray, _line, columnIdxs);
+                chunk.add(_rowArray);
+                _line = CSVLineReader.readNext(recordParser, it);
+            }
+            chunk.setTruncated(_line != null);
+        } catch (Exception e) {
+            chunk.setError(e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Set the values of every column, all at once. The values of a single block are taken as they are. Otherwise,
+     * the values of every block are released as soon as they are copied, so at most one column is held twice.
+     */
+    protected void fillColumns(DataSet dataSet, List<CSVChunk> chunks) {
+        int rows = 0;
+        for (CSVChunk chunk : chunks) {
+            rows += chunk.size();
+        }
+        List<DataColumn> columns = dataSet.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            DataColumn column = columns.get(i);
+            List<Object> values;
+            if (chunks.size() == 1) {
+                values = chunks.get(0).getValues(i);
+            } else {
+                values = CSVChunk.newColumnValues(column, rows, columnarStorage);
+                for (CSVChunk chunk : chunks) {
+                    values.addAll(chunk.getValues(i));
+                    chunk.release(i);
+                }
             }
+            column.setValues(values);
         }
     }
 
@@ -191,6 +364,11 @@ public class CSVParser {
                     return dateFormat.parse(value);
                 }
             } else if (type.equals(ColumnType.NUMBER)) {
+                PlainNumberFormat plainFormat = getPlainNumberFormat(column.getId());
+                Double number = plainFormat != null ? plainFormat.parse(value) : null;
+                if (number != null) {
+                    return number;
+                }
                 DecimalFormat numberFormat = getNumberFormat(column.getId());
                 return numberFormat.parse(value).doubleValue();
             } else {
@@ -222,4 +400,73 @@ public class CSVParser {
         }
         return format;
     }
+
+    /**
+     * Get a parser for the plain numbers (digits, decimal &amp; grouping separators plus an optional minus
+     * sign) of the given column.
+     * @return null if the column's number format has any prefix, suffix or multiplier.
+     */
+    protected PlainNumberFormat getPlainNumberFormat(String columnId) {
+        if (_plainNumberFormatMap.containsKey(columnId)) {
+            return _plainNumberFormatMap.get(columnId);
+        }
+        DecimalFormat format = getNumberFormat(columnId);
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        PlainNumberFormat plainFormat = null;
+        if (format.getMultiplier() == 1
+                && symbols.getZeroDigit() == '0'
+                && format.getPositivePrefix().isEmpty()
+                && format.getPositiveSuffix().isEmpty()
+                && format.getNegativeSuffix().isEmpty()
+                && "-".equals(format.getNegativePrefix())) {
+            plainFormat = new PlainNumberFormat(symbols.getDecimalSeparator(),
+                                                format.isGroupingUsed() ? symbols.getGroupingSeparator() : null);
+        }
+        _plainNumberFormatMap.put(columnId, plainFormat);
+        return plainFormat;
+    }
+
+    /**
+     * Parses plain numbers by hand. It returns the same values as the {@link DecimalFormat} does and
+     * leaves anything else to it.
+     */
+    protected static class PlainNumberFormat {
+
+        private char decimalSeparator;
+        private Character groupingSeparator;
+
+        public PlainNumberFormat(char decimalSeparator, Character groupingSeparator) {
+            this.decimalSeparator = decimalSeparator;
+            this.groupingSeparator = groupingSeparator;
+        }
+
+        /**
+         * @return null if the value is not a plain number.
+         */
+        public Double parse(String value) {
+            int length = value.length();
+            char[] chars = new char[length];
+            int n = 0;
+            int i = 0;
+            boolean digits = false;
+            boolean decimals = false;
+            if (length > 0 && value.charAt(0) == '-') {
+                chars[n++] = '-';
+                i++;
+            }
+            for (; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    chars[n++] = c;
+                    digits = true;
+                } else if (c == decimalSeparator && !decimals) {
+                    chars[n++] = '.';
+                    decimals = true;
+                } else if (groupingSeparator == null || c != groupingSeparator || decimals) {
+                    return null;
+                }
+            }
+            return digits ? Double.parseDouble(new String(chars, 0, n)) : null;
+        }
+    }
 }
@@ -3,15 +3,22 @@ package org.dashbuilder.dataprovider.csv;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
 
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
 import org.dashbuilder.dataset.def.CSVDataSetDef;
 import org.dashbuilder.dataset.def.DataSetDefFactory;
+import org.dashbuilder.dataset.impl.ColumnValues;
 import org.junit.Assert;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class CSVParserTest {
 
@@ -70,6 +77,135 @@ public class CSVParserTest {
         assertEquals(ColumnType.LABEL, dset.getColumnById("Address").getColumnType());
     }
 
+    @Test
+    public void chunkedLoad_matchesSingleChunkLoad() throws Exception {
+        StringBuilder csv = new StringBuilder("'Name','Weight','Notes'\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("'Person ").append(i).append("',").append(i % 90).append(".5,");
+            if (i % 7 == 0) {
+                csv.append("'Line 1\nLine 2, \\'quoted\\''\n");
+            } else {
+                csv.append("'Note ").append(i).append("'\n");
+            }
+        }
+        CSVParser singleChunk = new CSVParser(csvDataSet, new MockCSVFileStorage(csv.toString()));
+        singleChunk.setChunkSize(Integer.MAX_VALUE);
+        CSVParser chunked = new CSVParser(csvDataSet, new MockCSVFileStorage(csv.toString()));
+        chunked.setChunkSize(3);
+        DataSet expected = singleChunk.load();
+        DataSet actual = chunked.load();
+
+        assertEquals(1000, expected.getRowCount());
+        assertEquals(1000, actual.getRowCount());
+        assertEquals("Line 1\nLine 2, 'quoted'", actual.getValueAt(7, 2));
+        assertEquals(88.5d, actual.getValueAt(88, 1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.getColumnByIndex(i).getValues(), actual.getColumnByIndex(i).getValues());
+        }
+    }
+
+    @Test
+    public void chunkedLoad_withEscapedQuotesInUnquotedFields() throws Exception {
+        StringBuilder csv = new StringBuilder("'Name','Weight','Notes'\n");
+        for (int i = 0; i < 1000; i++) {
+            if (i % 5 == 0) {
+                // The escaped quote is honoured within an unquoted field, and the next quote starts a multi-line value
+                csv.append("Person ").append(i).append(",").append(i % 90).append(".5,It\\'s 'Line 1\nLine 2'\n");
+            } else if (i % 5 == 2) {
+                // The escape is only honoured because the previous record ended within an unquoted field
+                csv.append("\\'Person\\' ").append(i).append(",").append(i % 90).append(".5,Note ").append(i).append("\n");
+            } else {
+                csv.append("Person ").append(i).append(",").append(i % 90).append(".5,Note ").append(i).append("\n");
+            }
+        }
+        CSVParser singleChunk = new CSVParser(csvDataSet, new MockCSVFileStorage(csv.toString()));
+        singleChunk.setChunkSize(Integer.MAX_VALUE);
+        DataSet expected = singleChunk.load();
+        assertEquals(1000, expected.getRowCount());
+        assertEquals("It's 'Line 1\nLine 2", expected.getValueAt(5, 2));
+        assertEquals("'Person' 7", expected.getValueAt(7, 0));
+
+        for (int chunkSize : new int[]{1, 2, 3}) {
+            CSVParser chunked = new CSVParser(csvDataSet, new MockCSVFileStorage(csv.toString()));
+            chunked.setChunkSize(chunkSize);
+            chunked.setColumnarStorage(chunkSize == 2);
+            DataSet actual = chunked.load();
+            assertEquals(1000, actual.getRowCount());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected.getColumnByIndex(i).getValues(), actual.getColumnByIndex(i).getValues());
+            }
+        }
+    }
+
+    @Test
+    public void columnarLoad() throws Exception {
+        final String CSV_DATA = "Age,Address\n" +
+                "25,12 Downing street\n" +
+                ",White House 52";
+
+        CSVParser testedParser = new CSVParser(csvDataSet, new MockCSVFileStorage(CSV_DATA));
+        testedParser.setColumnarStorage(true);
+        DataSet dset = testedParser.load();
+
+        assertEquals(2, dset.getRowCount());
+        assertTrue(dset.getColumnById("Age").getValues() instanceof ColumnValues);
+        assertEquals(25d, dset.getValueAt(0, 0));
+        assertNull(dset.getValueAt(1, 0));
+    }
+
+    @Test
+    public void loadStops_whenLineHasMoreFieldsThanHeader() throws Exception {
+        final String CSV_DATA = "Age,Address\n" +
+                "25,Street 1\n" +
+                "26,Street 2\n" +
+                "27,Street,3\n" +
+                "28,Street 4";
+
+        CSVParser testedParser = new CSVParser(csvDataSet, new MockCSVFileStorage(CSV_DATA));
+        testedParser.setChunkSize(1);
+        DataSet dset = testedParser.load();
+
+        assertEquals(2, dset.getRowCount());
+    }
+
+    @Test
+    public void exceptionThrown_whenValueCannotBeParsed() throws Exception {
+        final String CSV_DATA = "Age,Address\n" +
+                "25,Street 1\n" +
+                "26,Street 2\n" +
+                "unknown,Street 3";
+
+        CSVParser testedParser = new CSVParser(csvDataSet, new MockCSVFileStorage(CSV_DATA));
+        testedParser.setChunkSize(1);
+        try {
+            testedParser.load();
+            Assert.fail("The invalid number should not be loaded");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().startsWith("Error parsing value: unknown"));
+        }
+    }
+
+    @Test
+    public void plainNumbers_parsedAsDecimalFormatDoes() throws Exception {
+        CSVDataSetDef def = (CSVDataSetDef) DataSetDefFactory.newCSVDataSetDef()
+                .separatorChar(';')
+                .quoteChar('"')
+                .escapeChar('\\')
+                .numberPattern("#,###.##")
+                .buildDef();
+        CSVParser testedParser = new CSVParser(def, null);
+        DataColumn column = DataSetFactory.newEmptyDataSet().addColumn("Amount", ColumnType.NUMBER).getColumnById("Amount");
+        DecimalFormat format = testedParser.getNumberFormat("Amount");
+
+        assertNotNull(testedParser.getPlainNumberFormat("Amount"));
+        for (String value : new String[]{"0", "-0", "12", "-1,234.5", "1,2,3", "0.125", "12.", "9007199254740993", "3.14159265358979"}) {
+            assertEquals(value, format.parse(value).doubleValue(), testedParser.parseValue(column, value));
+        }
+        // Not plain numbers
+        assertEquals(12d, testedParser.parseValue(column, "12abc"));
+        assertEquals(1.5d, testedParser.parseValue(column, "1.5.6"));
+    }
+
     static class MockCSVFileStorage implements CSVFileStorage {
 
         private final String csvData;
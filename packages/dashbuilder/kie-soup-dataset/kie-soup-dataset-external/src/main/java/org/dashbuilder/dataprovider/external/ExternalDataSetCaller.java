@@ -16,14 +16,27 @@
 package org.dashbuilder.dataprovider.external;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.commons.codec.binary.Base64;
 import org.dashbuilder.dataprovider.external.ExternalDataSetSecurityStore.SecurityInfo;
@@ -33,18 +46,62 @@ import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
 import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
 
+/**
+ * Retrieves the external data sets and their metadata.
+ * <p>HTTP(S) URLs are fetched asynchronously through a shared {@link HttpClient}, so connections to the same host
+ * are reused, and the number of simultaneous requests sent to a host is bounded (see
+ * {@link #MAX_REQUESTS_PER_HOST_PROP}). When the server returns an <code>ETag</code> or a
+ * <code>Last-Modified</code> header, the parsed content is kept along with it and the next requests are
+ * conditional: a <code>304 Not Modified</code> response returns the content already parsed. The content is softly
+ * referenced, so it does not prevent the memory from being reclaimed, and it must be discarded through
+ * {@link #invalidate(ExternalDataSetDef)} once the data set is no longer used.</p>
+ * <p>Any other URL (<code>file:</code>, <code>jar:</code>, ...) is read through a plain {@link URLConnection}.</p>
+ */
 public class ExternalDataSetCaller {
 
+    /**
+     * Max. number of simultaneous requests sent to the same host.
+     */
+    public static final String MAX_REQUESTS_PER_HOST_PROP = "dashbuilder.dataset.external.maxRequestsPerHost";
+
+    /**
+     * Request timeout (in seconds).
+     */
+    public static final String REQUEST_TIMEOUT_PROP = "dashbuilder.dataset.external.timeout";
+
+    /**
+     * Boolean property to disable the conditional requests (and the content kept for them).
+     */
+    public static final String CONDITIONAL_REQUESTS_PROP = "dashbuilder.dataset.external.conditionalRequests";
+
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+
+    private static final int DEFAULT_REQUEST_TIMEOUT = 60;
+
+    private static final int CONNECT_TIMEOUT = 10;
+
     private static final String BEARER = "Bearer";
 
     private static final String BASIC = "Basic";
 
-    private static final String AUTHORIZATION_HEADER = "Authorization ";
+    private static final String AUTHORIZATION_HEADER = "Authorization";
 
     private static final String METADATA_URI = "metadata";
 
     private ExternalDataSetJSONParser parser;
 
+    private int maxRequestsPerHost = Integer.getInteger(MAX_REQUESTS_PER_HOST_PROP, DEFAULT_MAX_REQUESTS_PER_HOST);
+
+    private Duration requestTimeout = Duration.ofSeconds(Integer.getInteger(REQUEST_TIMEOUT_PROP,
+                                                                            DEFAULT_REQUEST_TIMEOUT));
+
+    private boolean conditionalRequests = Boolean.parseBoolean(System.getProperty(CONDITIONAL_REQUESTS_PROP,
+                                                                                  "true"));
+
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedContent> contents = new ConcurrentHashMap<>();
+
     public ExternalDataSetCaller() {
         // Empty
     }
@@ -62,7 +119,22 @@ public class ExternalDataSetCaller {
         return new ExternalDataSetCaller(parser);
     }
 
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public void setConditionalRequests(boolean conditionalRequests) {
+        this.conditionalRequests = conditionalRequests;
+        if (!conditionalRequests) {
+            contents.clear();
+        }
+    }
+
     public DataSetMetadata retrieveMetadata(ExternalDataSetDef def) {
+        return join(retrieveMetadataAsync(def));
+    }
+
+    public CompletableFuture<DataSetMetadata> retrieveMetadataAsync(ExternalDataSetDef def) {
         var defUrl = ExternalDataSetHelper.getUrl(def);
         var metaUrl = defUrl.endsWith("/") ? defUrl : defUrl + "/";
         URL url;
@@ -71,23 +143,127 @@ public class ExternalDataSetCaller {
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid definition URL " + defUrl, e);
         }
+        return fetch(def, url, parser::parseMetadata).thenApply(Fetch::getContent);
+    }
 
-        var json = getUrlContent(def, url);
-        return parser.parseMetadata(json);
+    public DataSet retrieveDataSet(ExternalDataSetDef def) {
+        return join(retrieveDataSetAsync(def));
+    }
 
+    /**
+     * Retrieve the data set. If the content has not been modified since the last request then the data set
+     * returned is the same instance previously returned.
+     */
+    public CompletableFuture<DataSet> retrieveDataSetAsync(ExternalDataSetDef def) {
+        return fetch(def, dataSetUrl(def), parser::parseDataSet).thenApply(Fetch::getContent);
     }
 
-    public DataSet retrieveDataSet(ExternalDataSetDef def) {
-        URL url;
+    /**
+     * Check, with a conditional request, if the data set content has been modified since it was last retrieved.
+     * A modified content is kept, so it is not requested again when the data set is retrieved next.
+     *
+     * @return false only if the server confirmed the content has not been modified.
+     */
+    public boolean isDataSetModified(ExternalDataSetDef def) {
+        var url = dataSetUrl(def);
+        var cached = contents.get(contentKey(def, url));
+        if (cached == null || cached.getContent() == null) {
+            return true;
+        }
+        try {
+            return join(fetch(def, url, parser::parseDataSet)).isModified();
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Discard the content kept for the given data set.
+     */
+    public void invalidate(ExternalDataSetDef def) {
+        var uuid = def.getUUID() + "|";
+        contents.keySet().removeIf(key -> key.startsWith(uuid));
+    }
+
+    private URL dataSetUrl(ExternalDataSetDef def) {
         var defUrl = ExternalDataSetHelper.getUrl(def);
         try {
-            url = new URL(defUrl);
+            return new URL(defUrl);
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid definition URL " + defUrl, e);
         }
+    }
+
+    private <T> CompletableFuture<Fetch<T>> fetch(ExternalDataSetDef def, URL url, Function<String, T> parse) {
+        var protocol = url.getProtocol();
+        if (!"http".equalsIgnoreCase(protocol) && !"https".equalsIgnoreCase(protocol)) {
+            return CompletableFuture.supplyAsync(() -> new Fetch<>(parse.apply(getUrlContent(def, url)), true));
+        }
+
+        URI uri;
+        try {
+            uri = url.toURI();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid definition URL " + url, e);
+        }
+        var key = contentKey(def, url);
+        var cached = conditionalRequests ? contents.get(key) : null;
+        // Hold the content while the request runs. If it has been reclaimed then the request is not conditional
+        var cachedContent = cached != null ? cached.getContent() : null;
+        var request = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET();
+        ExternalDataSetSecurityStore.get(def)
+                .flatMap(this::authorization)
+                .ifPresent(auth -> request.header(AUTHORIZATION_HEADER, auth));
+        if (cachedContent != null) {
+            cached.etag.ifPresent(etag -> request.header("If-None-Match", etag));
+            cached.lastModified.ifPresent(date -> request.header("If-Modified-Since", date));
+        }
+
+        return send(uri.getHost(), request.build()).handle((response, error) -> {
+            if (error != null) {
+                throw new RuntimeException("Not able to access external data set", unwrap(error));
+            }
+            if (response.statusCode() == 304 && cachedContent != null) {
+                @SuppressWarnings("unchecked")
+                var content = (T) cachedContent;
+                return new Fetch<>(content, false);
+            }
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Invalid response when acessing external dataSet " + def.getName() +
+                        ": " + response.statusCode());
+            }
+            var content = parse.apply(response.body());
+            var etag = response.headers().firstValue("ETag");
+            var lastModified = response.headers().firstValue("Last-Modified");
+            if (conditionalRequests && (etag.isPresent() || lastModified.isPresent())) {
+                contents.put(key, new CachedContent(etag, lastModified, content));
+            } else {
+                contents.remove(key);
+            }
+            return new Fetch<>(content, true);
+        });
+    }
 
-        var json = getUrlContent(def, url);
-        return parser.parseDataSet(json);
+    private CompletableFuture<HttpResponse<String>> send(String host, HttpRequest request) {
+        var result = new CompletableFuture<HttpResponse<String>>();
+        var limiter = hostLimiters.computeIfAbsent(String.valueOf(host), h -> new HostLimiter());
+        limiter.submit(() -> {
+            try {
+                HttpClientHolder.CLIENT.sendAsync(request, BodyHandlers.ofString(StandardCharsets.UTF_8))
+                        .whenComplete((response, error) -> {
+                            limiter.release();
+                            if (error != null) {
+                                result.completeExceptionally(error);
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                limiter.release();
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
     }
 
     private String getUrlContent(ExternalDataSetDef def, URL url) {
@@ -104,40 +280,128 @@ public class ExternalDataSetCaller {
             ExternalDataSetSecurityStore.get(def).ifPresent(secInfo -> addSecurity(httpConn, secInfo));
         }
 
-        try {
-            var response = new String(conn.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-            checkResponse(def, conn);
-            return response;
+        try (var in = conn.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new RuntimeException("Not able to access external data set", e);
         }
     }
 
-    private void checkResponse(ExternalDataSetDef def, URLConnection conn) {
-        if (conn instanceof HttpURLConnection) {
-            var httpConn = (HttpURLConnection) conn;
-            try {
-                if (httpConn.getResponseCode() != 200) {
-                    throw new RuntimeException("Invalid response when acessing external dataSet " + def.getName() +
-                            ": " +
-                            httpConn.getResponseCode());
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Error reading response code: " + e.getMessage(), e);
-            }
-        }
+    protected void addSecurity(HttpURLConnection conn, SecurityInfo secInfo) {
+        authorization(secInfo).ifPresent(auth -> conn.setRequestProperty(AUTHORIZATION_HEADER, auth));
     }
 
-    protected void addSecurity(HttpURLConnection conn, SecurityInfo secInfo) {
+    protected Optional<String> authorization(SecurityInfo secInfo) {
         if (secInfo.getType() == SecurityType.BASIC) {
             var auth = secInfo.getUsername() + ":" + secInfo.getPassword();
             var encodedAuth = Base64.encodeBase64(auth.getBytes(StandardCharsets.UTF_8));
-            conn.setRequestProperty(AUTHORIZATION_HEADER, BASIC + " " + new String(encodedAuth));
+            return Optional.of(BASIC + " " + new String(encodedAuth));
         }
 
         if (secInfo.getType() == SecurityType.TOKEN) {
-            conn.setRequestProperty(AUTHORIZATION_HEADER, BEARER + " " + secInfo.getToken());
+            return Optional.of(BEARER + " " + secInfo.getToken());
         }
+        return Optional.empty();
+    }
+
+    private static String contentKey(ExternalDataSetDef def, URL url) {
+        return def.getUUID() + "|" + url.toExternalForm();
     }
 
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            var cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static class HttpClientHolder {
+
+        static final HttpClient CLIENT = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static class Fetch<T> {
+
+        private final T content;
+        private final boolean modified;
+
+        Fetch(T content, boolean modified) {
+            this.content = content;
+            this.modified = modified;
+        }
+
+        T getContent() {
+            return content;
+        }
+
+        boolean isModified() {
+            return modified;
+        }
+    }
+
+    private static class CachedContent {
+
+        private final Optional<String> etag;
+        private final Optional<String> lastModified;
+        private final SoftReference<Object> content;
+
+        CachedContent(Optional<String> etag, Optional<String> lastModified, Object content) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.content = new SoftReference<>(content);
+        }
+
+        Object getContent() {
+            return content.get();
+        }
+    }
+
+    /**
+     * Bounds the number of requests running at once against a host. Requests exceeding the limit are queued and
+     * sent as soon as a running one completes.
+     */
+    private class HostLimiter {
+
+        private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        private int running;
+
+        void submit(Runnable request) {
+            synchronized (this) {
+                if (running >= maxRequestsPerHost) {
+                    pending.add(request);
+                    return;
+                }
+                running++;
+            }
+            request.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = pending.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
 }
@@ -15,21 +15,26 @@
  */
 package org.dashbuilder.dataprovider.external;
 
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.DataSetSnapshotStore;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.date.TimeAmount;
 import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistryListener;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
 import org.dashbuilder.dataset.impl.DataSetImpl;
 import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
 import org.dashbuilder.scheduler.DataSetInvalidationTask;
 import org.dashbuilder.scheduler.Scheduler;
 
-public class ExternalDataSetProvider implements DataSetProvider {
+public class ExternalDataSetProvider implements DataSetProvider, DataSetDefRegistryListener {
 
     private ExternalDataSetCaller caller;
 
@@ -78,7 +83,12 @@ public class ExternalDataSetProvider implements DataSetProvider {
         var isTest = lookup != null && lookup.testMode();
         var resultDataSet = staticDataSetProvider.lookupDataSet(def, lookup);
         if (resultDataSet == null || isTest) {
-            registerDataSet(def);
+            if (isTest || !def.isCacheEnabled()) {
+                registerDataSet(def, isTest);
+            } else {
+                // Concurrent lookups of a data set not yet in memory wait for a single load
+                staticDataSetProvider.getRefresher().load(uuid, () -> registerDataSet(def, false));
+            }
             resultDataSet = staticDataSetProvider.lookupDataSet(def, lookup);
         }
         
@@ -92,8 +102,8 @@ public class ExternalDataSetProvider implements DataSetProvider {
 
     @Override
     public boolean isDataSetOutdated(DataSetDef def) {
-        // we will handle caching internally
-        return true;
+        // Only a conditional request confirming the content is unchanged makes the data set up to date
+        return !(def instanceof ExternalDataSetDef) || caller.isDataSetModified((ExternalDataSetDef) def);
     }
     
     private void checkExternal(DataSetDef def) {
@@ -102,21 +112,112 @@ public class ExternalDataSetProvider implements DataSetProvider {
         }
     }
     
-    private void registerDataSet(DataSetDef def) {
-        var externalDef = (ExternalDataSetDef) def;
-        var newDataSet = caller.retrieveDataSet(externalDef);
-        newDataSet.setDefinition(def);
-        newDataSet.setUUID(def.getUUID());
-        staticDataSetProvider.registerDataSet(newDataSet);
+    private DataSet registerDataSet(DataSetDef def, boolean isTest) {
+        var isCached = def.isCacheEnabled() && !isTest;
+        var newDataSet = isCached ? staticDataSetProvider.restoreDataSet(def, DataSetSnapshotStore.NO_SOURCE_VERSION) : null;
+        if (newDataSet == null) {
+            var externalDef = (ExternalDataSetDef) def;
+            newDataSet = caller.retrieveDataSet(externalDef);
+            newDataSet.setDefinition(def);
+            newDataSet.setUUID(def.getUUID());
+            if (isCached) {
+                staticDataSetProvider.registerDataSet(newDataSet, DataSetSnapshotStore.NO_SOURCE_VERSION);
+            } else {
+                staticDataSetProvider.registerDataSet(newDataSet);
+            }
+        }
         
         var taskKey = DataSetInvalidationTask.key(def);
         scheduler.unschedule(taskKey);
         if (def.isCacheEnabled()) {
             if (def.getRefreshTime() != null && def.getRefreshTime().trim().length() > 0) {
                 var tf = TimeAmount.parse(def.getRefreshTime());
-                var seconds = tf.toMillis() / 1000;
-                scheduler.schedule(new DataSetInvalidationTask(def, staticDataSetProvider::removeDataSet), seconds);
+                var period = Math.max(1, tf.toMillis() / 1000);
+                // A data set restored from its snapshot has been loaded some time ago
+                var elapsed = System.currentTimeMillis() - newDataSet.getCreationDate().getTime();
+                var seconds = (Math.max(0, tf.toMillis() - elapsed) + 999) / 1000;
+                if (!staticDataSetProvider.getRefresher().isStaleWhileRevalidate()) {
+                    scheduler.schedule(new DataSetInvalidationTask(def, uuid -> expireDataSet(def)), seconds);
+                } else if (seconds >= period) {
+                    scheduler.schedule(new DataSetInvalidationTask(def, uuid -> refreshDataSet(def)), period);
+                } else {
+                    // Refresh once the remaining time elapses and then periodically
+                    var firstRefresh = new DataSetInvalidationTask(def, uuid -> {
+                        refreshDataSet(def);
+                        scheduler.schedule(new DataSetInvalidationTask(def, u -> refreshDataSet(def)), period);
+                    });
+                    if (seconds > 0) {
+                        scheduler.schedule(firstRefresh, new Date(System.currentTimeMillis() + seconds * 1000));
+                    } else {
+                        scheduler.execute(firstRefresh);
+                    }
+                }
             }
         }
+        return newDataSet;
+    }
+
+    /**
+     * Remove an expired data set from memory, along with the content the caller keeps for it.
+     */
+    protected void expireDataSet(DataSetDef def) {
+        staticDataSetProvider.removeDataSet(def.getUUID());
+        caller.invalidate((ExternalDataSetDef) def);
+    }
+
+    /**
+     * Discard everything kept for a data set whose definition is no longer valid: the data set in memory, its
+     * snapshot, the content kept by the caller and the scheduled refresh.
+     */
+    protected void invalidateDataSet(DataSetDef def) {
+        if (DataSetProviderType.EXTERNAL.equals(def.getProvider())) {
+            var uuid = def.getUUID();
+            scheduler.unschedule(DataSetInvalidationTask.key(def));
+            staticDataSetProvider.getRefresher().invalidate(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
+            if (def instanceof ExternalDataSetDef) {
+                caller.invalidate((ExternalDataSetDef) def);
+            }
+        }
+    }
+
+    // Listen to changes on the data set definition registry
+
+    @Override
+    public void onDataSetDefStale(DataSetDef def) {
+        invalidateDataSet(def);
+    }
+
+    @Override
+    public void onDataSetDefModified(DataSetDef oldDef, DataSetDef newDef) {
+        invalidateDataSet(oldDef);
+    }
+
+    @Override
+    public void onDataSetDefRemoved(DataSetDef oldDef) {
+        invalidateDataSet(oldDef);
+    }
+
+    @Override
+    public void onDataSetDefRegistered(DataSetDef newDef) {
+
+    }
+
+    /**
+     * Reload a cached data set in the background. Lookups keep being served from the previous version until the
+     * new one is registered. The data set read is discarded if the definition is invalidated meanwhile.
+     */
+    protected CompletableFuture<Boolean> refreshDataSet(DataSetDef def) {
+        var uuid = def.getUUID();
+        return staticDataSetProvider.getRefresher().refresh(uuid, () -> {
+            var current = staticDataSetProvider.lookupDataSet(uuid, null);
+            var newDataSet = caller.retrieveDataSet((ExternalDataSetDef) def);
+            // The same instance is returned if the content has not changed since the last call
+            if (newDataSet != current) {
+                newDataSet.setDefinition(def);
+                newDataSet.setUUID(uuid);
+            }
+            return newDataSet;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.external;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.def.DataSetDefFactory;
+import org.dashbuilder.dataset.def.ExternalDataSetDef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExternalDataSetCallerTest {
+
+    private static final String CONTENT = "{\"columns\": [{\"id\": \"C1\", \"type\": \"LABEL\"}, " +
+                                          "{\"id\": \"C2\", \"type\": \"NUMBER\"}], " +
+                                          "\"values\": [[\"G1\", 1], [\"G2\", 2]]}";
+
+    private HttpServer server;
+    private ExternalDataSetCaller caller;
+    private String baseUrl;
+
+    private volatile String etag;
+    private volatile String lastModified;
+    private volatile int status = 200;
+    private volatile CountDownLatch release;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger conditionalRequests = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/dataset", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/dataset";
+        caller = ExternalDataSetCaller.get();
+    }
+
+    @After
+    public void shutdown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRetrieveDataSet() {
+        var dataSet = caller.retrieveDataSet(def("ds1"));
+        assertThat(dataSet.getRowCount()).isEqualTo(2);
+        assertThat(dataSet.getValueAt(1, 0)).isEqualTo("G2");
+        assertThat(dataSet.getValueAt(1, 1)).isEqualTo(2d);
+    }
+
+    @Test
+    public void testETag() {
+        etag = "\"v1\"";
+        var def = def("ds1");
+        var first = caller.retrieveDataSet(def);
+        var second = caller.retrieveDataSet(def);
+
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(conditionalRequests.get()).isEqualTo(1);
+        // Not modified, so not parsed again
+        assertThat(second).isSameAs(first);
+
+        etag = "\"v2\"";
+        assertThat(caller.retrieveDataSet(def)).isNotSameAs(first);
+    }
+
+    @Test
+    public void testLastModified() {
+        lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        var def = def("ds1");
+        var first = caller.retrieveDataSet(def);
+        assertThat(caller.retrieveDataSet(def)).isSameAs(first);
+        assertThat(conditionalRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoValidators() {
+        var def = def("ds1");
+        var first = caller.retrieveDataSet(def);
+        assertThat(caller.retrieveDataSet(def)).isNotSameAs(first);
+        assertThat(conditionalRequests.get()).isZero();
+    }
+
+    @Test
+    public void testIsDataSetModified() {
+        var def = def("ds1");
+        // Nothing known about the content
+        assertThat(caller.isDataSetModified(def)).isTrue();
+
+        etag = "\"v1\"";
+        var first = caller.retrieveDataSet(def);
+        assertThat(caller.isDataSetModified(def)).isFalse();
+
+        // The modified content is kept for the next retrieval
+        etag = "\"v2\"";
+        assertThat(caller.isDataSetModified(def)).isTrue();
+        int count = requests.get();
+        var second = caller.retrieveDataSet(def);
+        assertThat(second).isNotSameAs(first);
+        assertThat(caller.retrieveDataSet(def)).isSameAs(second);
+        assertThat(requests.get()).isEqualTo(count + 2);
+
+        caller.invalidate(def);
+        assertThat(caller.isDataSetModified(def)).isTrue();
+    }
+
+    @Test
+    public void testErrorResponse() {
+        status = 500;
+        assertThatThrownBy(() -> caller.retrieveDataSet(def("ds1")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("500");
+    }
+
+    @Test
+    public void testMaxRequestsPerHost() throws Exception {
+        caller.setMaxRequestsPerHost(2);
+        release = new CountDownLatch(1);
+        var futures = new ArrayList<CompletableFuture<DataSet>>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(caller.retrieveDataSetAsync(def("ds" + i)));
+        }
+        Thread.sleep(200);
+        assertThat(running.get()).isEqualTo(2);
+        release.countDown();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(requests.get()).isEqualTo(6);
+    }
+
+    private ExternalDataSetDef def(String uuid) {
+        return (ExternalDataSetDef) DataSetDefFactory.newExternalDataSetDef()
+                .uuid(uuid)
+                .name(uuid)
+                .url(baseUrl + "/" + uuid)
+                .buildDef();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            requests.incrementAndGet();
+            if (release != null) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            var headers = exchange.getRequestHeaders();
+            var ifNoneMatch = headers.getFirst("If-None-Match");
+            var ifModifiedSince = headers.getFirst("If-Modified-Since");
+            if (ifNoneMatch != null || ifModifiedSince != null) {
+                conditionalRequests.incrementAndGet();
+            }
+            if ((ifNoneMatch != null && ifNoneMatch.equals(etag)) ||
+                (ifNoneMatch == null && ifModifiedSince != null && ifModifiedSince.equals(lastModified))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            if (etag != null) {
+                exchange.getResponseHeaders().add("ETag", etag);
+            }
+            if (lastModified != null) {
+                exchange.getResponseHeaders().add("Last-Modified", lastModified);
+            }
+            var body = CONTENT.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
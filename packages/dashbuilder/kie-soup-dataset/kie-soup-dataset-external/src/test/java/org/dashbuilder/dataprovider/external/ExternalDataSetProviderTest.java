@@ -15,6 +15,13 @@
  */
 package org.dashbuilder.dataprovider.external;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookupFactory;
@@ -22,6 +29,7 @@ import org.dashbuilder.dataset.def.DataSetDefFactory;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
 import org.dashbuilder.dataset.filter.FilterFactory;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
 import org.dashbuilder.dataset.sort.SortOrder;
 import org.dashbuilder.scheduler.DataSetInvalidationTask;
 import org.dashbuilder.scheduler.Scheduler;
@@ -31,8 +39,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ExternalDataSetProviderTest {
 
@@ -167,6 +177,108 @@ public class ExternalDataSetProviderTest {
         assertNull(ds);
     }
 
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        var refresher = provider.staticDataSetProvider.getRefresher();
+        refresher.setStaleWhileRevalidate(true);
+        try {
+            provider.staticDataSetProvider.removeDataSet(def.getUUID());
+            // Not the content retrieved by the previous tests, which may be older than the refresh time
+            ExternalDataSetCaller.get().invalidate(def);
+            def.setCacheEnabled(true);
+            def.setRefreshTime("1 second");
+            dataSet1Check(provider.lookupDataSet(def, null));
+
+            // The previous version is served until the refresh completes
+            def.setUrl(dataset2Url);
+            dataSet1Check(provider.staticDataSetProvider.lookupDataSet(def, null));
+            // The refresh runs in the background once the refresh time elapses
+            var ds = provider.staticDataSetProvider.lookupDataSet(def, null);
+            for (int i = 0; i < 50 && (ds == null || ds.getRowCount() != 3); i++) {
+                Thread.sleep(100);
+                ds = provider.staticDataSetProvider.lookupDataSet(def, null);
+            }
+            assertNotNull(ds);
+            assertEquals(3, ds.getRowCount());
+            assertEquals("OTHER_G1", ds.getValueAt(0, 0));
+            assertNotNull(scheduler.getTaskByKey(DataSetInvalidationTask.key(def)));
+            assertTrue(refresher.getStats(def.getUUID()).getLoads() >= 2);
+        } finally {
+            refresher.setStaleWhileRevalidate(false);
+            scheduler.unscheduleAll();
+            provider.staticDataSetProvider.removeDataSet(def.getUUID());
+        }
+    }
+
+    @Test
+    public void testDefinitionRemoved() throws Exception {
+        var invalidated = new ArrayList<String>();
+        var caller = new ExternalDataSetCaller(new ExternalDataSetJSONParser(value -> Date.from(Instant.parse(value)))) {
+
+            @Override
+            public void invalidate(ExternalDataSetDef def) {
+                invalidated.add(def.getUUID());
+                super.invalidate(def);
+            }
+        };
+        provider = new ExternalDataSetProvider(caller, DataSetCore.get().getStaticDataSetProvider(), scheduler);
+        provider.staticDataSetProvider.removeDataSet(def.getUUID());
+        def.setCacheEnabled(true);
+        def.setRefreshTime("1 second");
+        provider.lookupDataSet(def, null);
+        assertNotNull(scheduler.getTaskByKey(DataSetInvalidationTask.key(def)));
+        assertNotNull(provider.staticDataSetProvider.getRefresher().getStats(DEF_UUID));
+
+        provider.onDataSetDefRemoved(def);
+        assertNull(provider.staticDataSetProvider.lookupDataSet(def, null));
+        assertNull(scheduler.getTaskByKey(DataSetInvalidationTask.key(def)));
+        assertNull(provider.staticDataSetProvider.getRefresher().getStats(DEF_UUID));
+        assertEquals(Arrays.asList(DEF_UUID), invalidated);
+
+        // The content kept by the caller is discarded when the data set expires too
+        invalidated.clear();
+        provider.lookupDataSet(def, null);
+        Thread.sleep(1100);
+        assertNull(provider.staticDataSetProvider.lookupDataSet(def, null));
+        assertEquals(Arrays.asList(DEF_UUID), invalidated);
+    }
+
+    @Test
+    public void testRefreshDiscardedOnceRemoved() throws Exception {
+        var refreshing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var caller = new ExternalDataSetCaller(new ExternalDataSetJSONParser(value -> Date.from(Instant.parse(value)))) {
+
+            @Override
+            public DataSet retrieveDataSet(ExternalDataSetDef def) {
+                if (def.getUrl().equals(dataset2Url)) {
+                    refreshing.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.retrieveDataSet(def);
+            }
+        };
+        provider = new ExternalDataSetProvider(caller, DataSetCore.get().getStaticDataSetProvider(), scheduler);
+        provider.staticDataSetProvider.removeDataSet(def.getUUID());
+        def.setCacheEnabled(true);
+        provider.lookupDataSet(def, null);
+
+        // The definition is removed while the refresh is reading the content
+        def.setUrl(dataset2Url);
+        var refreshed = provider.refreshDataSet(def);
+        refreshing.await(5, TimeUnit.SECONDS);
+        provider.onDataSetDefRemoved(def);
+        release.countDown();
+
+        assertFalse(refreshed.get(5, TimeUnit.SECONDS));
+        assertNull(provider.staticDataSetProvider.lookupDataSet(def, null));
+        assertNull(provider.staticDataSetProvider.getRefresher().getStats(DEF_UUID));
+    }
+
     @Test
     public void testNoCache() throws Exception {
         provider.lookupDataSet(def, null);
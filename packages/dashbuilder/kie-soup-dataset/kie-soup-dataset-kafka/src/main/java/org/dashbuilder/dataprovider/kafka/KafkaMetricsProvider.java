@@ -16,14 +16,19 @@
 package org.dashbuilder.dataprovider.kafka;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.management.MBeanServerConnection;
-import javax.management.remote.JMXConnector;
 
-import org.dashbuilder.dataprovider.kafka.mbean.MBeanServerConnectionProvider;
+import org.dashbuilder.dataprovider.kafka.mbean.JMXConnectionPool;
 import org.dashbuilder.dataprovider.kafka.metrics.KafkaMetricCollector;
 import org.dashbuilder.dataprovider.kafka.metrics.group.MetricsCollectorGroupFactory;
 import org.dashbuilder.dataprovider.kafka.model.KafkaMetric;
@@ -33,15 +38,23 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Provides the metrics for a given Kafka metrics request.
+ * <p>The JMX connections are taken from the {@link JMXConnectionPool} and the metric collectors of a request are
+ * run in parallel by up to <code>dashbuilder.kafka.jmx.threads</code> threads (4 by default).</p>
  *
  */
 public class KafkaMetricsProvider {
 
+    public static final String THREADS_PROP = "dashbuilder.kafka.jmx.threads";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaMetricsProvider.class);
 
     private static KafkaMetricsProvider instance;
 
+    private static final ExecutorService EXECUTOR = newExecutor(Integer.parseInt(System.getProperty(THREADS_PROP, "4")));
+
     MetricsCollectorGroupFactory metricsCollectorGroupFactory;
+    JMXConnectionPool connectionPool = JMXConnectionPool.get();
+    ExecutorService executor = EXECUTOR;
 
     static {
         MetricsCollectorGroupFactory metricsCollectorGroupFactory = MetricsCollectorGroupFactory.get();
@@ -58,21 +71,12 @@ public class KafkaMetricsProvider {
 
     public List<KafkaMetric> getMetrics(KafkaMetricsRequest request) {
         List<KafkaMetricCollector> extractors = collectorsFor(request);
-        JMXConnector connector = MBeanServerConnectionProvider.newConnection(request);
         try {
-            MBeanServerConnection mbsc = connector.getMBeanServerConnection();
-            return extractMetrics(mbsc, extractors);
+            return connectionPool.execute(request, mbsc -> extractMetrics(mbsc, extractors));
         } catch (Exception e) {
             LOGGER.warn("Error reading metrics for request {}", request);
             LOGGER.debug("Error reading metrics for request", e);
             return Collections.emptyList();
-        } finally {
-            try {
-                connector.close();
-            } catch (IOException e) {
-                LOGGER.warn("Error closing JMX connector");
-                LOGGER.debug("Error closing JMX Connector", e);
-            }
         }
     }
 
@@ -90,10 +94,37 @@ public class KafkaMetricsProvider {
                                                                 .collect(Collectors.toList());
     }
 
-    private List<KafkaMetric> extractMetrics(MBeanServerConnection mbsc, List<KafkaMetricCollector> extractors) {
-        return extractors.stream()
-                         .flatMap(e -> e.collect(mbsc).stream())
-                         .collect(Collectors.toList());
+    List<KafkaMetric> extractMetrics(MBeanServerConnection mbsc, List<KafkaMetricCollector> extractors) throws IOException {
+        try {
+            if (extractors.size() < 2) {
+                return extractors.stream()
+                                 .flatMap(e -> e.collect(mbsc).stream())
+                                 .collect(Collectors.toList());
+            }
+            List<CompletableFuture<List<KafkaMetric>>> futures = extractors.stream()
+                                                                           .map(e -> CompletableFuture.supplyAsync(() -> e.collect(mbsc), executor))
+                                                                           .collect(Collectors.toList());
+            return futures.stream()
+                          .flatMap(f -> f.join().stream())
+                          .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            // The connection is broken, let the pool know
+            throw e.getCause();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "kafka-metrics-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.kafka.mbean;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+
+import org.dashbuilder.dataprovider.kafka.model.KafkaMetricsRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the JMX connections open between requests, one per target host and RMI port. Concurrent requests to the
+ * same target share the connection. The first request to a target opens the connection outside of any lock, while
+ * the concurrent requests to the same target wait for it and the requests to other targets go on.
+ * <p>A connection is closed once it has not been used for <code>dashbuilder.kafka.jmx.idleTimeout</code>
+ * milliseconds (5 minutes by default). Idle connections are checked on every request. A timeout of 0 disables
+ * the pool, so every request opens and closes its own connection.</p>
+ * <p>A pooled connection may have been closed by the server in the meantime (for instance after a broker
+ * restart), so an operation failing with an {@link IOException} on a reused connection is executed once more on
+ * a brand new one.</p>
+ */
+public class JMXConnectionPool {
+
+    public static final String IDLE_TIMEOUT_PROP = "dashbuilder.kafka.jmx.idleTimeout";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JMXConnectionPool.class);
+
+    private static JMXConnectionPool instance = new JMXConnectionPool(MBeanServerConnectionProvider::newConnection,
+                                                                      Long.parseLong(System.getProperty(IDLE_TIMEOUT_PROP, "300000")));
+
+    /**
+     * An operation to execute over a JMX connection.
+     */
+    public interface Operation<T> {
+
+        T apply(MBeanServerConnection mbsc) throws IOException;
+    }
+
+    private Function<KafkaMetricsRequest, JMXConnector> connectionFactory;
+    private long idleTimeoutMillis;
+    private Map<String, CompletableFuture<PooledConnection>> connections = new ConcurrentHashMap<>();
+    private AtomicLong lastIdleCheck = new AtomicLong();
+
+    JMXConnectionPool(Function<KafkaMetricsRequest, JMXConnector> connectionFactory, long idleTimeoutMillis) {
+        this.connectionFactory = connectionFactory;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public static JMXConnectionPool get() {
+        return instance;
+    }
+
+    public boolean isPoolingEnabled() {
+        return idleTimeoutMillis > 0;
+    }
+
+    /**
+     * Execute an operation over the connection to the request's target.
+     */
+    public <T> T execute(KafkaMetricsRequest request, Operation<T> operation) throws IOException {
+        if (!isPoolingEnabled()) {
+            PooledConnection connection = new PooledConnection(key(request), connectionFactory.apply(request));
+            try {
+                return operation.apply(connection.mbsc);
+            } finally {
+                connection.close();
+            }
+        }
+        closeIdle();
+        for (int attempt = 0; ; attempt++) {
+            boolean[] reused = {false};
+            PooledConnection connection = borrow(request, reused);
+            try {
+                return operation.apply(connection.mbsc);
+            } catch (IOException e) {
+                discard(connection);
+                if (!reused[0] || attempt > 0) {
+                    throw e;
+                }
+                LOGGER.debug("Pooled JMX connection to {} is no longer valid, retrying", connection.key, e);
+            } finally {
+                giveBack(connection);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Close all the pooled connections.
+     */
+    public void closeAll() {
+        for (CompletableFuture<PooledConnection> future : connections.values()) {
+            PooledConnection connection = getNow(future);
+            if (connection != null) {
+                discard(connection);
+            }
+        }
+    }
+
+    /**
+     * Close the connections not used within the idle timeout.
+     */
+    public void closeIdle() {
+        long now = System.currentTimeMillis();
+        long last = lastIdleCheck.get();
+        if (now - last < Math.min(idleTimeoutMillis, 1000) || !lastIdleCheck.compareAndSet(last, now)) {
+            return;
+        }
+        for (String key : connections.keySet()) {
+            PooledConnection[] removed = {null};
+            connections.computeIfPresent(key, (k, f) -> {
+                PooledConnection c = getNow(f);
+                if (c != null && c.borrowed.get() == 0 && now - c.lastUsed > idleTimeoutMillis) {
+                    removed[0] = c;
+                    return null;
+                }
+                return f;
+            });
+            if (removed[0] != null) {
+                LOGGER.debug("Closing idle JMX connection to {}", removed[0].key);
+                removed[0].close();
+            }
+        }
+    }
+
+    /**
+     * Borrow the pooled connection to the request's target. The connection is opened by the first caller, after
+     * placing a future for it in the pool, so the concurrent callers for the same target wait on that future rather
+     * than on a lock of the map.
+     */
+    private PooledConnection borrow(KafkaMetricsRequest request, boolean[] reused) {
+        String key = key(request);
+        for (;;) {
+            CompletableFuture<PooledConnection> created = new CompletableFuture<>();
+            CompletableFuture<PooledConnection> existing = connections.putIfAbsent(key, created);
+            if (existing == null) {
+                return connect(key, request, created);
+            }
+            PooledConnection c;
+            try {
+                c = existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            boolean[] borrowed = {false};
+            connections.computeIfPresent(key, (k, f) -> {
+                if (f == existing && !c.closed) {
+                    c.borrowed.incrementAndGet();
+                    borrowed[0] = true;
+                }
+                return f;
+            });
+            if (borrowed[0]) {
+                reused[0] = true;
+                return c;
+            }
+            // Closed or replaced in the meantime
+            connections.remove(key, existing);
+        }
+    }
+
+    private PooledConnection connect(String key, KafkaMetricsRequest request, CompletableFuture<PooledConnection> future) {
+        PooledConnection c;
+        try {
+            c = new PooledConnection(key, connectionFactory.apply(request));
+        } catch (RuntimeException | Error e) {
+            connections.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        c.connector.addConnectionNotificationListener((notification, handback) -> {
+            String type = notification.getType();
+            if (JMXConnectionNotification.CLOSED.equals(type) || JMXConnectionNotification.FAILED.equals(type)) {
+                c.closed = true;
+                connections.remove(key, future);
+            }
+        }, null, null);
+        c.borrowed.incrementAndGet();
+        future.complete(c);
+        return c;
+    }
+
+    private void giveBack(PooledConnection connection) {
+        connection.lastUsed = System.currentTimeMillis();
+        connection.borrowed.decrementAndGet();
+    }
+
+    private void discard(PooledConnection connection) {
+        connections.computeIfPresent(connection.key, (k, f) -> getNow(f) == connection ? null : f);
+        connection.close();
+    }
+
+    /**
+     * @return The connection once opened, or null while it is being opened or if it could not be opened.
+     */
+    private static PooledConnection getNow(CompletableFuture<PooledConnection> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static String key(KafkaMetricsRequest request) {
+        return request.getHost() + ":" + request.getRmiPort();
+    }
+
+    private static class PooledConnection {
+
+        String key;
+        JMXConnector connector;
+        MBeanServerConnection mbsc;
+        AtomicInteger borrowed = new AtomicInteger();
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile boolean closed;
+
+        PooledConnection(String key, JMXConnector connector) {
+            this.key = key;
+            this.connector = connector;
+            try {
+                this.mbsc = connector.getMBeanServerConnection();
+            } catch (IOException e) {
+                close();
+                throw new IllegalArgumentException("Not able to connect to provided server.", e);
+            }
+        }
+
+        void close() {
+            closed = true;
+            try {
+                connector.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing JMX connector");
+                LOGGER.debug("Error closing JMX Connector", e);
+            }
+        }
+    }
+}
@@ -15,13 +15,15 @@
  */
 package org.dashbuilder.dataprovider.kafka.metrics;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.management.Attribute;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanFeatureInfo;
 import javax.management.MBeanServerConnection;
@@ -34,6 +36,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Collects the mapped simple attributes of a MBean 
+ * <p>All the attributes are read at once. An {@link IOException} is thrown as an {@link UncheckedIOException}, since
+ * it means the connection is no longer usable.</p>
  *
  */
 public class MBeanMetricCollector implements KafkaMetricCollector {
@@ -70,24 +74,21 @@ public class MBeanMetricCollector implements KafkaMetricCollector {
             LOGGER.debug("Not able to access MBean", e);
             return Collections.emptyList();
         }
-        if (attributes == null || attributes.length == 0) {
-            attributes = readAllAttributes(mbsc, objectName);
+        String[] attrs = attributes;
+        if (attrs == null || attrs.length == 0) {
+            attributes = attrs = readAllAttributes(mbsc, objectName);
         }
-        return Arrays.stream(this.attributes)
-                     .map(attr -> buildMetric(mbsc, objectName, attr))
-                     .filter(Optional::isPresent)
-                     .map(Optional::get)
-                     .collect(Collectors.toList());
-    }
-
-    private Optional<KafkaMetric> buildMetric(MBeanServerConnection mbsc, ObjectName objectName, String attrName) {
-        Object attrValue = readAttribute(mbsc, objectName, attrName);
-        return Optional.ofNullable(attrValue)
-                       .map(attr -> KafkaMetric.from(objectName.getDomain(),
-                                                     objectName.getKeyProperty("type"),
-                                                     buildName(objectName),
-                                                     attrName,
-                                                     attr));
+        if (attrs.length == 0) {
+            return Collections.emptyList();
+        }
+        return readAttributes(mbsc, objectName, attrs).stream()
+                                                       .filter(attr -> attr.getValue() != null)
+                                                       .map(attr -> KafkaMetric.from(objectName.getDomain(),
+                                                                                     objectName.getKeyProperty("type"),
+                                                                                     buildName(objectName),
+                                                                                     attr.getName(),
+                                                                                     attr.getValue()))
+                                                       .collect(Collectors.toList());
     }
 
     @Override
@@ -100,6 +101,8 @@ public class MBeanMetricCollector implements KafkaMetricCollector {
             return Arrays.stream(mbsc.getMBeanInfo(objectName).getAttributes())
                          .filter(MBeanAttributeInfo::isReadable)
                          .map(MBeanFeatureInfo::getName).toArray(String[]::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         } catch (Exception e) {
             LOGGER.info("Not able to read attributes for MBean {}", this.name);
             LOGGER.debug("Not able read MBean attributes", e);
@@ -116,13 +119,16 @@ public class MBeanMetricCollector implements KafkaMetricCollector {
         return metricName.trim().isEmpty() ? objectName.getKeyProperty("type") : metricName;
     }
 
-    private Object readAttribute(MBeanServerConnection mbsc, ObjectName name, String attr) {
+    private List<Attribute> readAttributes(MBeanServerConnection mbsc, ObjectName name, String[] attrs) {
         try {
-            return mbsc.getAttribute(name, attr);
+            // Attributes which can not be read are not returned
+            return mbsc.getAttributes(name, attrs).asList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         } catch (Exception e) {
-            LOGGER.info("Not able to read MBean {} attribute {}", this.name, attr);
-            LOGGER.debug("Not able to read MBean attribute", e);
-            return null;
+            LOGGER.info("Not able to read MBean {} attributes", this.name);
+            LOGGER.debug("Not able to read MBean attributes", e);
+            return Collections.emptyList();
         }
     }
 
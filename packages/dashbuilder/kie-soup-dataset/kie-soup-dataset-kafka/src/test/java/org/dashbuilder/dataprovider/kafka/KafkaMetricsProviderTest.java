@@ -15,13 +15,19 @@
  */
 package org.dashbuilder.dataprovider.kafka;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import javax.management.MBeanServerConnection;
+
 import org.dashbuilder.dataprovider.kafka.metrics.KafkaMetricCollector;
 import org.dashbuilder.dataprovider.kafka.metrics.group.MetricsCollectorGroup;
 import org.dashbuilder.dataprovider.kafka.metrics.group.MetricsCollectorGroupFactory;
+import org.dashbuilder.dataprovider.kafka.model.KafkaMetric;
 import org.dashbuilder.dataprovider.kafka.model.KafkaMetricsRequest;
 import org.dashbuilder.dataset.def.KafkaDataSetDef.MetricsTarget;
 import org.junit.Before;
@@ -82,6 +88,35 @@ public class KafkaMetricsProviderTest {
         assertEquals(1, selectedCollectors.size());
     }
 
+    @Test
+    public void testExtractMetricsInParallel() throws Exception {
+        MBeanServerConnection mbsc = mock(MBeanServerConnection.class);
+        when(request.filter()).thenReturn(Optional.of("a"));
+        List<KafkaMetricCollector> collectors = provider.collectorsFor(request);
+        for (KafkaMetricCollector collector : collectors) {
+            String name = collector.getName();
+            when(collector.collect(mbsc)).thenReturn(Arrays.asList(KafkaMetric.from("d", "t", name, "Count", 1),
+                                                                   KafkaMetric.from("d", "t", name, "MeanRate", 2)));
+        }
+
+        List<KafkaMetric> metrics = provider.extractMetrics(mbsc, collectors);
+        assertEquals(4, metrics.size());
+        assertEquals("abc", metrics.get(0).getName());
+        assertEquals("MeanRate", metrics.get(1).getAttribute());
+        assertEquals("adg", metrics.get(2).getName());
+    }
+
+    @Test(expected = IOException.class)
+    public void testExtractMetricsBrokenConnection() throws Exception {
+        MBeanServerConnection mbsc = mock(MBeanServerConnection.class);
+        when(request.filter()).thenReturn(Optional.of("a"));
+        List<KafkaMetricCollector> collectors = provider.collectorsFor(request);
+        when(collectors.get(0).collect(mbsc)).thenReturn(Collections.emptyList());
+        when(collectors.get(1).collect(mbsc)).thenThrow(new UncheckedIOException(new IOException("Connection closed")));
+
+        provider.extractMetrics(mbsc, collectors);
+    }
+
     private KafkaMetricCollector mockCollector(String name) {
         KafkaMetricCollector collector = mock(KafkaMetricCollector.class);
         when(collector.getName()).thenReturn(name);
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.kafka.mbean;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+
+import org.dashbuilder.dataprovider.kafka.model.KafkaMetricsRequest;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JMXConnectionPoolTest {
+
+    private KafkaMetricsRequest request = new KafkaMetricsRequest("localhost", "9999");
+    private KafkaMetricsRequest otherRequest = new KafkaMetricsRequest("otherhost", "9999");
+    private AtomicInteger connections = new AtomicInteger();
+    private JMXConnector lastConnector;
+
+    @Test
+    public void testConnectionReused() throws Exception {
+        JMXConnectionPool pool = new JMXConnectionPool(this::newConnector, 60000);
+        MBeanServerConnection first = pool.execute(request, mbsc -> mbsc);
+        assertSame(first, pool.execute(request, mbsc -> mbsc));
+        assertEquals(1, connections.get());
+
+        pool.execute(otherRequest, mbsc -> mbsc);
+        assertEquals(2, connections.get());
+        assertEquals(2, pool.getConnectionCount());
+
+        pool.closeAll();
+        assertEquals(0, pool.getConnectionCount());
+        verify(lastConnector).close();
+    }
+
+    @Test
+    public void testPoolingDisabled() throws Exception {
+        JMXConnectionPool pool = new JMXConnectionPool(this::newConnector, 0);
+        pool.execute(request, mbsc -> mbsc);
+        verify(lastConnector).close();
+        pool.execute(request, mbsc -> mbsc);
+        assertEquals(2, connections.get());
+        assertEquals(0, pool.getConnectionCount());
+    }
+
+    @Test
+    public void testStaleConnectionRetried() throws Exception {
+        JMXConnectionPool pool = new JMXConnectionPool(this::newConnector, 60000);
+        MBeanServerConnection stale = pool.execute(request, mbsc -> mbsc);
+        JMXConnector staleConnector = lastConnector;
+
+        MBeanServerConnection result = pool.execute(request, mbsc -> {
+            if (mbsc == stale) {
+                throw new IOException("Connection closed");
+            }
+            return mbsc;
+        });
+        assertEquals(2, connections.get());
+        assertSame(lastConnector.getMBeanServerConnection(), result);
+        verify(staleConnector).close();
+
+        // A new connection failing is not retried
+        try {
+            pool.execute(otherRequest, mbsc -> {
+                throw new IOException("Connection refused");
+            });
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals(3, connections.get());
+        }
+        verify(lastConnector, times(1)).close();
+    }
+
+    @Test
+    public void testIdleConnectionClosed() throws Exception {
+        JMXConnectionPool pool = new JMXConnectionPool(this::newConnector, 10);
+        pool.execute(request, mbsc -> mbsc);
+        JMXConnector idleConnector = lastConnector;
+        Thread.sleep(50);
+
+        pool.execute(otherRequest, mbsc -> mbsc);
+        verify(idleConnector).close();
+        assertEquals(1, pool.getConnectionCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testConnectionOpenedOutsideOfLock() throws Exception {
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch connected = new CountDownLatch(1);
+        JMXConnectionPool pool = new JMXConnectionPool(r -> {
+            if (r == request) {
+                connecting.countDown();
+                try {
+                    connected.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return newConnector(r);
+        }, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MBeanServerConnection> first = executor.submit(() -> pool.execute(request, mbsc -> mbsc));
+            connecting.await();
+            Future<MBeanServerConnection> second = executor.submit(() -> pool.execute(request, mbsc -> mbsc));
+
+            // Requests to other targets go on while the connection is being opened
+            pool.execute(otherRequest, mbsc -> mbsc);
+            assertEquals(1, connections.get());
+            assertFalse(second.isDone());
+
+            connected.countDown();
+            assertSame(first.get(), second.get());
+            assertEquals(2, connections.get());
+            assertEquals(2, pool.getConnectionCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedConnectionNotPooled() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        JMXConnectionPool pool = new JMXConnectionPool(r -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("Not able to connect to provided server.");
+            }
+            return newConnector(r);
+        }, 60000);
+        try {
+            pool.execute(request, mbsc -> mbsc);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, pool.getConnectionCount());
+        }
+        pool.execute(request, mbsc -> mbsc);
+        assertEquals(1, connections.get());
+        assertEquals(1, pool.getConnectionCount());
+    }
+
+    private JMXConnector newConnector(KafkaMetricsRequest request) {
+        try {
+            JMXConnector connector = mock(JMXConnector.class);
+            when(connector.getMBeanServerConnection()).thenReturn(mock(MBeanServerConnection.class));
+            connections.incrementAndGet();
+            lastConnector = connector;
+            return connector;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
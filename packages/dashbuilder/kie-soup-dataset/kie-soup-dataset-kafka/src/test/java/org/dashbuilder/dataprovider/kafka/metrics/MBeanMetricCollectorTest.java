@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.kafka.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+import org.dashbuilder.dataprovider.kafka.model.KafkaMetric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MBeanMetricCollectorTest {
+
+    private static final String NAME = "kafka.server:type=ReplicaManager,name=IsrShrinksPerSec";
+    private static final String[] ATTRS = {"Count", "OneMinuteRate", "MeanRate"};
+
+    private MBeanServerConnection mbsc = mock(MBeanServerConnection.class);
+
+    @Test
+    public void testAttributesReadAtOnce() throws Exception {
+        AttributeList values = new AttributeList();
+        values.add(new Attribute("Count", 10L));
+        values.add(new Attribute("OneMinuteRate", null));
+        values.add(new Attribute("MeanRate", 0.5));
+        when(mbsc.getAttributes(new ObjectName(NAME), ATTRS)).thenReturn(values);
+
+        List<KafkaMetric> metrics = MBeanMetricCollector.metricCollector(NAME, ATTRS).collect(mbsc);
+        assertEquals(2, metrics.size());
+        assertEquals("Count", metrics.get(0).getAttribute());
+        assertEquals(10L, metrics.get(0).getValue());
+        assertEquals("IsrShrinksPerSec", metrics.get(0).getName());
+        assertEquals("ReplicaManager", metrics.get(0).getType());
+        assertEquals("MeanRate", metrics.get(1).getAttribute());
+        verify(mbsc, never()).getAttribute(any(), anyString());
+    }
+
+    @Test
+    public void testMissingMBean() throws Exception {
+        when(mbsc.getAttributes(new ObjectName(NAME), ATTRS)).thenThrow(new InstanceNotFoundException(NAME));
+        assertTrue(MBeanMetricCollector.metricCollector(NAME, ATTRS).collect(mbsc).isEmpty());
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testBrokenConnection() throws Exception {
+        when(mbsc.getAttributes(new ObjectName(NAME), ATTRS)).thenThrow(new IOException("Connection closed"));
+        MBeanMetricCollector.metricCollector(NAME, ATTRS).collect(mbsc);
+    }
+}
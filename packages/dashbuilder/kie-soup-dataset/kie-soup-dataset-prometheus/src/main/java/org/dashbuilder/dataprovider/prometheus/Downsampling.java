@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus;
+
+import java.util.Arrays;
+
+/**
+ * Algorithms reducing the number of samples of a series to the number of points a chart is able to display.
+ * Series are expected to be sorted by time, as returned by Prometheus.
+ */
+public enum Downsampling {
+
+    /**
+     * Keep every sample.
+     */
+    NONE {
+        @Override
+        protected int[] doSelect(double[] x, double[] y, int size, int threshold) {
+            return all(size);
+        }
+    },
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last samples plus, for every bucket in between, the sample
+     * forming the largest triangle with the one kept in the previous bucket and the average of the next bucket. It
+     * preserves the visual shape of the series.
+     */
+    LTTB {
+        @Override
+        protected int[] doSelect(double[] x, double[] y, int size, int threshold) {
+            if (threshold < 3) {
+                return new int[]{0, size - 1};
+            }
+            int[] result = new int[threshold];
+            int n = 0;
+            result[n++] = 0;
+            double every = (double) (size - 2) / (threshold - 2);
+            int a = 0;
+            for (int i = 0; i < threshold - 2; i++) {
+                // Average of the next bucket
+                int avgStart = (int) Math.floor((i + 1) * every) + 1;
+                int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+                double avgX = 0;
+                double avgY = 0;
+                int count = 0;
+                for (int j = avgStart; j < avgEnd; j++) {
+                    if (!Double.isNaN(y[j])) {
+                        avgX += x[j];
+                        avgY += y[j];
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    avgX /= count;
+                    avgY /= count;
+                } else {
+                    avgX = x[size - 1];
+                    avgY = y[size - 1];
+                }
+
+                // Point of the current bucket forming the largest triangle
+                int rangeStart = (int) Math.floor(i * every) + 1;
+                int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+                double maxArea = -1;
+                int maxIndex = rangeStart;
+                for (int j = rangeStart; j < rangeEnd; j++) {
+                    double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                    if (area > maxArea) {
+                        maxArea = area;
+                        maxIndex = j;
+                    }
+                }
+                result[n++] = maxIndex;
+                a = maxIndex;
+            }
+            result[n++] = size - 1;
+            return result;
+        }
+    },
+
+    /**
+     * Keeps the samples with the minimum and maximum values of every bucket, so no peak is lost.
+     */
+    MIN_MAX {
+        @Override
+        protected int[] doSelect(double[] x, double[] y, int size, int threshold) {
+            int buckets = Math.max(1, threshold / 2);
+            int[] result = new int[buckets * 2];
+            int n = 0;
+            double every = (double) size / buckets;
+            for (int i = 0; i < buckets; i++) {
+                int start = (int) Math.floor(i * every);
+                int end = Math.min((int) Math.floor((i + 1) * every), size);
+                if (start >= end) {
+                    continue;
+                }
+                int min = start;
+                int max = start;
+                for (int j = start + 1; j < end; j++) {
+                    if (y[j] < y[min] || Double.isNaN(y[min])) {
+                        min = j;
+                    }
+                    if (y[j] > y[max] || Double.isNaN(y[max])) {
+                        max = j;
+                    }
+                }
+                result[n++] = Math.min(min, max);
+                if (min != max) {
+                    result[n++] = Math.max(min, max);
+                }
+            }
+            return n == result.length ? result : Arrays.copyOf(result, n);
+        }
+    };
+
+    /**
+     * Select the samples to keep.
+     *
+     * @param x The time of every sample.
+     * @param y The value of every sample.
+     * @param size The number of samples.
+     * @param threshold The maximum number of samples to keep.
+     * @return The positions of the samples to keep, in ascending order.
+     */
+    public int[] select(double[] x, double[] y, int size, int threshold) {
+        if (threshold <= 0 || size <= threshold) {
+            return all(size);
+        }
+        return doSelect(x, y, size, threshold);
+    }
+
+    protected abstract int[] doSelect(double[] x, double[] y, int size, int threshold);
+
+    private static int[] all(int size) {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+}
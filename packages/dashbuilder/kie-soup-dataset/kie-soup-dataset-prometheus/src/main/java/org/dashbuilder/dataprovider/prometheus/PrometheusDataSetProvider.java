@@ -15,11 +15,6 @@
  */
 package org.dashbuilder.dataprovider.prometheus;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
@@ -28,11 +23,9 @@ import org.dashbuilder.dataprovider.prometheus.client.PrometheusClient;
 import org.dashbuilder.dataprovider.prometheus.client.QueryResponse;
 import org.dashbuilder.dataprovider.prometheus.client.Result;
 import org.dashbuilder.dataprovider.prometheus.client.ResultType;
+import org.dashbuilder.dataprovider.prometheus.client.SampleSeries;
 import org.dashbuilder.dataprovider.prometheus.client.Status;
-import org.dashbuilder.dataprovider.prometheus.client.Value;
-import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataSet;
-import org.dashbuilder.dataset.DataSetFactory;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.def.DataSetDef;
@@ -42,13 +35,35 @@ import org.dashbuilder.dataset.def.PrometheusDataSetDef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Provider for the Prometheus data sets.
+ * <p>The query response is read as it is received, straight into the data set columns. Every series can optionally
+ * be downsampled on the fly, so the data set size depends on the number of points the charts are able to display
+ * instead of on the query range and step. The following system properties can be used to configure it:</p>
+ * <ul>
+ *     <li><code>dashbuilder.prometheus.downsampling</code>: the {@link Downsampling} algorithm (<code>LTTB</code>,
+ *     <code>MIN_MAX</code> or <code>NONE</code>). Disabled by default.</li>
+ *     <li><code>dashbuilder.prometheus.maxPoints</code>: the max. number of samples kept per series (1000 by
+ *     default). A lookup can request a different number by means of the {@link #MAX_POINTS_METADATA} metadata.</li>
+ * </ul>
+ */
 public class PrometheusDataSetProvider implements DataSetProvider, DataSetDefRegistryListener {
 
     public static final String VALUE_COLUMN = "VALUE";
     public static final String TIME_COLUMN = "TIME";
 
+    public static final String DOWNSAMPLING_PROP = "dashbuilder.prometheus.downsampling";
+    public static final String MAX_POINTS_PROP = "dashbuilder.prometheus.maxPoints";
+
+    /**
+     * Lookup metadata holding the max. number of samples to keep per series, usually the width of the chart.
+     */
+    public static final String MAX_POINTS_METADATA = "prometheus.maxPoints";
+
     protected StaticDataSetProvider staticDataSetProvider;
     protected Logger log = LoggerFactory.getLogger(PrometheusDataSetProvider.class);
+    protected Downsampling downsampling = Downsampling.valueOf(System.getProperty(DOWNSAMPLING_PROP, Downsampling.NONE.name()).toUpperCase());
+    protected int maxPoints = Integer.parseInt(System.getProperty(MAX_POINTS_PROP, "1000"));
 
     private static PrometheusDataSetProvider instance = null;
 
@@ -84,52 +99,64 @@ public class PrometheusDataSetProvider implements DataSetProvider, DataSetDefReg
     public DataSet lookupDataSet(DataSetDef def, DataSetLookup lookup) throws Exception {
         String baseUrl = ((PrometheusDataSetDef) def).getServerUrl();
         String query = ((PrometheusDataSetDef) def).getQuery();
-        QueryResponse response = new PrometheusClient(baseUrl).query(query);
+        SeriesColumns[] columns = {null};
+        int points = getMaxPoints(lookup);
+        QueryResponse response = new PrometheusClient(baseUrl).query(query, series -> {
+            if (columns[0] == null) {
+                // The result type is known once the first series is read
+                columns[0] = new SeriesColumns(downsampling, points, series.isText());
+            }
+            columns[0].add(series);
+        });
 
         if (response.getStatus() == Status.ERROR) {
             throw new IllegalArgumentException("Error response received from Prometheus: " + response.getError());
         }
 
-        DataSet dataSet = toDataSet(response);
+        if (columns[0] == null) {
+            columns[0] = new SeriesColumns(downsampling, points, response.getResultType() == ResultType.STRING);
+        }
+        DataSet dataSet = columns[0].toDataSet(staticDataSetProvider.isColumnarStorageEnabled());
         dataSet.setUUID(def.getUUID());
         dataSet.setDefinition(def);
         staticDataSetProvider.registerDataSet(dataSet);
         return staticDataSetProvider.lookupDataSet(def, lookup);
     }
 
-    protected DataSet toDataSet(QueryResponse response) {
-        DataSet dataSet = DataSetFactory.newEmptyDataSet();
-        List<Result> results = response.getResults();
-
-        Set<String> metricColumns = getMetricColumns(results);
-
-        metricColumns.forEach(c -> dataSet.addColumn(c, ColumnType.LABEL));
-
-        dataSet.addColumn(TIME_COLUMN, ColumnType.NUMBER);
-        dataSet.addColumn(VALUE_COLUMN, response.getResultType() == ResultType.STRING
-                ? ColumnType.TEXT
-                : ColumnType.NUMBER);
-
-        for (Result result : results) {
-            for (Value value : result.getValues()) {
-                Map<String, String> metric = result.getMetric();
-                Object[] row = new Object[metric.size() + 2];
-                int i = 0;
-                for (String key : metricColumns) {
-                    row[i++] = metric.get(key);
-                }
-                row[i++] = value.getTimestamp();
-                row[i] = value.getValue();
-                dataSet.addValuesAt(dataSet.getRowCount(), row);
-            }
+    public Downsampling getDownsampling() {
+        return downsampling;
+    }
+
+    public void setDownsampling(Downsampling downsampling) {
+        this.downsampling = downsampling;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public void setMaxPoints(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    protected int getMaxPoints(DataSetLookup lookup) {
+        Object points = lookup != null ? lookup.getMetadata(MAX_POINTS_METADATA) : null;
+        if (points instanceof Number) {
+            return ((Number) points).intValue();
+        }
+        if (points != null) {
+            return Integer.parseInt(points.toString());
         }
-        return dataSet;
+        return maxPoints;
     }
 
-    private Set<String> getMetricColumns(List<Result> results) {
-        return results.isEmpty() || results.get(0).getMetric() == null
-                ? Collections.emptySet()
-                : results.get(0).getMetric().keySet();
+    protected DataSet toDataSet(QueryResponse response) {
+        boolean text = response.getResultType() == ResultType.STRING;
+        SeriesColumns columns = new SeriesColumns(Downsampling.NONE, 0, text);
+        for (Result result : response.getResults()) {
+            columns.add(SampleSeries.of(result, text));
+        }
+        return columns.toDataSet(false);
     }
 
     // Listen to changes on the data set definition registry
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.dashbuilder.dataprovider.prometheus.client.SampleSeries;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+import static org.dashbuilder.dataprovider.prometheus.PrometheusDataSetProvider.TIME_COLUMN;
+import static org.dashbuilder.dataprovider.prometheus.PrometheusDataSetProvider.VALUE_COLUMN;
+
+/**
+ * Column buffers the series of a response are appended to as they are read, once downsampled.
+ */
+class SeriesColumns {
+
+    private Downsampling downsampling;
+    private int maxPoints;
+    private boolean text;
+
+    private Set<String> metricColumns;
+    private List<ColumnValues> metricValues = new ArrayList<>();
+    private NumberColumnValues times = new NumberColumnValues();
+    private NumberColumnValues values = new NumberColumnValues();
+    private List<Object> texts = new ArrayList<>();
+
+    /**
+     * @param maxPoints The max. number of samples to keep per series. 0 to keep them all.
+     * @param text If true the values are kept as text (string results).
+     */
+    SeriesColumns(Downsampling downsampling, int maxPoints, boolean text) {
+        this.downsampling = downsampling;
+        this.maxPoints = maxPoints;
+        this.text = text;
+    }
+
+    void add(SampleSeries series) {
+        Map<String, String> metric = series.getMetric();
+        if (metricColumns == null) {
+            // As before, the labels of the first series are taken as columns
+            metricColumns = metric == null ? Collections.emptySet() : metric.keySet();
+            for (int i = 0; i < metricColumns.size(); i++) {
+                metricValues.add(ColumnValues.create(ColumnType.LABEL, 16));
+            }
+        }
+        int[] rows = text ?
+                Downsampling.NONE.select(null, null, series.size(), 0) :
+                downsampling.select(series.getTimestamps(), series.getValues(), series.size(), maxPoints);
+        for (int row : rows) {
+            int i = 0;
+            for (String key : metricColumns) {
+                metricValues.get(i++).add(metric != null ? metric.get(key) : null);
+            }
+            times.addDouble(series.getTimestamp(row));
+            if (text) {
+                texts.add(series.getText(row));
+            } else {
+                values.addDouble(series.getValue(row));
+            }
+        }
+    }
+
+    /**
+     * @param columnar If false the values are moved into regular lists, as required by the non columnar
+     * storage mode.
+     */
+    DataSet toDataSet(boolean columnar) {
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        if (metricColumns != null) {
+            int i = 0;
+            for (String column : metricColumns) {
+                dataSet.addColumn(column, ColumnType.LABEL, values(metricValues.get(i++), columnar));
+            }
+        }
+        dataSet.addColumn(TIME_COLUMN, ColumnType.NUMBER, values(times, columnar));
+        if (text) {
+            dataSet.addColumn(VALUE_COLUMN, ColumnType.TEXT, texts);
+        } else {
+            dataSet.addColumn(VALUE_COLUMN, ColumnType.NUMBER, values(values, columnar));
+        }
+        return dataSet;
+    }
+
+    private static List values(ColumnValues values, boolean columnar) {
+        if (columnar) {
+            values.trimToSize();
+            return values;
+        }
+        return new ArrayList<>(values);
+    }
+}
@@ -16,15 +16,26 @@
 package org.dashbuilder.dataprovider.prometheus.client;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 public class HttpClient {
 
     private static HttpClient INSTANCE;
 
+    /**
+     * Consumes a response body as it is received.
+     */
+    public interface ResponseReader<T> {
+
+        T read(Reader reader) throws IOException;
+    }
+
     private HttpClient() {
         // do nothing
     }
@@ -48,6 +59,20 @@ public class HttpClient {
         }
     }
 
+    public <T> T doGet(String url, String username, String password, ResponseReader<T> responseReader) {
+        try {
+            URLConnection connection = new URL(url).openConnection();
+            if (username != null && !username.trim().isEmpty()) {
+                addAuth(connection, username, password);
+            }
+            try (Reader in = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+                return responseReader.read(in);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error performing HTTP Request: " + e.getMessage(), e);
+        }
+    }
+
     private void addAuth(URLConnection connection, String username, String password) {
         String userpass = username + ":" + password;
         String basicAuth = "Basic " + new String(Base64.getEncoder().encode(userpass.getBytes()));
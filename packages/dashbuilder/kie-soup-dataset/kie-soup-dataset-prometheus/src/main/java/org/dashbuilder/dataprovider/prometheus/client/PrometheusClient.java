@@ -38,6 +38,7 @@ public class PrometheusClient {
 
     private String baseUrl = DEFAULT_BASE_URL;
     private HttpClient client;
+    private QueryResponseReader reader = QueryResponseReader.get();
     private QueryResponseParser parser;
 
     public PrometheusClient() {
@@ -63,6 +64,23 @@ public class PrometheusClient {
         String url = buildUrl(QUERY_RANGE_URI, query, start, end, step);
         return getQueryResponse(url);
     }
+
+    /**
+     * Same as {@link #query(String)} but the results are passed to the given handler as they are received.
+     */
+    public QueryResponse query(String query, QueryResponseReader.SeriesHandler handler) {
+        String url = buildUrl(QUERY_URL, query, null, null, null);
+        return getQueryResponse(url, handler);
+    }
+
+    /**
+     * Same as {@link #queryRange(String, String, String, String)} but the results are passed to the given handler
+     * as they are received.
+     */
+    public QueryResponse queryRange(String query, String start, String end, String step, QueryResponseReader.SeriesHandler handler) {
+        String url = buildUrl(QUERY_RANGE_URI, query, start, end, step);
+        return getQueryResponse(url, handler);
+    }
     
     public String getBaseUrl() {
         return baseUrl;
@@ -112,4 +130,11 @@ public class PrometheusClient {
         return parser.parse(client.doGet(url, username, password));
     }
 
+    private QueryResponse getQueryResponse(String url, QueryResponseReader.SeriesHandler handler) {
+        PrometheusCredentialProvider credentialProvider = PrometheusCredentialProvider.get();
+        String username = credentialProvider.getUser();
+        String password = credentialProvider.getPassword();
+        return client.doGet(url, username, password, in -> reader.read(in, handler));
+    }
+
 }
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus.client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a query response as it is received, without building the whole JSON tree nor the {@link Result} and
+ * {@link Value} instances. Every result is handed over as soon as it has been read, with its samples stored in
+ * primitive arrays (see {@link SampleSeries}).
+ * <p>The response is expected to contain the result type before the result, as Prometheus writes it.</p>
+ *
+ * @see QueryResponseParser
+ */
+public class QueryResponseReader {
+
+    private static QueryResponseReader INSTANCE;
+
+    private static final String STATUS_PROP = "status";
+    private static final String DATA_PROP = "data";
+    private static final String RESULT_TYPE_PROP = "resultType";
+    private static final String RESULT_PROP = "result";
+    private static final String METRIC_PROP = "metric";
+    private static final String VALUES_PROP = "values";
+    private static final String VALUE_PROP = "value";
+    private static final String ERROR_TYPE_PROP = "errorType";
+    private static final String ERROR_PROP = "error";
+
+    /**
+     * Receives the results of a response.
+     */
+    public interface SeriesHandler {
+
+        void onSeries(SampleSeries series);
+    }
+
+    /**
+     * Read a response.
+     *
+     * @return The response, with no results at all since they are passed to the handler instead.
+     */
+    public QueryResponse read(Reader reader, SeriesHandler handler) throws IOException {
+        Lexer lexer = new Lexer(reader);
+        QueryResponseBuilder response = QueryResponseBuilder.newQueryResponseBuilder();
+        lexer.beginObject();
+        for (String key = lexer.nextKey(); key != null; key = lexer.nextKey()) {
+            switch (key) {
+                case STATUS_PROP:
+                    response.status(Status.of(lexer.readString()));
+                    break;
+                case ERROR_TYPE_PROP:
+                    response.errorType(lexer.readString());
+                    break;
+                case ERROR_PROP:
+                    response.error(lexer.readString());
+                    break;
+                case DATA_PROP:
+                    readData(lexer, response, handler);
+                    break;
+                default:
+                    lexer.skipValue();
+            }
+        }
+        return response.build();
+    }
+
+    private void readData(Lexer lexer, QueryResponseBuilder response, SeriesHandler handler) throws IOException {
+        ResultType resultType = null;
+        lexer.beginObject();
+        for (String key = lexer.nextKey(); key != null; key = lexer.nextKey()) {
+            switch (key) {
+                case RESULT_TYPE_PROP:
+                    resultType = ResultType.of(lexer.readString());
+                    response.resultType(resultType);
+                    break;
+                case RESULT_PROP:
+                    readResult(lexer, resultType == ResultType.STRING, handler);
+                    break;
+                default:
+                    lexer.skipValue();
+            }
+        }
+    }
+
+    private void readResult(Lexer lexer, boolean keepText, SeriesHandler handler) throws IOException {
+        lexer.beginArray();
+        if (!lexer.hasNext()) {
+            return;
+        }
+        if (lexer.peek() == '{') {
+            // Vector or matrix: a list of results
+            do {
+                handler.onSeries(readSeries(lexer, keepText));
+            } while (lexer.hasNext());
+        } else {
+            // Scalar or string: a single sample
+            SampleSeries series = new SampleSeries(keepText);
+            double timestamp = lexer.readNumber();
+            lexer.hasNext();
+            series.add(timestamp, lexer.readScalar());
+            lexer.hasNext();
+            handler.onSeries(series);
+        }
+    }
+
+    private SampleSeries readSeries(Lexer lexer, boolean keepText) throws IOException {
+        SampleSeries series = new SampleSeries(keepText);
+        lexer.beginObject();
+        for (String key = lexer.nextKey(); key != null; key = lexer.nextKey()) {
+            switch (key) {
+                case METRIC_PROP:
+                    series.setMetric(readMetric(lexer));
+                    break;
+                case VALUE_PROP:
+                    readSample(lexer, series);
+                    break;
+                case VALUES_PROP:
+                    lexer.beginArray();
+                    while (lexer.hasNext()) {
+                        readSample(lexer, series);
+                    }
+                    break;
+                default:
+                    lexer.skipValue();
+            }
+        }
+        return series;
+    }
+
+    private Map<String, String> readMetric(Lexer lexer) throws IOException {
+        Map<String, String> metric = new LinkedHashMap<>();
+        lexer.beginObject();
+        for (String key = lexer.nextKey(); key != null; key = lexer.nextKey()) {
+            metric.put(key, lexer.readScalar());
+        }
+        return metric;
+    }
+
+    private void readSample(Lexer lexer, SampleSeries series) throws IOException {
+        lexer.beginArray();
+        lexer.hasNext();
+        double timestamp = lexer.readNumber();
+        lexer.hasNext();
+        series.add(timestamp, lexer.readScalar());
+        while (lexer.hasNext()) {
+            lexer.skipValue();
+        }
+    }
+
+    public static QueryResponseReader get() {
+        if (INSTANCE == null) {
+            INSTANCE = new QueryResponseReader();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Minimal pull JSON tokenizer over a reader.
+     */
+    static class Lexer {
+
+        private Reader reader;
+        private char[] buffer = new char[8192];
+        private int pos = 0;
+        private int length = 0;
+
+        Lexer(Reader reader) {
+            this.reader = reader;
+        }
+
+        void beginObject() throws IOException {
+            expect('{');
+        }
+
+        void beginArray() throws IOException {
+            expect('[');
+        }
+
+        /**
+         * Read the key of the next object member.
+         *
+         * @return null if the end of the object has been reached.
+         */
+        String nextKey() throws IOException {
+            int c = nextNonWhitespace();
+            if (c == ',') {
+                c = nextNonWhitespace();
+            }
+            if (c == '}') {
+                return null;
+            }
+            back(c);
+            String key = readString();
+            expect(':');
+            return key;
+        }
+
+        /**
+         * Check if there are more array elements to read, consuming any separator.
+         */
+        boolean hasNext() throws IOException {
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return false;
+            }
+            if (c != ',') {
+                back(c);
+            }
+            return true;
+        }
+
+        int peek() throws IOException {
+            int c = nextNonWhitespace();
+            back(c);
+            return c;
+        }
+
+        String readString() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            for (int c = read(); c != '"'; c = read()) {
+                if (c == -1) {
+                    throw new IOException("Unterminated string");
+                }
+                if (c == '\\') {
+                    c = read();
+                    switch (c) {
+                        case 'b': sb.append('\b'); break;
+                        case 'f': sb.append('\f'); break;
+                        case 'n': sb.append('\n'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'u':
+                            char[] hex = new char[4];
+                            for (int i = 0; i < 4; i++) {
+                                hex[i] = (char) read();
+                            }
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                            break;
+                        default:
+                            sb.append((char) c);
+                    }
+                } else {
+                    sb.append((char) c);
+                }
+            }
+            return sb.toString();
+        }
+
+        double readNumber() throws IOException {
+            return Double.parseDouble(readLiteral());
+        }
+
+        /**
+         * Read a string, number or literal value.
+         *
+         * @return The value as text or null for the null literal.
+         */
+        String readScalar() throws IOException {
+            if (peek() == '"') {
+                return readString();
+            }
+            String literal = readLiteral();
+            return "null".equals(literal) ? null : literal;
+        }
+
+        void skipValue() throws IOException {
+            int c = peek();
+            if (c == '{') {
+                beginObject();
+                while (nextKey() != null) {
+                    skipValue();
+                }
+            } else if (c == '[') {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+            } else {
+                readScalar();
+            }
+        }
+
+        private String readLiteral() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c = nextNonWhitespace();
+            while (c != -1 && c != ',' && c != ']' && c != '}' && !Character.isWhitespace(c)) {
+                sb.append((char) c);
+                c = read();
+            }
+            back(c);
+            if (sb.length() == 0) {
+                throw new IOException("Value expected");
+            }
+            return sb.toString();
+        }
+
+        private void expect(char expected) throws IOException {
+            int c = nextNonWhitespace();
+            if (c != expected) {
+                throw new IOException("Expected '" + expected + "' but found " + (c == -1 ? "end of input" : "'" + (char) c + "'"));
+            }
+        }
+
+        private int nextNonWhitespace() throws IOException {
+            int c = read();
+            while (c != -1 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            return c;
+        }
+
+        private int read() throws IOException {
+            if (pos == length) {
+                length = reader.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (length <= 0) {
+                    length = 0;
+                    return -1;
+                }
+            }
+            return buffer[pos++];
+        }
+
+        private void back(int c) {
+            // The last char read is always in the buffer
+            if (c != -1) {
+                pos--;
+            }
+        }
+    }
+}
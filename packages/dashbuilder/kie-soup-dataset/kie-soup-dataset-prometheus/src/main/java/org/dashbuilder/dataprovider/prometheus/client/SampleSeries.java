@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The samples of a single result, kept in primitive arrays.
+ */
+public class SampleSeries {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Map<String, String> metric = Collections.emptyMap();
+    private double[] timestamps = new double[DEFAULT_CAPACITY];
+    private double[] values = new double[DEFAULT_CAPACITY];
+    private String[] texts;
+    private int size = 0;
+
+    /**
+     * @param keepText If true the original text of every sample value is kept as well (for string results).
+     */
+    public SampleSeries(boolean keepText) {
+        if (keepText) {
+            texts = new String[DEFAULT_CAPACITY];
+        }
+    }
+
+    public static SampleSeries of(Result result, boolean keepText) {
+        SampleSeries series = new SampleSeries(keepText);
+        series.setMetric(result.getMetric());
+        for (Value value : result.getValues()) {
+            series.add(value.getTimestamp(), value.getValue());
+        }
+        return series;
+    }
+
+    public Map<String, String> getMetric() {
+        return metric;
+    }
+
+    public void setMetric(Map<String, String> metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Add a sample. As in {@link Value}, the timestamp is truncated to seconds.
+     */
+    public void add(double timestamp, String value) {
+        if (size == timestamps.length) {
+            int capacity = size + (size >> 1);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, capacity);
+            }
+        }
+        timestamps[size] = (long) timestamp;
+        values[size] = parseValue(value);
+        if (texts != null) {
+            texts[size] = value;
+        }
+        size++;
+    }
+
+    /**
+     * Check if the original text of the sample values is kept.
+     */
+    public boolean isText() {
+        return texts != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Get the original text of a sample value, or null if not kept.
+     */
+    public String getText(int i) {
+        return texts == null ? null : texts[i];
+    }
+
+    /**
+     * The timestamps array. Only the first {@link #size()} positions are set.
+     */
+    public double[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * The values array. Only the first {@link #size()} positions are set.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Parse a sample value as written by Prometheus. Values that are not numbers are taken as NaN.
+     */
+    public static double parseValue(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        switch (value) {
+            case "+Inf":
+            case "Inf":
+                return Double.POSITIVE_INFINITY;
+            case "-Inf":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                try {
+                    return Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DownsamplingTest {
+
+    static final int SIZE = 10000;
+
+    double[] x = new double[SIZE];
+    double[] y = new double[SIZE];
+
+    {
+        for (int i = 0; i < SIZE; i++) {
+            x[i] = i * 15;
+            y[i] = Math.sin(i / 100.0);
+        }
+        y[5000] = 100;
+        y[7000] = -100;
+    }
+
+    @Test
+    public void testNoDownsampling() {
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.LTTB.select(x, y, 3, 10));
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.MIN_MAX.select(x, y, 3, 0));
+        assertEquals(SIZE, Downsampling.NONE.select(x, y, SIZE, 100).length);
+    }
+
+    @Test
+    public void testLTTB() {
+        int[] rows = Downsampling.LTTB.select(x, y, SIZE, 500);
+        assertEquals(500, rows.length);
+        assertEquals(0, rows[0]);
+        assertEquals(SIZE - 1, rows[rows.length - 1]);
+        assertAscending(rows);
+        assertContains(rows, 5000);
+        assertContains(rows, 7000);
+    }
+
+    @Test
+    public void testMinMax() {
+        int[] rows = Downsampling.MIN_MAX.select(x, y, SIZE, 500);
+        assertTrue(rows.length <= 500);
+        assertAscending(rows);
+        assertContains(rows, 5000);
+        assertContains(rows, 7000);
+
+        // Every bucket keeps its extremes
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int row : rows) {
+            min = Math.min(min, y[row]);
+            max = Math.max(max, y[row]);
+        }
+        assertEquals(-100, min, 0);
+        assertEquals(100, max, 0);
+    }
+
+    private static void assertAscending(int[] rows) {
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(rows[i] > rows[i - 1]);
+        }
+    }
+
+    private static void assertContains(int[] rows, int row) {
+        for (int r : rows) {
+            if (r == row) {
+                return;
+            }
+        }
+        throw new AssertionError("Row " + row + " not selected");
+    }
+}
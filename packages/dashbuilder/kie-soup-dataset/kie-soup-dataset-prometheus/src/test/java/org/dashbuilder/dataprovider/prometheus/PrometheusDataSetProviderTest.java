@@ -22,12 +22,15 @@ import java.util.Map;
 
 import org.dashbuilder.dataprovider.prometheus.client.QueryResponse;
 import org.dashbuilder.dataprovider.prometheus.client.Result;
+import org.dashbuilder.dataprovider.prometheus.client.SampleSeries;
 import org.dashbuilder.dataprovider.prometheus.client.Value;
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class PrometheusDataSetProviderTest {
@@ -97,4 +100,30 @@ public class PrometheusDataSetProviderTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void downsampledSeriesToDataSetTest() {
+        SeriesColumns columns = new SeriesColumns(Downsampling.LTTB, 100, false);
+        for (String instance : new String[]{"localhost:9090", "localhost:9091"}) {
+            SampleSeries series = new SampleSeries(false);
+            Map<String, String> metric = new HashMap<>();
+            metric.put("instance", instance);
+            series.setMetric(metric);
+            for (int i = 0; i < 5000; i++) {
+                series.add(i * 15, Integer.toString(i % 50));
+            }
+            columns.add(series);
+        }
+
+        DataSet dataSet = columns.toDataSet(true);
+        assertEquals(3, dataSet.getColumns().size());
+        assertEquals(200, dataSet.getRowCount());
+        assertTrue(dataSet.getColumnById(PrometheusDataSetProvider.TIME_COLUMN).getValues() instanceof NumberColumnValues);
+        assertEquals("localhost:9090", dataSet.getValueAt(0, 0));
+        assertEquals("localhost:9091", dataSet.getValueAt(199, 0));
+        assertEquals(74985.0, dataSet.getValueAt(199, 1));
+
+        dataSet = columns.toDataSet(false);
+        assertFalse(dataSet.getColumnById(PrometheusDataSetProvider.VALUE_COLUMN).getValues() instanceof NumberColumnValues);
+    }
+
+}
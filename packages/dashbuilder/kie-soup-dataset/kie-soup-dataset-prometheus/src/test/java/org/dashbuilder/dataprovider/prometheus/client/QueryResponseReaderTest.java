@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.prometheus.client;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryResponseReaderTest {
+
+    private final String MATRIX_JSON = "{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":" +
+                                       "[{\"metric\":{\"__name__\":\"up\",\"job\":\"prometheus\",\"instance\":\"localhost:9090\"}," +
+                                       "\"values\":[[1435781430.781,\"1\"],[1435781445.781,\"NaN\"]]}," +
+                                       "{\"metric\":{\"__name__\":\"up\",\"job\":\"no\\\"de\",\"instance\":\"localhost:9091\"}," +
+                                       "\"values\":[[1435781430.781,\"+Inf\"],[1435781445.781,\"1.5e3\"]]}]}," +
+                                       "\"warnings\":[\"a warning\"],\"stats\":{\"samples\":{\"total\":4}}}";
+
+    private final String VECTOR_JSON = "{ \"status\" : \"success\", \"data\" : { \"resultType\" : \"vector\", \"result\" : " +
+                                       "[ { \"metric\" : { \"__name__\" : \"up\" },\n \"value\" : [ 1608760240.193, \"1\" ] } ] } }";
+
+    private final String SCALAR_JSON = "{\"status\":\"success\",\"data\":{\"resultType\":\"scalar\",\"result\":" +
+                                       "[1608819321.842,\"10\"]}}";
+
+    private final String STRING_JSON = "{\"status\":\"success\",\"data\":{\"resultType\":\"string\",\"result\":" +
+                                       "[1608819321.842,\"abc\"]}}";
+
+    private final String ERROR_RESPONSE_JSON = "{\"status\":\"error\",\"errorType\":\"error type\",\"error\":\"error message\"}";
+
+    private List<SampleSeries> series = new ArrayList<>();
+
+    @Test
+    public void testReadMatrixResponse() throws Exception {
+        QueryResponse response = read(MATRIX_JSON);
+
+        assertEquals(Status.SUCCESS, response.getStatus());
+        assertEquals(ResultType.MATRIX, response.getResultType());
+        assertTrue(response.getResults().isEmpty());
+        assertEquals(2, series.size());
+
+        SampleSeries series1 = series.get(0);
+        assertEquals("prometheus", MetricHelper.getJob(series1.getMetric()));
+        assertFalse(series1.isText());
+        assertEquals(2, series1.size());
+        assertEquals(1435781430, series1.getTimestamp(0), 0);
+        assertEquals(1, series1.getValue(0), 0);
+        assertEquals(1435781445, series1.getTimestamp(1), 0);
+        assertTrue(Double.isNaN(series1.getValue(1)));
+
+        SampleSeries series2 = series.get(1);
+        assertEquals("no\"de", MetricHelper.getJob(series2.getMetric()));
+        assertEquals("localhost:9091", MetricHelper.getInstance(series2.getMetric()));
+        assertEquals(Double.POSITIVE_INFINITY, series2.getValue(0), 0);
+        assertEquals(1500, series2.getValue(1), 0);
+    }
+
+    @Test
+    public void testReadVectorResponse() throws Exception {
+        QueryResponse response = read(VECTOR_JSON);
+
+        assertEquals(ResultType.VECTOR, response.getResultType());
+        assertEquals(1, series.size());
+        assertEquals("up", MetricHelper.getName(series.get(0).getMetric()));
+        assertEquals(1, series.get(0).size());
+        assertEquals(1608760240, series.get(0).getTimestamp(0), 0);
+        assertEquals(1, series.get(0).getValue(0), 0);
+    }
+
+    @Test
+    public void testReadScalarResponses() throws Exception {
+        assertEquals(ResultType.SCALAR, read(SCALAR_JSON).getResultType());
+        assertEquals(1, series.size());
+        assertEquals(1608819321, series.get(0).getTimestamp(0), 0);
+        assertEquals(10, series.get(0).getValue(0), 0);
+        assertNull(series.get(0).getText(0));
+
+        series.clear();
+        assertEquals(ResultType.STRING, read(STRING_JSON).getResultType());
+        assertTrue(series.get(0).isText());
+        assertEquals("abc", series.get(0).getText(0));
+    }
+
+    @Test
+    public void testReadErrorResponse() throws Exception {
+        QueryResponse response = read(ERROR_RESPONSE_JSON);
+
+        assertEquals(Status.ERROR, response.getStatus());
+        assertEquals("error message", response.getError());
+        assertEquals("error type", response.getErrorType());
+        assertTrue(series.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedResponse() throws Exception {
+        read(MATRIX_JSON.substring(0, 150));
+    }
+
+    private QueryResponse read(String json) throws IOException {
+        return QueryResponseReader.get().read(new StringReader(json), series::add);
+    }
+}
@@ -95,8 +95,16 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
     }
 
     public DataSet execute(String uuid, List<DataSetOp> opList) {
+        return execute(indexRegistry.get(uuid), opList);
+    }
+
+    /**
+     * Apply the operations over an index already obtained from the registry. This way, the operations are
+     * still applied if the data set gets evicted from the registry in the meantime.
+     */
+    public DataSet execute(DataSetIndex index, List<DataSetOp> opList) {
         DataSetOpListProcessor processor = new DataSetOpListProcessor();
-        processor.setDataSetIndex(indexRegistry.get(uuid));
+        processor.setDataSetIndex(index);
         processor.setOperationList(opList);
         processor.run();
         return processor.getDataSet();
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import org.dashbuilder.dataset.engine.index.RowBitmap;
+
+/**
+ * A column filter compiled into a predicate evaluated over a set of rows at once.
+ *
+ * @see BitmapFilterCompiler
+ */
+public abstract class BitmapFilter {
+
+    /**
+     * Evaluate the filter.
+     *
+     * @param candidates The rows to evaluate.
+     * @return The subset of the candidate rows that surpass the filter.
+     */
+    public abstract RowBitmap eval(RowBitmap candidates);
+
+    /**
+     * A filter evaluated row by row over the candidate rows.
+     */
+    public abstract static class RowFilter extends BitmapFilter {
+
+        public RowBitmap eval(RowBitmap candidates) {
+            RowBitmap.Builder result = new RowBitmap.Builder();
+            for (RowBitmap.RowIterator it = candidates.iterator(); it.hasNext(); ) {
+                int row = it.nextRow();
+                if (pass(row)) {
+                    result.add(row);
+                }
+            }
+            return result.build();
+        }
+
+        public abstract boolean pass(int row);
+    }
+
+    /**
+     * AND, OR &amp; NOT expressions evaluated as bitmap operations. Every term is evaluated only over the rows
+     * not yet decided by the previous terms.
+     */
+    public static class LogicalFilter extends BitmapFilter {
+
+        private boolean and;
+        private boolean negate;
+        private BitmapFilter[] terms;
+
+        /**
+         * @param and true for AND expressions, false for OR
+         * @param negate true to return the rows that surpass none of the terms (NOT)
+         */
+        public LogicalFilter(boolean and, boolean negate, BitmapFilter... terms) {
+            this.and = and;
+            this.negate = negate;
+            this.terms = terms;
+        }
+
+        public RowBitmap eval(RowBitmap candidates) {
+            if (terms.length == 0) {
+                return candidates;
+            }
+            if (and) {
+                RowBitmap result = candidates;
+                for (int i = 0; i < terms.length && !result.isEmpty(); i++) {
+                    result = terms[i].eval(result);
+                }
+                return result;
+            }
+            RowBitmap result = RowBitmap.EMPTY;
+            RowBitmap pending = candidates;
+            for (int i = 0; i < terms.length && !pending.isEmpty(); i++) {
+                RowBitmap passed = terms[i].eval(pending);
+                result = result.or(passed);
+                pending = pending.andNot(passed);
+            }
+            return negate ? pending : result;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.date.TimeFrame;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
+import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.dashbuilder.dataset.filter.LogicalExprType;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Compiles a column filter tree into a {@link BitmapFilter}.
+ * <p>Core functions are turned into typed predicates reading the primitive column storage directly (see
+ * {@link ColumnValues}) whenever the column and the function parameters allow it. Any other function falls back to
+ * the row by row evaluation of the {@link DataSetFunction} built by the {@link DefaultFilterAlgorithm}, so the results
+ * are always the same.</p>
+ */
+public class BitmapFilterCompiler {
+
+    private DefaultFilterAlgorithm filterAlgorithm;
+    private DataSetFilterContext filterContext;
+
+    public BitmapFilterCompiler(DefaultFilterAlgorithm filterAlgorithm, DataSetFilterContext filterContext) {
+        this.filterAlgorithm = filterAlgorithm;
+        this.filterContext = filterContext;
+    }
+
+    public BitmapFilter compile(ColumnFilter columnFilter) {
+        if (columnFilter instanceof LogicalExprFilter) {
+            LogicalExprFilter filter = (LogicalExprFilter) columnFilter;
+            LogicalExprType type = filter.getLogicalOperator();
+            List<ColumnFilter> logicalTerms = filter.getLogicalTerms();
+            BitmapFilter[] terms = new BitmapFilter[logicalTerms.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = compile(logicalTerms.get(i));
+            }
+            if (LogicalExprType.AND.equals(type)) {
+                return new BitmapFilter.LogicalFilter(true, false, terms);
+            }
+            if (LogicalExprType.OR.equals(type)) {
+                return new BitmapFilter.LogicalFilter(false, false, terms);
+            }
+            if (LogicalExprType.NOT.equals(type)) {
+                return new BitmapFilter.LogicalFilter(false, true, terms);
+            }
+        }
+        if (columnFilter instanceof CoreFunctionFilter) {
+            BitmapFilter result = compileCoreFunction((CoreFunctionFilter) columnFilter);
+            if (result != null) {
+                return result;
+            }
+        }
+        return new FunctionFilter(filterAlgorithm.buildFunction(filterContext, columnFilter), filterContext);
+    }
+
+    /**
+     * @return The typed filter or null if not supported for the given column &amp; parameters.
+     */
+    protected BitmapFilter compileCoreFunction(CoreFunctionFilter filter) {
+        DataColumn column = filterContext.getDataSet().getColumnById(filter.getColumnId());
+        if (column == null) {
+            return null;
+        }
+        List values = column.getValues();
+        List params = filter.getParameters();
+        CoreFunctionType type = filter.getType();
+        switch (type) {
+            case IS_NULL:
+                return new NullFilter(values, true);
+            case NOT_NULL:
+                return new NullFilter(values, false);
+            case EQUALS_TO:
+            case IN:
+                return compileEquals(column, params, false);
+            case NOT_EQUALS_TO:
+            case NOT_IN:
+                return compileEquals(column, params, true);
+            case GREATER_THAN:
+            case GREATER_OR_EQUALS_TO:
+            case LOWER_THAN:
+            case LOWER_OR_EQUALS_TO:
+            case BETWEEN:
+                if (values instanceof NumberColumnValues && allOfType(params, Double.class)) {
+                    return new NumberRangeFilter((NumberColumnValues) values, type, param(params, 0), param(params, 1));
+                }
+                if (values instanceof DateColumnValues && allOfType(params, Date.class)) {
+                    Date p0 = (Date) param(params, 0);
+                    Date p1 = (Date) param(params, 1);
+                    return new DateRangeFilter((DateColumnValues) values, type,
+                            p0 == null ? null : p0.getTime(), p1 == null ? null : p1.getTime());
+                }
+                return null;
+            case LIKE_TO:
+                if (values instanceof LabelColumnValues) {
+                    return compileLikeTo((LabelColumnValues) values, filter);
+                }
+                return null;
+            case TIME_FRAME:
+                if (values instanceof DateColumnValues && param(params, 0) != null) {
+                    TimeFrame timeFrame = TimeFrame.parse(param(params, 0).toString());
+                    if (timeFrame == null) {
+                        return null;
+                    }
+                    return new DateRangeFilter((DateColumnValues) values, CoreFunctionType.BETWEEN,
+                            timeFrame.getFrom().getTimeInstant().getTime(),
+                            timeFrame.getTo().getTimeInstant().getTime());
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    protected BitmapFilter compileEquals(DataColumn column, List params, boolean negate) {
+        List values = column.getValues();
+        if (params.isEmpty()) {
+            // No parameters to compare => all the rows pass
+            return new BitmapFilter.LogicalFilter(true, false);
+        }
+        boolean nullMatch = params.contains(null);
+
+        if (values instanceof NumberColumnValues && allOfType(params, Number.class)) {
+            double[] refs = new double[params.size()];
+            int n = 0;
+            for (Object param : params) {
+                if (param != null) {
+                    refs[n++] = ((Number) param).doubleValue();
+                }
+            }
+            double[] tmp = new double[n];
+            System.arraycopy(refs, 0, tmp, 0, n);
+            return new NumberEqualsFilter((NumberColumnValues) values, tmp, nullMatch, negate);
+        }
+        if (values instanceof LabelColumnValues) {
+            // Values are compared as strings, so the dictionary codes can be matched up front
+            LabelColumnValues labels = (LabelColumnValues) values;
+            List<String> dictionary = labels.getDictionary();
+            Set<String> refs = toStringSet(params);
+            boolean[] codeMatch = new boolean[dictionary.size()];
+            for (int i = 0; i < codeMatch.length; i++) {
+                codeMatch[i] = refs.contains(dictionary.get(i));
+            }
+            return new LabelCodeFilter(labels, codeMatch, nullMatch, negate);
+        }
+        ColumnType columnType = column.getColumnType();
+        if ((ColumnType.LABEL.equals(columnType) || ColumnType.TEXT.equals(columnType)) && allOfType(params, String.class)) {
+            return new TextEqualsFilter(values, toStringSet(params), nullMatch, negate);
+        }
+        return null;
+    }
+
+    /**
+     * Labels are matched once per dictionary entry instead of once per row.
+     */
+    protected BitmapFilter compileLikeTo(LabelColumnValues labels, CoreFunctionFilter filter) {
+        LikeToMatcher matcher = new CoreFunction(filterContext, filter).getLikeToMatcher();
+        List<String> dictionary = labels.getDictionary();
+        boolean[] codeMatch = new boolean[dictionary.size()];
+        for (int i = 0; matcher != null && i < codeMatch.length; i++) {
+            codeMatch[i] = matcher.matches(dictionary.get(i));
+        }
+        return new LabelCodeFilter(labels, codeMatch, false, false);
+    }
+
+    protected static Object param(List params, int index) {
+        return index < params.size() ? params.get(index) : null;
+    }
+
+    /**
+     * Check all the non null parameters are instances of the given class.
+     */
+    protected static boolean allOfType(List params, Class type) {
+        for (Object param : params) {
+            if (param == null) {
+                continue;
+            }
+            if (Date.class.equals(type)) {
+                // Date subclasses (java.sql.Timestamp) are not compared by its millis
+                if (!Date.class.equals(param.getClass())) return false;
+            }
+            else if (Number.class.equals(type)) {
+                if (!(param instanceof Number)) return false;
+            }
+            else if (!type.equals(param.getClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static Set<String> toStringSet(List params) {
+        Set<String> result = new HashSet<String>();
+        for (Object param : params) {
+            if (param != null) {
+                result.add(param.toString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Row by row evaluation of a data set function (the non-compiled fallback).
+     */
+    public static class FunctionFilter extends BitmapFilter.RowFilter {
+
+        private DataSetFunction function;
+        private DataSetFilterContext context;
+
+        public FunctionFilter(DataSetFunction function, DataSetFilterContext context) {
+            this.function = function;
+            this.context = context;
+        }
+
+        public boolean pass(int row) {
+            context.setCurrentRow(row);
+            return function.pass();
+        }
+    }
+
+    public static class NullFilter extends BitmapFilter.RowFilter {
+
+        private List values;
+        private ColumnValues columnValues;
+        private boolean isNull;
+
+        public NullFilter(List values, boolean isNull) {
+            this.values = values;
+            this.columnValues = values instanceof ColumnValues ? (ColumnValues) values : null;
+            this.isNull = isNull;
+        }
+
+        public boolean pass(int row) {
+            boolean result = columnValues != null ? columnValues.isNull(row) : values.get(row) == null;
+            return result == isNull;
+        }
+    }
+
+    public static class NumberEqualsFilter extends BitmapFilter.RowFilter {
+
+        private NumberColumnValues values;
+        private double[] refs;
+        private boolean nullMatch;
+        private boolean negate;
+
+        public NumberEqualsFilter(NumberColumnValues values, double[] refs, boolean nullMatch, boolean negate) {
+            this.values = values;
+            this.refs = refs;
+            this.nullMatch = nullMatch;
+            this.negate = negate;
+        }
+
+        public boolean pass(int row) {
+            if (values.isNull(row)) {
+                return nullMatch != negate;
+            }
+            double value = values.getDouble(row);
+            for (double ref : refs) {
+                if (ref == value) {
+                    return !negate;
+                }
+            }
+            return negate;
+        }
+    }
+
+    public static class LabelCodeFilter extends BitmapFilter.RowFilter {
+
+        private LabelColumnValues values;
+        private boolean[] codeMatch;
+        private boolean nullMatch;
+        private boolean negate;
+
+        public LabelCodeFilter(LabelColumnValues values, boolean[] codeMatch, boolean nullMatch, boolean negate) {
+            this.values = values;
+            this.codeMatch = codeMatch;
+            this.nullMatch = nullMatch;
+            this.negate = negate;
+        }
+
+        public boolean pass(int row) {
+            int code = values.getCode(row);
+            boolean match = code < 0 ? nullMatch : codeMatch[code];
+            return match != negate;
+        }
+    }
+
+    public static class TextEqualsFilter extends BitmapFilter.RowFilter {
+
+        private List values;
+        private Set<String> refs;
+        private boolean nullMatch;
+        private boolean negate;
+
+        public TextEqualsFilter(List values, Set<String> refs, boolean nullMatch, boolean negate) {
+            this.values = values;
+            this.refs = refs;
+            this.nullMatch = nullMatch;
+            this.negate = negate;
+        }
+
+        public boolean pass(int row) {
+            Object value = values.get(row);
+            boolean match = value == null ? nullMatch : refs.contains(value.toString());
+            return match != negate;
+        }
+    }
+
+    /**
+     * The greater/lower than &amp; between functions as a range check. Same as {@link CoreFunction},
+     * null values pass the lower than checks.
+     */
+    abstract static class RangeFilter extends BitmapFilter.RowFilter {
+
+        boolean nullPass = false;
+        boolean nonNullPass = true;
+        boolean checkLow = false;
+        boolean checkHigh = false;
+        int lowMin = 0;
+        int highMax = 0;
+        Object lowRef = null;
+        Object highRef = null;
+
+        RangeFilter(CoreFunctionType type, Object p0, Object p1) {
+            switch (type) {
+                case GREATER_THAN:
+                    lowRef = p0;
+                    lowMin = 1;
+                    break;
+                case GREATER_OR_EQUALS_TO:
+                    nullPass = p0 == null;
+                    lowRef = p0;
+                    break;
+                case LOWER_THAN:
+                    nullPass = p0 != null;
+                    nonNullPass = p0 != null;
+                    highRef = p0;
+                    highMax = -1;
+                    break;
+                case LOWER_OR_EQUALS_TO:
+                    nullPass = true;
+                    nonNullPass = p0 != null;
+                    highRef = p0;
+                    break;
+                default:
+                    nullPass = p0 == null;
+                    lowRef = p0;
+                    highRef = p1;
+            }
+            checkLow = lowRef != null;
+            checkHigh = highRef != null;
+        }
+
+        boolean inRange(int compareToLow, int compareToHigh) {
+            return (!checkLow || compareToLow >= lowMin) && (!checkHigh || compareToHigh <= highMax);
+        }
+    }
+
+    public static class NumberRangeFilter extends RangeFilter {
+
+        private NumberColumnValues values;
+        private double low;
+        private double high;
+
+        public NumberRangeFilter(NumberColumnValues values, CoreFunctionType type, Object p0, Object p1) {
+            super(type, p0, p1);
+            this.values = values;
+            this.low = checkLow ? ((Number) lowRef).doubleValue() : 0;
+            this.high = checkHigh ? ((Number) highRef).doubleValue() : 0;
+        }
+
+        public boolean pass(int row) {
+            if (values.isNull(row)) {
+                return nullPass;
+            }
+            if (!nonNullPass) {
+                return false;
+            }
+            double value = values.getDouble(row);
+            return inRange(checkLow ? Double.compare(value, low) : 0, checkHigh ? Double.compare(value, high) : 0);
+        }
+    }
+
+    public static class DateRangeFilter extends RangeFilter {
+
+        private DateColumnValues values;
+        private long low;
+        private long high;
+
+        public DateRangeFilter(DateColumnValues values, CoreFunctionType type, Long p0, Long p1) {
+            super(type, p0, p1);
+            this.values = values;
+            this.low = checkLow ? (Long) lowRef : 0;
+            this.high = checkHigh ? (Long) highRef : 0;
+        }
+
+        public boolean pass(int row) {
+            if (values.isNull(row)) {
+                return nullPass;
+            }
+            if (!nonNullPass) {
+                return false;
+            }
+            long value = values.getTime(row);
+            return inRange(checkLow ? compare(value, low) : 0, checkHigh ? compare(value, high) : 0);
+        }
+
+        private static int compare(long x, long y) {
+            return (x < y) ? -1 : ((x == y) ? 0 : 1);
+        }
+    }
+}
@@ -158,24 +158,32 @@ public class CoreFunction extends DataSetFunction {
         if (value == null) {
             return false;
         }
-        final Comparable param0 = getParameter(0);
-        if (param0 == null) {
-            return false;
-        }
-        // Case sensitive parameter
-        final Boolean caseSensitive = getParameter(1) != null ? Boolean.parseBoolean(getParameter(1).toString()) : true;
-        String pattern = caseSensitive ? param0.toString() : param0.toString().toLowerCase();
-        String strValue = caseSensitive ? value.toString() : value.toString().toLowerCase();
+        LikeToMatcher matcher = getLikeToMatcher();
+        return matcher != null && matcher.matches(value.toString());
+    }
 
-        // Replace the user's wilcards that come from the UI request for valid regular expression patterns.
-        pattern = pattern.replace(".", "\\."); // "\\" is escaped to "\"
-        pattern = pattern.replace("%", ".*");
-        pattern = pattern.replace("_", ".");
+    private LikeToMatcher _likeToMatcher = null;
 
-        // Perform the regexp match operation.
-        return strValue.matches(pattern);
+    /**
+     * Get the matcher for the pattern given as the <code>LIKE_TO</code> parameters. It's compiled only once
+     * for all the rows evaluated.
+     * @return null if no pattern has been specified.
+     */
+    public LikeToMatcher getLikeToMatcher() {
+        if (_likeToMatcher == null) {
+            final Comparable param0 = getParameter(0);
+            if (param0 == null) {
+                return null;
+            }
+            // Case sensitive parameter
+            final Boolean caseSensitive = getParameter(1) != null ? Boolean.parseBoolean(getParameter(1).toString()) : true;
+            LikeToMatcherFactory factory = getContext().getLikeToMatcherFactory();
+            _likeToMatcher = factory != null ? factory.getMatcher(param0.toString(), caseSensitive)
+                    : new LikeToMatcher.RegExpMatcher(param0.toString(), caseSensitive);
+        }
+        return _likeToMatcher;
     }
-    
+
     public boolean isLowerThan(Comparable value) {
         return !isGreaterThanOrEqualsTo(value);
     }
@@ -24,6 +24,7 @@ public class DataSetFilterContext {
 
     private DataSet dataSet;
     private int currentRow = 0;
+    private LikeToMatcherFactory likeToMatcherFactory;
 
     public DataSetFilterContext() {
     }
@@ -32,6 +33,11 @@ public class DataSetFilterContext {
         this.dataSet = dataSet;
     }
 
+    public DataSetFilterContext(DataSet dataSet, LikeToMatcherFactory likeToMatcherFactory) {
+        this.dataSet = dataSet;
+        this.likeToMatcherFactory = likeToMatcherFactory;
+    }
+
     public DataSet getDataSet() {
         return dataSet;
     }
@@ -47,4 +53,12 @@ public class DataSetFilterContext {
     public void setCurrentRow(int currentRow) {
         this.currentRow = currentRow;
     }
+
+    public LikeToMatcherFactory getLikeToMatcherFactory() {
+        return likeToMatcherFactory;
+    }
+
+    public void setLikeToMatcherFactory(LikeToMatcherFactory likeToMatcherFactory) {
+        this.likeToMatcherFactory = likeToMatcherFactory;
+    }
 }
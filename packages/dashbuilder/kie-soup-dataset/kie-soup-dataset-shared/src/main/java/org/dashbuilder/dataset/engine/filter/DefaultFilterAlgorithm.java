@@ -17,9 +17,11 @@ package org.dashbuilder.dataset.engine.filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
 
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.engine.DataSetHandler;
+import org.dashbuilder.dataset.engine.index.RowBitmap;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
 import org.dashbuilder.dataset.filter.CustomFunctionFilter;
@@ -30,6 +32,20 @@ import org.dashbuilder.dataset.filter.LogicalExprFilter;
  */
 public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
 
+    protected LikeToMatcherFactory likeToMatcherFactory;
+
+    public DefaultFilterAlgorithm() {
+        this(new LikeToMatcherFactory());
+    }
+
+    public DefaultFilterAlgorithm(LikeToMatcherFactory likeToMatcherFactory) {
+        this.likeToMatcherFactory = likeToMatcherFactory;
+    }
+
+    public LikeToMatcherFactory getLikeToMatcherFactory() {
+        return likeToMatcherFactory;
+    }
+
     /*
 
      LogicalFunction
@@ -73,35 +89,40 @@ public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
 
      */
     public List<Integer> filter(DataSetHandler ctx, ColumnFilter columnFilter) {
-
-        // Build the data set filter function.
         DataSet dataSet = ctx.getDataSet();
-        DataSetFilterContext dataSetFilterContext = new DataSetFilterContext(dataSet);
-        DataSetFunction filterFunction = buildFunction(dataSetFilterContext, columnFilter);
-
-        List<Integer> result = new ArrayList<Integer>();
 
         // Apply the filter function to the whole data set.
-        if (ctx == null || ctx.getRows() == null) {
-            for (int i = 0; i < dataSet.getRowCount(); i++) {
-                dataSetFilterContext.setCurrentRow(i);
-                if (filterFunction.pass()) {
-                    result.add(i);
-                }
-            }
+        if (ctx.getRows() == null) {
+            return filter(dataSet, columnFilter, RowBitmap.range(0, dataSet.getRowCount())).asList();
         }
         // Filter only the target rows specified.
-        else {
-            for (Integer targetRow : ctx.getRows()) {
-                dataSetFilterContext.setCurrentRow(targetRow);
-                if (filterFunction.pass()) {
-                    result.add(targetRow);
-                }
+        RowBitmap targetRows = RowBitmap.of(ctx.getRows());
+        if (targetRows != null) {
+            return filter(dataSet, columnFilter, targetRows).asList();
+        }
+        // The target rows are not in ascending order => keep the order
+        List<Integer> sortedRows = new ArrayList<Integer>(new TreeSet<Integer>(ctx.getRows()));
+        RowBitmap passed = filter(dataSet, columnFilter, RowBitmap.of(sortedRows));
+        List<Integer> result = new ArrayList<Integer>();
+        for (Integer targetRow : ctx.getRows()) {
+            if (passed.contains(targetRow)) {
+                result.add(targetRow);
             }
         }
         return result;
     }
 
+    /**
+     * Compile the filter into a predicate evaluated over the whole set of candidate rows at once.
+     *
+     * @return The candidate rows that surpass the filter.
+     */
+    public RowBitmap filter(DataSet dataSet, ColumnFilter columnFilter, RowBitmap candidates) {
+        DataSetFilterContext dataSetFilterContext = new DataSetFilterContext(dataSet, likeToMatcherFactory);
+        BitmapFilter bitmapFilter = new BitmapFilterCompiler(this, dataSetFilterContext).compile(columnFilter);
+        return bitmapFilter.eval(candidates);
+    }
+
     public DataSetFunction buildFunction(DataSetFilterContext filterContext, ColumnFilter columnFilter) {
 
         // Logical expression filter
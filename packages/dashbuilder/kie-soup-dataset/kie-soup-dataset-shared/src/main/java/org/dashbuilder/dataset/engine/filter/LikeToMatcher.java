@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+/**
+ * A <code>LIKE_TO</code> pattern compiled for being matched against many values.
+ * <p>Patterns made of literal text plus leading and/or trailing <code>%</code> wildcards are matched through plain
+ * string comparisons. Any other pattern is turned into the same regular expression {@link CoreFunction} has
+ * always used.</p>
+ *
+ * @see LikeToMatcherFactory
+ */
+public abstract class LikeToMatcher {
+
+    /**
+     * Regular expression characters not escaped when the pattern is turned into a regular expression.
+     */
+    static final String REGEXP_CHARS = "\\^$|?*+()[]{}_";
+
+    protected boolean caseSensitive;
+
+    protected LikeToMatcher(boolean caseSensitive) {
+        this.caseSensitive = caseSensitive;
+    }
+
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+    /**
+     * Check if the given (not null) value matches the pattern.
+     */
+    public boolean matches(String value) {
+        return doMatch(caseSensitive ? value : value.toLowerCase());
+    }
+
+    protected abstract boolean doMatch(String value);
+
+    /**
+     * Turn the user's wildcards into a regular expression.
+     */
+    public static String toRegExp(String pattern) {
+        String regexp = pattern.replace(".", "\\."); // "\\" is escaped to "\"
+        regexp = regexp.replace("%", ".*");
+        regexp = regexp.replace("_", ".");
+        return regexp;
+    }
+
+    /**
+     * Get a matcher not requiring any regular expression for the given pattern.
+     * @return null if the pattern is not a literal text with leading and/or trailing <code>%</code>.
+     */
+    public static LikeToMatcher literal(String pattern, boolean caseSensitive) {
+        String text = caseSensitive ? pattern : pattern.toLowerCase();
+        boolean anyPrefix = false;
+        boolean anySuffix = false;
+        while (text.startsWith("%")) {
+            text = text.substring(1);
+            anyPrefix = true;
+        }
+        while (text.endsWith("%")) {
+            text = text.substring(0, text.length() - 1);
+            anySuffix = true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || REGEXP_CHARS.indexOf(c) != -1) {
+                return null;
+            }
+        }
+        return new LiteralMatcher(text, anyPrefix, anySuffix, caseSensitive);
+    }
+
+    /**
+     * Literal text optionally preceded and/or followed by any number of characters.
+     */
+    public static class LiteralMatcher extends LikeToMatcher {
+
+        private String text;
+        private boolean anyPrefix;
+        private boolean anySuffix;
+
+        public LiteralMatcher(String text, boolean anyPrefix, boolean anySuffix, boolean caseSensitive) {
+            super(caseSensitive);
+            this.text = text;
+            this.anyPrefix = anyPrefix;
+            this.anySuffix = anySuffix;
+        }
+
+        protected boolean doMatch(String value) {
+            if (!anyPrefix && !anySuffix) {
+                return value.equals(text);
+            }
+            int length = value.length();
+            if (anyPrefix && anySuffix) {
+                int idx = value.indexOf(text);
+                if (idx == -1) {
+                    return false;
+                }
+                // As in the regular expression, the wildcard '.' does not match line terminators
+                return !hasLineTerminator(value) || matchesAround(value, idx);
+            }
+            if (anySuffix) {
+                return value.startsWith(text) && !hasLineTerminator(value, text.length(), length);
+            }
+            return value.endsWith(text) && !hasLineTerminator(value, 0, length - text.length());
+        }
+
+        private boolean matchesAround(String value, int idx) {
+            for (; idx != -1; idx = value.indexOf(text, idx + 1)) {
+                if (!hasLineTerminator(value, 0, idx) && !hasLineTerminator(value, idx + text.length(), value.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Regular expression matcher based on {@link String#matches(String)}.
+     */
+    public static class RegExpMatcher extends LikeToMatcher {
+
+        protected String regexp;
+
+        public RegExpMatcher(String pattern, boolean caseSensitive) {
+            super(caseSensitive);
+            this.regexp = toRegExp(caseSensitive ? pattern : pattern.toLowerCase());
+        }
+
+        protected boolean doMatch(String value) {
+            return value.matches(regexp);
+        }
+    }
+
+    static boolean hasLineTerminator(String value) {
+        return hasLineTerminator(value, 0, value.length());
+    }
+
+    static boolean hasLineTerminator(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates the {@link LikeToMatcher} instances and keeps the most recently used ones so they can be reused by
+ * further lookups.
+ */
+public class LikeToMatcherFactory {
+
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final Map<String, LikeToMatcher> cache;
+
+    public LikeToMatcherFactory() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public LikeToMatcherFactory(final int cacheSize) {
+        this.cache = new LinkedHashMap<String, LikeToMatcher>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, LikeToMatcher> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public LikeToMatcher getMatcher(String pattern, boolean caseSensitive) {
+        String key = (caseSensitive ? "1" : "0") + pattern;
+        synchronized (cache) {
+            LikeToMatcher matcher = cache.get(key);
+            if (matcher != null) {
+                return matcher;
+            }
+        }
+        // Build outside the lock (a pattern compiled twice is harmless)
+        LikeToMatcher matcher = LikeToMatcher.literal(pattern, caseSensitive);
+        if (matcher == null) {
+            matcher = newRegExpMatcher(pattern, caseSensitive);
+        }
+        synchronized (cache) {
+            cache.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Create a matcher for a pattern requiring a regular expression.
+     * <p>The default implementation relies on {@link String#matches(String)} as it must also run on the client.
+     * Server side implementations are expected to return a matcher holding a precompiled pattern.</p>
+     */
+    protected LikeToMatcher newRegExpMatcher(String pattern, boolean caseSensitive) {
+        return new LikeToMatcher.RegExpMatcher(pattern, caseSensitive);
+    }
+}
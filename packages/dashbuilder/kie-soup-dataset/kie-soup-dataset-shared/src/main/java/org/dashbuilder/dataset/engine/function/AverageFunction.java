@@ -32,27 +32,27 @@ public class AverageFunction extends SumFunction {
         return AggregateFunctionType.AVERAGE;
     }
 
-    public Object aggregate(List values) {
-        if (values == null || values.isEmpty()) {
-            return 0d;
-        }
-        double average = (double) super.aggregate(values) / values.size();
-        return round(average, precission);
+    /**
+     * The partial state is an array holding the sum and the number of rows.
+     */
+    public Object partial(List values, List<Integer> rows) {
+        double sum = (Double) super.partial(values, rows);
+        double count = rows != null ? rows.size() : values != null ? values.size() : 0;
+        return new double[]{sum, count};
     }
 
-    public Object aggregate(List values, List<Integer> rows) {
-        if (rows == null) {
-            return aggregate(values);
-        }
-        if (rows.isEmpty()) {
-            return 0d;
-        }
-        if (values == null || values.isEmpty()) {
+    public Object merge(Object partial1, Object partial2) {
+        double[] p1 = (double[]) partial1;
+        double[] p2 = (double[]) partial2;
+        return new double[]{p1[0] + p2[0], p1[1] + p2[1]};
+    }
+
+    public Object result(Object partial) {
+        double[] p = (double[]) partial;
+        if (p[1] == 0) {
             return 0d;
         }
-
-        double average = (double) super.aggregate(values, rows) / rows.size();
+        double average = (double) super.result(p[0]) / p[1];
         return round(average, precission);
     }
-
 }
\ No newline at end of file
@@ -22,7 +22,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the number of occurrences inside a given collection.
  */
-public class CountFunction extends AbstractFunction {
+public class CountFunction extends AbstractFunction implements MergeableFunction {
 
     public CountFunction() {
         super();
@@ -33,19 +33,25 @@ public class CountFunction extends AbstractFunction {
     }
 
     public Object aggregate(List values) {
-        if (values == null || values.isEmpty()) {
-            return 0d;
-        }
-        return (double) values.size();
+        return aggregate(values, null);
     }
 
     public Object aggregate(List values, List<Integer> rows) {
+        return result(partial(values, rows));
+    }
+
+    public Object partial(List values, List<Integer> rows) {
         if (rows == null) {
-            return aggregate(values);
-        }
-        if (rows.isEmpty()) {
-            return 0d;
+            return values == null ? 0d : (double) values.size();
         }
         return (double) rows.size();
     }
+
+    public Object merge(Object partial1, Object partial2) {
+        return (Double) partial1 + (Double) partial2;
+    }
+
+    public Object result(Object partial) {
+        return partial;
+    }
 }
\ No newline at end of file
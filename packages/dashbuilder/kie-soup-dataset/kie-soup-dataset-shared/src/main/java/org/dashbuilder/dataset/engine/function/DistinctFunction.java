@@ -16,7 +16,6 @@
 package org.dashbuilder.dataset.engine.function;
 
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -25,7 +24,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the number of distinct occurrences inside a given collection.
  */
-public class DistinctFunction extends AbstractFunction {
+public class DistinctFunction extends AbstractFunction implements MergeableFunction {
 
     public DistinctFunction() {
         super();
@@ -36,43 +35,43 @@ public class DistinctFunction extends AbstractFunction {
     }
 
     public Object aggregate(List values) {
-        if (values == null || values.isEmpty()) {
-            return 0d;
-        }
+        return aggregate(values, null);
+    }
 
-        // Return the number of distinct items in the collection.
+    public Object aggregate(List values, List<Integer> rows) {
+        return result(partial(values, rows));
+    }
+
+    /**
+     * The partial state is the set of distinct values.
+     */
+    public Object partial(List values, List<Integer> rows) {
         Set distincts = new HashSet();
-        Iterator it = values.iterator();
-        while (it.hasNext()) {
-            Object o = it.next();
-            if (distincts.contains(o)) {
-                continue;
+        if (values == null || values.isEmpty()) {
+            return distincts;
+        }
+        if (rows == null) {
+            distincts.addAll(values);
+        } else {
+            for (Integer row : rows) {
+                distincts.add(values.get(row));
             }
-            distincts.add(o);
         }
-        return (double) distincts.size();
+        return distincts;
     }
 
-    public Object aggregate(List values, List<Integer> rows) {
-        if (rows == null) {
-            return aggregate(values);
-        }
-        if (rows.isEmpty()) {
-            return 0d;
-        }
-        if (values == null || values.isEmpty()) {
-            return 0d;
+    public Object merge(Object partial1, Object partial2) {
+        Set s1 = (Set) partial1;
+        Set s2 = (Set) partial2;
+        if (s1.size() < s2.size()) {
+            s2.addAll(s1);
+            return s2;
         }
+        s1.addAll(s2);
+        return s1;
+    }
 
-        // Return the number of distinct items in the collection.
-        Set distincts = new HashSet();
-        for (Integer row : rows) {
-            Object o = values.get(row);
-            if (distincts.contains(o)) {
-                continue;
-            }
-            distincts.add(o);
-        }
-        return (double) distincts.size();
+    public Object result(Object partial) {
+        return (double) ((Set) partial).size();
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.function;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.group.AggregateFunction;
+
+/**
+ * An aggregate function whose calculation can be split into partial states calculated independently over
+ * disjoint subsets of rows and then merged. For any partition of the rows, merging the partial states of the
+ * parts returns the same result as aggregating all the rows at once.
+ */
+public interface MergeableFunction extends AggregateFunction {
+
+    /**
+     * Calculate the partial state of the aggregation.
+     *
+     * @param values The column values
+     * @param rows The subset of rows to aggregate, or null to aggregate all the values.
+     */
+    Object partial(List values, List<Integer> rows);
+
+    /**
+     * Merge two partial states. Any of the given states can be reused in order to hold the merged state.
+     */
+    Object merge(Object partial1, Object partial2);
+
+    /**
+     * Get the aggregate value from a (merged) partial state.
+     */
+    Object result(Object partial);
+}
@@ -22,7 +22,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the min. number of a set of values.
  */
-public class MinFunction extends AbstractFunction {
+public class MinFunction extends AbstractFunction implements MergeableFunction {
 
     public MinFunction() {
         super();
@@ -33,46 +33,45 @@ public class MinFunction extends AbstractFunction {
     }
 
     public Object aggregate(List values) {
+        return aggregate(values, null);
+    }
+
+    public Object aggregate(List values, List<Integer> rows) {
+        return result(partial(values, rows));
+    }
+
+    public Object partial(List values, List<Integer> rows) {
         if (values == null || values.isEmpty()) {
             return null;
         }
 
-        // Get the min. value from the collection.
+        // Get the min. value within the target rows.
         Comparable result = null;
-        for (Object obj : values) {
-            Comparable val = (Comparable) obj;
-            if (val == null) {
-                continue;
+        if (rows == null) {
+            for (Object obj : values) {
+                result = select(result, (Comparable) obj);
             }
-            if (result == null || val.compareTo(result) < 0) {
-                result = val;
+        } else {
+            for (Integer row : rows) {
+                result = select(result, (Comparable) values.get(row));
             }
         }
+        return result;
+    }
 
-        // Adjust to the specified precision.
-        return result instanceof Number ? round((Number) result, precission) : result;
+    public Object merge(Object partial1, Object partial2) {
+        return select((Comparable) partial1, (Comparable) partial2);
     }
 
-    public Object aggregate(List values, List<Integer> rows) {
-        if (rows == null) {
-            return aggregate(values);
-        }
-        if (rows.isEmpty() || values == null || values.isEmpty()) {
-            return null;
-        }
+    public Object result(Object partial) {
+        // Adjust to the specified precision.
+        return partial instanceof Number ? round((Number) partial, precission) : partial;
+    }
 
-        // Get the min. value within the target rows.
-        Comparable result = null;
-        for (Integer row : rows) {
-            Comparable val = (Comparable) values.get(row);
-            if (val == null) {
-                continue;
-            }
-            if (result == null || val.compareTo(result) < 0) {
-                result = val;
-            }
+    protected Comparable select(Comparable result, Comparable val) {
+        if (val == null) {
+            return result;
         }
-        // Adjust to the specified precision.
-        return result instanceof Number ? round((Number) result, precission) : result;
+        return result == null || val.compareTo(result) < 0 ? val : result;
     }
 }
\ No newline at end of file
@@ -15,7 +15,6 @@
  */
 package org.dashbuilder.dataset.engine.function;
 
-import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.group.AggregateFunctionType;
@@ -23,7 +22,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the sum value of a set of numbers.
  */
-public class SumFunction extends AbstractFunction {
+public class SumFunction extends AbstractFunction implements MergeableFunction {
 
     public SumFunction() {
         super();
@@ -34,39 +33,39 @@ public class SumFunction extends AbstractFunction {
     }
 
     public Object aggregate(List values) {
-        if (values == null || values.isEmpty()) {
-            return 0d;
-        }
-
-        // Sum the collection.
-        double sum = 0d;
-        Iterator it = values.iterator();
-        while (it.hasNext()) {
-            Number n = (Number) it.next();
-            if (n == null) continue;
-            sum += n.doubleValue();
-        }
-        return round(sum, precission);
+        return aggregate(values, null);
     }
 
     public Object aggregate(List values, List<Integer> rows) {
-        if (rows == null) {
-            return aggregate(values);
-        }
-        if (rows.isEmpty()) {
-            return 0d;
-        }
-        if (values == null || values.isEmpty()) {
-            return 0d;
-        }
+        return result(partial(values, rows));
+    }
 
-        // Sum the collection.
+    public Object partial(List values, List<Integer> rows) {
         double sum = 0d;
-        for (Integer row : rows) {
-            Number n = (Number) values.get(row);
-            if (n == null) continue;
-            sum += n.doubleValue();
+        if (values == null || values.isEmpty()) {
+            return sum;
+        }
+        if (rows == null) {
+            for (Object value : values) {
+                Number n = (Number) value;
+                if (n == null) continue;
+                sum += n.doubleValue();
+            }
+        } else {
+            for (Integer row : rows) {
+                Number n = (Number) values.get(row);
+                if (n == null) continue;
+                sum += n.doubleValue();
+            }
         }
-        return round(sum, precission);
+        return sum;
+    }
+
+    public Object merge(Object partial1, Object partial2) {
+        return (Double) partial1 + (Double) partial2;
+    }
+
+    public Object result(Object partial) {
+        return round((Double) partial, precission);
     }
 }
\ No newline at end of file
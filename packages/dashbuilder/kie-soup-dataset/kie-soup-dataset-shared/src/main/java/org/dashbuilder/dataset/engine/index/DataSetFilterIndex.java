@@ -21,20 +21,54 @@ import org.dashbuilder.dataset.filter.ColumnFilter;
 
 /**
  * An index for filtered data sets.
+ * <p>The filtered rows are kept as a {@link RowBitmap} unless their order must be preserved.</p>
  */
 public class DataSetFilterIndex extends DataSetIndexNode {
 
     private ColumnFilter columnFilter;
+    private RowBitmap rowBitmap;
 
     public DataSetFilterIndex(ColumnFilter columnFilter, List<Integer> rows) {
-        super(null, rows, 0);
+        super(null, null, 0);
         this.columnFilter = columnFilter;
+        this.rowBitmap = RowBitmap.of(rows);
+        if (rowBitmap == null) {
+            this.rows = rows;
+        }
+    }
+
+    public DataSetFilterIndex(ColumnFilter columnFilter, RowBitmap rowBitmap) {
+        super(null, null, 0);
+        this.columnFilter = columnFilter;
+        this.rowBitmap = rowBitmap;
     }
 
     public ColumnFilter getColumnFilter() {
         return columnFilter;
     }
 
+    /**
+     * The filtered rows or null if the rows are not kept as a bitmap.
+     */
+    public RowBitmap getRowBitmap() {
+        return rowBitmap;
+    }
+
+    /**
+     * A brand new list view is returned on every call as the views over the bitmap are not thread safe.
+     */
+    public List<Integer> getRows() {
+        return rowBitmap != null ? rowBitmap.asList() : rows;
+    }
+
+    public long getEstimatedSize() {
+        long result = super.getEstimatedSize();
+        if (rowBitmap != null) {
+            result += rowBitmap.getEstimatedSize();
+        }
+        return result;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder(super.toString());
         if (columnFilter != null) out.append(columnFilter.toString());
@@ -143,21 +143,19 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         return -1;
     }
 
-    public DataSetGroupIndex getSelectionIndex(List<Interval> intervalList) {
-        if (selectIndexList == null) {
-            return null;
-        }
-        String targetKey = buildSelectKey(intervalList);
-        for (DataSetGroupIndex idx : selectIndexList) {
-            if (idx.selectKey.equals(targetKey)) {
-                idx.reuseHit();
-                return idx;
+    public synchronized DataSetGroupIndex getSelectionIndex(List<Interval> intervalList) {
+        if (selectIndexList != null) {
+            String targetKey = buildSelectKey(intervalList);
+            for (DataSetGroupIndex idx : selectIndexList) {
+                if (idx.selectKey.equals(targetKey)) {
+                    return lookupResult(idx);
+                }
             }
         }
-        return null;
+        return lookupResult(null);
     }
 
-    public DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
+    public synchronized DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
         if (selectIndexList == null) {
             selectIndexList = new ArrayList<DataSetGroupIndex>();
         }
@@ -23,6 +23,60 @@ import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
  */
 public abstract class DataSetIndex extends DataSetIndexNode {
 
+    /**
+     * Number of lookups over the indexes of this data set which found an existing index.
+     */
+    int indexHits = 0;
+
+    /**
+     * Number of lookups over the indexes of this data set which did not find any existing index.
+     */
+    int indexMisses = 0;
+
+    /**
+     * Number of indexes released in order to free memory.
+     */
+    int indexEvictions = 0;
+
+    // Not the node's monitor, which is held by the index lookups
+    private final Object counterLock = new Object();
+
+    public void indexHit() {
+        synchronized (counterLock) {
+            indexHits++;
+        }
+    }
+
+    public void indexMiss() {
+        synchronized (counterLock) {
+            indexMisses++;
+        }
+    }
+
+    public void indexEviction() {
+        synchronized (counterLock) {
+            indexEvictions++;
+        }
+    }
+
+    public int getIndexHits() {
+        synchronized (counterLock) {
+            return indexHits;
+        }
+    }
+
+    public int getIndexMisses() {
+        synchronized (counterLock) {
+            return indexMisses;
+        }
+    }
+
+    public int getIndexEvictions() {
+        synchronized (counterLock) {
+            return indexEvictions;
+        }
+    }
+
     /**
      * Get the data set referenced by this index.
      */
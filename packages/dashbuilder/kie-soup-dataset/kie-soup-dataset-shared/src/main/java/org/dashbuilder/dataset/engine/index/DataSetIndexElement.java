@@ -34,6 +34,11 @@ public abstract class DataSetIndexElement {
      */
     int reuseHits = 0;
 
+    /**
+     * Last time (in milliseconds) the element was created or reused.
+     */
+    long lastAccessTime = System.currentTimeMillis();
+
     DataSetIndexElement(long buildTime) {
         this.buildTime = buildTime;
     }
@@ -52,6 +57,15 @@ public abstract class DataSetIndexElement {
 
     public void reuseHit() {
         this.reuseHits++;
+        this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
     }
 
     public long getReuseTime() {
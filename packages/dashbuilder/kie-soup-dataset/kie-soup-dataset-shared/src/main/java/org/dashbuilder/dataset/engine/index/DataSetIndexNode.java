@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,14 +32,17 @@ import org.dashbuilder.dataset.sort.DataSetSort;
 
 /**
  * A DataSet index node
+ * <p>The group, filter &amp; sort indexes are kept in hash maps, so finding an index costs the same no matter how many
+ * indexes are attached to the node. Filter &amp; sort indexes are keyed by a copy of their operation, so changes done
+ * by the caller over its own instance do not alter the key.</p>
  */
 public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     DataSetIndexNode parent = null;
     List<Integer> rows = null;
-    List<DataSetGroupIndex> groupIndexes = null;
-    List<DataSetSortIndex> sortIndexes = null;
-    List<DataSetFilterIndex> filterIndexes = null;
+    Map<String, DataSetGroupIndex> groupIndexes = null;
+    Map<DataSetSort, DataSetSortIndex> sortIndexes = null;
+    Map<ColumnFilter, DataSetFilterIndex> filterIndexes = null;
     Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = null;
 
     public DataSetIndexNode() {
@@ -71,36 +75,40 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         return result;
     }
 
+    /**
+     * Get the data set index this node belongs to.
+     */
+    public DataSetIndex getRootIndex() {
+        DataSetIndexNode node = this;
+        while (node.parent != null) {
+            node = node.parent;
+        }
+        return node instanceof DataSetIndex ? (DataSetIndex) node : null;
+    }
+
+    protected <T extends DataSetIndexElement> T lookupResult(T index) {
+        DataSetIndex root = getRootIndex();
+        if (index != null) {
+            index.reuseHit();
+            if (root != null) root.indexHit();
+        } else {
+            if (root != null) root.indexMiss();
+        }
+        return index;
+    }
+
     public void acceptVisitor(DataSetIndexVisitor visitor) {
         super.acceptVisitor(visitor);
 
-        if (groupIndexes != null) {
-            for (DataSetGroupIndex index : groupIndexes) {
-                index.acceptVisitor(visitor);
-            }
-        }
-        if (filterIndexes != null) {
-            for (DataSetFilterIndex index : filterIndexes) {
-                index.acceptVisitor(visitor);
-            }
-        }
-        if (sortIndexes != null) {
-            for (DataSetSortIndex index : sortIndexes) {
-                index.acceptVisitor(visitor);
-            }
-        }
-        if (functionIndexes != null) {
-            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functionIndexes.values()) {
-                for (DataSetFunctionIndex index : indexMap.values()) {
-                    index.acceptVisitor(visitor);
-                }
-            }
+        // Visit a snapshot so the node is not locked while visiting its children
+        for (DataSetIndexElement index : getChildIndexes()) {
+            index.acceptVisitor(visitor);
         }
     }
 
     // Aggregate function indexes
 
-    public DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Object value, long buildTime) {
+    public synchronized DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Object value, long buildTime) {
         if (functionIndexes == null) {
             functionIndexes = new HashMap<>();
         }
@@ -115,43 +123,27 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         return index;
     }
 
-    public Object getAggValue(String columnId, AggregateFunctionType type) {
-        if (functionIndexes == null) return null;
-
-        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functionIndexes.get(columnId);
-        if (columnAggFunctions == null) return null;
-
-        DataSetFunctionIndex functionIndex = columnAggFunctions.get(type);
-        if (functionIndex == null) return null;
-
-        functionIndex.reuseHit();
-        return functionIndex.getValue();
+    public synchronized Object getAggValue(String columnId, AggregateFunctionType type) {
+        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functionIndexes != null ? functionIndexes.get(columnId) : null;
+        DataSetFunctionIndex functionIndex = lookupResult(columnAggFunctions != null ? columnAggFunctions.get(type) : null);
+        return functionIndex != null ? functionIndex.getValue() : null;
     }
 
-    // TODO: coordinate concurrent index modifications
-
     // Group indexes
 
-    public DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
-        if (groupIndexes == null) groupIndexes = new ArrayList<DataSetGroupIndex>();
+    public synchronized DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
+        if (groupIndexes == null) groupIndexes = new LinkedHashMap<String, DataSetGroupIndex>();
         index.setParent(this);
         index.setBuildTime(buildTime);
-        groupIndexes.add(index);
+        groupIndexes.put(getGroupKey(index.columnGroup), index);
         return index;
     }
 
-    public DataSetGroupIndex getGroupIndex(ColumnGroup gc) {
-        if (groupIndexes == null) return null;
-
-        String key = getGroupKey(gc);
-        for (DataSetGroupIndex groupIndex : groupIndexes) {
-            ColumnGroup c = groupIndex.columnGroup;
-            if (key.equals(getGroupKey(c))) {
-                groupIndex.reuseHit();
-                return groupIndex;
-            }
+    public synchronized DataSetGroupIndex getGroupIndex(ColumnGroup gc) {
+        if (groupIndexes != null) {
+            return lookupResult(groupIndexes.get(getGroupKey(gc)));
         }
-        return null;
+        return lookupResult(null);
     }
 
     public String getGroupKey(ColumnGroup columnGroup) {
@@ -167,37 +159,32 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     // Filter indexes
 
-    public DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
-        if (filterIndexes == null) filterIndexes = new ArrayList<DataSetFilterIndex>();
+    public synchronized DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
+        if (filterIndexes == null) filterIndexes = new LinkedHashMap<ColumnFilter, DataSetFilterIndex>();
 
         DataSetFilterIndex index = new DataSetFilterIndex(filter, rows);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        filterIndexes.add(index);
+        filterIndexes.put(filter.cloneInstance(), index);
         return index;
     }
 
-    public DataSetFilterIndex getFilterIndex(ColumnFilter filter) {
-        if (filterIndexes == null) return null;
-
-        for (DataSetFilterIndex index: filterIndexes) {
-            if (filter.equals(index.getColumnFilter())) {
-                index.reuseHit();
-                return index;
-            }
+    public synchronized DataSetFilterIndex getFilterIndex(ColumnFilter filter) {
+        if (filterIndexes != null) {
+            return lookupResult(filterIndexes.get(filter));
         }
-        return null;
+        return lookupResult(null);
     }
 
     // Sort indexes
 
-    public DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
-        if (sortIndexes == null) sortIndexes = new ArrayList<DataSetSortIndex>();
+    public synchronized DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
+        if (sortIndexes == null) sortIndexes = new LinkedHashMap<DataSetSort, DataSetSortIndex>();
 
         DataSetSortIndex index = new DataSetSortIndex(sortOp, sortedRows);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        sortIndexes.add(index);
+        sortIndexes.put(sortOp.cloneInstance(), index);
 
         // Also create an index for the inverted sort.
         DataSetSort invertedSortOp = sortOp.cloneInstance().invertOrder();
@@ -205,21 +192,61 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         Collections.reverse(invertedRows);
         DataSetSortIndex invertedIndex = new DataSetSortIndex(invertedSortOp, invertedRows);
         invertedIndex.setParent(this);
-        sortIndexes.add(invertedIndex);
+        sortIndexes.put(invertedSortOp.cloneInstance(), invertedIndex);
 
         return index;
     }
 
-    public DataSetSortIndex getSortIndex(DataSetSort sortOp) {
-        if (sortIndexes == null) return null;
+    public synchronized DataSetSortIndex getSortIndex(DataSetSort sortOp) {
+        if (sortIndexes != null) {
+            return lookupResult(sortIndexes.get(sortOp));
+        }
+        return lookupResult(null);
+    }
+
+    // Eviction
 
-        for (DataSetSortIndex sortIndex : sortIndexes) {
-            if (sortOp.equals(sortIndex.getSortOp())) {
-                sortIndex.reuseHit();
-                return sortIndex;
+    /**
+     * Get the indexes (group, filter, sort &amp; aggregate function) directly attached to this node.
+     */
+    public synchronized List<DataSetIndexElement> getChildIndexes() {
+        List<DataSetIndexElement> result = new ArrayList<DataSetIndexElement>();
+        if (groupIndexes != null) result.addAll(groupIndexes.values());
+        if (filterIndexes != null) result.addAll(filterIndexes.values());
+        if (sortIndexes != null) result.addAll(sortIndexes.values());
+        if (functionIndexes != null) {
+            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functionIndexes.values()) {
+                result.addAll(indexMap.values());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Detach an index from this node in order to release its memory. Any further lookup of the index will have
+     * to build it again.
+     *
+     * @return false if the index is not attached to this node.
+     */
+    public synchronized boolean evictIndex(DataSetIndexElement index) {
+        boolean removed = removeChildIndex(index);
+        if (removed) {
+            DataSetIndex root = getRootIndex();
+            if (root != null) root.indexEviction();
+        }
+        return removed;
+    }
+
+    protected boolean removeChildIndex(DataSetIndexElement index) {
+        if (groupIndexes != null && groupIndexes.values().remove(index)) return true;
+        if (filterIndexes != null && filterIndexes.values().remove(index)) return true;
+        if (sortIndexes != null && sortIndexes.values().remove(index)) return true;
+        if (functionIndexes != null) {
+            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functionIndexes.values()) {
+                if (indexMap.values().remove(index)) return true;
             }
         }
-        return null;
+        return false;
     }
 }
 
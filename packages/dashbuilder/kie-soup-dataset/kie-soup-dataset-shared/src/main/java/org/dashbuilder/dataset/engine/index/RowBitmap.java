@@ -0,0 +1,749 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * An immutable, compressed set of row numbers.
+ * <p>Rows are split in chunks of 65536 rows sharing the same 16 high bits. Every chunk is stored either as a sorted
+ * array of its 16 low bits (sparse chunks) or as a plain bitmap (dense chunks), so both the memory consumed and the
+ * cost of the AND/OR/AND NOT operations are proportional to the number of rows actually set.</p>
+ * <p>Instances are built through a {@link Builder} which expects the rows to be added in ascending order.</p>
+ */
+public class RowBitmap {
+
+    /**
+     * Max. number of rows a sparse chunk can hold before it gets converted into a dense one.
+     */
+    static final int ARRAY_MAX = 4096;
+
+    /**
+     * Number of int words a dense chunk requires (65536 bits).
+     */
+    static final int BITMAP_WORDS = 2048;
+
+    public static final RowBitmap EMPTY = new RowBitmap(new char[0], new Chunk[0], 0);
+
+    final char[] keys;
+    final Chunk[] chunks;
+    final int size;
+    final int cardinality;
+
+    RowBitmap(char[] keys, Chunk[] chunks, int size) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.size = size;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n += chunks[i].cardinality();
+        }
+        this.cardinality = n;
+    }
+
+    /**
+     * Get a bitmap containing all the rows in the range [from, to).
+     */
+    public static RowBitmap range(int from, int to) {
+        Builder builder = new Builder();
+        for (int row = from; row < to; row++) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the bitmap for the given list of rows.
+     * @return The bitmap or null if the rows are not sorted in ascending order (as the bitmap can't keep the order).
+     */
+    public static RowBitmap of(List<Integer> rows) {
+        if (rows instanceof RowList) {
+            return ((RowList) rows).getBitmap();
+        }
+        Builder builder = new Builder();
+        int last = -1;
+        for (Integer row : rows) {
+            if (row <= last) {
+                return null;
+            }
+            builder.add(last = row);
+        }
+        return builder.build();
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int row) {
+        int i = indexOf((char) (row >>> 16));
+        return i >= 0 && chunks[i].contains((char) row);
+    }
+
+    public RowBitmap and(RowBitmap other) {
+        Builder builder = new Builder();
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                builder.append(keys[i], chunks[i].and(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    public RowBitmap or(RowBitmap other) {
+        Builder builder = new Builder();
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                builder.append(keys[i], chunks[i]);
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                builder.append(other.keys[j], other.chunks[j]);
+                j++;
+            } else {
+                builder.append(keys[i], chunks[i].or(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    public RowBitmap andNot(RowBitmap other) {
+        Builder builder = new Builder();
+        int i = 0, j = 0;
+        while (i < size) {
+            if (j == other.size || keys[i] < other.keys[j]) {
+                builder.append(keys[i], chunks[i]);
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                builder.append(keys[i], chunks[i].andNot(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Split the bitmap into disjoint bitmaps of consecutive rows. Parts are made of whole chunks,
+     * so a part may hold up to 65535 rows more than requested.
+     *
+     * @param rowsPerPart The min. number of rows of every part (but the last one).
+     */
+    public List<RowBitmap> split(int rowsPerPart) {
+        List<RowBitmap> result = new ArrayList<RowBitmap>();
+        Builder builder = new Builder();
+        int rows = 0;
+        for (int i = 0; i < size; i++) {
+            builder.append(keys[i], chunks[i]);
+            rows += chunks[i].cardinality();
+            if (rows >= rowsPerPart) {
+                result.add(builder.build());
+                builder = new Builder();
+                rows = 0;
+            }
+        }
+        if (rows > 0) {
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    public RowIterator iterator() {
+        return new RowIterator();
+    }
+
+    /**
+     * Get a read-only list view of the rows (in ascending order).
+     */
+    public List<Integer> asList() {
+        return new RowList(this);
+    }
+
+    public int[] toArray() {
+        int[] result = new int[cardinality];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            offset = chunks[i].fill(result, offset, keys[i] << 16);
+        }
+        return result;
+    }
+
+    public long getEstimatedSize() {
+        long result = MemSizeEstimator.sizeOfArrayHeader * 2 + size * (2 + MemSizeEstimator.sizeOfInteger);
+        for (int i = 0; i < size; i++) {
+            result += chunks[i].getEstimatedSize();
+        }
+        return result;
+    }
+
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RowBitmap)) {
+            return false;
+        }
+        RowBitmap other = (RowBitmap) obj;
+        if (cardinality != other.cardinality) {
+            return false;
+        }
+        RowIterator it1 = iterator();
+        RowIterator it2 = other.iterator();
+        while (it1.hasNext()) {
+            if (it1.nextRow() != it2.nextRow()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        int result = cardinality;
+        for (RowIterator it = iterator(); it.hasNext(); ) {
+            result = 31 * result + it.nextRow();
+        }
+        return result;
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder("{");
+        for (RowIterator it = iterator(); it.hasNext(); ) {
+            out.append(it.nextRow());
+            if (it.hasNext()) out.append(",");
+        }
+        return out.append("}").toString();
+    }
+
+    int indexOf(char key) {
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else if (keys[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates bitmaps from rows added in ascending order.
+     */
+    public static class Builder {
+
+        char[] keys = new char[4];
+        Chunk[] chunks = new Chunk[4];
+        int size = 0;
+
+        // The chunk being filled
+        char currentKey = 0;
+        char[] values = null;
+        int[] words = null;
+        int count = 0;
+
+        /**
+         * Add a row. Rows must be added in ascending order.
+         */
+        public Builder add(int row) {
+            char key = (char) (row >>> 16);
+            if (count > 0 && key != currentKey) {
+                flush();
+            }
+            currentKey = key;
+            char low = (char) row;
+            if (words != null) {
+                words[low >>> 5] |= 1 << low;
+            } else {
+                if (values == null) {
+                    values = new char[16];
+                } else if (count == values.length) {
+                    if (count == ARRAY_MAX) {
+                        words = new int[BITMAP_WORDS];
+                        for (int i = 0; i < count; i++) {
+                            words[values[i] >>> 5] |= 1 << values[i];
+                        }
+                        words[low >>> 5] |= 1 << low;
+                        values = null;
+                        count++;
+                        return this;
+                    }
+                    char[] tmp = new char[Math.min(count * 2, ARRAY_MAX)];
+                    System.arraycopy(values, 0, tmp, 0, count);
+                    values = tmp;
+                }
+                values[count] = low;
+            }
+            count++;
+            return this;
+        }
+
+        public RowBitmap build() {
+            flush();
+            return size == 0 ? EMPTY : new RowBitmap(keys, chunks, size);
+        }
+
+        void append(char key, Chunk chunk) {
+            if (chunk == null) {
+                return;
+            }
+            if (size == keys.length) {
+                char[] k = new char[size * 2];
+                Chunk[] c = new Chunk[size * 2];
+                System.arraycopy(keys, 0, k, 0, size);
+                System.arraycopy(chunks, 0, c, 0, size);
+                keys = k;
+                chunks = c;
+            }
+            keys[size] = key;
+            chunks[size++] = chunk;
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            if (words != null) {
+                append(currentKey, new BitmapChunk(words, count));
+            } else {
+                char[] tmp = new char[count];
+                System.arraycopy(values, 0, tmp, 0, count);
+                append(currentKey, new ArrayChunk(tmp));
+            }
+            values = null;
+            words = null;
+            count = 0;
+        }
+    }
+
+    /**
+     * Iterates the rows in ascending order without boxing.
+     */
+    public class RowIterator {
+
+        int chunk = 0;
+        int position = 0;
+        int word = 0;
+        int bits = 0;
+        int remaining = cardinality;
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public int nextRow() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            while (true) {
+                Chunk c = chunks[chunk];
+                int high = keys[chunk] << 16;
+                if (c instanceof ArrayChunk) {
+                    char[] values = ((ArrayChunk) c).values;
+                    if (position < values.length) {
+                        remaining--;
+                        return high | values[position++];
+                    }
+                } else {
+                    int[] words = ((BitmapChunk) c).words;
+                    while (bits == 0 && word < words.length) {
+                        bits = words[word++];
+                    }
+                    if (bits != 0) {
+                        int bit = Integer.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        remaining--;
+                        return high | ((word - 1) << 5) | bit;
+                    }
+                }
+                chunk++;
+                position = 0;
+                word = 0;
+                bits = 0;
+            }
+        }
+
+        /**
+         * Move to the given row of a chunk, so it is the next one returned.
+         *
+         * @param c The chunk.
+         * @param rank The position of the row within the chunk.
+         * @param index The position of the row within the bitmap.
+         */
+        void seek(int c, int rank, int index) {
+            chunk = c;
+            position = 0;
+            word = 0;
+            bits = 0;
+            remaining = cardinality - index;
+            Chunk target = chunks[c];
+            if (target instanceof ArrayChunk) {
+                position = rank;
+            } else {
+                int[] words = ((BitmapChunk) target).words;
+                int w = 0;
+                for (int n = Integer.bitCount(words[w]); rank >= n; n = Integer.bitCount(words[w])) {
+                    rank -= n;
+                    w++;
+                }
+                bits = words[w];
+                for (int i = 0; i < rank; i++) {
+                    bits &= bits - 1;
+                }
+                word = w + 1;
+            }
+        }
+
+        /**
+         * Skip the given number of rows. Whole chunks are skipped without iterating over its rows.
+         */
+        public void skip(int n) {
+            while (n > 0) {
+                if (position == 0 && word == 0 && bits == 0 && n >= chunks[chunk].cardinality()) {
+                    n -= chunks[chunk].cardinality();
+                    remaining -= chunks[chunk].cardinality();
+                    chunk++;
+                } else {
+                    nextRow();
+                    n--;
+                }
+            }
+        }
+    }
+
+    /**
+     * A read-only list view over a bitmap. Sequential access is served by a cursor moved forward. Any other access
+     * (backwards, or far ahead) moves the cursor straight to the row: the chunk holding it is found by a binary search
+     * over the number of rows before each chunk, and then the row within the chunk. Instances must not be shared
+     * among threads.
+     */
+    public static class RowList extends AbstractList<Integer> {
+
+        /**
+         * Max. number of rows the cursor is moved forward one by one instead of moving it straight to the row.
+         */
+        static final int SKIP_MAX = 64;
+
+        RowBitmap bitmap;
+        RowIterator cursor;
+        int cursorIndex = -1;
+        // Number of rows before every chunk, built on the first move
+        int[] chunkStarts;
+
+        RowList(RowBitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+
+        public RowBitmap getBitmap() {
+            return bitmap;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= bitmap.cardinality) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bitmap.cardinality);
+            }
+            if (cursor == null || index <= cursorIndex || index - cursorIndex > SKIP_MAX) {
+                seek(index);
+            } else {
+                cursor.skip(index - cursorIndex - 1);
+            }
+            cursorIndex = index;
+            return cursor.nextRow();
+        }
+
+        void seek(int index) {
+            if (chunkStarts == null) {
+                chunkStarts = new int[bitmap.size];
+                int rows = 0;
+                for (int i = 0; i < bitmap.size; i++) {
+                    chunkStarts[i] = rows;
+                    rows += bitmap.chunks[i].cardinality();
+                }
+                cursor = bitmap.iterator();
+            }
+            // The last chunk starting at or before the index
+            int low = 0, high = bitmap.size - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (chunkStarts[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            cursor.seek(low, index - chunkStarts[low], index);
+        }
+
+        @Override
+        public int size() {
+            return bitmap.cardinality;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && bitmap.contains((Integer) o);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            final RowIterator it = bitmap.iterator();
+            return new Iterator<Integer>() {
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+                public Integer next() {
+                    return it.nextRow();
+                }
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * The rows sharing the same 16 high bits.
+     */
+    abstract static class Chunk {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract int select(int rank);
+
+        abstract int fill(int[] out, int offset, int high);
+
+        abstract long getEstimatedSize();
+
+        abstract BitmapChunk toBitmap();
+
+        /**
+         * @return The resulting chunk or null if empty.
+         */
+        Chunk and(Chunk other) {
+            if (this instanceof ArrayChunk) {
+                return ((ArrayChunk) this).filter(other, true);
+            }
+            if (other instanceof ArrayChunk) {
+                return ((ArrayChunk) other).filter(this, true);
+            }
+            int[] w1 = ((BitmapChunk) this).words;
+            int[] w2 = ((BitmapChunk) other).words;
+            int[] result = new int[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = w1[i] & w2[i];
+            }
+            return BitmapChunk.optimize(result);
+        }
+
+        Chunk or(Chunk other) {
+            int[] w1 = toBitmap().words;
+            int[] w2 = other.toBitmap().words;
+            int[] result = new int[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = w1[i] | w2[i];
+            }
+            return BitmapChunk.optimize(result);
+        }
+
+        Chunk andNot(Chunk other) {
+            if (this instanceof ArrayChunk) {
+                return ((ArrayChunk) this).filter(other, false);
+            }
+            int[] w1 = ((BitmapChunk) this).words;
+            int[] w2 = other.toBitmap().words;
+            int[] result = new int[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = w1[i] & ~w2[i];
+            }
+            return BitmapChunk.optimize(result);
+        }
+    }
+
+    static class ArrayChunk extends Chunk {
+
+        final char[] values;
+
+        ArrayChunk(char[] values) {
+            this.values = values;
+        }
+
+        int cardinality() {
+            return values.length;
+        }
+
+        boolean contains(char low) {
+            int from = 0, to = values.length - 1;
+            while (from <= to) {
+                int mid = (from + to) >>> 1;
+                if (values[mid] < low) {
+                    from = mid + 1;
+                } else if (values[mid] > low) {
+                    to = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int select(int rank) {
+            return values[rank];
+        }
+
+        int fill(int[] out, int offset, int high) {
+            for (char value : values) {
+                out[offset++] = high | value;
+            }
+            return offset;
+        }
+
+        long getEstimatedSize() {
+            return MemSizeEstimator.sizeOfArrayHeader + values.length * 2;
+        }
+
+        BitmapChunk toBitmap() {
+            int[] words = new int[BITMAP_WORDS];
+            for (char value : values) {
+                words[value >>> 5] |= 1 << value;
+            }
+            return new BitmapChunk(words, values.length);
+        }
+
+        /**
+         * Keep only the values contained (or not contained) in the given chunk.
+         */
+        Chunk filter(Chunk other, boolean contained) {
+            char[] result = new char[values.length];
+            int n = 0;
+            for (char value : values) {
+                if (other.contains(value) == contained) {
+                    result[n++] = value;
+                }
+            }
+            if (n == 0) {
+                return null;
+            }
+            if (n == values.length) {
+                return this;
+            }
+            char[] tmp = new char[n];
+            System.arraycopy(result, 0, tmp, 0, n);
+            return new ArrayChunk(tmp);
+        }
+    }
+
+    static class BitmapChunk extends Chunk {
+
+        final int[] words;
+        final int cardinality;
+
+        BitmapChunk(int[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static Chunk optimize(int[] words) {
+            int n = 0;
+            for (int word : words) {
+                n += Integer.bitCount(word);
+            }
+            if (n == 0) {
+                return null;
+            }
+            if (n > ARRAY_MAX) {
+                return new BitmapChunk(words, n);
+            }
+            char[] values = new char[n];
+            int i = 0;
+            for (int w = 0; w < words.length; w++) {
+                int bits = words[w];
+                while (bits != 0) {
+                    values[i++] = (char) ((w << 5) | Integer.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new ArrayChunk(values);
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char low) {
+            return (words[low >>> 5] & (1 << low)) != 0;
+        }
+
+        int select(int rank) {
+            for (int w = 0; w < words.length; w++) {
+                int bits = words[w];
+                int n = Integer.bitCount(bits);
+                if (rank < n) {
+                    for (int i = 0; i < rank; i++) {
+                        bits &= bits - 1;
+                    }
+                    return (w << 5) | Integer.numberOfTrailingZeros(bits);
+                }
+                rank -= n;
+            }
+            throw new IndexOutOfBoundsException();
+        }
+
+        int fill(int[] out, int offset, int high) {
+            for (int w = 0; w < words.length; w++) {
+                int bits = words[w];
+                while (bits != 0) {
+                    out[offset++] = high | (w << 5) | Integer.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return offset;
+        }
+
+        long getEstimatedSize() {
+            return MemSizeEstimator.sizeOfIntArray(words) + MemSizeEstimator.sizeOfInteger;
+        }
+
+        BitmapChunk toBitmap() {
+            return this;
+        }
+    }
+}
@@ -40,5 +40,29 @@ public interface DataSetIndexRegistry {
      * @return The removed index or <tt>null</tt> if there was no mapping for <tt>uuid</tt>.
      */
     DataSetIndex remove(String uuid);
+
+    /**
+     * Prevent the specified data set from being evicted by registries bounded in size. Data sets which can not
+     * be loaded again (like the ones registered by hand) must be pinned. The pin is released on removal.
+     * <p>Registries that never evict data sets simply ignore it.</p>
+     * @param uuid The data set unique identifier.
+     */
+    default void pin(String uuid) {
+    }
+
+    /**
+     * Allow the eviction of a previously pinned data set.
+     * @param uuid The data set unique identifier.
+     */
+    default void unpin(String uuid) {
+    }
+
+    /**
+     * Check if the specified data set has been pinned.
+     * @param uuid The data set unique identifier.
+     */
+    default boolean isPinned(String uuid) {
+        return false;
+    }
 }
 
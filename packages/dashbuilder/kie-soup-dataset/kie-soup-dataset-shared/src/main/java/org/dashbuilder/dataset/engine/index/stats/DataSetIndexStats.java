@@ -59,6 +59,21 @@ public interface DataSetIndexStats {
      */
     int getNumberOfAggFunctions();
 
+    /**
+     * Number of lookups which reused an existing index (filter, group, sort or aggregate function).
+     */
+    int getHits();
+
+    /**
+     * Number of lookups which did not find any index and had to build it.
+     */
+    int getMisses();
+
+    /**
+     * Number of indexes released in order to free memory.
+     */
+    int getEvictions();
+
     /**
      * An index reference to the element that takes more time to get instantiated.
      */
@@ -85,6 +100,12 @@ public interface DataSetIndexStats {
      */
     long getIndexSize();
 
+    /**
+     * Return the estimated memory (in bytes) the indexed data set is consuming.
+     * @return The number of bytes
+     */
+    long getDataSetSize();
+
     /**
      * Prints a stats summary.
      * @param sep The separator string to insert between every stat.
@@ -32,6 +32,7 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
     private transient long buildTime = 0;
     private transient long reuseTime = 0;
     private transient long indexSize = 0;
+    private transient long dataSetSize = 0;
     private transient int numberOfGroupOps = 0;
     private transient int numberOfFilterOps = 0;
     private transient int numberOfSortOps = 0;
@@ -44,6 +45,9 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
     public DataSetIndexStatsImpl(DataSetIndex index) {
         this.index = index;
         index.acceptVisitor(this);
+        if (index.getDataSet() != null) {
+            dataSetSize = index.getDataSet().getEstimatedSize();
+        }
     }
 
     public void visit(DataSetIndexElement element) {
@@ -91,6 +95,18 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
         return reuseTime;
     }
 
+    public int getHits() {
+        return index.getIndexHits();
+    }
+
+    public int getMisses() {
+        return index.getIndexMisses();
+    }
+
+    public int getEvictions() {
+        return index.getIndexEvictions();
+    }
+
     public DataSetIndexElement getLongestBuild() {
         return longestBuild;
     }
@@ -111,6 +127,10 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
         return indexSize;
     }
 
+    public long getDataSetSize() {
+        return dataSetSize;
+    }
+
     public int getNumberOfGroupOps() {
         return numberOfGroupOps;
     }
@@ -133,6 +153,7 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
 
     public String toString(String sep) {
         StringBuilder out = new StringBuilder();
+        out.append("Data set size=").append(MemSizeFormatter.formatSize(getDataSetSize())).append(sep);
         out.append("Index size=").append(MemSizeFormatter.formatSize(getIndexSize())).append(sep);
         out.append("Build time=").append(((double) getBuildTime() / 1000000)).append(" (secs)").append(sep);
         out.append("Reuse time=").append(((double) getReuseTime() / 1000000)).append(" (secs)").append(sep);
@@ -141,6 +162,9 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
         out.append("#Filter ops=").append(getNumberOfFilterOps()).append(sep);
         out.append("#Sort ops=").append(getNumberOfSortOps()).append(sep);
         out.append("#Agg funcs=").append(getNumberOfAggFunctions()).append(sep);
+        out.append("#Hits=").append(getHits()).append(sep);
+        out.append("#Misses=").append(getMisses()).append(sep);
+        out.append("#Evictions=").append(getEvictions()).append(sep);
         return out.toString();
     }
 }
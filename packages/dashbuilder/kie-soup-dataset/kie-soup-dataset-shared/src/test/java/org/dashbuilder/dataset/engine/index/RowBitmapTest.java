@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowBitmapTest {
+
+    // Sparse and dense chunks
+    static final int SIZE = 200000;
+
+    @Test
+    public void testBuild() {
+        RowBitmap bitmap = RowBitmap.of(Arrays.asList(1, 5, 65535, 65536, 140000));
+        assertEquals(5, bitmap.cardinality());
+        assertTrue(bitmap.contains(65535));
+        assertTrue(bitmap.contains(65536));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(300000));
+        assertArrayEquals(new int[]{1, 5, 65535, 65536, 140000}, bitmap.toArray());
+        assertEquals("{1,5,65535,65536,140000}", bitmap.toString());
+
+        assertNull(RowBitmap.of(Arrays.asList(5, 1)));
+        assertTrue(RowBitmap.range(0, 0).isEmpty());
+        assertEquals(SIZE, RowBitmap.range(0, SIZE).cardinality());
+    }
+
+    @Test
+    public void testOperations() {
+        RowBitmap even = build(0, 2);
+        RowBitmap third = build(0, 3);
+        RowBitmap sparse = build(7, 1000);
+
+        assertEquals(RowBitmap.of(rows(0, 6)), even.and(third));
+        assertEquals(union(rows(0, 2), rows(0, 3)), even.or(third));
+        assertEquals(difference(rows(0, 2), rows(0, 3)), even.andNot(third));
+        assertEquals(RowBitmap.of(rows(7, 1000)), sparse.and(RowBitmap.range(0, SIZE)));
+        assertEquals(RowBitmap.range(0, SIZE), RowBitmap.range(0, SIZE).or(sparse));
+        assertTrue(sparse.andNot(RowBitmap.range(0, SIZE)).isEmpty());
+        assertTrue(RowBitmap.EMPTY.and(even).isEmpty());
+        assertEquals(even, RowBitmap.EMPTY.or(even));
+    }
+
+    @Test
+    public void testListView() {
+        RowBitmap bitmap = build(3, 5);
+        List<Integer> rows = bitmap.asList();
+        List<Integer> expected = rows(3, 5);
+        assertEquals(expected.size(), rows.size());
+        assertEquals(expected, new ArrayList<Integer>(rows));
+
+        // Random access
+        for (int i : new int[]{39000, 10, 0, 25000, 25001, 39999}) {
+            assertEquals(expected.get(i), rows.get(i));
+        }
+        // Backwards, over sparse and dense chunks
+        List<Integer> mixed = build(7, 1000).or(build(0, 3)).asList();
+        List<Integer> mixedExpected = new ArrayList<Integer>(mixed);
+        for (int i = mixedExpected.size() - 1; i >= 0; i--) {
+            assertEquals(mixedExpected.get(i), mixed.get(i));
+        }
+        assertEquals(mixedExpected.subList(50000, 50100), mixed.subList(50000, 50100));
+        assertTrue(rows.contains(65538));
+        assertFalse(rows.contains(65539));
+        assertSame(bitmap, RowBitmap.of(rows));
+    }
+
+    @Test
+    public void testSplit() {
+        RowBitmap bitmap = build(3, 5);
+        List<RowBitmap> parts = bitmap.split(20000);
+        assertEquals(2, parts.size());
+        assertEquals(4, bitmap.split(10000).size());
+        RowBitmap merged = RowBitmap.EMPTY;
+        for (RowBitmap part : parts) {
+            assertTrue(part.cardinality() >= 13000);
+            assertTrue(merged.and(part).isEmpty());
+            merged = merged.or(part);
+        }
+        assertEquals(bitmap, merged);
+        assertEquals(1, bitmap.split(SIZE).size());
+        assertTrue(RowBitmap.EMPTY.split(10).isEmpty());
+    }
+
+    @Test
+    public void testEstimatedSize() {
+        RowBitmap dense = RowBitmap.range(0, SIZE);
+        RowBitmap sparse = build(0, 1000);
+        assertTrue(dense.getEstimatedSize() < SIZE * 4 / 10);
+        assertTrue(sparse.getEstimatedSize() < sparse.cardinality() * 4);
+    }
+
+    private RowBitmap build(int from, int step) {
+        return RowBitmap.of(rows(from, step));
+    }
+
+    private List<Integer> rows(int from, int step) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (int i = from; i < SIZE; i += step) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    private RowBitmap union(List<Integer> l1, List<Integer> l2) {
+        TreeSet<Integer> result = new TreeSet<Integer>(l1);
+        result.addAll(l2);
+        return RowBitmap.of(new ArrayList<Integer>(result));
+    }
+
+    private RowBitmap difference(List<Integer> l1, List<Integer> l2) {
+        TreeSet<Integer> result = new TreeSet<Integer>(l1);
+        result.removeAll(l2);
+        return RowBitmap.of(new ArrayList<Integer>(result));
+    }
+}
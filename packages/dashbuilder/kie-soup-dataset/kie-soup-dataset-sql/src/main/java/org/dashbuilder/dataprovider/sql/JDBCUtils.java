@@ -115,11 +115,21 @@ public class JDBCUtils {
     }
 
     public static ResultSetHandler executeQuery(Connection connection, String sql) throws SQLException {
+        return executeQuery(connection, sql, 0);
+    }
+
+    /**
+     * @param fetchSize The JDBC fetch size hint. Zero to keep the driver's default.
+     */
+    public static ResultSetHandler executeQuery(Connection connection, String sql, int fetchSize) throws SQLException {
         try {
             if (log.isDebugEnabled()) {
                 log.debug(sql);
             }
             Statement statement = connection.createStatement();
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
             ResultSet resultSet = statement.executeQuery(sql);
             return new ResultSetHandler(resultSet, statement);
         } catch (SQLException e) {
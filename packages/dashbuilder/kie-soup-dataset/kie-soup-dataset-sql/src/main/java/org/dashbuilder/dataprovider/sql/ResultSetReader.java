@@ -0,0 +1,215 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataprovider.sql.dialect.Dialect;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Reads the rows of a query result straight into the data set columns.
+ * <p>Number and date columns are read through <code>getDouble</code> &amp; <code>getTimestamp</code> into column
+ * buffers sized upfront. If the driver is not able to convert a column value (e.g. a number stored as text) then
+ * that column is read as a generic object converted by the {@link Dialect}. Any other column is read as is and
+ * its values are left for the caller to convert.</p>
+ */
+public class ResultSetReader {
+
+    /**
+     * Max. initial capacity of the column buffers, whatever the number of rows expected.
+     */
+    public static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+    protected Dialect dialect;
+    protected boolean columnarStorage;
+    protected int maxRows = -1;
+
+    public ResultSetReader(Dialect dialect, boolean columnarStorage) {
+        this.dialect = dialect;
+        this.columnarStorage = columnarStorage;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * @param maxRows The read is aborted with a {@link RowLimitExceededException} as soon as the result turns out
+     * to contain more rows. -1 for no limit.
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Check if the values of the given column are already converted once read.
+     */
+    public static boolean isTypedColumn(DataColumn column) {
+        return ColumnType.NUMBER.equals(column.getColumnType()) || ColumnType.DATE.equals(column.getColumnType());
+    }
+
+    /**
+     * Read the rows from the current cursor position.
+     *
+     * @param columns The target columns, in the same order as the result set columns. Their values are replaced.
+     * @param limit The max. number of rows to read. -1 to read all of them.
+     * @param expectedRows The number of rows expected (used to size the buffers). -1 if unknown.
+     * @return The number of rows read.
+     */
+    public int read(ResultSet rs, List<DataColumn> columns, int limit, int expectedRows) throws SQLException {
+        int capacity = expectedRows;
+        if (limit >= 0 && (capacity < 0 || limit < capacity)) {
+            capacity = limit;
+        }
+        capacity = capacity < 0 ? 16 : Math.min(capacity, MAX_INITIAL_CAPACITY);
+
+        ColumnReader[] readers = new ColumnReader[columns.size()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = createReader(columns.get(i), i + 1, capacity);
+        }
+        int rows = 0;
+        while ((limit < 0 || rows < limit) && rs.next()) {
+            if (maxRows >= 0 && rows >= maxRows) {
+                throw new RowLimitExceededException(maxRows);
+            }
+            for (ColumnReader reader : readers) {
+                reader.read(rs);
+            }
+            rows++;
+        }
+        for (int i = 0; i < readers.length; i++) {
+            columns.get(i).setValues(readers[i].values);
+        }
+        return rows;
+    }
+
+    protected ColumnReader createReader(DataColumn column, int index, int capacity) {
+        if (ColumnType.NUMBER.equals(column.getColumnType())) {
+            return new NumberReader(index, capacity);
+        }
+        if (ColumnType.DATE.equals(column.getColumnType())) {
+            return new DateReader(index, capacity);
+        }
+        return new ObjectReader(index, capacity);
+    }
+
+    protected abstract class ColumnReader {
+
+        int index;
+        List values;
+        boolean typed = true;
+
+        ColumnReader(int index, List values) {
+            this.index = index;
+            this.values = values;
+        }
+
+        abstract void read(ResultSet rs) throws SQLException;
+    }
+
+    protected class ObjectReader extends ColumnReader {
+
+        ObjectReader(int index, int capacity) {
+            super(index, new ArrayList(capacity));
+        }
+
+        void read(ResultSet rs) throws SQLException {
+            Object value = rs.getObject(index);
+            // Clob conversion must be done when object is still open
+            if (value instanceof Clob) {
+                value = JDBCUtils.clobToString((Clob) value);
+            }
+            values.add(value);
+        }
+    }
+
+    protected class NumberReader extends ColumnReader {
+
+        NumberColumnValues buffer;
+
+        NumberReader(int index, int capacity) {
+            super(index, columnarStorage ? new NumberColumnValues(capacity) : new ArrayList(capacity));
+            buffer = columnarStorage ? (NumberColumnValues) values : null;
+        }
+
+        void read(ResultSet rs) throws SQLException {
+            if (typed) {
+                try {
+                    double value = rs.getDouble(index);
+                    if (rs.wasNull()) {
+                        values.add(null);
+                    } else if (buffer != null) {
+                        buffer.addDouble(value);
+                    } else {
+                        values.add(value);
+                    }
+                    return;
+                } catch (SQLException e) {
+                    typed = false;
+                }
+            }
+            values.add(dialect.convertToDouble(rs.getObject(index)));
+        }
+    }
+
+    protected class DateReader extends ColumnReader {
+
+        DateColumnValues buffer;
+
+        DateReader(int index, int capacity) {
+            super(index, columnarStorage ? new DateColumnValues(capacity) : new ArrayList(capacity));
+            buffer = columnarStorage ? (DateColumnValues) values : null;
+        }
+
+        void read(ResultSet rs) throws SQLException {
+            if (typed) {
+                try {
+                    Timestamp value = rs.getTimestamp(index);
+                    if (value == null) {
+                        values.add(null);
+                    } else if (buffer != null) {
+                        buffer.addTime(value.getTime());
+                    } else {
+                        values.add(value);
+                    }
+                    return;
+                } catch (SQLException e) {
+                    typed = false;
+                }
+            }
+            values.add(dialect.convertToDate(rs.getObject(index)));
+        }
+    }
+
+    /**
+     * Thrown when a result contains more rows than the max. allowed.
+     */
+    public static class RowLimitExceededException extends RuntimeException {
+
+        public RowLimitExceededException(int maxRows) {
+            super("The query results exceed the max. number of rows allowed: " + maxRows);
+        }
+    }
+}
@@ -15,15 +15,18 @@
  */
 package org.dashbuilder.dataprovider.sql;
 
-import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
@@ -32,6 +35,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.DataSetSnapshotStore;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataprovider.sql.dialect.Dialect;
 import org.dashbuilder.dataprovider.sql.model.Column;
@@ -73,6 +77,7 @@ import org.dashbuilder.dataset.group.DateIntervalType;
 import org.dashbuilder.dataset.group.GroupFunction;
 import org.dashbuilder.dataset.group.GroupStrategy;
 import org.dashbuilder.dataset.group.Interval;
+import org.dashbuilder.dataset.impl.ColumnValues;
 import org.dashbuilder.dataset.impl.DataColumnImpl;
 import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
 import org.dashbuilder.dataset.impl.MemSizeEstimator;
@@ -132,6 +137,11 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         return SINGLETON;
     }
 
+    /**
+     * Date intervals built in memory by merging the intervals returned by the database
+     */
+    private static final Set<DateIntervalType> MERGED_DATE_INTERVALS = EnumSet.of(DateIntervalType.WEEK,
+            DateIntervalType.QUARTER, DateIntervalType.DECADE, DateIntervalType.CENTURY, DateIntervalType.MILLENIUM);
 
     protected Logger log = LoggerFactory.getLogger(SQLDataSetProvider.class);
     protected StaticDataSetProvider staticDataSetProvider;
@@ -139,6 +149,13 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     protected IntervalBuilderLocator intervalBuilderLocator;
     protected IntervalBuilderDynamicDate intervalBuilderDynamicDate;
     protected DataSetOpEngine opEngine;
+    protected SQLLookupCache lookupCache = SQLLookupCache.isEnabled() ? SQLLookupCache.fromSystemProperties() : null;
+
+    /**
+     * Cache-enabled data sets found to exceed their cache max. rows. They are not read again in full until their
+     * definition is modified or they become stale.
+     */
+    protected Set<String> tooBigToCacheSet = ConcurrentHashMap.newKeySet();
 
     public SQLDataSetProvider() {
     }
@@ -194,6 +211,17 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         this.opEngine = opEngine;
     }
 
+    public SQLLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
+    /**
+     * @param lookupCache The cache of lookup results or null to always fetch them from the database.
+     */
+    public void setLookupCache(SQLLookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
     public DataSetProviderType getType() {
         return DataSetProviderType.SQL;
     }
@@ -209,30 +237,103 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
 
         // Look first into the static data set provider cache.
         if (sqlDef.isCacheEnabled()) {
+            boolean isTest = lookup != null && lookup.testMode();
             DataSet dataSet = staticDataSetProvider.lookupDataSet(def.getUUID(), null);
+            if (dataSet == null) {
+                // Concurrent lookups of a data set not yet in memory wait for a single load
+                dataSet = isTest ? loadIntoCache(sqlDef, true) :
+                        staticDataSetProvider.getRefresher().load(def.getUUID(), () -> loadIntoCache(sqlDef, false));
+            }
             if (dataSet != null) {
 
                 // Lookup from cache.
                 return staticDataSetProvider.lookupDataSet(def.getUUID(), lookup);
-            } else  {
+            }
+            // Fetch always from database if the data set is too big to be cached.
+            return _cachedLookupDataSet(sqlDef, lookup);
+        }
 
-                // Fetch always from database if existing rows are greater than the cache max. rows
-                DataSetMetadata metadata = getDataSetMetadata(def);
-                int rows = metadata.getNumberOfRows();
-                if (rows > sqlDef.getCacheMaxRows()) {
-                    return _lookupDataSet(sqlDef, lookup);
-                }
-                // Fetch from database and register into the static cache. Further requests will lookup from cache.
-                dataSet = _lookupDataSet(sqlDef, null);
-                dataSet.setUUID(def.getUUID());
-                dataSet.setDefinition(def);
-                staticDataSetProvider.registerDataSet(dataSet);
-                return staticDataSetProvider.lookupDataSet(def.getUUID(), lookup);
+        // If cache is disabled then always fetch from database (unless the same lookup has been recently issued).
+        return _cachedLookupDataSet(sqlDef, lookup);
+    }
+
+    /**
+     * Load a data set into the static provider cache: either from the snapshot taken before the last restart (if
+     * any) or from the database.
+     *
+     * @return The data set registered, or null if it exceeds the cache max. rows.
+     */
+    protected DataSet loadIntoCache(SQLDataSetDef def, boolean isTest) throws Exception {
+        if (!isTest) {
+            // Restore the data set loaded before the last restart (if any).
+            DataSet dataSet = staticDataSetProvider.restoreDataSet(def, DataSetSnapshotStore.NO_SOURCE_VERSION);
+            if (dataSet != null) {
+                return dataSet;
             }
         }
+        // Fetch always from database if existing rows are greater than the cache max. rows
+        DataSetMetadata metadata = getDataSetMetadata(def);
+        int rows = metadata.getNumberOfRows();
+        if (rows > def.getCacheMaxRows() || (!isTest && tooBigToCacheSet.contains(def.getUUID()))) {
+            return null;
+        }
+        // Fetch from database and register into the static cache. Further requests will lookup from cache.
+        return fetchIntoCache(def, isTest);
+    }
 
-        // If cache is disabled then always fetch from database.
-        return _lookupDataSet(sqlDef, lookup);
+    /**
+     * Fetch a data set from the database and register it into the static provider cache.
+     *
+     * @return The data set registered, or null if it exceeds the cache max. rows.
+     */
+    protected DataSet fetchIntoCache(SQLDataSetDef def, boolean isTest) throws Exception {
+        DataSet dataSet = fetchDataSet(def, isTest);
+        if (dataSet == null) {
+            return null;
+        }
+        if (isTest) {
+            staticDataSetProvider.registerDataSet(dataSet);
+        } else {
+            staticDataSetProvider.registerDataSet(dataSet, DataSetSnapshotStore.NO_SOURCE_VERSION);
+        }
+        return dataSet;
+    }
+
+    /**
+     * Fetch a whole data set from the database. The row count is not known if the size estimation is disabled, so
+     * the read is aborted as soon as the cache max. rows are exceeded.
+     *
+     * @return The data set read, or null if it exceeds the cache max. rows.
+     */
+    protected DataSet fetchDataSet(SQLDataSetDef def, boolean isTest) throws Exception {
+        String uuid = def.getUUID();
+        DataSet dataSet;
+        try {
+            dataSet = _lookupDataSet(def, null, def.getCacheMaxRows());
+        } catch (ResultSetReader.RowLimitExceededException e) {
+            log.debug("Data set " + uuid + " too big to be cached: " + e.getMessage());
+            if (!isTest) {
+                tooBigToCacheSet.add(uuid);
+            }
+            return null;
+        }
+        dataSet.setUUID(uuid);
+        dataSet.setDefinition(def);
+        return dataSet;
+    }
+
+    /**
+     * Get how the given lookup is executed: the SQL issued and the operations executed in memory (if any) together
+     * with the reasons they could not be pushed down to the database. The lookup results are not fetched.
+     */
+    public SQLPushdownPlan explainLookup(SQLDataSetDef def, DataSetLookup lookup) throws Exception {
+        if (def.isCacheEnabled() && getDataSetMetadata(def).getNumberOfRows() <= def.getCacheMaxRows()) {
+            SQLPushdownPlan plan = new SQLPushdownPlan();
+            plan.addReason("Cache enabled: the whole data set is loaded and the lookup is executed in memory");
+            return plan;
+        }
+        LookupProcessor processor = new LookupProcessor(def, lookup != null ? lookup.cloneInstance() : null);
+        return processor.explain();
     }
 
     public boolean isDataSetOutdated(DataSetDef def) {
@@ -268,16 +369,40 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     @Override
     public void onDataSetDefStale(DataSetDef def) {
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
-            staticDataSetProvider.removeDataSet(def.getUUID());
+            String uuid = def.getUUID();
+            _invalidateLookupCache(uuid);
+            tooBigToCacheSet.remove(uuid);
+            if (def.isCacheEnabled() && staticDataSetProvider.getRefresher().isStaleWhileRevalidate()
+                    && staticDataSetProvider.lookupDataSet(uuid, null) != null) {
+                refreshDataSet((SQLDataSetDef) def);
+            } else {
+                staticDataSetProvider.removeDataSet(uuid);
+                staticDataSetProvider.deleteSnapshot(uuid);
+            }
         }
     }
 
+    /**
+     * Reload a cached data set in the background (stale-while-revalidate). Lookups keep being served from the
+     * previous version until the new one is registered. A failed refresh keeps the previous version, while a data
+     * set no longer fitting into the cache is removed. The data set read is discarded if the definition is modified
+     * or removed meanwhile.
+     *
+     * @return A future completed with true once the data set has been reloaded.
+     */
+    protected CompletableFuture<Boolean> refreshDataSet(SQLDataSetDef def) {
+        return staticDataSetProvider.getRefresher().refresh(def.getUUID(), () -> fetchDataSet(def, false));
+    }
+
     @Override
     public void onDataSetDefModified(DataSetDef olDef, DataSetDef newDef) {
         if (DataSetProviderType.SQL.equals(olDef.getProvider())) {
             String uuid = olDef.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            tooBigToCacheSet.remove(uuid);
+            staticDataSetProvider.getRefresher().invalidate(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
+            _invalidateLookupCache(uuid);
         }
     }
 
@@ -286,7 +411,10 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         if (DataSetProviderType.SQL.equals(oldDef.getProvider())) {
             String uuid = oldDef.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            tooBigToCacheSet.remove(uuid);
+            staticDataSetProvider.getRefresher().invalidate(uuid);
+            staticDataSetProvider.deleteSnapshot(uuid);
+            _invalidateLookupCache(uuid);
         }
     }
 
@@ -436,8 +564,30 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         return _query.fetchCount();
     }
 
+    protected DataSet _cachedLookupDataSet(SQLDataSetDef def, DataSetLookup lookup) throws Exception {
+        if (lookupCache == null || lookup == null || lookup.testMode()) {
+            return _lookupDataSet(def, lookup);
+        }
+        return lookupCache.lookup(def, lookup, () -> _lookupDataSet(def, lookup));
+    }
+
+    protected void _invalidateLookupCache(String uuid) {
+        if (lookupCache != null) {
+            lookupCache.invalidate(uuid);
+        }
+    }
+
     protected DataSet _lookupDataSet(SQLDataSetDef def, DataSetLookup lookup) throws Exception {
+        return _lookupDataSet(def, lookup, -1);
+    }
+
+    /**
+     * @param maxRows Abort with a {@link ResultSetReader.RowLimitExceededException} as soon as the query returns more
+     * rows. -1 for no limit.
+     */
+    protected DataSet _lookupDataSet(SQLDataSetDef def, DataSetLookup lookup, int maxRows) throws Exception {
         LookupProcessor processor = new LookupProcessor(def, lookup);
+        processor.maxRows = maxRows;
         return processor.run();
     }
 
@@ -616,6 +766,14 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         Date[] dateLimits;
         DateIntervalType dateIntervalType;
         List<DataSetOp> postProcessingOps = new ArrayList<DataSetOp>();
+        SQLPushdownPlan plan = new SQLPushdownPlan();
+        DataSetGroup sqlGroupOp;
+        DataSetSort sortOp;
+        List<DataColumn> columns;
+        boolean trim;
+        int totalRows;
+        int expectedRows = -1;
+        int maxRows = -1;
 
         public LookupProcessor(SQLDataSetDef def, DataSetLookup lookup) {
             this.def = def;
@@ -653,105 +811,179 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             DataSource ds = dataSourceLocator.lookup(def);
             conn = ds.getConnection();
             try {
-                boolean skipCache = lookup != null && lookup.testMode();
-                metadata = _getDataSetMetadata(def, conn, skipCache);
-                int totalRows = metadata.getNumberOfRows();
-                boolean trim = (lookup != null && (lookup.getNumberOfRows() > 0 || lookup.getRowOffset() > 0));
-
-                // The whole data set
-                if (lookup == null || lookup.getOperationList().isEmpty()) {
-
-                    // Prepare the select
-                    _query = SQLFactory.select(conn).columns(_createAllColumns());
-                    _appendFrom(def, _query);
-
-                    // Row limits
-                    if (trim && postProcessingOps.isEmpty()) {
-                        if(def.isEstimateSize()) {
-                            totalRows = _query.fetchCount();
-                        }
-                        _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
-                    }
+                prepare();
+                if (!plan.isFullyPushedDown() && log.isDebugEnabled()) {
+                    log.debug("Lookup over data set " + def.getUUID() + " not fully pushed down to SQL: " + plan.getReasons());
+                }
+                return buildDataSet(columns, trim, totalRows);
+            } finally {
+                conn.close();
+            }
+        }
 
-                    // Fetch the results and build the data set
-                    List<DataColumn> columns = calculateColumns(null);
-                    return buildDataSet(columns, trim, totalRows);
+        public SQLPushdownPlan explain() throws Exception {
+            DataSource ds = dataSourceLocator.lookup(def);
+            conn = ds.getConnection();
+            try {
+                prepare();
+                plan.setSQL(_query.getSQL());
+                return plan;
+            } finally {
+                conn.close();
+            }
+        }
+
+        /**
+         * Decide which operations are executed in memory: the ones that can't be expressed in SQL.
+         */
+        protected void plan() {
+            DataSetGroup groupOp = null;
+            int groupIdx = lookup.getFirstGroupOpIndex(0, null, false);
+            if (groupIdx != -1) groupOp = lookup.getOperation(groupIdx);
+
+            sortOp = lookup.getFirstSortOp();
+            if (groupOp == null) {
+                return;
+            }
+            String reason = checkGroupBy(groupOp);
+            if (reason == null) {
+                sqlGroupOp = groupOp;
+                return;
+            }
+            // Fetch the (filtered) rows and group them in memory.
+            // Sorts placed after the group must be executed over the grouped rows as well.
+            plan.addInMemoryOp(groupOp, reason);
+            postProcessingOps.add(groupOp);
+            if (sortOp != null && lookup.getOperationList().indexOf(sortOp) > groupIdx) {
+                plan.addInMemoryOp(sortOp, "Sort applied over the rows grouped in memory");
+                postProcessingOps.add(sortOp);
+                sortOp = null;
+            }
+        }
+
+        /**
+         * @return null if the group operation can be translated into SQL or the reason it can't be.
+         */
+        protected String checkGroupBy(DataSetGroup groupOp) {
+            ColumnGroup cg = groupOp.getColumnGroup();
+            if (cg == null) {
+                return null;
+            }
+            String dbColumnId = _columnFromMetadata(metadata, cg.getSourceId());
+            ColumnType columnType = metadata.getColumnType(dbColumnId);
+            if (ColumnType.TEXT.equals(columnType)) {
+                throw new IllegalArgumentException("Group by text '" + cg.getSourceId() + NOT_SUPPORTED);
+            }
+            if (ColumnType.DATE.equals(columnType)) {
+                DateIntervalType intervalType = calculateDateInterval(cg);
+                Dialect dialect = JDBCUtils.dialect(conn);
+                if (intervalType == null || !dialect.isDateIntervalSupported(cg.getStrategy(), intervalType)) {
+                    return "Group by date '" + cg.getSourceId() + "' " + cg.getStrategy() + " " + intervalType
+                            + NOT_SUPPORTED + " by " + dialect.getClass().getSimpleName();
                 }
-                // ... or a list of operations.
-                else {
-                    DataSetGroup groupOp = null;
-                    int groupIdx = lookup.getFirstGroupOpIndex(0, null, false);
-                    if (groupIdx != -1) groupOp = lookup.getOperation(groupIdx);
+            }
+            return null;
+        }
 
-                    // Prepare the select
-                    _query = SQLFactory.select(conn).columns(_createColumns(groupOp));
-                    _appendFrom(def, _query);
+        protected void prepare() throws Exception {
+            boolean skipCache = lookup != null && lookup.testMode();
+            metadata = _getDataSetMetadata(def, conn, skipCache);
+            totalRows = metadata.getNumberOfRows();
+            trim = (lookup != null && (lookup.getNumberOfRows() > 0 || lookup.getRowOffset() > 0));
 
-                    // Append the filter clauses
-                    for (DataSetFilter filterOp : lookup.getOperationList(DataSetFilter.class)) {
-                        _appendFilterBy(metadata, def, filterOp, _query);
-                    }
+            // The whole data set
+            if (lookup == null || lookup.getOperationList().isEmpty()) {
 
-                    // Append the interval selections
-                    List<DataSetGroup> intervalSelects = lookup.getFirstGroupOpSelections();
-                    for (DataSetGroup intervalSelect : intervalSelects) {
-                        _appendIntervalSelection(intervalSelect, _query);
-                    }
+                // Prepare the select
+                _query = SQLFactory.select(conn).columns(_createAllColumns());
+                _appendFrom(def, _query);
 
-                    // ... the group by clauses
-                    ColumnGroup cg = null;
-                    boolean groupColumnAdded = groupColumnMustBeIncluded(groupOp);
-                    if (groupOp != null) {
-                        cg = groupOp.getColumnGroup();
-                        if (cg != null) {
-                            groupColumnAdded &= cg.isPostEnabled();
-                            _appendGroupBy(groupOp);
-
-                            // The in-memory post processing requires that the group column is also included.
-                            // (see DASHBUILDE-181: Error "Column not found" when adding group by column from SQL dataset)
-                            if (groupColumnAdded) {
-                                GroupFunction gf = new GroupFunction(cg.getSourceId(), cg.getColumnId(), null);
-                                groupOp.getGroupFunctions().add(gf);
-                                _query.columns(_createColumn(cg));
-                            }
-                        }
+                // Row limits
+                if (trim && postProcessingOps.isEmpty()) {
+                    if(def.isEstimateSize()) {
+                        totalRows = _query.fetchCount();
                     }
+                    _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+                }
+
+                // Fetch the results and build the data set
+                columns = calculateColumns(null);
+                expectedRows = totalRows > 0 ? totalRows : -1;
+            }
+            // ... or a list of operations.
+            else {
+                plan();
+                DataSetGroup groupOp = sqlGroupOp;
+
+                // Prepare the select
+                _query = SQLFactory.select(conn).columns(_createColumns(groupOp));
+                _appendFrom(def, _query);
+
+                // Append the filter clauses
+                for (DataSetFilter filterOp : lookup.getOperationList(DataSetFilter.class)) {
+                    _appendFilterBy(metadata, def, filterOp, _query);
+                }
 
-                    // ... the sort clauses
-                    DataSetSort sortOp = lookup.getFirstSortOp();
-                    if (sortOp != null) {
-                        if (cg != null) {
-                            _appendOrderGroupBy(groupOp, sortOp, groupColumnAdded);
-                        } else {
-                            _appendOrderBy(sortOp);
+                // Append the interval selections
+                List<DataSetGroup> intervalSelects = lookup.getFirstGroupOpSelections();
+                for (DataSetGroup intervalSelect : intervalSelects) {
+                    _appendIntervalSelection(intervalSelect, _query);
+                }
+
+                // ... the group by clauses
+                ColumnGroup cg = null;
+                boolean groupColumnAdded = groupColumnMustBeIncluded(groupOp);
+                if (groupOp != null) {
+                    cg = groupOp.getColumnGroup();
+                    if (cg != null) {
+                        groupColumnAdded &= cg.isPostEnabled();
+                        _appendGroupBy(groupOp);
+
+                        // The in-memory post processing requires that the group column is also included.
+                        // (see DASHBUILDE-181: Error "Column not found" when adding group by column from SQL dataset)
+                        if (groupColumnAdded) {
+                            GroupFunction gf = new GroupFunction(cg.getSourceId(), cg.getColumnId(), null);
+                            groupOp.getGroupFunctions().add(gf);
+                            _query.columns(_createColumn(cg));
                         }
-                    } else if (cg != null) {
-                        _appendOrderGroupBy(groupOp);
                     }
+                }
 
-                    // ... and the row limits.
-                    // If post-processing then defer the trim operation in order to not leave out rows
-                    if (trim && postProcessingOps.isEmpty()) {
-                        if (def.isEstimateSize()) {
-                            totalRows = _query.fetchCount();
-                        }
-                        _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+                // ... the sort clauses
+                if (sortOp != null) {
+                    if (cg != null) {
+                        _appendOrderGroupBy(groupOp, sortOp, groupColumnAdded);
+                    } else {
+                        _appendOrderBy(sortOp);
                     }
+                } else if (cg != null) {
+                    _appendOrderGroupBy(groupOp);
+                }
 
-                    // Fetch the results and build the data set
-                    List<DataColumn> columns = calculateColumns(groupOp);
-                    return buildDataSet(columns, trim, totalRows);
+                // ... and the row limits.
+                // If post-processing then defer the trim operation in order to not leave out rows
+                if (trim && postProcessingOps.isEmpty()) {
+                    if (def.isEstimateSize()) {
+                        totalRows = _query.fetchCount();
+                    }
+                    _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+                } else if (trim) {
+                    plan.addReason("Row offset and limit applied after the in-memory post-processing");
                 }
-            } finally {
-                conn.close();
+
+                // Fetch the results and build the data set
+                columns = calculateColumns(groupOp);
             }
         }
-        
+
         protected DataSet buildDataSet(final List<DataColumn> columns, boolean trim, int totalRows) throws Exception {
+            _query.fetchSize(JDBCUtils.dialect(conn).getFetchSize());
             DataSet dataSet = logSQL(_query).fetch(new ResultSetConsumer<DataSet>() {
                 public DataSet consume(ResultSet _rs) {
                     try {
                         return _buildDataSet(columns, _rs);
+                    } catch (RuntimeException e) {
+                        throw e;
                     } catch (Exception e) {
                         throw new RuntimeException(e);
                     }
@@ -1008,6 +1240,12 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             else if (ColumnType.DATE.equals(columnType)) {
                 _query.groupBy(_createColumn(cg));
                 postProcessing = true;
+
+                // Intervals not expressible as a date pattern are built by merging the finer SQL ones.
+                DateIntervalType intervalType = calculateDateInterval(cg);
+                if (MERGED_DATE_INTERVALS.contains(intervalType)) {
+                    plan.addReason("Group by date '" + sourceId + "' " + intervalType + " intervals completed in memory");
+                }
             }
             // Group by Label or Number (treated as label)
             else {
@@ -1066,22 +1304,14 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             }
 
             // Populate the data set
-            int rowIdx = 0;
-            int numRows = _query.getLimit();
-            while (_rs.next() && (numRows < 0 || rowIdx++ < numRows)) {
-                for (int i=0; i<columns.size(); i++) {
-                    DataColumn column = dataSet.getColumnByIndex(i);
-                    Object value = _rs.getObject(i+1);
-                    // Clob conversion must be done when object is still open
-                    if (value instanceof Clob) {
-                        value = JDBCUtils.clobToString((Clob) value);
-                    }
-                    column.getValues().add(value);
-                }
-            }
+            Dialect dialect = JDBCUtils.dialect(conn);
+            boolean columnarStorage = staticDataSetProvider != null && staticDataSetProvider.isColumnarStorageEnabled();
+            ResultSetReader reader = new ResultSetReader(dialect, columnarStorage);
+            reader.setMaxRows(maxRows);
+            reader.read(_rs, dataSet.getColumns(), _query.getLimit(), expectedRows);
 
             // Process the data set values according to each column type and the JDBC dialect
-            Dialect dialect = JDBCUtils.dialect(conn);
+            // (number & date values are already converted by the reader)
             for (DataColumn column : dataSet.getColumns()) {
                 ColumnType columnType = column.getColumnType();
                 List values = column.getValues();
@@ -1096,38 +1326,24 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
                         // in order to allow the post processing of the data set.
                         column.setColumnType(ColumnType.DATE);
                         for (int j=0; j<values.size(); j++) {
-                            Object val = values.remove(j);
-                            Date dateObj = DateUtils.parseDate(column, val);
-                            values.add(j, dateObj);
+                            Date dateObj = DateUtils.parseDate(column, values.get(j));
+                            values.set(j, dateObj);
                         }
                     }
                     else {
                         for (int j=0; j<values.size(); j++) {
-                            Object value = dialect.convertToString(values.remove(j));
-                            values.add(j, value);
+                            values.set(j, dialect.convertToString(values.get(j)));
                         }
                     }
                 }
-                else if (ColumnType.NUMBER.equals(columnType)) {
+                else if (!ResultSetReader.isTypedColumn(column)) {
                     for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToDouble(values.remove(j));
-                        values.add(j, value);
+                        values.set(j, dialect.convertToString(values.get(j)));
                     }
                 }
-                else if (ColumnType.DATE.equals(columnType)) {
-                    for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToDate(values.remove(j));
-                        values.add(j, value);
-                    }
+                if (columnarStorage && ColumnType.LABEL.equals(column.getColumnType())) {
+                    column.setValues(ColumnValues.of(ColumnType.LABEL, values));
                 }
-                else {
-                    for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToString(values.remove(j));
-                        values.add(j, value);
-                    }
-                }
-
-                column.setValues(values);
             }
             // Some operations requires some in-memory post-processing
             if (!postProcessingOps.isEmpty()) {
@@ -1214,9 +1430,6 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
 
             if (ColumnType.DATE.equals(columnType)) {
                 DateIntervalType intervalType = calculateDateInterval(cg);
-                if (DateIntervalType.DAY_OF_WEEK.equals(intervalType)) {
-                    throw new IllegalArgumentException("Group by DAY_OF_WEEK not supported in SQL data sets");
-                }
                 return SQLFactory.column(dbColumnId, cg.getStrategy(), intervalType);
             }
             if (ColumnType.TEXT.equals(columnType)) {
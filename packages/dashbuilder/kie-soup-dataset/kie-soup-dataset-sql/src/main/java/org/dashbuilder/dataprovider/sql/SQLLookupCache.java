@@ -0,0 +1,303 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dashbuilder.dataset.ConcurrentDataSetIndexRegistry;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.date.TimeAmount;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
+import org.dashbuilder.dataset.sort.DataSetSort;
+
+/**
+ * Cache of the results of the lookups issued against SQL data sets, so identical lookups (e.g. the same dashboard
+ * displayed to many users) do not hit the database again.
+ * <ul>
+ *     <li>Entries are keyed by the data set UUID plus a canonical form of the lookup: its row offset &amp; number
+ *     of rows and its operations. The filter order is not relevant as all of them end up in the same WHERE clause.</li>
+ *     <li>Only the results of data sets with a refresh time are cached and they expire once it elapses. The
+ *     entries of a data set are also discarded when its definition is modified, removed or becomes stale.</li>
+ *     <li>Concurrent identical lookups are resolved by a single query; the other callers wait for its result.</li>
+ *     <li>Once the estimated memory of the cached results exceeds the budget, the least recently used ones are
+ *     evicted.</li>
+ * </ul>
+ * <p>The cache is disabled by default. It can be enabled by setting the memory budget in the
+ * <code>dashbuilder.dataset.sql.lookupCache.maxSize</code> system property (in bytes, the <code>k</code>,
+ * <code>m</code> &amp; <code>g</code> suffixes are supported).</p>
+ */
+public class SQLLookupCache {
+
+    public static final String MAX_SIZE_PROP = "dashbuilder.dataset.sql.lookupCache.maxSize";
+
+    protected Map<String, Entry> entryMap = new ConcurrentHashMap<>();
+    protected long maxSize;
+
+    private AtomicLong size = new AtomicLong();
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+
+    public SQLLookupCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public static boolean isEnabled() {
+        String maxSize = System.getProperty(MAX_SIZE_PROP);
+        return maxSize != null && !maxSize.trim().isEmpty();
+    }
+
+    public static SQLLookupCache fromSystemProperties() {
+        return new SQLLookupCache(ConcurrentDataSetIndexRegistry.parseSize(System.getProperty(MAX_SIZE_PROP)));
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the results of a lookup either from the cache or from the given loader.
+     *
+     * @param def The data set definition. Lookups over definitions with no refresh time are never cached.
+     * @param lookup The lookup. The key is taken before calling the loader, which is free to modify it.
+     * @param loader Fetches the lookup results from the database.
+     * @return The lookup results. Every call gets its own copy of the cached data set.
+     */
+    public DataSet lookup(DataSetDef def, DataSetLookup lookup, Callable<DataSet> loader) throws Exception {
+        long ttl = getTimeToLive(def);
+        if (ttl <= 0) {
+            return loader.call();
+        }
+        String key = getKey(def.getUUID(), lookup);
+        while (true) {
+            long now = currentTimeMillis();
+            Entry entry = entryMap.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                remove(key, entry);
+                entry = null;
+            }
+            if (entry == null) {
+                Entry created = new Entry(def.getUUID(), now, now + ttl);
+                entry = entryMap.putIfAbsent(key, created);
+                if (entry == null) {
+                    misses.incrementAndGet();
+                    return load(key, created, loader).cloneInstance();
+                }
+            }
+            try {
+                entry.lastAccessTime = now;
+                DataSet dataSet = entry.future.get();
+                hits.incrementAndGet();
+                return dataSet.cloneInstance();
+            } catch (ExecutionException e) {
+                // The callers waiting for a failed load get the same error
+                throw unwrap(e);
+            }
+        }
+    }
+
+    protected DataSet load(String key, Entry entry, Callable<DataSet> loader) throws Exception {
+        DataSet dataSet;
+        try {
+            dataSet = loader.call();
+        } catch (Exception e) {
+            entryMap.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        entry.size = dataSet.getEstimatedSize();
+        entry.future.complete(dataSet);
+
+        // Not accounted if the entry has been invalidated while loading
+        if (entry.state.compareAndSet(Entry.LOADING, Entry.ACCOUNTED)) {
+            if (size.addAndGet(entry.size) > maxSize) {
+                evict();
+            }
+        }
+        return dataSet;
+    }
+
+    /**
+     * Discard all the cached results of the given data set.
+     */
+    public void invalidate(String uuid) {
+        for (Map.Entry<String, Entry> e : entryMap.entrySet()) {
+            if (e.getValue().uuid.equals(uuid)) {
+                remove(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    public void clear() {
+        for (Map.Entry<String, Entry> e : entryMap.entrySet()) {
+            remove(e.getKey(), e.getValue());
+        }
+    }
+
+    protected void evict() {
+        long now = currentTimeMillis();
+        List<Candidate> loaded = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : entryMap.entrySet()) {
+            if (!e.getValue().future.isDone()) {
+                continue;
+            }
+            if (e.getValue().isExpired(now)) {
+                remove(e.getKey(), e.getValue());
+            } else {
+                loaded.add(new Candidate(e.getKey(), e.getValue()));
+            }
+        }
+        // Sorted by the access times taken above, as lookups keep updating them
+        Collections.sort(loaded, Comparator.comparingLong(c -> c.lastAccessTime));
+        for (int i = 0; i < loaded.size() && size.get() > maxSize; i++) {
+            if (remove(loaded.get(i).key, loaded.get(i).entry)) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    protected boolean remove(String key, Entry entry) {
+        if (entryMap.remove(key, entry)) {
+            // Entries still loading have no size accounted yet
+            if (entry.state.getAndSet(Entry.REMOVED) == Entry.ACCOUNTED) {
+                size.addAndGet(-entry.size);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    protected long getTimeToLive(DataSetDef def) {
+        TimeAmount refreshTime = def.getRefreshTimeAmount();
+        return refreshTime != null ? refreshTime.toMillis() : 0;
+    }
+
+    /**
+     * Get the canonical form of a lookup.
+     */
+    public String getKey(String uuid, DataSetLookup lookup) {
+        DataSetLookupJSONMarshaller marshaller = DataSetLookupJSONMarshaller.get();
+        List<String> filters = new ArrayList<>();
+        StringBuilder ops = new StringBuilder();
+        for (DataSetOp op : lookup.getOperationList()) {
+            if (op instanceof DataSetFilter) {
+                for (ColumnFilter filter : ((DataSetFilter) op).getColumnFilterList()) {
+                    filters.add(marshaller.formatColumnFilter(filter).toJson());
+                }
+            } else if (op instanceof DataSetGroup) {
+                ops.append(marshaller.formatGroupOperations(Collections.singletonList((DataSetGroup) op)).toJson());
+            } else if (op instanceof DataSetSort) {
+                ops.append(marshaller.formatSortOperations(Collections.singletonList((DataSetSort) op)).toJson());
+            }
+        }
+        Collections.sort(filters);
+        StringBuilder key = new StringBuilder(uuid);
+        key.append('|').append(lookup.getRowOffset()).append('|').append(lookup.getNumberOfRows()).append('|');
+        for (String filter : filters) {
+            key.append(filter);
+        }
+        return key.append('|').append(ops).toString();
+    }
+
+    public int getEntryCount() {
+        return entryMap.size();
+    }
+
+    /**
+     * The estimated memory of the cached results, in bytes.
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        return e;
+    }
+
+    protected static class Entry {
+
+        static final int LOADING = 0;
+        static final int ACCOUNTED = 1;
+        static final int REMOVED = 2;
+
+        String uuid;
+        long expirationTime;
+        volatile long lastAccessTime;
+        long size;
+        CompletableFuture<DataSet> future = new CompletableFuture<>();
+        // Whether the size of the entry is added to the cache size. It is added once, and only subtracted if added
+        AtomicInteger state = new AtomicInteger(LOADING);
+
+        Entry(String uuid, long creationTime, long expirationTime) {
+            this.uuid = uuid;
+            this.expirationTime = expirationTime;
+            this.lastAccessTime = creationTime;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expirationTime;
+        }
+    }
+
+    private static class Candidate {
+
+        final String key;
+        final Entry entry;
+        final long lastAccessTime;
+
+        Candidate(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccessTime = entry.lastAccessTime;
+        }
+    }
+}
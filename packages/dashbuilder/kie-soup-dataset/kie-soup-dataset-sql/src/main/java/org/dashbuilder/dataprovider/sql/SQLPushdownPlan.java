@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.dashbuilder.dataset.DataSetOp;
+
+/**
+ * How a data set lookup is executed against the database: the SQL statement issued plus the operations
+ * that could not be translated into SQL and are executed in memory over the query results.
+ * <p>Every operation (or part of it) not pushed down to the database is reported together with the reason.</p>
+ *
+ * @see SQLDataSetProvider#explainLookup
+ */
+public class SQLPushdownPlan {
+
+    private String sql;
+    private List<DataSetOp> inMemoryOps = new ArrayList<>();
+    private List<String> reasons = new ArrayList<>();
+
+    /**
+     * The SQL statement issued for the lookup or null if the lookup is served from the in-memory cache.
+     */
+    public String getSQL() {
+        return sql;
+    }
+
+    public void setSQL(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * The lookup operations executed in memory over the query results.
+     */
+    public List<DataSetOp> getInMemoryOps() {
+        return Collections.unmodifiableList(inMemoryOps);
+    }
+
+    /**
+     * Why any operation was not completely pushed down to the database.
+     */
+    public List<String> getReasons() {
+        return Collections.unmodifiableList(reasons);
+    }
+
+    public boolean isFullyPushedDown() {
+        return reasons.isEmpty();
+    }
+
+    public void addInMemoryOp(DataSetOp op, String reason) {
+        inMemoryOps.add(op);
+        reasons.add(reason);
+    }
+
+    public void addReason(String reason) {
+        reasons.add(reason);
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(sql != null ? sql : "(in-memory)");
+        for (String reason : reasons) {
+            out.append("\n  - ").append(reason);
+        }
+        return out.toString();
+    }
+}
@@ -25,7 +25,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.dataprovider.sql.model.Column;
@@ -48,6 +50,7 @@ import org.dashbuilder.dataset.filter.CoreFunctionType;
 import org.dashbuilder.dataset.filter.LogicalExprType;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.group.GroupStrategy;
 import org.dashbuilder.dataset.sort.SortOrder;
 
 import static org.dashbuilder.dataprovider.sql.SQLFactory.column;
@@ -57,6 +60,26 @@ public class DefaultDialect implements Dialect {
 
     private static final String AND = " AND ";
 
+    public static final String FETCH_SIZE_PROP = "dashbuilder.dataset.sql.fetchSize";
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Date intervals supported by {@link #toChar(DynamicDateColumn)}
+     */
+    protected static final Set<DateIntervalType> DYNAMIC_DATE_INTERVALS = EnumSet.of(
+            DateIntervalType.SECOND, DateIntervalType.MINUTE, DateIntervalType.HOUR, DateIntervalType.DAY,
+            DateIntervalType.WEEK, DateIntervalType.MONTH, DateIntervalType.QUARTER, DateIntervalType.YEAR,
+            DateIntervalType.DECADE, DateIntervalType.CENTURY, DateIntervalType.MILLENIUM);
+
+    /**
+     * Date intervals supported by {@link #getFixedDateColumnSQL(FixedDateColumn)}.
+     * DAY_OF_WEEK is left out as there is no portable SQL function returning the day of the week, see
+     * {@link #getDayOfWeekSQL(Column)}.
+     */
+    protected static final Set<DateIntervalType> FIXED_DATE_INTERVALS = EnumSet.of(
+            DateIntervalType.SECOND, DateIntervalType.MINUTE, DateIntervalType.HOUR,
+            DateIntervalType.MONTH, DateIntervalType.QUARTER);
+
     @Override
     public String[] getExcludedColumns() {
         return new String[] {};
@@ -340,7 +363,7 @@ public class DefaultDialect implements Dialect {
             return getColumnSQL(target.hour());
         }
         if (DateIntervalType.DAY_OF_WEEK.equals(type)) {
-            return getColumnSQL(target.day());
+            return getDayOfWeekSQL(target);
         }
         if (DateIntervalType.MONTH.equals(type)) {
             return getColumnSQL(target.month());
@@ -354,6 +377,15 @@ public class DefaultDialect implements Dialect {
                 StringUtils.join(DateIntervalType.FIXED_INTERVALS_SUPPORTED, ","));
     }
 
+    /**
+     * The day of the week of a date column, from 1 (Sunday) to 7 (Saturday).
+     * Dialects supporting it must also declare it in {@link #isDateIntervalSupported(GroupStrategy, DateIntervalType)}.
+     */
+    protected String getDayOfWeekSQL(Column column) {
+        throw new IllegalArgumentException("Group '" + column.getName() +
+                "' by the given date interval type is not supported: " + DateIntervalType.DAY_OF_WEEK);
+    }
+
     @Override
     public String getColumnNameSQL(String name) {
         return name;
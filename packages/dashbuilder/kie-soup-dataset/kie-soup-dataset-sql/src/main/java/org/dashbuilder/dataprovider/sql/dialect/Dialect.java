@@ -32,6 +32,8 @@ import org.dashbuilder.dataprovider.sql.model.Select;
 import org.dashbuilder.dataprovider.sql.model.SimpleColumn;
 import org.dashbuilder.dataprovider.sql.model.SortColumn;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.group.GroupStrategy;
 import org.dashbuilder.dataset.sort.SortOrder;
 
 public interface Dialect {
@@ -86,6 +88,16 @@ public interface Dialect {
 
     Date convertToDate(Object value);
 
+    /**
+     * The JDBC fetch size for the queries reading the data set rows. Zero to keep the driver's default.
+     * <p>Many drivers get a few rows per round trip by default (e.g. 10 in Oracle), which is too low for reading
+     * whole tables. The value can be changed through the <code>dashbuilder.dataset.sql.fetchSize</code>
+     * system property.</p>
+     */
+    default int getFetchSize() {
+        return Integer.getInteger(DefaultDialect.FETCH_SIZE_PROP, DefaultDialect.DEFAULT_FETCH_SIZE);
+    }
+
     String[] getExcludedColumns();
 
     String getTableSQL(SQLStatement<?> stmt);
@@ -112,6 +124,18 @@ public interface Dialect {
 
     String getFixedDateColumnSQL(FixedDateColumn column);
 
+    /**
+     * Check if a date column can be grouped by the given interval in SQL.
+     * Date groups not supported are executed in memory over the query results.
+     * By default, the intervals translated by the {@link DefaultDialect} are supported.
+     */
+    default boolean isDateIntervalSupported(GroupStrategy strategy, DateIntervalType intervalType) {
+        if (GroupStrategy.FIXED.equals(strategy)) {
+            return DefaultDialect.FIXED_DATE_INTERVALS.contains(intervalType);
+        }
+        return DefaultDialect.DYNAMIC_DATE_INTERVALS.contains(intervalType);
+    }
+
     String getColumnNameSQL(String name);
 
     String getColumnNameQuotedSQL(String name);
@@ -15,6 +15,22 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import org.dashbuilder.dataprovider.sql.model.Column;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.group.GroupStrategy;
+
 public class H2Dialect extends DefaultDialect {
 
+    @Override
+    public boolean isDateIntervalSupported(GroupStrategy strategy, DateIntervalType intervalType) {
+        if (GroupStrategy.FIXED.equals(strategy) && DateIntervalType.DAY_OF_WEEK.equals(intervalType)) {
+            return true;
+        }
+        return super.isDateIntervalSupported(strategy, intervalType);
+    }
+
+    @Override
+    protected String getDayOfWeekSQL(Column column) {
+        return "MOD(ISO_DAY_OF_WEEK(" + getColumnSQL(column) + "), 7) + 1";
+    }
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.dashbuilder.dataprovider.sql.model.Column;
 import org.dashbuilder.dataprovider.sql.model.DynamicDateColumn;
 import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.group.GroupStrategy;
 
 public class MySQLDialect extends DefaultDialect {
 
@@ -88,4 +89,17 @@ public class MySQLDialect extends DefaultDialect {
         String columnName = getColumnNameSQL(column.getName());
         return "DATE_FORMAT(" + columnName + ", '" + datePattern + "')";
     }
+
+    @Override
+    public boolean isDateIntervalSupported(GroupStrategy strategy, DateIntervalType intervalType) {
+        if (GroupStrategy.FIXED.equals(strategy) && DateIntervalType.DAY_OF_WEEK.equals(intervalType)) {
+            return true;
+        }
+        return super.isDateIntervalSupported(strategy, intervalType);
+    }
+
+    @Override
+    protected String getDayOfWeekSQL(Column column) {
+        return "DAYOFWEEK(" + getColumnSQL(column) + ")";
+    }
 }
@@ -18,8 +18,10 @@ package org.dashbuilder.dataprovider.sql.dialect;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.dashbuilder.dataprovider.sql.model.Column;
 import org.dashbuilder.dataprovider.sql.model.DynamicDateColumn;
 import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.group.GroupStrategy;
 
 public class PostgresDialect extends DefaultDialect {
 
@@ -71,4 +73,17 @@ public class PostgresDialect extends DefaultDialect {
         String columnName = getColumnNameSQL(column.getName());
         return "TO_CHAR(" + columnName + ", '" + datePattern + "')";
     }
+
+    @Override
+    public boolean isDateIntervalSupported(GroupStrategy strategy, DateIntervalType intervalType) {
+        if (GroupStrategy.FIXED.equals(strategy) && DateIntervalType.DAY_OF_WEEK.equals(intervalType)) {
+            return true;
+        }
+        return super.isDateIntervalSupported(strategy, intervalType);
+    }
+
+    @Override
+    protected String getDayOfWeekSQL(Column column) {
+        return "EXTRACT(DOW FROM " + getColumnSQL(column) + ") + 1";
+    }
 }
@@ -41,6 +41,7 @@ public class Select extends SQLStatement<Select> {
     protected int limit = -1;
     protected int offset = -1;
     protected boolean offsetPostProcessing = false;
+    protected int fetchSize = 0;
     protected List<String> quotedFields = null;
 
     public Select(Connection connection, Dialect dialect) {
@@ -87,6 +88,10 @@ public class Select extends SQLStatement<Select> {
         return offset;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     public Select columns(Column... cols) {
         for (Column column : cols) {
             columns.add(fix(column));
@@ -151,6 +156,15 @@ public class Select extends SQLStatement<Select> {
         return this;
     }
 
+    /**
+     * Number of rows to get from the database on every round trip while reading the results.
+     * Zero (default) to keep the JDBC driver's default.
+     */
+    public Select fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
     public String getSQL() {
         quotedFields = JDBCUtils.getWordsBetweenQuotes(fromSelect);
 
@@ -187,7 +201,7 @@ public class Select extends SQLStatement<Select> {
     public <R> R fetch(ResultSetConsumer<R> consumer) {
         try {
             String sql = getSQL();
-            try (ResultSetHandler handler = JDBCUtils.executeQuery(connection, sql)){
+            try (ResultSetHandler handler = fetchSize > 0 ? JDBCUtils.executeQuery(connection, sql, fetchSize) : JDBCUtils.executeQuery(connection, sql)){
                 return consumer.consume(handler.getResultSet());
             } catch (Exception e) {
                 logger.debug("SQLException while fetching results with SQL command [{}]. Exception: [{}]", sql, e);
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.dashbuilder.dataprovider.sql.SQLFactory.select;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DATE;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_ID;
+
+public class ResultSetReaderTest extends SQLDataSetTestBase {
+
+    static final String SQL = "SELECT " + COLUMN_ID + ", " + COLUMN_AMOUNT + ", " + COLUMN_DATE + ", " + COLUMN_CITY
+            + " FROM EXPENSE_REPORTS ORDER BY " + COLUMN_ID;
+
+    @Test
+    public void testReadTyped() throws Exception {
+        List<DataColumn> columns = read(false, -1, -1);
+        int total = select(conn).from(EXPENSES).fetchCount();
+        assertThat(columns.get(0).getValues()).hasSize(total);
+        assertThat(columns.get(0).getValues().get(0)).isEqualTo(1d);
+        assertThat(columns.get(1).getValues().get(0)).isInstanceOf(Double.class);
+        assertThat(columns.get(2).getValues().get(0)).isInstanceOf(Date.class);
+        assertThat(columns.get(3).getValues().get(0)).isInstanceOf(String.class);
+    }
+
+    @Test
+    public void testReadColumnar() throws Exception {
+        List<DataColumn> rows = read(false, -1, -1);
+        List<DataColumn> columnar = read(true, -1, 1);
+        assertThat(columnar.get(0).getValues()).isInstanceOf(NumberColumnValues.class);
+        assertThat(columnar.get(1).getValues()).isInstanceOf(NumberColumnValues.class);
+        assertThat(columnar.get(2).getValues()).isInstanceOf(DateColumnValues.class);
+        assertThat(columnar.get(0).getValues()).containsExactlyElementsOf(rows.get(0).getValues());
+        assertThat(columnar.get(1).getValues()).containsExactlyElementsOf(rows.get(1).getValues());
+        assertThat(columnar.get(3).getValues()).containsExactlyElementsOf(rows.get(3).getValues());
+        List<Date> dates = columnar.get(2).getValues();
+        for (int i = 0; i < dates.size(); i++) {
+            assertThat(dates.get(i).getTime()).isEqualTo(((Date) rows.get(2).getValues().get(i)).getTime());
+        }
+    }
+
+    @Test
+    public void testReadLimit() throws Exception {
+        List<DataColumn> columns = read(false, 10, -1);
+        assertThat(columns.get(0).getValues()).hasSize(10);
+    }
+
+    @Test
+    public void testMaxRows() throws Exception {
+        int total = select(conn).from(EXPENSES).fetchCount();
+        assertThat(read(false, -1, -1, total).get(0).getValues()).hasSize(total);
+        assertThatThrownBy(() -> read(false, -1, -1, total - 1))
+                .isInstanceOf(ResultSetReader.RowLimitExceededException.class);
+    }
+
+    private List<DataColumn> read(boolean columnar, int limit, int expectedRows) throws Exception {
+        return read(columnar, limit, expectedRows, -1);
+    }
+
+    private List<DataColumn> read(boolean columnar, int limit, int expectedRows, int maxRows) throws Exception {
+        List<DataColumn> columns = DataSetFactory.newDataSetBuilder()
+                .number(COLUMN_ID)
+                .number(COLUMN_AMOUNT)
+                .date(COLUMN_DATE)
+                .label(COLUMN_CITY)
+                .buildDataSet()
+                .getColumns();
+        assertThat(columns.get(3).getColumnType()).isEqualTo(ColumnType.LABEL);
+
+        ResultSetReader reader = new ResultSetReader(JDBCUtils.dialect(conn), columnar);
+        reader.setMaxRows(maxRows);
+        try (ResultSetHandler handler = JDBCUtils.executeQuery(conn, SQL, 10)) {
+            reader.read(handler.getResultSet(), columns, limit, expectedRows);
+        }
+        return columns;
+    }
+}
@@ -17,8 +17,11 @@ package org.dashbuilder.dataprovider.sql;
 
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
+import org.dashbuilder.dataprovider.DataSetRefresher;
+import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookupFactory;
 import org.dashbuilder.dataset.DataSetMetadata;
@@ -45,6 +48,8 @@ public class SQLDataSetDefTest extends SQLDataSetTestBase {
         if (!testSettings.isMonetDB()) {
             testAllColumns();
         }
+        testTooBigToCache();
+        testStaleWhileRevalidate();
         testSQLDataSet();
         testColumnSet();
         testColumnAlias();
@@ -78,6 +83,69 @@ public class SQLDataSetDefTest extends SQLDataSetTestBase {
         assertThat(metadata.getNumberOfRows()).isEqualTo(0);
     }
 
+    @Test
+    public void testTooBigToCache() throws Exception {
+        URL fileURL = Thread.currentThread().getContextClassLoader().getResource("expenseReports_allcolumns.dset");
+        String json = IOUtils.toString(fileURL, StandardCharsets.UTF_8);
+        SQLDataSetDef def = (SQLDataSetDef) jsonMarshaller.fromJson(json);
+        def.setEstimateSize(false);
+        def.setCacheEnabled(true);
+        def.setCacheMaxRows(10);
+        dataSetDefRegistry.registerDataSetDef(def);
+
+        // The rows are only known to exceed the cache once read
+        DataSet result = dataSetManager.lookupDataSet(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset("expense_reports_allcolumns")
+                .rowNumber(20)
+                .buildLookup());
+        assertThat(result.getRowCount()).isEqualTo(20);
+        assertThat(sqlDataSetProvider.tooBigToCacheSet).contains(def.getUUID());
+        assertThat(sqlDataSetProvider.getStaticDataSetProvider().lookupDataSet(def.getUUID(), null)).isNull();
+
+        // Until the data set becomes stale
+        sqlDataSetProvider.onDataSetDefStale(def);
+        assertThat(sqlDataSetProvider.tooBigToCacheSet).doesNotContain(def.getUUID());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        URL fileURL = Thread.currentThread().getContextClassLoader().getResource("expenseReports_allcolumns.dset");
+        String json = IOUtils.toString(fileURL, StandardCharsets.UTF_8);
+        SQLDataSetDef def = (SQLDataSetDef) jsonMarshaller.fromJson(json);
+        def.setCacheEnabled(true);
+        def.setCacheMaxRows(100);
+        dataSetDefRegistry.registerDataSetDef(def);
+        StaticDataSetProvider staticProvider = sqlDataSetProvider.getStaticDataSetProvider();
+        DataSetRefresher refresher = staticProvider.getRefresher();
+        refresher.removeStats(def.getUUID());
+        refresher.setStaleWhileRevalidate(true);
+        try {
+            // The cold load goes through the refresher
+            dataSetManager.lookupDataSet(DataSetLookupFactory.newDataSetLookupBuilder()
+                    .dataset(def.getUUID())
+                    .buildLookup());
+            DataSet previous = staticProvider.lookupDataSet(def.getUUID(), null);
+            assertThat(previous.getRowCount()).isEqualTo(50);
+            assertThat(refresher.getStats(def.getUUID()).getLoads()).isEqualTo(1);
+
+            // The previous version is served until the background refresh completes
+            assertThat(sqlDataSetProvider.refreshDataSet(def).get(10, TimeUnit.SECONDS)).isTrue();
+            DataSet current = staticProvider.lookupDataSet(def.getUUID(), null);
+            assertThat(current).isNotSameAs(previous);
+            assertThat(current.getRowCount()).isEqualTo(50);
+            assertThat(refresher.getStats(def.getUUID()).getLoads()).isEqualTo(2);
+
+            // Nothing is kept once the definition is removed
+            sqlDataSetProvider.onDataSetDefRemoved(def);
+            assertThat(staticProvider.lookupDataSet(def.getUUID(), null)).isNull();
+            assertThat(refresher.getStats(def.getUUID())).isNull();
+        } finally {
+            refresher.setStaleWhileRevalidate(false);
+            sqlDataSetProvider.onDataSetDefStale(def);
+        }
+        assertThat(staticProvider.lookupDataSet(def.getUUID(), null)).isNull();
+    }
+
     @Test
     public void testSQLDataSet() throws Exception {
         String testDataSetFile = testSettings.getExpenseReportsSqlDsetFile();
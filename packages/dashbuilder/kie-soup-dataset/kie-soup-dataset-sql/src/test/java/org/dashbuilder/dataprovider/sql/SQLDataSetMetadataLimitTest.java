@@ -67,6 +67,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
@@ -127,6 +128,7 @@ public class SQLDataSetMetadataLimitTest {
 
         when(dialect(any(Connection.class))).thenReturn(dialect);
         when(executeQuery(any(Connection.class), any())).thenReturn(resultSetHandler);
+        when(executeQuery(any(Connection.class), any(), anyInt())).thenReturn(resultSetHandler);
         when(getColumns(any(),any())).thenReturn(dbColumns);
         when(fixCase(any(Connection.class),eq("test"))).thenReturn("TEST");
         when(fixCase(any(Connection.class), eq("dbWins1"))).thenReturn("dbWins1");
@@ -201,7 +203,7 @@ public class SQLDataSetMetadataLimitTest {
         ArgumentCaptor<String> sql = forClass(String.class);
 
         verifyStatic(JDBCUtils.class, atLeastOnce());
-        executeQuery(conn.capture(), sql.capture());
+        executeQuery(conn.capture(), sql.capture(), anyInt());
 
         assertions.accept(sql.getValue(), result);
     }
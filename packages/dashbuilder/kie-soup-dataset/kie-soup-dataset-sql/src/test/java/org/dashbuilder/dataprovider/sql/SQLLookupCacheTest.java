@@ -0,0 +1,231 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataprovider.sql.SQLFactory.insert;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+
+public class SQLLookupCacheTest extends SQLDataSetTestBase {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+    public static final String EXPENSE_REPORTS_CACHED = "expense_reports_cached";
+
+    long time = 0;
+    SQLLookupCache lookupCache = new SQLLookupCache(Long.MAX_VALUE) {
+        protected long currentTimeMillis() {
+            return time;
+        }
+    };
+    SQLDataSetDef cachedDef;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        sqlDataSetProvider.setLookupCache(lookupCache);
+
+        cachedDef = (SQLDataSetDef) dataSetDefRegistry.getDataSetDef(EXPENSE_REPORTS).clone();
+        cachedDef.setUUID(EXPENSE_REPORTS_CACHED);
+        cachedDef.setRefreshTime("1minute");
+        dataSetDefRegistry.registerDataSetDef(cachedDef);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sqlDataSetProvider.setLookupCache(null);
+        dataSetDefRegistry.removeDataSetDef(EXPENSE_REPORTS_CACHED);
+        super.tearDown();
+    }
+
+    @Test
+    public void testLookupCached() throws Exception {
+        DataSet first = dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS_CACHED));
+        insert(conn).into(EXPENSES)
+                .set(ID, 1000)
+                .set(CITY, "Barcelona")
+                .set(DEPT, "Engineering")
+                .set(EMPLOYEE, "Jane Doe")
+                .set(DATE, new Date())
+                .set(AMOUNT, 1000d)
+                .execute();
+
+        // Served from the cache until the refresh time elapses
+        DataSet second = dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS_CACHED));
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getValueAt(0, 1)).isEqualTo(first.getValueAt(0, 1));
+        assertThat(lookupCache.getMisses()).isEqualTo(1);
+        assertThat(lookupCache.getHits()).isEqualTo(1);
+        assertThat(lookupCache.getSize()).isGreaterThan(0);
+
+        time += 60000;
+        DataSet third = dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS_CACHED));
+        assertThat((Double) third.getValueAt(0, 1)).isEqualTo((Double) first.getValueAt(0, 1) + 1000d);
+        assertThat(lookupCache.getMisses()).isEqualTo(2);
+        assertThat(lookupCache.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS_CACHED));
+        assertThat(lookupCache.getEntryCount()).isEqualTo(1);
+
+        sqlDataSetProvider.onDataSetDefStale(cachedDef);
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+        assertThat(lookupCache.getSize()).isEqualTo(0);
+
+        dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS_CACHED));
+        SQLDataSetDef modified = (SQLDataSetDef) cachedDef.clone();
+        modified.setRefreshTime("2minute");
+        dataSetDefRegistry.registerDataSetDef(modified);
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNoRefreshTime() throws Exception {
+        dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS));
+        dataSetManager.lookupDataSet(totalByDept(EXPENSE_REPORTS));
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+        assertThat(lookupCache.getMisses()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCanonicalKey() throws Exception {
+        DataSetLookup lookup1 = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS_CACHED)
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .filter(COLUMN_AMOUNT, greaterThan(100))
+                .buildLookup();
+        DataSetLookup lookup2 = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS_CACHED)
+                .filter(COLUMN_AMOUNT, greaterThan(100))
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .buildLookup();
+        String key = lookupCache.getKey(EXPENSE_REPORTS_CACHED, lookup1);
+        assertThat(lookupCache.getKey(EXPENSE_REPORTS_CACHED, lookup2)).isEqualTo(key);
+        assertThat(lookupCache.getKey(EXPENSE_REPORTS, lookup1)).isNotEqualTo(key);
+
+        lookup2.setNumberOfRows(10);
+        assertThat(lookupCache.getKey(EXPENSE_REPORTS_CACHED, lookup2)).isNotEqualTo(key);
+        assertThat(lookupCache.getKey(EXPENSE_REPORTS_CACHED, totalByDept(EXPENSE_REPORTS_CACHED)))
+                .isEqualTo(lookupCache.getKey(EXPENSE_REPORTS_CACHED, totalByDept(EXPENSE_REPORTS_CACHED)))
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        DataSet dataSet = DataSetFactory.newDataSetBuilder().label(COLUMN_CITY).row("Barcelona").buildDataSet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> lookupCache.lookup(cachedDef, totalByDept(EXPENSE_REPORTS_CACHED), () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    release.await();
+                    return dataSet;
+                }));
+            }
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<?> result : results) {
+                assertThat(((DataSet) result.get(10, TimeUnit.SECONDS)).getValueAt(0, 0)).isEqualTo("Barcelona");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(lookupCache.getMisses()).isEqualTo(1);
+        assertThat(lookupCache.getHits()).isEqualTo(3);
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder().label(COLUMN_CITY).row("Barcelona").buildDataSet();
+        long size = dataSet.getEstimatedSize();
+        SQLLookupCache cache = new SQLLookupCache(size * 2 + size / 2) {
+            protected long currentTimeMillis() {
+                return time;
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            time++;
+            DataSetLookup lookup = totalByDept(EXPENSE_REPORTS_CACHED);
+            lookup.setRowOffset(i);
+            cache.lookup(cachedDef, lookup, () -> dataSet);
+        }
+        // The least recently used entry is evicted
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(size * 2);
+
+        DataSetLookup first = totalByDept(EXPENSE_REPORTS_CACHED);
+        cache.lookup(cachedDef, first, () -> dataSet);
+        assertThat(cache.getMisses()).isEqualTo(4);
+    }
+
+    @Test
+    public void testInvalidatedOnceLoaded() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder().label(COLUMN_CITY).row("Barcelona").buildDataSet();
+        lookupCache.lookup(cachedDef, totalByDept(EXPENSE_REPORTS_CACHED), () -> {
+            // Invalidated right as the load completes, before its size is accounted
+            lookupCache.entryMap.values().forEach(entry -> entry.future.thenRun(() -> lookupCache.invalidate(EXPENSE_REPORTS_CACHED)));
+            return dataSet;
+        });
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+        assertThat(lookupCache.getSize()).isEqualTo(0);
+
+        lookupCache.lookup(cachedDef, totalByDept(EXPENSE_REPORTS_CACHED), () -> dataSet);
+        assertThat(lookupCache.getSize()).isEqualTo(dataSet.getEstimatedSize());
+        lookupCache.clear();
+        assertThat(lookupCache.getSize()).isEqualTo(0);
+    }
+
+    private DataSetLookup totalByDept(String uuid) {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(uuid)
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, SUM, "total")
+                .sort(COLUMN_DEPARTMENT, "asc")
+                .buildLookup();
+    }
+}
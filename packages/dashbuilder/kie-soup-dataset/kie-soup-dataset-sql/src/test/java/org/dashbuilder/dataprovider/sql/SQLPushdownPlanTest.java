@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DATE;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.dashbuilder.dataset.group.DateIntervalType.DAY_OF_WEEK;
+import static org.dashbuilder.dataset.group.DateIntervalType.MONTH;
+import static org.dashbuilder.dataset.group.DateIntervalType.QUARTER;
+import static org.dashbuilder.dataset.sort.SortOrder.DESCENDING;
+
+public class SQLPushdownPlanTest extends SQLDataSetTestBase {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+
+    @Override
+    public void testAll() throws Exception {
+        testGroupPushedDown();
+        testDateGroupPushedDown();
+        testDateGroupMergedInMemory();
+        testDayOfWeekGroup();
+    }
+
+    @Test
+    public void testGroupPushedDown() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, greaterThan(100))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, SUM, "total")
+                .sort("total", DESCENDING)
+                .rowNumber(2)
+                .buildLookup();
+
+        SQLPushdownPlan plan = explain(lookup);
+        assertThat(plan.isFullyPushedDown()).isTrue();
+        assertThat(plan.getInMemoryOps()).isEmpty();
+        assertThat(plan.getSQL()).contains("WHERE", "GROUP BY", "ORDER BY");
+
+        DataSet result = dataSetManager.lookupDataSet(lookup);
+        assertThat(result.getRowCount()).isEqualTo(2);
+        assertThat(result.getValueAt(0, 0)).isEqualTo("Engineering");
+    }
+
+    @Test
+    public void testDateGroupPushedDown() throws Exception {
+        SQLPushdownPlan plan = explain(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DATE).fixed(MONTH, true)
+                .column(COLUMN_DATE)
+                .column(COUNT, "occurrences")
+                .buildLookup());
+
+        assertThat(plan.isFullyPushedDown()).isTrue();
+        assertThat(plan.getSQL()).contains("GROUP BY");
+    }
+
+    @Test
+    public void testDateGroupMergedInMemory() throws Exception {
+        SQLPushdownPlan plan = explain(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DATE).fixed(QUARTER, true)
+                .column(COLUMN_DATE)
+                .column(COUNT, "occurrences")
+                .rowNumber(2)
+                .buildLookup());
+
+        // Grouped by month in SQL, the quarters are built in memory
+        assertThat(plan.getSQL()).contains("GROUP BY");
+        assertThat(plan.getInMemoryOps()).isEmpty();
+        assertThat(plan.getReasons()).hasSize(2);
+        assertThat(plan.getReasons().get(0)).contains(COLUMN_DATE, "QUARTER");
+    }
+
+    @Test
+    public void testDayOfWeekGroup() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, greaterThan(100))
+                .group(COLUMN_DATE).fixed(DAY_OF_WEEK, true)
+                .column(COLUMN_DATE)
+                .column(COLUMN_AMOUNT, SUM, "total")
+                .sort("total", DESCENDING)
+                .buildLookup();
+        SQLPushdownPlan plan = explain(lookup);
+
+        // The filter is always pushed down
+        assertThat(plan.getSQL()).contains("WHERE");
+        if (testSettings.isH2() || testSettings.isMySQL() || testSettings.isMariaDB() || testSettings.isPostgres()) {
+            assertThat(plan.getSQL()).contains("GROUP BY");
+            assertThat(plan.isFullyPushedDown()).isTrue();
+        } else {
+            assertThat(plan.getSQL()).doesNotContain("GROUP BY");
+            assertThat(plan.isFullyPushedDown()).isFalse();
+            assertThat(plan.getInMemoryOps()).hasSize(2);
+            assertThat(plan.getInMemoryOps().get(0)).isInstanceOf(DataSetGroup.class);
+            assertThat(plan.getInMemoryOps().get(1)).isInstanceOf(DataSetSort.class);
+            assertThat(plan.getReasons().get(0)).contains(COLUMN_DATE, "DAY_OF_WEEK");
+        }
+
+        // Either way, same groups as in memory
+        DataSet expected = DataSetCore.get().getSharedDataSetOpEngine().execute(ExpenseReportsData.INSTANCE.toDataSet(),
+                                                                                lookup.cloneInstance().getOperationList());
+        DataSet result = dataSetManager.lookupDataSet(lookup);
+        assertThat(totalsByDay(result)).isEqualTo(totalsByDay(expected));
+    }
+
+    private Map<Object, Long> totalsByDay(DataSet dataSet) {
+        Map<Object, Long> result = new HashMap<>();
+        for (int i = 0; i < dataSet.getRowCount(); i++) {
+            result.put(dataSet.getValueAt(i, 0), Math.round((Double) dataSet.getValueAt(i, 1) * 100));
+        }
+        return result;
+    }
+
+    private SQLPushdownPlan explain(DataSetLookup lookup) throws Exception {
+        SQLDataSetDef def = (SQLDataSetDef) dataSetDefRegistry.getDataSetDef(EXPENSE_REPORTS);
+        return sqlDataSetProvider.explainLookup(def, lookup);
+    }
+}
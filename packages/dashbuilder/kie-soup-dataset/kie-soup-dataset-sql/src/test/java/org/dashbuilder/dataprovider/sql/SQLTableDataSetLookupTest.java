@@ -233,9 +233,9 @@ public class SQLTableDataSetLookupTest extends SQLDataSetTestBase {
         subTest.testGroupNumberAsLabel();
     }
 
-    @Test(expected = Exception.class)
+    @Test
     public void testGroupByDayOfWeekFixed() throws Exception {
-        // Not supported in SQL data sets
+        // Not supported in SQL, executed in memory
         DataSetGroupTest subTest = new DataSetGroupTest();
         subTest.testGroupByDayOfWeekFixed();
     }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A packed R-tree over rectangular bounds.
+ * <p>
+ * The tree is bulk loaded using the Sort-Tile-Recursive algorithm: the items are sorted by the x coordinate of their
+ * centers, cut into vertical slices, and every slice is sorted by the y coordinate before packing the items into
+ * nodes of at most {@link #NODE_CAPACITY} entries. Upper levels are built the same way until a single root remains.
+ * Point and rectangle queries visit only the nodes whose bounds intersect the query, so they run in
+ * O(log n + k), being k the number of items found.
+ * <p>
+ * The tree cannot be modified once built.
+ */
+public final class BoundsTree<T> {
+
+    static final int NODE_CAPACITY = 16;
+
+    private final TreeNode<T> root;
+    private final int size;
+
+    private BoundsTree(final TreeNode<T> root,
+                       final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits the items whose bounds contain the given point, borders included.
+     */
+    public void search(final double x,
+                       final double y,
+                       final Consumer<T> consumer) {
+        search(x,
+               y,
+               x,
+               y,
+               consumer);
+    }
+
+    /**
+     * Visits the items whose bounds intersect the given rectangle, borders included.
+     */
+    public void search(final double ulX,
+                       final double ulY,
+                       final double lrX,
+                       final double lrY,
+                       final Consumer<T> consumer) {
+        if (null != root) {
+            root.search(ulX,
+                        ulY,
+                        lrX,
+                        lrY,
+                        consumer);
+        }
+    }
+
+    public List<T> search(final double ulX,
+                          final double ulY,
+                          final double lrX,
+                          final double lrY) {
+        final List<T> result = new ArrayList<>();
+        search(ulX,
+               ulY,
+               lrX,
+               lrY,
+               result::add);
+        return result;
+    }
+
+    public static final class Builder<T> {
+
+        private final List<TreeNode<T>> items = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an item. Items with undefined (NaN) coordinates are not added, as no query can match them.
+         */
+        public Builder<T> add(final T item,
+                              final double ulX,
+                              final double ulY,
+                              final double lrX,
+                              final double lrY) {
+            if (Double.isNaN(ulX) || Double.isNaN(ulY) || Double.isNaN(lrX) || Double.isNaN(lrY)) {
+                return this;
+            }
+            items.add(new TreeNode<>(item,
+                                     Math.min(ulX, lrX),
+                                     Math.min(ulY, lrY),
+                                     Math.max(ulX, lrX),
+                                     Math.max(ulY, lrY)));
+            return this;
+        }
+
+        public BoundsTree<T> build() {
+            final int size = items.size();
+            if (size == 0) {
+                return new BoundsTree<>(null,
+                                        0);
+            }
+            List<TreeNode<T>> level = items;
+            do {
+                level = pack(level);
+            } while (level.size() > 1);
+            return new BoundsTree<>(level.get(0),
+                                    size);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> List<TreeNode<T>> pack(final List<TreeNode<T>> nodes) {
+            final int count = nodes.size();
+            final int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            final int slices = (int) Math.ceil(Math.sqrt(parents));
+            final int sliceSize = slices * NODE_CAPACITY;
+
+            final TreeNode<T>[] sorted = nodes.toArray(new TreeNode[count]);
+            Arrays.sort(sorted,
+                        Comparator.comparingDouble(TreeNode::centerX));
+            final List<TreeNode<T>> result = new ArrayList<>(parents);
+            for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+                final int sliceEnd = Math.min(sliceStart + sliceSize,
+                                              count);
+                Arrays.sort(sorted,
+                            sliceStart,
+                            sliceEnd,
+                            Comparator.comparingDouble(TreeNode::centerY));
+                for (int i = sliceStart; i < sliceEnd; i += NODE_CAPACITY) {
+                    result.add(new TreeNode<>(Arrays.copyOfRange(sorted,
+                                                                 i,
+                                                                 Math.min(i + NODE_CAPACITY,
+                                                                          sliceEnd))));
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class TreeNode<T> {
+
+        private final T item;
+        private final TreeNode<T>[] children;
+        private final double ulX;
+        private final double ulY;
+        private final double lrX;
+        private final double lrY;
+
+        private TreeNode(final T item,
+                         final double ulX,
+                         final double ulY,
+                         final double lrX,
+                         final double lrY) {
+            this.item = item;
+            this.children = null;
+            this.ulX = ulX;
+            this.ulY = ulY;
+            this.lrX = lrX;
+            this.lrY = lrY;
+        }
+
+        private TreeNode(final TreeNode<T>[] children) {
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (TreeNode<T> child : children) {
+                minX = Math.min(minX, child.ulX);
+                minY = Math.min(minY, child.ulY);
+                maxX = Math.max(maxX, child.lrX);
+                maxY = Math.max(maxY, child.lrY);
+            }
+            this.item = null;
+            this.children = children;
+            this.ulX = minX;
+            this.ulY = minY;
+            this.lrX = maxX;
+            this.lrY = maxY;
+        }
+
+        private double centerX() {
+            return (ulX + lrX) / 2;
+        }
+
+        private double centerY() {
+            return (ulY + lrY) / 2;
+        }
+
+        private void search(final double x1,
+                            final double y1,
+                            final double x2,
+                            final double y2,
+                            final Consumer<T> consumer) {
+            if (!(x1 <= lrX && x2 >= ulX && y1 <= lrY && y2 >= ulY)) {
+                return;
+            }
+            if (null == children) {
+                consumer.accept(item);
+            } else {
+                for (TreeNode<T> child : children) {
+                    child.search(x1,
+                                 y1,
+                                 x2,
+                                 y2,
+                                 consumer);
+                }
+            }
+        }
+    }
+}
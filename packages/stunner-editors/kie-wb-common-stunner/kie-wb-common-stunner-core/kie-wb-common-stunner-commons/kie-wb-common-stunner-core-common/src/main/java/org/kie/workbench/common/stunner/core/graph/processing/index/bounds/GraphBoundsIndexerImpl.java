@@ -16,7 +16,11 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.enterprise.context.Dependent;
@@ -35,12 +39,26 @@ import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.A
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessor;
 import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 
+/**
+ * Finds the nodes at a given location by looking up a spatial index of their absolute bounds.
+ * <p>
+ * The index is built by a single traversal of the graph, the first time it is queried after a call to
+ * {@link #build(Graph)}. Further queries do not traverse the graph again.
+ * <p>
+ * <b>Note:</b> the index is not updated when the graph changes. Once nodes are added, removed, moved, resized or
+ * re-parented, every query returns stale results based on the graph as it was when the index was built, until
+ * {@link #build(Graph)} is called again. Callers must call {@link #build(Graph)} before querying a graph that may have
+ * changed since the last build.
+ */
 @Dependent
 public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private BoundsIndex index = null;
+    // The root the traverse processor has been set to
+    private String traverseRootUUID = null;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -50,6 +68,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
         this.graph = graph;
+        this.index = null;
         return this;
     }
 
@@ -101,49 +120,66 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     @Override
     public double[] getTrimmedBounds() {
+        // The trimmed bounds only consider the nodes under the current root
+        if (null == index || !Objects.equals(traverseRootUUID,
+                                             rootUUID)) {
+            childrenTraverseProcessor.setRootUUID(rootUUID);
+            traverseRootUUID = rootUUID;
+            index = null;
+        }
         final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
-        childrenTraverseProcessor
-                .setRootUUID(this.rootUUID)
-                .traverse(graph,
-                          new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
-
-                              @Override
-                              public void onNodeTraverse(final Node<View, Edge> node,
-                                                         final double parentX,
-                                                         final double parentY) {
-                                  final String uuid = node.getUUID();
-                                  final boolean isRoot = null != GraphBoundsIndexerImpl.this.rootUUID
-                                          && GraphBoundsIndexerImpl.this.rootUUID.equals(uuid);
-                                  if (!isRoot) {
-                                      final double[] absCoords = getNodeAbsoluteCoordinates(node,
-                                                                                            parentX,
-                                                                                            parentY);
-                                      final double x = absCoords[0];
-                                      final double y = absCoords[1];
-                                      final double w = absCoords[2];
-                                      final double h = absCoords[3];
-                                      if (x < result[0]) {
-                                          result[0] = x;
-                                      }
-                                      if (y < result[1]) {
-                                          result[1] = y;
-                                      }
-                                      if (w > result[2]) {
-                                          result[2] = w;
-                                      }
-                                      if (h > result[3]) {
-                                          result[3] = h;
-                                      }
-                                  }
-                              }
-                          }));
+        for (BoundsEntry entry : getIndex().entries) {
+            final boolean isRoot = null != rootUUID && rootUUID.equals(entry.node.getUUID());
+            if (!isRoot) {
+                if (entry.ulX < result[0]) {
+                    result[0] = entry.ulX;
+                }
+                if (entry.ulY < result[1]) {
+                    result[1] = entry.ulY;
+                }
+                if (entry.lrX > result[2]) {
+                    result[2] = entry.lrX;
+                }
+                if (entry.lrY > result[3]) {
+                    result[3] = entry.lrY;
+                }
+            }
+        }
         return result;
     }
 
+    /**
+     * Gets the node at the given location. If several nodes contain the location, the last one found by the
+     * children traversal wins, so the nested nodes are preferred over their parents. The node for the root UUID,
+     * if any, is considered at any location.
+     */
     @SuppressWarnings("unchecked")
     public Node<View<?>, Edge> findElementAt(final double x,
                                              final double y) {
-        final Node[] result = new Node[1];
+        final BoundsIndex index = getIndex();
+        final BoundsEntry[] result = new BoundsEntry[1];
+        if (null != rootUUID) {
+            result[0] = index.entriesByUUID.get(rootUUID);
+        }
+        index.tree.search(x,
+                          y,
+                          entry -> {
+                              if (null == result[0] || entry.order > result[0].order) {
+                                  result[0] = entry;
+                              }
+                          });
+        return null != result[0] ? (Node) result[0].node : null;
+    }
+
+    private BoundsIndex getIndex() {
+        if (null == index) {
+            index = buildIndex();
+        }
+        return index;
+    }
+
+    private BoundsIndex buildIndex() {
+        final List<BoundsEntry> entries = new ArrayList<>();
         childrenTraverseProcessor.traverse(graph,
                                            new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
 
@@ -151,16 +187,14 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
                                                public void onNodeTraverse(final Node<View, Edge> node,
                                                                           final double parentX,
                                                                           final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
-                                                   }
+                                                   entries.add(new BoundsEntry(node,
+                                                                               entries.size(),
+                                                                               getNodeAbsoluteCoordinates(node,
+                                                                                                          parentX,
+                                                                                                          parentY)));
                                                }
                                            }));
-        return result[0];
+        return new BoundsIndex(entries);
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -188,28 +222,6 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ulX, ulY, lrX, lrY};
     }
 
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
@@ -220,9 +232,53 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     public void destroy() {
         this.graph = null;
         this.rootUUID = null;
+        this.index = null;
         this.childrenTraverseProcessor = null;
     }
 
+    private static class BoundsEntry {
+
+        private final Node<View, Edge> node;
+        private final int order;
+        private final double ulX;
+        private final double ulY;
+        private final double lrX;
+        private final double lrY;
+
+        private BoundsEntry(final Node<View, Edge> node,
+                            final int order,
+                            final double[] absoluteCoords) {
+            this.node = node;
+            this.order = order;
+            this.ulX = absoluteCoords[0];
+            this.ulY = absoluteCoords[1];
+            this.lrX = absoluteCoords[2];
+            this.lrY = absoluteCoords[3];
+        }
+    }
+
+    private static class BoundsIndex {
+
+        private final List<BoundsEntry> entries;
+        private final Map<String, BoundsEntry> entriesByUUID = new HashMap<>();
+        private final BoundsTree<BoundsEntry> tree;
+
+        private BoundsIndex(final List<BoundsEntry> entries) {
+            this.entries = entries;
+            final BoundsTree.Builder<BoundsEntry> builder = BoundsTree.builder();
+            for (BoundsEntry entry : entries) {
+                entriesByUUID.put(entry.node.getUUID(),
+                                  entry);
+                builder.add(entry,
+                            entry.ulX,
+                            entry.ulY,
+                            entry.lrX,
+                            entry.lrY);
+            }
+            this.tree = builder.build();
+        }
+    }
+
     private abstract class NodeBoundsTraverseCallback {
 
         public abstract void onNodeTraverse(final Node<View, Edge> node,
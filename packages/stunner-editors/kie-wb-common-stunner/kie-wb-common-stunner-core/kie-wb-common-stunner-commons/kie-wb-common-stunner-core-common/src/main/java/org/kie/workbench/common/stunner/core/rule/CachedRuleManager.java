@@ -20,7 +20,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -29,18 +28,26 @@ import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
 
 import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
-
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+
+/**
+ * A rule manager that compiles each rule set into lookup tables the first time it's used, so evaluations only
+ * visit the rules that apply to the context. The results for the containment, docking and connection domain
+ * contexts that produce no violations are also remembered. The tables are built again if a different rule set
+ * instance is given for the same name.
+ * @see CompiledRuleSet
+ */
 @Dependent
 @Typed(CachedRuleManager.class)
 public class CachedRuleManager implements RuleManager {
 
     private final RuleManagerImpl ruleManager;
-    private final Map<String, CachedContextRules> cachedContextRules;
+    private final Map<String, CompiledRuleSet> compiledRuleSets;
 
     @Inject
     public CachedRuleManager(final RuleManagerImpl ruleManager) {
         this.ruleManager = ruleManager;
-        this.cachedContextRules = new HashMap<>(4);
+        this.compiledRuleSets = new HashMap<>(4);
     }
 
     @PostConstruct
@@ -64,66 +71,46 @@ public class CachedRuleManager implements RuleManager {
     @Override
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
-        return ruleManager.evaluate(ruleSet,
-                                    context);
+        final CompiledRuleSet compiled = getCompiledRuleSet(ruleSet);
+        final List<Object> key = compiled.getDecisionKey(context);
+        if (null != key && compiled.isAllowed(key)) {
+            return new DefaultRuleViolations();
+        }
+        final RuleViolations result;
+        if (compiled.getRules(context).isEmpty() && !compiled.getRulesByContext(context).isEmpty()) {
+            // No rule applies for the context's roles, so no handler would accept the evaluation.
+            result = context.isDefaultDeny() ?
+                    RuleManagerImpl.getDefaultViolationForContext(context) :
+                    new DefaultRuleViolations();
+        } else {
+            result = ruleManager.evaluate(ruleSet,
+                                          context);
+        }
+        if (null != key && !result.violations().iterator().hasNext()) {
+            compiled.setAllowed(key);
+        }
+        return result;
     }
 
     @PreDestroy
     public void destroy() {
-        cachedContextRules.values().forEach(CachedContextRules::clear);
-        cachedContextRules.clear();
+        compiledRuleSets.values().forEach(CompiledRuleSet::clear);
+        compiledRuleSets.clear();
     }
 
     private Collection<Rule> getRulesByContext(final RuleSet ruleSet,
                                                final RuleEvaluationContext context) {
-        CachedContextRules crs = cachedContextRules.get(ruleSet.getName());
-        if (null == crs) {
-            crs = new CachedContextRules();
-            cachedContextRules.put(ruleSet.getName(),
-                                   crs);
-        }
-        return crs.getRulesByContext(ruleSet,
-                                     context);
+        return getCompiledRuleSet(ruleSet).getRules(context);
     }
 
-    private class CachedContextRules {
-
-        private final Map<Class<? extends RuleEvaluationContext>, List<Rule>> rulesByContent;
-
-        public CachedContextRules() {
-            this.rulesByContent = new HashMap<>(15);
-        }
-
-        public Collection<Rule> getRulesByContext(final RuleSet ruleSet,
-                                                  final RuleEvaluationContext context) {
-            List<Rule> rules = rulesByContent.get(context.getClass());
-            if (null == rules) {
-                return cacheRulesByContext(ruleSet,
-                                           context);
-            }
-            return rules;
-        }
-
-        public Collection<Rule> cacheRulesByContext(final RuleSet ruleSet,
-                                                    final RuleEvaluationContext context) {
-            final Collection<RuleEvaluationHandler> handlers = registry().getHandlersByContext(context.getType());
-            final List<Rule> rules = ruleSet.getRules().stream()
-                    .filter(rule -> accepts(handlers,
-                                            rule))
-                    .collect(Collectors.toList());
-            rulesByContent.put(context.getClass(), rules);
-            return rules;
-        }
-
-        public void clear() {
-            rulesByContent.clear();
-        }
-
-        private boolean accepts(final Collection<RuleEvaluationHandler> handlers,
-                                final Rule rule) {
-            return RuleManagerImpl.isRuleExtension().test(rule) ||
-                    handlers.stream()
-                            .anyMatch(handler -> RuleManagerImpl.isRuleTypeAllowed().test(rule, handler));
+    private CompiledRuleSet getCompiledRuleSet(final RuleSet ruleSet) {
+        CompiledRuleSet compiled = compiledRuleSets.get(ruleSet.getName());
+        if (null == compiled || compiled.getRuleSet() != ruleSet) {
+            compiled = new CompiledRuleSet(ruleSet,
+                                           registry());
+            compiledRuleSets.put(ruleSet.getName(),
+                                 compiled);
         }
+        return compiled;
     }
 }
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
+import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.DockingContext;
+import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.CardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.DockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.EdgeCardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
+import org.kie.workbench.common.stunner.core.rule.impl.Occurrences;
+
+/**
+ * The rules of a rule set compiled into lookup tables.
+ * <p>Rules are grouped by the context type they apply to. For the domain contexts, the rules are also indexed by
+ * the role they restrict: the parent role for containment and docking rules, the connector role for connection
+ * rules and edge occurrences, and the candidate role for occurrences. So an evaluation only visits
+ * the rules for the roles present in the context, instead of asking the handlers to accept each rule.</p>
+ * <p>The containment, docking and connection contexts only depend on their roles. The role combinations that
+ * produce no violations are remembered so they are not evaluated again. Violations are mutable, as graph handlers
+ * set the element's UUID on them, so the ones producing violations are always evaluated again.</p>
+ */
+final class CompiledRuleSet {
+
+    private final RuleSet ruleSet;
+    private final RuleHandlerRegistry registry;
+    private final Map<Class<? extends RuleEvaluationContext>, List<Rule>> rulesByContext;
+    private final Map<Class<? extends RuleEvaluationContext>, Optional<RoleTable>> tablesByType;
+    private final Set<List<Object>> allowedKeys;
+
+    CompiledRuleSet(final RuleSet ruleSet,
+                    final RuleHandlerRegistry registry) {
+        this.ruleSet = ruleSet;
+        this.registry = registry;
+        this.rulesByContext = new HashMap<>(15);
+        this.tablesByType = new HashMap<>(8);
+        this.allowedKeys = new HashSet<>();
+    }
+
+    RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * Returns all the rules which type is accepted by some handler for the given context.
+     */
+    List<Rule> getRulesByContext(final RuleEvaluationContext context) {
+        List<Rule> rules = rulesByContext.get(context.getClass());
+        if (null == rules) {
+            final Collection<RuleEvaluationHandler> handlers = registry.getHandlersByContext(context.getType());
+            rules = new ArrayList<>();
+            for (final Rule rule : ruleSet.getRules()) {
+                if (accepts(handlers,
+                            rule)) {
+                    rules.add(rule);
+                }
+            }
+            rulesByContext.put(context.getClass(),
+                               rules);
+        }
+        return rules;
+    }
+
+    /**
+     * Returns the rules to evaluate for the given context, in the same order as in the rule set.
+     */
+    Collection<Rule> getRules(final RuleEvaluationContext context) {
+        final List<Rule> rules = getRulesByContext(context);
+        final RoleTable table = getTable(context,
+                                         rules);
+        return null != table ? table.getRules(getContextRoles(context)) : rules;
+    }
+
+    boolean isAllowed(final List<Object> key) {
+        return allowedKeys.contains(key);
+    }
+
+    void setAllowed(final List<Object> key) {
+        // The context roles may be mutable, so keep copies.
+        final List<Object> copy = new ArrayList<>(key.size());
+        for (final Object item : key) {
+            copy.add(item instanceof Set ? new HashSet<>((Set<?>) item) : item);
+        }
+        allowedKeys.add(copy);
+    }
+
+    /**
+     * Returns the key for remembering the evaluation results for the given context, or <code>null</code>
+     * if the results may depend on something other than the context roles.
+     */
+    List<Object> getDecisionKey(final RuleEvaluationContext context) {
+        final Class<?> type = context.getType();
+        List<Object> key = null;
+        if (ContainmentContext.class.equals(type)) {
+            final ContainmentContext containment = (ContainmentContext) context;
+            key = Arrays.asList(type,
+                                containment.getParentRoles(),
+                                containment.getCandidateRoles());
+        } else if (DockingContext.class.equals(type)) {
+            final DockingContext docking = (DockingContext) context;
+            key = Arrays.asList(type,
+                                docking.getParentRoles(),
+                                docking.getCandidateRoles());
+        } else if (ConnectionContext.class.equals(type)) {
+            final ConnectionContext connection = (ConnectionContext) context;
+            key = Arrays.asList(type,
+                                connection.getConnectorRole(),
+                                connection.getSourceRoles().orElse(null),
+                                connection.getTargetRoles().orElse(null));
+        }
+        if (null == key) {
+            return null;
+        }
+        final RoleTable table = getTable(context,
+                                         getRulesByContext(context));
+        return null == table || table.hasExtensions ? null : key;
+    }
+
+    void clear() {
+        rulesByContext.clear();
+        tablesByType.clear();
+        allowedKeys.clear();
+    }
+
+    private RoleTable getTable(final RuleEvaluationContext context,
+                               final List<Rule> rules) {
+        final Class<? extends RuleEvaluationContext> type = context.getType();
+        Optional<RoleTable> table = tablesByType.get(type);
+        if (null == table) {
+            table = isIndexed(type) ? Optional.of(new RoleTable(type,
+                                                                rules)) : Optional.empty();
+            tablesByType.put(type,
+                             table);
+        }
+        return table.orElse(null);
+    }
+
+    /**
+     * The role tables apply the acceptance criteria of the built-in handlers, so they are only used if no
+     * other handlers are registered for the context type.
+     */
+    private boolean isIndexed(final Class<? extends RuleEvaluationContext> type) {
+        final Class<?> handlerType = getBuiltInHandlerType(type);
+        if (null == handlerType) {
+            return false;
+        }
+        for (final RuleEvaluationHandler handler : registry.getHandlersByContext(type)) {
+            if (!isInstance(handlerType,
+                            handler)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> getBuiltInHandlerType(final Class<?> type) {
+        if (ContainmentContext.class.equals(type)) {
+            return ContainmentEvaluationHandler.class;
+        } else if (DockingContext.class.equals(type)) {
+            return DockingEvaluationHandler.class;
+        } else if (ConnectionContext.class.equals(type)) {
+            return ConnectionEvaluationHandler.class;
+        } else if (EdgeCardinalityContext.class.equals(type)) {
+            return EdgeCardinalityEvaluationHandler.class;
+        } else if (CardinalityContext.class.equals(type)) {
+            return CardinalityEvaluationHandler.class;
+        }
+        return null;
+    }
+
+    private static boolean isInstance(final Class<?> handlerType,
+                                      final RuleEvaluationHandler handler) {
+        // Class.isInstance is not available on the client side.
+        if (ContainmentEvaluationHandler.class.equals(handlerType)) {
+            return handler instanceof ContainmentEvaluationHandler;
+        } else if (DockingEvaluationHandler.class.equals(handlerType)) {
+            return handler instanceof DockingEvaluationHandler;
+        } else if (ConnectionEvaluationHandler.class.equals(handlerType)) {
+            return handler instanceof ConnectionEvaluationHandler;
+        } else if (EdgeCardinalityEvaluationHandler.class.equals(handlerType)) {
+            return handler instanceof EdgeCardinalityEvaluationHandler;
+        }
+        return handler instanceof CardinalityEvaluationHandler;
+    }
+
+    private static Set<String> getContextRoles(final RuleEvaluationContext context) {
+        final Class<?> type = context.getType();
+        if (ContainmentContext.class.equals(type)) {
+            return ((ContainmentContext) context).getParentRoles();
+        } else if (DockingContext.class.equals(type)) {
+            return ((DockingContext) context).getParentRoles();
+        } else if (ConnectionContext.class.equals(type)) {
+            return Collections.singleton(((ConnectionContext) context).getConnectorRole());
+        } else if (EdgeCardinalityContext.class.equals(type)) {
+            return Collections.singleton(((EdgeCardinalityContext) context).getEdgeRole());
+        }
+        return ((CardinalityContext) context).getRoles();
+    }
+
+    /**
+     * Returns the role the rule applies for in the given context type, or <code>null</code> if the rule
+     * is not indexed, so it's always evaluated.
+     */
+    private static String getRuleRole(final Class<?> type,
+                                      final Rule rule) {
+        if (ContainmentContext.class.equals(type) && rule instanceof CanContain) {
+            return ((CanContain) rule).getRole();
+        } else if (DockingContext.class.equals(type) && rule instanceof CanDock) {
+            return ((CanDock) rule).getRole();
+        } else if (ConnectionContext.class.equals(type) && rule instanceof CanConnect) {
+            return ((CanConnect) rule).getRole();
+        } else if (EdgeCardinalityContext.class.equals(type) && rule instanceof EdgeOccurrences) {
+            return ((EdgeOccurrences) rule).getConnectorRole();
+        } else if (CardinalityContext.class.equals(type) && rule instanceof Occurrences) {
+            return ((Occurrences) rule).getRole();
+        }
+        return null;
+    }
+
+    private static boolean accepts(final Collection<RuleEvaluationHandler> handlers,
+                                   final Rule rule) {
+        return RuleManagerImpl.isRuleExtension().test(rule) ||
+                handlers.stream()
+                        .anyMatch(handler -> RuleManagerImpl.isRuleTypeAllowed().test(rule, handler));
+    }
+
+    private static class RoleTable {
+
+        private final List<Rule> rules;
+        private final Map<String, List<Integer>> indexesByRole;
+        private final List<Integer> unindexed;
+        private boolean hasExtensions;
+
+        private RoleTable(final Class<?> type,
+                          final List<Rule> rules) {
+            this.rules = rules;
+            this.indexesByRole = new HashMap<>();
+            this.unindexed = new ArrayList<>();
+            for (int i = 0; i < rules.size(); i++) {
+                final String role = getRuleRole(type,
+                                                rules.get(i));
+                if (null == role) {
+                    unindexed.add(i);
+                    hasExtensions |= RuleManagerImpl.isRuleExtension().test(rules.get(i));
+                } else {
+                    indexesByRole.computeIfAbsent(role,
+                                                  r -> new ArrayList<>())
+                            .add(i);
+                }
+            }
+        }
+
+        private Collection<Rule> getRules(final Set<String> roles) {
+            final List<Integer> indexes = new ArrayList<>(unindexed);
+            for (final String role : roles) {
+                final List<Integer> roleIndexes = indexesByRole.get(role);
+                if (null != roleIndexes) {
+                    indexes.addAll(roleIndexes);
+                }
+            }
+            if (indexes.isEmpty()) {
+                return Collections.emptyList();
+            }
+            Collections.sort(indexes);
+            final List<Rule> result = new ArrayList<>(indexes.size());
+            for (final Integer index : indexes) {
+                result.add(rules.get(index));
+            }
+            return result;
+        }
+    }
+}
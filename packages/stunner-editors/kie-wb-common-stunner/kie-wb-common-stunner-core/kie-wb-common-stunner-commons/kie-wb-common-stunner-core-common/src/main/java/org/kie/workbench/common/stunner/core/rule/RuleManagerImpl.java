@@ -126,7 +126,7 @@ public class RuleManagerImpl implements RuleManager {
                              context);
     }
 
-    private RuleViolations getDefaultViolationForContext(final RuleEvaluationContext context) {
+    static RuleViolations getDefaultViolationForContext(final RuleEvaluationContext context) {
         return new DefaultRuleViolations().addViolation(
                 new ContextOperationNotAllowedViolation(context)
         );
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.BoundsTree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundsTreeTest {
+
+    @Test
+    public void testEmpty() {
+        BoundsTree<String> tree = BoundsTree.<String>builder().build();
+        assertTrue(tree.isEmpty());
+        assertTrue(tree.search(0, 0, 100, 100).isEmpty());
+    }
+
+    @Test
+    public void testBorders() {
+        BoundsTree<String> tree = BoundsTree.<String>builder()
+                .add("a", 0, 0, 10, 10)
+                .add("b", 10, 10, 20, 20)
+                .add("nan", Double.NaN, 0, 10, 10)
+                .build();
+        assertEquals(2, tree.size());
+        assertEquals(toSet("a"), toSet(tree.search(0, 0, 0, 0)));
+        assertEquals(toSet("a", "b"), toSet(tree.search(10, 10, 10, 10)));
+        assertEquals(toSet("b"), toSet(tree.search(15, 12, 30, 30)));
+        assertTrue(tree.search(21, 0, 30, 30).isEmpty());
+    }
+
+    @Test
+    public void testSearchMatchesLinearScan() {
+        Random random = new Random(7);
+        List<double[]> bounds = new ArrayList<>();
+        BoundsTree.Builder<Integer> builder = BoundsTree.builder();
+        for (int i = 0; i < 5000; i++) {
+            double x = random.nextDouble() * 10000;
+            double y = random.nextDouble() * 10000;
+            double[] b = new double[]{x, y, x + random.nextDouble() * 200, y + random.nextDouble() * 200};
+            bounds.add(b);
+            builder.add(i, b[0], b[1], b[2], b[3]);
+        }
+        BoundsTree<Integer> tree = builder.build();
+        assertEquals(5000, tree.size());
+
+        for (int q = 0; q < 500; q++) {
+            double x = random.nextDouble() * 10000;
+            double y = random.nextDouble() * 10000;
+            double w = q % 2 == 0 ? 0 : random.nextDouble() * 500;
+            double h = q % 2 == 0 ? 0 : random.nextDouble() * 500;
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < bounds.size(); i++) {
+                double[] b = bounds.get(i);
+                if (x <= b[2] && x + w >= b[0] && y <= b[3] && y + h >= b[1]) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, toSet(tree.search(x, y, x + w, y + h)));
+        }
+    }
+
+    @SafeVarargs
+    private static <T> Set<T> toSet(T... items) {
+        Set<T> result = new HashSet<>();
+        for (T item : items) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static <T> Set<T> toSet(List<T> items) {
+        return new HashSet<>(items);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
+
+import java.util.Random;
+
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+
+import static org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds.GraphBoundsIndexerImplTest.LARGE_GRAPH_CHILDREN;
+import static org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds.GraphBoundsIndexerImplTest.LARGE_GRAPH_CONTAINERS;
+import static org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds.GraphBoundsIndexerImplTest.buildLargeGraph;
+
+/**
+ * Measures the time {@link GraphBoundsIndexerImpl} takes to look up a node by location, against rebuilding the index
+ * for every lookup as callers did before it was kept between queries. Not a test, run it as:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds.GraphBoundsIndexerImplBenchmark
+ * </pre>
+ */
+public class GraphBoundsIndexerImplBenchmark {
+
+    static final int QUERIES = 20000;
+    static final int TRAVERSALS = 200;
+
+    public static void main(String[] args) {
+        Node[][] nodes = new Node[LARGE_GRAPH_CONTAINERS][LARGE_GRAPH_CHILDREN + 1];
+        GraphImpl graph = buildLargeGraph(nodes);
+        GraphBoundsIndexerImpl indexer = new GraphBoundsIndexerImpl(new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl()));
+        Random random = new Random(13);
+
+        // Warm-up
+        indexer.build(graph);
+        for (int q = 0; q < QUERIES; q++) {
+            indexer.getAt(random.nextDouble() * 8000,
+                          random.nextDouble() * 5000);
+        }
+
+        indexer.build(graph);
+        long begin = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++) {
+            indexer.getAt(random.nextDouble() * 8000,
+                          random.nextDouble() * 5000);
+        }
+        long indexedTime = System.nanoTime() - begin;
+
+        // Traversing the whole graph for every lookup
+        begin = System.nanoTime();
+        for (int q = 0; q < TRAVERSALS; q++) {
+            indexer.build(graph).getAt(random.nextDouble() * 8000,
+                                       random.nextDouble() * 5000);
+        }
+        long traversalTime = System.nanoTime() - begin;
+        System.out.println(String.format("Lookups over %d nodes: %,dns indexed, %,dns traversing the graph",
+                                         LARGE_GRAPH_CONTAINERS * (LARGE_GRAPH_CHILDREN + 1),
+                                         indexedTime / QUERIES,
+                                         traversalTime / TRAVERSALS));
+    }
+}
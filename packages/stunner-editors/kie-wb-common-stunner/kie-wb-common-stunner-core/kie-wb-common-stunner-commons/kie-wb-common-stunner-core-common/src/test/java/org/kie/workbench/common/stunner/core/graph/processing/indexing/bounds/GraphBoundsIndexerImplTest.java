@@ -16,6 +16,8 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
 
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -23,8 +25,14 @@ import org.kie.workbench.common.stunner.core.TestingGraphInstanceBuilder;
 import org.kie.workbench.common.stunner.core.TestingGraphMockHandler;
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessor;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessorImpl;
@@ -35,10 +43,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class GraphBoundsIndexerImplTest {
 
+    static final int LARGE_GRAPH_CONTAINERS = 40;
+    static final int LARGE_GRAPH_CHILDREN = 49;
+
     private TestingGraphMockHandler graphTestHandlerParent;
     private TestingGraphInstanceBuilder.TestGraph2 graphInstanceParent;
 
@@ -127,4 +139,93 @@ public class GraphBoundsIndexerImplTest {
                      size[1],
                      0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLargeGraph() {
+        Node[][] nodes = new Node[LARGE_GRAPH_CONTAINERS][LARGE_GRAPH_CHILDREN + 1];
+        GraphImpl graph = buildLargeGraph(nodes);
+
+        GraphBoundsIndexerImpl indexer = new GraphBoundsIndexerImpl(new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl()));
+        indexer.build(graph);
+        Random random = new Random(13);
+        for (int q = 0; q < 2000; q++) {
+            double x = random.nextDouble() * 8000;
+            double y = random.nextDouble() * 5000;
+            assertSame(expectedNodeAt(nodes, x, y),
+                       indexer.getAt(x, y));
+        }
+
+        double[] trimmedBounds = indexer.getTrimmedBounds();
+        assertEquals(0, trimmedBounds[0], 0.001);
+        assertEquals(0, trimmedBounds[1], 0.001);
+        assertEquals(7900, trimmedBounds[2], 0.001);
+        assertEquals(4900, trimmedBounds[3], 0.001);
+    }
+
+    /**
+     * Builds a graph of {@link #LARGE_GRAPH_CONTAINERS} containers, laid out in rows of 8, holding
+     * {@link #LARGE_GRAPH_CHILDREN} children each. The containers and their children are stored in the given array.
+     */
+    @SuppressWarnings("unchecked")
+    static GraphImpl buildLargeGraph(final Node[][] nodes) {
+        GraphImpl graph = GraphImpl.build("largeGraph");
+        for (int c = 0; c < LARGE_GRAPH_CONTAINERS; c++) {
+            double cx = (c % 8) * 1000;
+            double cy = (c / 8) * 1000;
+            Node container = newNode("container" + c,
+                                     Bounds.create(cx, cy, cx + 900, cy + 900));
+            graph.addNode(container);
+            nodes[c][0] = container;
+            for (int i = 0; i < LARGE_GRAPH_CHILDREN; i++) {
+                double x = (i % 7) * 125 + 25;
+                double y = (i / 7) * 125 + 25;
+                Node child = newNode("child" + c + "_" + i,
+                                     Bounds.create(x, y, x + 100, y + 100));
+                graph.addNode(child);
+                EdgeImpl edge = new EdgeImpl("edge" + c + "_" + i);
+                edge.setContent(new Child());
+                edge.setSourceNode(container);
+                edge.setTargetNode(child);
+                container.getOutEdges().add(edge);
+                child.getInEdges().add(edge);
+                nodes[c][i + 1] = child;
+            }
+        }
+        return graph;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Node newNode(final String uuid,
+                                final Bounds bounds) {
+        NodeImpl node = new NodeImpl(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       bounds));
+        return node;
+    }
+
+    static Node expectedNodeAt(final Node[][] nodes,
+                                       final double x,
+                                       final double y) {
+        for (Node[] group : nodes) {
+            Bounds containerBounds = ((View) group[0].getContent()).getBounds();
+            if (contains(containerBounds, 0, 0, x, y)) {
+                for (int i = 1; i < group.length; i++) {
+                    if (contains(((View) group[i].getContent()).getBounds(), containerBounds.getX(), containerBounds.getY(), x, y)) {
+                        return group[i];
+                    }
+                }
+                return group[0];
+            }
+        }
+        return null;
+    }
+
+    private static boolean contains(final Bounds bounds,
+                                    final double offsetX,
+                                    final double offsetY,
+                                    final double x,
+                                    final double y) {
+        return x >= bounds.getX() + offsetX && x <= bounds.getLowerRight().getX() + offsetX &&
+                y >= bounds.getY() + offsetY && y <= bounds.getLowerRight().getY() + offsetY;
+    }
+}
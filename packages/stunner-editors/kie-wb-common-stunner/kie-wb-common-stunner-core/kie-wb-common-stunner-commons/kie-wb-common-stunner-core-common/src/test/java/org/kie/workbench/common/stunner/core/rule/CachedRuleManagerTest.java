@@ -16,26 +16,43 @@
 
 package org.kie.workbench.common.stunner.core.rule;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.stunner.core.registry.RegistryFactory;
+import org.kie.workbench.common.stunner.core.registry.impl.RuleHandlerRegistryImpl;
 import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
 import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.CardinalityEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.DockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.EdgeCardinalityEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
 import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
+import org.kie.workbench.common.stunner.core.rule.impl.Occurrences;
+import org.kie.workbench.common.stunner.core.rule.violations.ContainmentRuleViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -62,8 +79,8 @@ public class CachedRuleManagerTest {
     @Mock
     private RuleSet ruleSet;
 
-    private ContainmentContext containmentContext = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.emptySet(),
-                                                                                                            Collections.emptySet());
+    private ContainmentContext containmentContext = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                            Collections.singleton("role2"));
 
     @Mock
     private ContainmentEvaluationHandler containmentHandler;
@@ -106,7 +123,7 @@ public class CachedRuleManagerTest {
         tested.evaluate(ruleSet,
                         containmentContext);
         verify(ruleSet, times(1)).getRules();
-        verify(containmentHandler, times(2)).evaluate(eq(containmentRule),
+        verify(containmentHandler, times(1)).evaluate(eq(containmentRule),
                                                       eq(containmentContext));
         verify(connectionHandler, never()).evaluate(any(CanConnect.class),
                                                     any(ConnectionContext.class));
@@ -119,9 +136,124 @@ public class CachedRuleManagerTest {
         tested.evaluate(ruleSet,
                         connectionContext);
         verify(ruleSet, times(1)).getRules();
-        verify(connectionHandler, times(2)).evaluate(eq(connectionRule),
+        verify(connectionHandler, times(1)).evaluate(eq(connectionRule),
                                                      eq(connectionContext));
         verify(containmentHandler, never()).evaluate(any(CanContain.class),
                                                      any(ContainmentContext.class));
     }
+
+    @Test
+    public void testEvaluateViolationsAgain() {
+        when(containmentHandler.evaluate(any(CanContain.class), any(ContainmentContext.class)))
+                .thenAnswer(invocation -> new DefaultRuleViolations()
+                        .addViolation(new ContainmentRuleViolation("role1",
+                                                                   "[role3]")));
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                   Collections.singleton("role3"));
+        assertEquals(1,
+                     count(tested.evaluate(ruleSet,
+                                           context)));
+        assertEquals(1,
+                     count(tested.evaluate(ruleSet,
+                                           context)));
+        verify(containmentHandler, times(2)).evaluate(eq(containmentRule),
+                                                      eq(context));
+    }
+
+    @Test
+    public void testEvaluateNoRulesForRoles() {
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role3"),
+                                                                                                   Collections.singleton("role1"));
+        final RuleViolations violations = tested.evaluate(ruleSet,
+                                                          context);
+        assertTrue(violations.violations().iterator().next() instanceof ContextOperationNotAllowedViolation);
+        verify(containmentHandler, never()).evaluate(any(CanContain.class),
+                                                     any(ContainmentContext.class));
+    }
+
+    @Test
+    public void testRuleSetChanged() {
+        tested.evaluate(ruleSet,
+                        containmentContext);
+        final RuleSet other = mock(RuleSet.class);
+        when(other.getName()).thenReturn("testRuleSet");
+        when(other.getRules()).thenReturn(Collections.singletonList(containmentRule));
+        tested.evaluate(other,
+                        containmentContext);
+        verify(other, times(1)).getRules();
+        verify(containmentHandler, times(2)).evaluate(eq(containmentRule),
+                                                      eq(containmentContext));
+    }
+
+    @Test
+    public void testSameResultsAsRuleManagerImpl() {
+        final RuleHandlerRegistry registry = new RuleHandlerRegistryImpl();
+        registry.register(new ContainmentEvaluationHandler());
+        registry.register(new DockingEvaluationHandler());
+        registry.register(new ConnectionEvaluationHandler());
+        registry.register(new CardinalityEvaluationHandler());
+        registry.register(new EdgeCardinalityEvaluationHandler());
+        final RuleSet rules = new RuleSetImpl("rules",
+                                              Arrays.asList(new CanContain("c1", "a", roles("b", "c")),
+                                                            new CanContain("c2", "b", roles("c")),
+                                                            new CanDock("d1", "a", roles("c")),
+                                                            new CanConnect("e1", "a", Arrays.asList(new CanConnect.PermittedConnection("a", "b"),
+                                                                                                    new CanConnect.PermittedConnection("b", "c"))),
+                                                            new CanConnect("e2", "b", Arrays.asList(new CanConnect.PermittedConnection("c", "a"))),
+                                                            new Occurrences("o1", "a", 0, 1),
+                                                            new Occurrences("o2", "c", 1, 2),
+                                                            new EdgeOccurrences("eo1", "a", "b", EdgeCardinalityContext.Direction.INCOMING, 0, 1),
+                                                            new EdgeOccurrences("eo2", "a", "c", EdgeCardinalityContext.Direction.OUTGOING, 1, 1)));
+        final RuleManager expected = new RuleManagerImpl(registry);
+        final CachedRuleManager cached = new CachedRuleManager(new RuleManagerImpl(registry));
+        cached.init();
+        final List<Set<String>> roleSets = Arrays.asList(roles(), roles("a"), roles("b"), roles("c"), roles("a", "b"), roles("b", "c"), roles("a", "b", "c"));
+        final List<RuleEvaluationContext> contexts = new ArrayList<>();
+        for (final Set<String> r1 : roleSets) {
+            for (final Set<String> r2 : roleSets) {
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.containment(r1, r2));
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.docking(r1, r2));
+            }
+            for (final String connector : Arrays.asList("a", "b", "c")) {
+                for (final Set<String> r2 : roleSets) {
+                    contexts.add(RuleEvaluationContextBuilder.DomainContexts.connection(connector, Optional.of(r1), Optional.of(r2)));
+                }
+                for (int count = 0; count < 3; count++) {
+                    for (final EdgeCardinalityContext.Direction direction : EdgeCardinalityContext.Direction.values()) {
+                        contexts.add(RuleEvaluationContextBuilder.DomainContexts.edgeCardinality(r1, connector, count, direction, Optional.of(CardinalityContext.Operation.ADD)));
+                    }
+                }
+            }
+            for (int count = 0; count < 3; count++) {
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.cardinality(r1, count, 1, Optional.of(CardinalityContext.Operation.ADD)));
+                contexts.add(RuleEvaluationContextBuilder.DomainContexts.cardinality(r1, count, 1, Optional.of(CardinalityContext.Operation.DELETE)));
+            }
+        }
+        // Twice, so the remembered results are checked as well.
+        for (int i = 0; i < 2; i++) {
+            for (final RuleEvaluationContext context : contexts) {
+                assertEquals(describe(expected.evaluate(rules, context)),
+                             describe(cached.evaluate(rules, context)));
+            }
+        }
+    }
+
+    private static Set<String> roles(final String... roles) {
+        return new HashSet<>(Arrays.asList(roles));
+    }
+
+    private static int count(final RuleViolations violations) {
+        int count = 0;
+        for (final RuleViolation violation : violations.violations()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static List<String> describe(final RuleViolations violations) {
+        final List<String> result = new ArrayList<>();
+        violations.violations().forEach(v -> result.add(v.getClass().getSimpleName() + v.getViolationType()
+                                                                + v.getArguments().map(Arrays::toString).orElse("")));
+        return result;
+    }
 }
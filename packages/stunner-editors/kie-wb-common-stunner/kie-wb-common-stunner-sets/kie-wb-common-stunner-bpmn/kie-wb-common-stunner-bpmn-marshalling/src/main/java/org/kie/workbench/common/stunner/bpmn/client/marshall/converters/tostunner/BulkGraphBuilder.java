@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner;
+
+import java.util.List;
+
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
+import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.util.UUID;
+
+import static org.kie.workbench.common.stunner.core.graph.util.ControlPointValidations.checkAddControlPoint;
+
+/**
+ * A {@link GraphBuilder} that creates the graph structure directly, instead of issuing a command
+ * for each node, child, dock and connection.
+ * <p>
+ * The graph is walked in the same order, and each operation makes the same changes as the command
+ * the `GraphBuilder` would issue, so both produce the same graph. It skips the command execution context,
+ * its index over the graph and the command manager, which take most of the time when loading large processes.
+ * <p>
+ * No rules are evaluated while building. This is the same for the `GraphBuilder`, as it uses a
+ * {@link org.kie.workbench.common.stunner.core.graph.command.DirectGraphCommandExecutionContext},
+ * so the rules are checked by validating the whole diagram once it is loaded.
+ */
+public class BulkGraphBuilder extends GraphBuilder {
+
+    public BulkGraphBuilder(Graph<DefinitionSet, Node> graph) {
+        super(graph);
+    }
+
+    @Override
+    protected void clearGraph() {
+        getGraph().clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addNode(Node node) {
+        getGraph().addNode(node);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
+        getGraph().addNode(child);
+        final Edge<Child, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Child());
+        connect(edge, parent, child);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addDockedNode(Node parent, Node candidate) {
+        getGraph().addNode(candidate);
+        final Edge<Dock, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Dock());
+        connect(edge, parent, candidate);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void updatePosition(Node node, Point2D position) {
+        final Node<? extends View<?>, ?> viewNode = node;
+        viewNode.getContent().setBounds(UpdateElementPositionCommand.computeCandidateBounds(viewNode, position));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void addEdge(
+            Edge<? extends View<?>, Node> edge,
+            Node source,
+            Connection sourceConnection,
+            List<Point2D> controlPoints,
+            Node target,
+            Connection targetConnection) {
+        final ViewConnector connector = (ViewConnector) edge.getContent();
+        final Node lastSource = edge.getSourceNode();
+        if (null != lastSource) {
+            lastSource.getOutEdges().remove(edge);
+        }
+        if (null != source) {
+            source.getOutEdges().add(edge);
+        }
+        edge.setSourceNode(source);
+        connector.setSourceConnection(sourceConnection);
+
+        for (int i = 0; i < controlPoints.size(); i++) {
+            addControlPoint(connector, ControlPoint.build(controlPoints.get(i)), i);
+        }
+
+        final Node lastTarget = edge.getTargetNode();
+        if (null != lastTarget) {
+            lastTarget.getInEdges().remove(edge);
+        }
+        if (null != target) {
+            target.getInEdges().add(edge);
+        }
+        edge.setTargetNode(target);
+        connector.setTargetConnection(targetConnection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void connect(Edge edge, Node parent, Node candidate) {
+        edge.setSourceNode(parent);
+        edge.setTargetNode(candidate);
+        parent.getOutEdges().add(edge);
+        candidate.getInEdges().add(edge);
+    }
+
+    private static void addControlPoint(ViewConnector connector, ControlPoint controlPoint, int index) {
+        final ControlPoint[] current = connector.getControlPoints();
+        checkAddControlPoint(current, controlPoint, index);
+        final int size = null == current ? 0 : current.length;
+        final ControlPoint[] cps = new ControlPoint[size + 1];
+        for (int i = 0; i < size + 1; i++) {
+            if (i < index) {
+                cps[i] = current[i];
+            } else if (i == index) {
+                cps[i] = controlPoint;
+            } else {
+                cps[i] = current[i - 1];
+            }
+        }
+        connector.setControlPoints(cps);
+    }
+}
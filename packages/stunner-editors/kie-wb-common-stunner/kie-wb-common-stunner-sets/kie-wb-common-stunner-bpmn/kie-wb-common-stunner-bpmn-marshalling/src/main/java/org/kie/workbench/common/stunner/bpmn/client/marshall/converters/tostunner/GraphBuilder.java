@@ -69,13 +69,18 @@ import org.kie.workbench.common.stunner.core.rule.RuleViolation;
  * once all the conversions have took place: it traverses the entire directed graph described by the `BPMNNode`s
  * starting from the "root node", which represents the root of the diagram, and visiting
  * the parent/child relations in each BPMNNode and the `BPMNEdge` they may contain.
+ * <p>
+ * Each graph operation is a protected method, so subclasses can change how the structure
+ * is created while keeping the same traversal, e.g. {@link BulkGraphBuilder}.
  */
 public class GraphBuilder {
 
-    private final GraphCommandExecutionContext executionContext;
+    private final DefinitionManager definitionManager;
+    private final TypedFactoryManager typedFactoryManager;
     private final GraphCommandFactory commandFactory;
     private final GraphCommandManager commandManager;
     private final Graph<DefinitionSet, Node> graph;
+    private GraphCommandExecutionContext executionContext;
 
     public GraphBuilder(
             Graph<DefinitionSet, Node> graph,
@@ -85,14 +90,19 @@ public class GraphBuilder {
             GraphCommandFactory commandFactory,
             GraphCommandManager commandManager) {
         this.graph = graph;
-        this.executionContext = new DirectGraphCommandExecutionContext(
-                definitionManager,
-                typedFactoryManager.untyped(),
-                new MapIndexBuilder().build(graph));
+        this.definitionManager = definitionManager;
+        this.typedFactoryManager = typedFactoryManager;
         this.commandFactory = commandFactory;
         this.commandManager = commandManager;
     }
 
+    /**
+     * For subclasses that do not issue commands.
+     */
+    protected GraphBuilder(Graph<DefinitionSet, Node> graph) {
+        this(graph, null, null, null, null, null);
+    }
+
     /**
      * Clears the context and then walks the graph root
      * to draw it on the canvas
@@ -145,7 +155,11 @@ public class GraphBuilder {
         return prioritized;
     }
 
-    private void addDockedNode(Node parent, Node candidate) {
+    protected Graph<DefinitionSet, Node> getGraph() {
+        return graph;
+    }
+
+    protected void addDockedNode(Node parent, Node candidate) {
         AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
         execute(addNodeCommand);
     }
@@ -174,7 +188,7 @@ public class GraphBuilder {
         return Point2D.create(xFactor, yFactor);
     }
 
-    private void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
+    protected void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
         AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
         execute(addChildNodeCommand);
     }
@@ -196,19 +210,19 @@ public class GraphBuilder {
         updatePosition(node, coords);
     }
 
-    private void updatePosition(Node node, Point2D position) {
+    protected void updatePosition(Node node, Point2D position) {
         UpdateElementPositionCommand updateElementPositionCommand =
                 commandFactory.updatePosition(node, position);
         execute(updateElementPositionCommand);
     }
 
-    private void addNode(Node node) {
+    protected void addNode(Node node) {
         AddNodeCommand addNodeCommand = commandFactory.addNode(node);
         execute(addNodeCommand);
     }
 
     @SuppressWarnings("unchecked")
-    private void addEdge(
+    protected void addEdge(
             Edge<? extends View<?>, Node> edge,
             Node source,
             Connection sourceConnection,
@@ -249,11 +263,21 @@ public class GraphBuilder {
     }
 
     private CommandResult<RuleViolation> execute(Command<GraphCommandExecutionContext, RuleViolation> command) {
-        return commandManager.execute(executionContext, command);
+        return commandManager.execute(getExecutionContext(), command);
     }
 
-    private CommandResult<RuleViolation> clearGraph() {
-        return commandManager.execute(executionContext, commandFactory.clearGraph());
+    protected void clearGraph() {
+        execute(commandFactory.clearGraph());
+    }
+
+    private GraphCommandExecutionContext getExecutionContext() {
+        if (null == executionContext) {
+            executionContext = new DirectGraphCommandExecutionContext(
+                    definitionManager,
+                    typedFactoryManager.untyped(),
+                    new MapIndexBuilder().build(graph));
+        }
+        return executionContext;
     }
 
     private void addEdge(BpmnEdge edge) {
@@ -39,50 +39,35 @@ import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.fromstun
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.fromstunner.properties.PropertyWriterFactory;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BaseConverterFactory;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BpmnNode;
+import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BulkGraphBuilder;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.DefinitionResolver;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.GraphBuilder;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.processes.DataTypeCache;
 import org.kie.workbench.common.stunner.bpmn.definition.BPMNDiagramImpl;
 import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinition;
 import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinitionRegistry;
-import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.api.FactoryManager;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
-import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManager;
-import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
-import org.kie.workbench.common.stunner.core.rule.RuleManager;
 
 @ApplicationScoped
 public class BPMNClientMarshalling {
 
     private static Logger LOGGER = Logger.getLogger(BPMNClientMarshalling.class.getName());
 
-    private final DefinitionManager definitionManager;
-    private final RuleManager ruleManager;
     private final TypedFactoryManager typedFactoryManager;
-    private final GraphCommandFactory commandFactory;
-    private final GraphCommandManager commandManager;
     private final ManagedInstance<WorkItemDefinitionRegistry> widRegistries;
     private final DataTypeCache dataTypeCache;
 
     @Inject
-    public BPMNClientMarshalling(final DefinitionManager definitionManager,
-                                 final RuleManager ruleManager,
-                                 final FactoryManager factoryManager,
-                                 final GraphCommandFactory commandFactory,
-                                 final GraphCommandManager commandManager,
+    public BPMNClientMarshalling(final FactoryManager factoryManager,
                                  final ManagedInstance<WorkItemDefinitionRegistry> widRegistries,
                                  final DataTypeCache dataTypeCache) {
-        this.definitionManager = definitionManager;
-        this.ruleManager = ruleManager;
         this.typedFactoryManager = new TypedFactoryManager(factoryManager);
-        this.commandFactory = commandFactory;
-        this.commandManager = commandManager;
         this.widRegistries = widRegistries;
         this.dataTypeCache = dataTypeCache;
     }
@@ -133,22 +118,15 @@ public class BPMNClientMarshalling {
 
         // the root node contains all of the information
         // needed to build the entire graph (including parent/child relationships)
-        // thus, we can now walk the graph to issue all the commands
-        // to draw it on our canvas
+        // thus, we can now walk the graph to build
+        // its structure directly, without issuing commands
         final Diagram<Graph<DefinitionSet, Node>, Metadata> diagram =
                 typedFactoryManager.newDiagram(
                         definitionResolver.getDefinitions().getId(),
                         getDefinitionSetClass(),
                         metadata);
         final Graph<DefinitionSet, Node> graph = diagram.getGraph();
-        final GraphBuilder graphBuilder =
-                new GraphBuilder(
-                        graph,
-                        definitionManager,
-                        typedFactoryManager,
-                        ruleManager,
-                        commandFactory,
-                        commandManager);
+        final GraphBuilder graphBuilder = new BulkGraphBuilder(graph);
         graphBuilder.render(diagramRoot);
 
         return graph;
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner;
+
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.mockito.MockitoAnnotations;
+
+import static org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BulkGraphBuilderTest.buildInBulk;
+import static org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BulkGraphBuilderTest.describe;
+
+/**
+ * Measures the time {@link BulkGraphBuilder} and the command based {@link GraphBuilder} take to build the graph of
+ * the processes generated by {@link BulkGraphBuilderTest}. Not a test, run it as:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner.BulkGraphBuilderBenchmark
+ * </pre>
+ */
+public class BulkGraphBuilderBenchmark {
+
+    static final int[] SIZES = {100, 500, 1000, 5000};
+
+    public static void main(String[] args) {
+        final BulkGraphBuilderTest processes = new BulkGraphBuilderTest();
+        MockitoAnnotations.initMocks(processes);
+        processes.setUp();
+
+        for (int size : SIZES) {
+            // Warm up
+            processes.buildWithCommands(processes.generateProcess(size));
+            buildInBulk(processes.generateProcess(size));
+
+            final BpmnNode commandsRoot = processes.generateProcess(size);
+            long begin = System.nanoTime();
+            final Graph<DefinitionSet, Node> commandsGraph = processes.buildWithCommands(commandsRoot);
+            final long commandsTime = System.nanoTime() - begin;
+
+            final BpmnNode bulkRoot = processes.generateProcess(size);
+            begin = System.nanoTime();
+            final Graph<DefinitionSet, Node> bulkGraph = buildInBulk(bulkRoot);
+            final long bulkTime = System.nanoTime() - begin;
+
+            if (!describe(commandsGraph).equals(describe(bulkGraph))) {
+                throw new IllegalStateException("The graphs built for " + size + " elements differ");
+            }
+            System.out.println(String.format("Building a process with %d elements: %,dus in bulk, %,dus with commands",
+                                             size,
+                                             bulkTime / 1000,
+                                             commandsTime / 1000));
+        }
+    }
+}
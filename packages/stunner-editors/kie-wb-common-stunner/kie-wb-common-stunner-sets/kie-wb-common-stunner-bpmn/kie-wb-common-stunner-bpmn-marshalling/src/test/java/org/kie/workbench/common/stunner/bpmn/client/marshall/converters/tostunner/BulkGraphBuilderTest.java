@@ -0,0 +1,231 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.stunner.bpmn.client.marshall.converters.TypedFactoryManager;
+import org.kie.workbench.common.stunner.bpmn.definition.BPMNViewDefinition;
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
+import org.kie.workbench.common.stunner.core.api.FactoryManager;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManagerImpl;
+import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
+import org.kie.workbench.common.stunner.core.graph.content.view.MagnetConnection;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkGraphBuilderTest {
+
+    private static final int CONTAINER_SIZE = 20;
+
+    @Mock
+    private DefinitionManager definitionManager;
+
+    @Mock
+    private FactoryManager factoryManager;
+
+    @Mock
+    private BPMNViewDefinition definition;
+
+    private TypedFactoryManager typedFactoryManager;
+
+    @Before
+    public void setUp() {
+        typedFactoryManager = new TypedFactoryManager(factoryManager);
+    }
+
+    @Test
+    public void testSameGraphAsCommands() {
+        for (int size : new int[]{1, 100, 1000}) {
+            assertEquals(describe(buildWithCommands(generateProcess(size))),
+                         describe(buildInBulk(generateProcess(size))));
+        }
+    }
+
+    @Test
+    public void testChildPositions() {
+        final BpmnNode root = generateProcess(200);
+        final Graph<DefinitionSet, Node> graph = buildInBulk(root);
+        // The second container is placed at (0, 400) and its first task at (50, 450).
+        // Boundary events are not translated, as their bounds are relative to the docking node.
+        final Node<View<?>, Edge> task = graph.getNode("task-20");
+        assertEquals(Bounds.create(50, 50, 150, 110),
+                     task.getContent().getBounds());
+        final Node<View<?>, Edge> boundaryEvent = graph.getNode("event-20");
+        assertEquals(Bounds.create(90, 500, 120, 530),
+                     boundaryEvent.getContent().getBounds());
+        assertSame(graph.getNode("container-1"),
+                   task.getInEdges().get(0).getSourceNode());
+    }
+
+    Graph<DefinitionSet, Node> buildWithCommands(final BpmnNode root) {
+        final Graph<DefinitionSet, Node> graph = newGraph();
+        new GraphBuilder(graph,
+                         definitionManager,
+                         typedFactoryManager,
+                         null,
+                         new GraphCommandFactory(),
+                         new GraphCommandManagerImpl(null,
+                                                     null,
+                                                     null))
+                .render(root);
+        return graph;
+    }
+
+    static Graph<DefinitionSet, Node> buildInBulk(final BpmnNode root) {
+        final Graph<DefinitionSet, Node> graph = newGraph();
+        new BulkGraphBuilder(graph).render(root);
+        return graph;
+    }
+
+    private static Graph<DefinitionSet, Node> newGraph() {
+        return new GraphImpl<>("graph",
+                               new GraphNodeStoreImpl());
+    }
+
+    /**
+     * Generates a process with the given number of elements. Every container holds a row of tasks
+     * connected by sequence flows, and every other task has a boundary event. The bounds of the containers
+     * and tasks are absolute, as the converters produce them.
+     */
+    BpmnNode generateProcess(final int size) {
+        final BpmnNode root = newNode("root",
+                                      Bounds.create(0, 0, 4000, 400 * (1 + size / CONTAINER_SIZE)));
+        int count = 0;
+        for (int c = 0; count < size; c++) {
+            final double y = 400 * c;
+            final BpmnNode container = newNode("container-" + c,
+                                               Bounds.create(0, y, 3000, y + 300));
+            container.setParent(root);
+            count++;
+            BpmnNode previous = null;
+            for (int i = 0; i < CONTAINER_SIZE && count < size; i++) {
+                final int index = c * CONTAINER_SIZE + i;
+                final double x = 50 + 200 * i;
+                final BpmnNode task = newNode("task-" + index,
+                                              Bounds.create(x, y + 50, x + 100, y + 110));
+                task.setParent(container);
+                count++;
+                if (i % 2 == 0 && count < size) {
+                    final BpmnNode event = newNode("event-" + index,
+                                                   Bounds.create(x + 40, y + 100, x + 70, y + 130)).docked();
+                    event.setParent(container);
+                    container.addEdge(BpmnEdge.docked(task,
+                                                      event));
+                    count++;
+                }
+                if (null != previous && count < size) {
+                    container.addEdge(newConnector("flow-" + index,
+                                                   previous,
+                                                   task));
+                    count++;
+                }
+                previous = task;
+            }
+        }
+        return root;
+    }
+
+    private BpmnNode newNode(final String uuid,
+                             final Bounds bounds) {
+        final Node<View<BPMNViewDefinition>, Edge> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(definition,
+                                       bounds));
+        return BpmnNode.of(node,
+                           null);
+    }
+
+    private BpmnEdge newConnector(final String uuid,
+                                  final BpmnNode source,
+                                  final BpmnNode target) {
+        final Edge<View<BPMNViewDefinition>, Node> edge = new EdgeImpl<>(uuid);
+        edge.setContent(new ViewConnectorImpl<>(definition,
+                                                Bounds.create(0, 0, 0, 0)));
+        final Bounds sourceBounds = source.value().getContent().getBounds();
+        final Bounds targetBounds = target.value().getContent().getBounds();
+        final List<Point2D> controlPoints = Arrays.asList(Point2D.create(sourceBounds.getLowerRight().getX(), 0),
+                                                          Point2D.create(targetBounds.getUpperLeft().getX(), 0));
+        return BpmnEdge.of(edge,
+                           source,
+                           MagnetConnection.Builder.atCenter(source.value()),
+                           controlPoints,
+                           target,
+                           MagnetConnection.Builder.atCenter(target.value()),
+                           null);
+    }
+
+    /**
+     * Describes the graph structure in a comparable way. Child and dock edges get random identifiers,
+     * so edges are described by their content, source and target.
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> describe(final Graph<DefinitionSet, Node> graph) {
+        final List<String> result = new ArrayList<>();
+        for (final Node<View<?>, Edge> node : graph.nodes()) {
+            result.add(node.getUUID() + " " + node.getContent().getBounds() +
+                               " in=" + describe(node.getInEdges()) +
+                               " out=" + describe(node.getOutEdges()));
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<String> describe(final List<Edge> edges) {
+        final List<String> result = new ArrayList<>();
+        for (final Edge edge : edges) {
+            final Object content = edge.getContent();
+            String description = content.getClass().getSimpleName() + " " +
+                    edge.getSourceNode().getUUID() + "->" + edge.getTargetNode().getUUID();
+            if (content instanceof ViewConnector) {
+                final ViewConnector<?> connector = (ViewConnector<?>) content;
+                description += " " + edge.getUUID() +
+                        " " + connector.getSourceConnection().orElse(null) +
+                        " " + connector.getTargetConnection().orElse(null);
+                for (final ControlPoint controlPoint : connector.getControlPoints()) {
+                    description += " " + controlPoint.getLocation();
+                }
+            }
+            result.add(description);
+        }
+        return result;
+    }
+}